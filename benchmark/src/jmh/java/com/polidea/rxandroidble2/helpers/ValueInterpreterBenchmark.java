@@ -0,0 +1,61 @@
+package com.polidea.rxandroidble2.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding of characteristic values in the formats defined by the Bluetooth specification.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueInterpreterBenchmark {
+
+    /**
+     * A Heart Rate Measurement with a 16-bit value followed by a Temperature Measurement-like FLOAT and SFLOAT.
+     */
+    private final byte[] value = {0x01, 0x48, 0x00, 0x72, 0x0E, 0x00, (byte) 0xFE, 0x72, (byte) 0xF0};
+    private final byte[] stringValue = "RxAndroidBle benchmark device".getBytes();
+
+    @Benchmark
+    public Integer uint8() {
+        return ValueInterpreter.getIntValue(value, ValueInterpreter.FORMAT_UINT8, 0);
+    }
+
+    @Benchmark
+    public Integer uint16() {
+        return ValueInterpreter.getIntValue(value, ValueInterpreter.FORMAT_UINT16, 1);
+    }
+
+    @Benchmark
+    public Integer sint32() {
+        return ValueInterpreter.getIntValue(value, ValueInterpreter.FORMAT_SINT32, 3);
+    }
+
+    @Benchmark
+    public Float floatValue() {
+        return ValueInterpreter.getFloatValue(value, ValueInterpreter.FORMAT_FLOAT, 3);
+    }
+
+    @Benchmark
+    public Float sfloatValue() {
+        return ValueInterpreter.getFloatValue(value, ValueInterpreter.FORMAT_SFLOAT, 7);
+    }
+
+    @Benchmark
+    public String string() {
+        return ValueInterpreter.getStringValue(stringValue, 0);
+    }
+}
@@ -0,0 +1,100 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble2.RxBleAdapterStateObservable;
+import com.polidea.rxandroidble2.internal.serialization.PipelineCredits;
+import com.polidea.rxandroidble2.internal.util.CharacteristicNotificationId;
+import com.polidea.rxandroidble2.internal.util.RxBleAdapterWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Measures the dispatch of a characteristic notification from the native callback to the observer of the changed characteristic
+ * while other notifications of the connection are active. The cost of a notification should not depend on
+ * {@link #activeNotificationsCount}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharacteristicChangedEventDemultiplexerBenchmark {
+
+    private static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF";
+
+    @Param({"1", "4", "16"})
+    public int activeNotificationsCount;
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+    private BluetoothGattCallback bluetoothGattCallback;
+    private BluetoothGattCharacteristic characteristic;
+    private byte[] lastValue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final RxBleAdapterWrapper adapterWrapper = new RxBleAdapterWrapper(null) {
+            @Override
+            public boolean isBluetoothEnabled() {
+                return true;
+            }
+        };
+        final RxBleGattCallback rxBleGattCallback = new RxBleGattCallback(
+                Schedulers.trampoline(),
+                new BluetoothGattProvider(),
+                new DisconnectionRouter(MAC_ADDRESS, adapterWrapper, Observable.<RxBleAdapterStateObservable.BleAdapterState>never()),
+                new NativeCallbackDispatcher(),
+                new PipelineCredits(0)
+        );
+        final CharacteristicChangedEventDemultiplexer demultiplexer = new CharacteristicChangedEventDemultiplexer(rxBleGattCallback);
+        final Consumer<byte[]> valueConsumer = new Consumer<byte[]>() {
+            @Override
+            public void accept(byte[] value) {
+                lastValue = value;
+            }
+        };
+        UUID lastUuid = null;
+        for (int i = 0; i < activeNotificationsCount; i++) {
+            lastUuid = new UUID(0x00002A0000001000L + ((long) i << 32), 0x800000805F9B34FBL);
+            disposables.add(demultiplexer.observeCharacteristicChanges(new CharacteristicNotificationId(lastUuid, 0))
+                    .subscribe(valueConsumer));
+        }
+        bluetoothGattCallback = rxBleGattCallback.getBluetoothGattCallback();
+        // the last subscribed characteristic changes so no route is favoured by the subscription order
+        characteristic = new BluetoothGattCharacteristic(lastUuid, BluetoothGattCharacteristic.PROPERTY_NOTIFY, 0);
+        characteristic.setValue(new byte[]{0x00, 0x48});
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        disposables.dispose();
+    }
+
+    @Benchmark
+    public byte[] onCharacteristicChanged() {
+        bluetoothGattCallback.onCharacteristicChanged(null, characteristic);
+        return lastValue;
+    }
+}
@@ -0,0 +1,95 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble2.RxBleAdapterStateObservable;
+import com.polidea.rxandroidble2.internal.serialization.PipelineCredits;
+import com.polidea.rxandroidble2.internal.util.CharacteristicChangedEvent;
+import com.polidea.rxandroidble2.internal.util.RxBleAdapterWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Measures the dispatch of a characteristic notification from the native callback to the subscribers of
+ * {@link RxBleGattCallback#getOnCharacteristicChanged()}. The callback scheduler is a trampoline so the whole dispatch happens
+ * on the benchmark thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RxBleGattCallbackBenchmark {
+
+    private static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF";
+
+    @Param({"1", "8"})
+    public int subscribersCount;
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+    private BluetoothGattCallback bluetoothGattCallback;
+    private BluetoothGattCharacteristic characteristic;
+    private CharacteristicChangedEvent lastEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final RxBleAdapterWrapper adapterWrapper = new RxBleAdapterWrapper(null) {
+            @Override
+            public boolean isBluetoothEnabled() {
+                return true;
+            }
+        };
+        final RxBleGattCallback rxBleGattCallback = new RxBleGattCallback(
+                Schedulers.trampoline(),
+                new BluetoothGattProvider(),
+                new DisconnectionRouter(MAC_ADDRESS, adapterWrapper, Observable.<RxBleAdapterStateObservable.BleAdapterState>never()),
+                new NativeCallbackDispatcher(),
+                new PipelineCredits(0)
+        );
+        for (int i = 0; i < subscribersCount; i++) {
+            disposables.add(rxBleGattCallback.getOnCharacteristicChanged().subscribe(new Consumer<CharacteristicChangedEvent>() {
+                @Override
+                public void accept(CharacteristicChangedEvent characteristicChangedEvent) {
+                    lastEvent = characteristicChangedEvent;
+                }
+            }));
+        }
+        bluetoothGattCallback = rxBleGattCallback.getBluetoothGattCallback();
+        characteristic = new BluetoothGattCharacteristic(UUID.fromString("00002A37-0000-1000-8000-00805F9B34FB"),
+                BluetoothGattCharacteristic.PROPERTY_NOTIFY, 0);
+        characteristic.setValue(new byte[]{0x00, 0x48});
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        disposables.dispose();
+    }
+
+    @Benchmark
+    public CharacteristicChangedEvent onCharacteristicChanged() {
+        bluetoothGattCallback.onCharacteristicChanged(null, characteristic);
+        return lastEvent;
+    }
+}
@@ -0,0 +1,37 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import com.polidea.rxandroidble2.RxBleAdapterStateObservable;
+import com.polidea.rxandroidble2.internal.serialization.PipelineCredits;
+import com.polidea.rxandroidble2.internal.util.RxBleAdapterWrapper;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+
+/**
+ * Creates the {@link RxBleGattCallback} for the benchmarks outside of this package — the {@link DisconnectionRouter} is not visible
+ * there.
+ */
+public final class RxBleGattCallbackFactory {
+
+    private static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF";
+
+    private RxBleGattCallbackFactory() {
+
+    }
+
+    public static RxBleGattCallback create(Scheduler callbackScheduler) {
+        final RxBleAdapterWrapper adapterWrapper = new RxBleAdapterWrapper(null) {
+            @Override
+            public boolean isBluetoothEnabled() {
+                return true;
+            }
+        };
+        return new RxBleGattCallback(
+                callbackScheduler,
+                new BluetoothGattProvider(),
+                new DisconnectionRouter(MAC_ADDRESS, adapterWrapper, Observable.<RxBleAdapterStateObservable.BleAdapterState>never()),
+                new NativeCallbackDispatcher(),
+                new PipelineCredits(0)
+        );
+    }
+}
@@ -0,0 +1,99 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble2.RxBleAdapterStateObservable;
+import com.polidea.rxandroidble2.internal.serialization.PipelineCredits;
+import com.polidea.rxandroidble2.internal.util.CharacteristicChangedEvent;
+import com.polidea.rxandroidble2.internal.util.RxBleAdapterWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Measures the latency of handing a characteristic notification over from the native callback thread to a subscriber of
+ * {@link RxBleGattCallback#getOnCharacteristicChanged()} running on a single threaded callback scheduler — the same kind of
+ * scheduler the library uses. Each invocation waits until the notification was delivered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RxBleGattCallbackHandOffBenchmark {
+
+    private static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF";
+
+    private Scheduler callbackScheduler;
+    private Disposable disposable;
+    private BluetoothGattCallback bluetoothGattCallback;
+    private BluetoothGattCharacteristic characteristic;
+    private volatile long deliveredCount;
+    private long sentCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        callbackScheduler = RxJavaPlugins.createSingleScheduler(new RxThreadFactory("RxBleGattCallbackHandOffBenchmark"));
+        final RxBleAdapterWrapper adapterWrapper = new RxBleAdapterWrapper(null) {
+            @Override
+            public boolean isBluetoothEnabled() {
+                return true;
+            }
+        };
+        final RxBleGattCallback rxBleGattCallback = new RxBleGattCallback(
+                callbackScheduler,
+                new BluetoothGattProvider(),
+                new DisconnectionRouter(MAC_ADDRESS, adapterWrapper, Observable.<RxBleAdapterStateObservable.BleAdapterState>never()),
+                new NativeCallbackDispatcher(),
+                new PipelineCredits(0)
+        );
+        disposable = rxBleGattCallback.getOnCharacteristicChanged().subscribe(new Consumer<CharacteristicChangedEvent>() {
+            @Override
+            public void accept(CharacteristicChangedEvent characteristicChangedEvent) {
+                deliveredCount++;
+            }
+        });
+        bluetoothGattCallback = rxBleGattCallback.getBluetoothGattCallback();
+        characteristic = new BluetoothGattCharacteristic(UUID.fromString("00002A37-0000-1000-8000-00805F9B34FB"),
+                BluetoothGattCharacteristic.PROPERTY_NOTIFY, 0);
+        characteristic.setValue(new byte[]{0x00, 0x48});
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        disposable.dispose();
+        callbackScheduler.shutdown();
+    }
+
+    @Benchmark
+    public long onCharacteristicChangedDelivered() {
+        bluetoothGattCallback.onCharacteristicChanged(null, characteristic);
+        sentCount++;
+        while (deliveredCount != sentCount) {
+            // spin until the callback thread has delivered the notification
+        }
+        return sentCount;
+    }
+}
@@ -0,0 +1,78 @@
+package com.polidea.rxandroidble2.internal.logger;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble2.LogConstants;
+import com.polidea.rxandroidble2.LogOptions;
+import com.polidea.rxandroidble2.internal.RxBleLog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting of the log messages logged on every callback. The messages are passed to a logger which drops them so only
+ * the formatting is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerUtilBenchmark {
+
+    @Param({"none", "verbose"})
+    public String logLevel;
+
+    private final byte[] value = new byte[20];
+    private final BluetoothGattCharacteristic characteristic = new BluetoothGattCharacteristic(
+            UUID.fromString("00002A37-0000-1000-8000-00805F9B34FB"), BluetoothGattCharacteristic.PROPERTY_NOTIFY, 0);
+
+    @Setup
+    public void setUp() {
+        RxBleLog.updateLogOptions(new LogOptions.Builder()
+                .setLogLevel("verbose".equals(logLevel) ? LogConstants.VERBOSE : LogConstants.NONE)
+                .setMacAddressLogSetting(LogConstants.MAC_ADDRESS_FULL)
+                .setUuidsLogSetting(LogConstants.UUIDS_FULL)
+                .setShouldLogAttributeValues(true)
+                .setLogger(new LogOptions.Logger() {
+                    @Override
+                    public void log(int level, String tag, String msg) {
+                        // dropped
+                    }
+                })
+                .build());
+    }
+
+    @Benchmark
+    public String bytesToHex() {
+        return LoggerUtil.bytesToHex(value);
+    }
+
+    @Benchmark
+    public String commonMacMessage() {
+        return LoggerUtil.commonMacMessage("AA:BB:CC:DD:EE:FF");
+    }
+
+    @Benchmark
+    public String attributeLogWrapper() {
+        return LoggerUtil.wrap(characteristic, value).toString();
+    }
+
+    @Benchmark
+    public void logCallback() {
+        LoggerUtil.logCallback("onCharacteristicChanged", null, characteristic, value);
+    }
+}
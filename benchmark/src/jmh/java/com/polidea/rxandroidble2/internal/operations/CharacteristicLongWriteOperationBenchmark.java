@@ -0,0 +1,174 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothStatusCodes;
+
+import com.polidea.rxandroidble2.internal.connection.ImmediateSerializedBatchAckStrategy;
+import com.polidea.rxandroidble2.internal.connection.NoRetryStrategy;
+import com.polidea.rxandroidble2.internal.connection.PayloadSizeLimitProvider;
+import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
+import com.polidea.rxandroidble2.internal.connection.RxBleGattCallbackFactory;
+import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble2.internal.serialization.RxBleThreadFactory;
+import com.polidea.rxandroidble2.internal.serialization.TimerWheelScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Measures a long write of 16 KiB in batches of 244 bytes over a simulated link which transmits one batch every 100 µs and reports
+ * {@link BluetoothGattCallback#onCharacteristicWrite} after the batch was transmitted. With a window of 1 every batch waits for
+ * the callback of the previous one, with larger windows the next batches are queued on the link while the callbacks are delivered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharacteristicLongWriteOperationBenchmark {
+
+    private static final int BATCH_SIZE = 244;
+    private static final long BATCH_TRANSMISSION_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final QueueReleaseInterface NO_OP_RELEASE = new QueueReleaseInterface() {
+        @Override
+        public void release() {
+            // no queue
+        }
+    };
+
+    @Param({"1", "4", "8"})
+    public int windowSize;
+
+    private Scheduler callbackScheduler;
+    private Scheduler bluetoothInteractionScheduler;
+    private Scheduler linkScheduler;
+    private Scheduler timeoutScheduler;
+    private RxBleGattCallback rxBleGattCallback;
+    private BluetoothGatt bluetoothGatt;
+    private BluetoothGattCharacteristic characteristic;
+    private TimeoutConfiguration timeoutConfiguration;
+    private final LongWriteSource bytesToWrite = LongWriteSource.fromBytes(new byte[16 * 1024]);
+    private final PayloadSizeLimitProvider batchSizeProvider = new PayloadSizeLimitProvider() {
+        @Override
+        public int getPayloadSizeLimit() {
+            return BATCH_SIZE;
+        }
+    };
+    private final Observer<byte[]> resultObserver = new Observer<byte[]>() {
+        @Override
+        public void onSubscribe(Disposable d) {
+            // not disposed
+        }
+
+        @Override
+        public void onNext(byte[] bytes) {
+            // counted on completion
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            throw new IllegalStateException(e);
+        }
+
+        @Override
+        public void onComplete() {
+            completedCount++;
+        }
+    };
+    private volatile long completedCount;
+    private long startedCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        callbackScheduler = RxJavaPlugins.createSingleScheduler(new RxThreadFactory("CharacteristicLongWriteOperationBenchmark"));
+        bluetoothInteractionScheduler = RxJavaPlugins.createSingleScheduler(new RxThreadFactory("BluetoothInteraction"));
+        linkScheduler = RxJavaPlugins.createSingleScheduler(new RxThreadFactory("SimulatedLink"));
+        timeoutScheduler = new TimerWheelScheduler(Schedulers.computation(), new RxBleThreadFactory());
+        rxBleGattCallback = RxBleGattCallbackFactory.create(callbackScheduler);
+        bluetoothGatt = new SimulatedLinkBluetoothGatt(rxBleGattCallback.getBluetoothGattCallback());
+        characteristic = new BluetoothGattCharacteristic(UUID.fromString("6E400002-B5A3-F393-E0A9-E50E24DCCA9E"),
+                BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE, 0);
+        timeoutConfiguration = new TimeoutConfiguration(30, TimeUnit.SECONDS, timeoutScheduler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        callbackScheduler.shutdown();
+        bluetoothInteractionScheduler.shutdown();
+        linkScheduler.shutdown();
+        timeoutScheduler.shutdown();
+    }
+
+    @Benchmark
+    public long longWrite() {
+        new CharacteristicLongWriteOperation(
+                bluetoothGatt,
+                rxBleGattCallback,
+                bluetoothInteractionScheduler,
+                timeoutConfiguration,
+                characteristic,
+                batchSizeProvider,
+                new ImmediateSerializedBatchAckStrategy(),
+                new NoRetryStrategy(),
+                windowSize,
+                null,
+                bytesToWrite,
+                null,
+                33
+        ).run(NO_OP_RELEASE).subscribe(resultObserver);
+        startedCount++;
+        while (completedCount != startedCount) {
+            // spin until the callback thread has delivered the result
+        }
+        return startedCount;
+    }
+
+    private final class SimulatedLinkBluetoothGatt extends BluetoothGatt {
+
+        private final BluetoothGattCallback bluetoothGattCallback;
+        private long linkFreeAtNanos;
+
+        SimulatedLinkBluetoothGatt(BluetoothGattCallback bluetoothGattCallback) {
+            this.bluetoothGattCallback = bluetoothGattCallback;
+        }
+
+        @Override
+        public int writeCharacteristic(final BluetoothGattCharacteristic characteristic, byte[] value, int writeType) {
+            // called only from the bluetooth interaction thread
+            final long now = System.nanoTime();
+            linkFreeAtNanos = Math.max(now, linkFreeAtNanos) + BATCH_TRANSMISSION_NANOS;
+            final BluetoothGatt bluetoothGatt = this;
+            linkScheduler.scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    bluetoothGattCallback.onCharacteristicWrite(bluetoothGatt, characteristic, BluetoothGatt.GATT_SUCCESS);
+                }
+            }, linkFreeAtNanos - now, TimeUnit.NANOSECONDS);
+            return BluetoothStatusCodes.SUCCESS;
+        }
+    }
+}
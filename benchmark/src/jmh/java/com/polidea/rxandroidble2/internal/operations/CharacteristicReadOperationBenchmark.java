@@ -0,0 +1,133 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCallback;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
+import com.polidea.rxandroidble2.internal.connection.RxBleGattCallbackFactory;
+import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble2.internal.serialization.RxBleThreadFactory;
+import com.polidea.rxandroidble2.internal.serialization.TimerWheelScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.schedulers.RxThreadFactory;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Measures a characteristic read from the start of the operation until its result is delivered on the callback thread — the response
+ * is passed to the native callback right away from {@link BluetoothGatt#readCharacteristic(BluetoothGattCharacteristic)}. The
+ * {@code relay} path subscribes the operation to {@link RxBleGattCallback#getOnCharacteristicRead()}, the {@code slot} path completes
+ * the response slot of the operation directly from the native callback. Run with {@code -prof gc} to compare the allocations too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharacteristicReadOperationBenchmark {
+
+    private static final byte[] VALUE = {0x00, 0x48};
+    private static final QueueReleaseInterface NO_OP_RELEASE = new QueueReleaseInterface() {
+        @Override
+        public void release() {
+            // no queue
+        }
+    };
+
+    @Param({"relay", "slot"})
+    public String responsePath;
+
+    private Scheduler callbackScheduler;
+    private Scheduler timeoutScheduler;
+    private RxBleGattCallback rxBleGattCallback;
+    private BluetoothGatt bluetoothGatt;
+    private BluetoothGattCharacteristic characteristic;
+    private TimeoutConfiguration timeoutConfiguration;
+    private final Observer<byte[]> resultObserver = new Observer<byte[]>() {
+        @Override
+        public void onSubscribe(Disposable d) {
+            // not disposed
+        }
+
+        @Override
+        public void onNext(byte[] bytes) {
+            // counted on completion
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            throw new IllegalStateException(e);
+        }
+
+        @Override
+        public void onComplete() {
+            completedCount++;
+        }
+    };
+    private volatile long completedCount;
+    private long startedCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        callbackScheduler = RxJavaPlugins.createSingleScheduler(new RxThreadFactory("CharacteristicReadOperationBenchmark"));
+        timeoutScheduler = new TimerWheelScheduler(Schedulers.computation(), new RxBleThreadFactory());
+        rxBleGattCallback = RxBleGattCallbackFactory.create(callbackScheduler);
+        final BluetoothGattCallback bluetoothGattCallback = rxBleGattCallback.getBluetoothGattCallback();
+        bluetoothGatt = new BluetoothGatt() {
+            @Override
+            public boolean readCharacteristic(BluetoothGattCharacteristic characteristic) {
+                bluetoothGattCallback.onCharacteristicRead(this, characteristic, VALUE, BluetoothGatt.GATT_SUCCESS);
+                return true;
+            }
+        };
+        characteristic = new BluetoothGattCharacteristic(UUID.fromString("00002A37-0000-1000-8000-00805F9B34FB"),
+                BluetoothGattCharacteristic.PROPERTY_READ, 0);
+        timeoutConfiguration = new TimeoutConfiguration(30, TimeUnit.SECONDS, timeoutScheduler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        callbackScheduler.shutdown();
+        timeoutScheduler.shutdown();
+    }
+
+    @Benchmark
+    public long readCharacteristic() {
+        final CharacteristicReadOperation operation = "slot".equals(responsePath)
+                ? new CharacteristicReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic)
+                : new CharacteristicReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic) {
+                    @Override
+                    protected OperationResponseSlot<?> createResponseSlot() {
+                        return null;
+                    }
+                };
+        operation.run(NO_OP_RELEASE).subscribe(resultObserver);
+        startedCount++;
+        while (completedCount != startedCount) {
+            // spin until the callback thread has delivered the result
+        }
+        return startedCount;
+    }
+}
@@ -0,0 +1,126 @@
+package com.polidea.rxandroidble2.internal.serialization;
+
+import android.os.DeadObjectException;
+
+import com.polidea.rxandroidble2.OperationSchedulingPolicy;
+import com.polidea.rxandroidble2.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble2.exceptions.BleException;
+import com.polidea.rxandroidble2.internal.Priority;
+import com.polidea.rxandroidble2.internal.QueueOperation;
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.ObservableOnSubscribe;
+
+/**
+ * Measures adding, taking and removing entries of the operation queue filled with operations of mixed priorities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationPriorityFifoBlockingQueueBenchmark {
+
+    private static final Priority[] PRIORITIES = {Priority.NORMAL, Priority.HIGH, Priority.NORMAL, Priority.LOW};
+
+    @Param({"strictPriority", "aging"})
+    public String schedulingPolicy;
+
+    @Param({"1", "16", "256"})
+    public int queueDepth;
+
+    private OperationPriorityFifoBlockingQueue queue;
+    private FIFORunnableEntry<?>[] entries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ObservableEmitter<Object>[] emitterHolder = new ObservableEmitter[1];
+        Observable.create(new ObservableOnSubscribe<Object>() {
+            @Override
+            public void subscribe(ObservableEmitter<Object> emitter) {
+                emitterHolder[0] = emitter;
+            }
+        }).subscribe();
+        final QueueMetricsRecorder queueMetricsRecorder = new QueueMetricsRecorder("AA:BB:CC:DD:EE:FF");
+        entries = new FIFORunnableEntry<?>[queueDepth];
+        for (int i = 0; i < queueDepth; i++) {
+            entries[i] = new FIFORunnableEntry<>(new BenchmarkOperation(PRIORITIES[i % PRIORITIES.length]), emitterHolder[0],
+                    queueMetricsRecorder);
+        }
+        queue = new OperationPriorityFifoBlockingQueue(
+                "aging".equals(schedulingPolicy) ? OperationSchedulingPolicy.aging(4) : OperationSchedulingPolicy.strictPriority()
+        );
+    }
+
+    @Benchmark
+    public void addAndTakeNow(Blackhole blackhole) {
+        fillQueue();
+        FIFORunnableEntry<?> entry;
+        while ((entry = queue.takeNow()) != null) {
+            blackhole.consume(entry);
+        }
+    }
+
+    @Benchmark
+    public void addAndRemoveEverySecond(Blackhole blackhole) {
+        fillQueue();
+        for (int i = 0; i < entries.length; i += 2) {
+            blackhole.consume(queue.remove(entries[i]));
+        }
+        FIFORunnableEntry<?> entry;
+        while ((entry = queue.takeNow()) != null) {
+            blackhole.consume(entry);
+        }
+    }
+
+    private void fillQueue() {
+        for (FIFORunnableEntry<?> entry : entries) {
+            entry.overtakesCount = 0; // the entries are reused between invocations
+            queue.add(entry);
+        }
+    }
+
+    static class BenchmarkOperation extends QueueOperation<Object> {
+
+        private final Priority priority;
+
+        BenchmarkOperation(Priority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        protected void protectedRun(ObservableEmitter<Object> emitter, QueueReleaseInterface queueReleaseInterface) {
+            emitter.onComplete();
+            queueReleaseInterface.release();
+        }
+
+        @Override
+        protected BleException provideException(DeadObjectException deadObjectException) {
+            return new BleDisconnectedException(deadObjectException, "AA:BB:CC:DD:EE:FF", BleDisconnectedException.UNKNOWN_STATUS);
+        }
+
+        @Override
+        public Priority definedPriority() {
+            return priority;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.polidea.rxandroidble2.internal.serialization;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.DisposableObserver;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+
+/**
+ * Compares the timeout schedulers on the path taken by nearly every GATT operation — a timeout is scheduled when the operation
+ * starts and cancelled when the response arrives long before the timeout is due. Run with {@code -prof gc} to compare the
+ * allocations too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerWheelSchedulerBenchmark {
+
+    private static final Runnable NO_OP = new Runnable() {
+        @Override
+        public void run() {
+            // never due
+        }
+    };
+
+    @Param({"computation", "timerWheel"})
+    public String timeoutScheduler;
+
+    private Scheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = "timerWheel".equals(timeoutScheduler)
+                ? new TimerWheelScheduler(Schedulers.computation(), new RxBleThreadFactory())
+                : Schedulers.computation();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (scheduler instanceof TimerWheelScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancelDirect() {
+        final Disposable disposable = scheduler.scheduleDirect(NO_OP, 30, TimeUnit.SECONDS);
+        disposable.dispose();
+        return disposable.isDisposed();
+    }
+
+    @Benchmark
+    public boolean observableTimeout() {
+        final PublishSubject<Object> response = PublishSubject.create();
+        final DisposableObserver<Object> observer = response
+                .timeout(30, TimeUnit.SECONDS, scheduler, Observable.empty())
+                .subscribeWith(new DisposableObserver<Object>() {
+                    @Override
+                    public void onNext(Object o) {
+                        // ignored
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        // ignored
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        // ignored
+                    }
+                });
+        response.onNext(Boolean.TRUE);
+        response.onComplete();
+        return observer.isDisposed();
+    }
+}
@@ -0,0 +1,64 @@
+package com.polidea.rxandroidble2.internal.util;
+
+import com.polidea.rxandroidble2.scan.ScanRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of legacy (up to 31 bytes long) advertisement payloads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanRecordParserBenchmark {
+
+    /**
+     * Flags, a 16-bit service UUID, manufacturer specific data and a complete local name.
+     */
+    private static final byte[] UUID_16_BIT_ADVERTISEMENT = {
+            0x02, 0x01, 0x06,
+            0x03, 0x03, 0x0D, 0x18,
+            0x09, (byte) 0xFF, 0x59, 0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06,
+            0x0A, 0x09, 'B', 'e', 'n', 'c', 'h', 'm', 'a', 'r', 'k'
+    };
+    /**
+     * Flags, a 128-bit service UUID and service data of a 16-bit service UUID.
+     */
+    private static final byte[] UUID_128_BIT_ADVERTISEMENT = {
+            0x02, 0x01, 0x06,
+            0x11, 0x07, (byte) 0x9E, (byte) 0xCA, (byte) 0xDC, 0x24, 0x0E, (byte) 0xE5, (byte) 0xA9, (byte) 0xE0,
+            (byte) 0x93, (byte) 0xF3, (byte) 0xA3, (byte) 0xB5, 0x01, 0x00, 0x40, 0x6E,
+            0x06, 0x16, 0x0F, 0x18, 0x64, 0x00, 0x00
+    };
+
+    @Param({"uuid16", "uuid128"})
+    public String advertisement;
+
+    private final ScanRecordParser scanRecordParser = new ScanRecordParser();
+    private byte[] scanRecordBytes;
+
+    @Setup
+    public void setUp() {
+        scanRecordBytes = "uuid16".equals(advertisement) ? UUID_16_BIT_ADVERTISEMENT : UUID_128_BIT_ADVERTISEMENT;
+    }
+
+    @Benchmark
+    public ScanRecord parseFromBytes() {
+        return scanRecordParser.parseFromBytes(scanRecordBytes);
+    }
+}
@@ -0,0 +1,115 @@
+package com.polidea.rxandroidble2.scan;
+
+import android.os.ParcelUuid;
+
+import com.polidea.rxandroidble2.internal.ScanResultInterface;
+import com.polidea.rxandroidble2.internal.util.ScanRecordParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching of a scan result against filters of the most common kinds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanFilterBenchmark {
+
+    private static final byte[] SCAN_RECORD_BYTES = {
+            0x02, 0x01, 0x06,
+            0x03, 0x03, 0x0D, 0x18,
+            0x09, (byte) 0xFF, 0x59, 0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06,
+            0x0A, 0x09, 'B', 'e', 'n', 'c', 'h', 'm', 'a', 'r', 'k'
+    };
+
+    private final ScanResultInterface scanResult = new BenchmarkScanResult(new ScanRecordParser().parseFromBytes(SCAN_RECORD_BYTES));
+    private final ScanFilter matchingServiceUuidFilter = new ScanFilter.Builder()
+            .setServiceUuid(ParcelUuid.fromString("0000180D-0000-1000-8000-00805F9B34FB"))
+            .build();
+    private final ScanFilter notMatchingServiceUuidFilter = new ScanFilter.Builder()
+            .setServiceUuid(ParcelUuid.fromString("0000180F-0000-1000-8000-00805F9B34FB"))
+            .build();
+    private final ScanFilter matchingManufacturerDataFilter = new ScanFilter.Builder()
+            .setManufacturerData(0x0059, new byte[]{0x01, 0x02, 0x00}, new byte[]{(byte) 0xFF, (byte) 0xFF, 0x00})
+            .build();
+    private final ScanFilter matchingDeviceNameFilter = new ScanFilter.Builder()
+            .setDeviceName("Benchmark")
+            .build();
+
+    @Benchmark
+    public boolean matchingServiceUuid() {
+        return matchingServiceUuidFilter.matches(scanResult);
+    }
+
+    @Benchmark
+    public boolean notMatchingServiceUuid() {
+        return notMatchingServiceUuidFilter.matches(scanResult);
+    }
+
+    @Benchmark
+    public boolean matchingManufacturerData() {
+        return matchingManufacturerDataFilter.matches(scanResult);
+    }
+
+    @Benchmark
+    public boolean matchingDeviceName() {
+        return matchingDeviceNameFilter.matches(scanResult);
+    }
+
+    private static class BenchmarkScanResult implements ScanResultInterface {
+
+        private final ScanRecord scanRecord;
+
+        BenchmarkScanResult(ScanRecord scanRecord) {
+            this.scanRecord = scanRecord;
+        }
+
+        @Override
+        public String getAddress() {
+            return "AA:BB:CC:DD:EE:FF";
+        }
+
+        @Override
+        public String getDeviceName() {
+            return null;
+        }
+
+        @Override
+        public int getRssi() {
+            return -60;
+        }
+
+        @Override
+        public ScanRecord getScanRecord() {
+            return scanRecord;
+        }
+
+        @Override
+        public long getTimestampNanos() {
+            return 0;
+        }
+
+        @Override
+        public ScanCallbackType getScanCallbackType() {
+            return ScanCallbackType.CALLBACK_TYPE_ALL_MATCHES;
+        }
+
+        @Override
+        public Integer getAdvertisingSid() {
+            return null;
+        }
+    }
+}
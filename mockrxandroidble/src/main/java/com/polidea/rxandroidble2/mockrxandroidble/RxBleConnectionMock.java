@@ -1,13 +1,20 @@
 package com.polidea.rxandroidble2.mockrxandroidble;
 
+import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattDescriptor;
 import android.bluetooth.BluetoothGattService;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.polidea.rxandroidble2.ConnectionParameters;
+import com.polidea.rxandroidble2.HighThroughputParameters;
+import com.polidea.rxandroidble2.NotificationBackpressure;
+import com.polidea.rxandroidble2.NotificationBatching;
+import com.polidea.rxandroidble2.NotificationRingBuffer;
+import com.polidea.rxandroidble2.NotificationRingBufferSink;
 import com.polidea.rxandroidble2.NotificationSetupMode;
 import com.polidea.rxandroidble2.PhyPair;
 import com.polidea.rxandroidble2.RxBleConnection;
@@ -15,6 +22,7 @@ import com.polidea.rxandroidble2.RxBleCustomOperation;
 import com.polidea.rxandroidble2.RxBleDeviceServices;
 import com.polidea.rxandroidble2.RxBlePhy;
 import com.polidea.rxandroidble2.RxBlePhyOption;
+import com.polidea.rxandroidble2.TimestampedValue;
 import com.polidea.rxandroidble2.exceptions.BleConflictingNotificationAlreadySetException;
 import com.polidea.rxandroidble2.exceptions.BleDisconnectedException;
 import com.polidea.rxandroidble2.exceptions.BleGattCharacteristicException;
@@ -22,7 +30,10 @@ import com.polidea.rxandroidble2.exceptions.BleGattDescriptorException;
 import com.polidea.rxandroidble2.exceptions.BleGattOperationType;
 import com.polidea.rxandroidble2.internal.PhyPairImpl;
 import com.polidea.rxandroidble2.internal.Priority;
+import com.polidea.rxandroidble2.internal.connection.HighThroughputParametersImpl;
 import com.polidea.rxandroidble2.internal.connection.ImmediateSerializedBatchAckStrategy;
+import com.polidea.rxandroidble2.internal.metrics.LatencyHistogramRecorder;
+import com.polidea.rxandroidble2.internal.util.NotificationBackpressureUtil;
 import com.polidea.rxandroidble2.internal.util.ObservableUtil;
 import com.polidea.rxandroidble2.mockrxandroidble.callbacks.RxBleCharacteristicReadCallback;
 import com.polidea.rxandroidble2.mockrxandroidble.callbacks.RxBleCharacteristicWriteCallback;
@@ -30,8 +41,16 @@ import com.polidea.rxandroidble2.mockrxandroidble.callbacks.RxBleDescriptorReadC
 import com.polidea.rxandroidble2.mockrxandroidble.callbacks.RxBleDescriptorWriteCallback;
 import com.polidea.rxandroidble2.mockrxandroidble.callbacks.results.RxBleGattReadResultMock;
 import com.polidea.rxandroidble2.mockrxandroidble.callbacks.results.RxBleGattWriteResultMock;
-
+import com.polidea.rxandroidble2.metrics.CallbackDispatchMetrics;
+import com.polidea.rxandroidble2.metrics.LongWriteProgress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -43,6 +62,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Completable;
+import io.reactivex.CompletableSource;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.Single;
@@ -74,6 +95,16 @@ public class RxBleConnectionMock implements RxBleConnection {
     private static final byte[] DISABLE_NOTIFICATION_VALUE = {0x00, 0x00};
 
     private static final UUID CLIENT_CHARACTERISTIC_CONFIG_UUID = UUID.fromString("00002902-0000-1000-8000-00805f9b34fb");
+
+    /**
+     * Timestamps the values with the time they are emitted by the mock
+     */
+    private static final Function<byte[], TimestampedValue> TIMESTAMP_VALUE = new Function<byte[], TimestampedValue>() {
+        @Override
+        public TimestampedValue apply(byte[] value) {
+            return new TimestampedValue(value, SystemClock.elapsedRealtimeNanos());
+        }
+    };
     private HashMap<UUID, Observable<Observable<byte[]>>> notificationObservableMap = new HashMap<>();
     private HashMap<UUID, Observable<Observable<byte[]>>> indicationObservableMap = new HashMap<>();
     private RxBleDeviceServices rxBleDeviceServices;
@@ -147,6 +178,27 @@ public class RxBleConnectionMock implements RxBleConnection {
         });
     }
 
+    @Override
+    public Observable<HighThroughputParameters> setupHighThroughput(final int mtu,
+                                                                   final long connectionPriorityDelay,
+                                                                   @NonNull final TimeUnit timeUnit) {
+        return Observable.defer(() -> {
+            final PhyPair previousPhy = phy;
+            final Set<RxBlePhy> phy2M = Collections.singleton(RxBlePhy.PHY_2M);
+            return requestMtu(mtu)
+                    .flatMap(negotiatedMtu -> setPreferredPhy(phy2M, phy2M, RxBlePhyOption.PHY_OPTION_NO_PREFERRED)
+                            .<HighThroughputParameters>map(negotiatedPhy -> new HighThroughputParametersImpl(
+                                    negotiatedMtu, negotiatedPhy, BluetoothGatt.CONNECTION_PRIORITY_HIGH
+                            )))
+                    .flatMap(parameters -> requestConnectionPriority(
+                            BluetoothGatt.CONNECTION_PRIORITY_HIGH, connectionPriorityDelay, timeUnit
+                    ).andThen(Single.just(parameters)))
+                    .toObservable()
+                    .concatWith(Observable.<HighThroughputParameters>never())
+                    .doFinally(() -> phy = previousPhy);
+        });
+    }
+
     public int getRssi() {
         return rssi;
     }
@@ -252,6 +304,28 @@ public class RxBleConnectionMock implements RxBleConnection {
         });
     }
 
+    @Override
+    public long getCoalescedCharacteristicReadsCount() {
+        return 0;
+    }
+
+    @Override
+    public Single<TimestampedValue> readCharacteristicTimestamped(@NonNull UUID characteristicUuid) {
+        return readCharacteristic(characteristicUuid).map(TIMESTAMP_VALUE);
+    }
+
+    @Override
+    public Single<TimestampedValue> readCharacteristicTimestamped(@NonNull BluetoothGattCharacteristic characteristic) {
+        return readCharacteristic(characteristic).map(TIMESTAMP_VALUE);
+    }
+
+    @NonNull
+    @Override
+    public CallbackDispatchMetrics getCallbackDispatchMetrics() {
+        // values are not handed over between threads by the mock
+        return new CallbackDispatchMetrics(new LatencyHistogramRecorder().snapshot(), new LatencyHistogramRecorder().snapshot());
+    }
+
     @Override
     public Single<byte[]> readDescriptor(@NonNull final UUID serviceUuid, @NonNull final UUID characteristicUuid,
                                              @NonNull final UUID descriptorUuid) {
@@ -402,6 +476,161 @@ public class RxBleConnectionMock implements RxBleConnection {
         return setupIndication(characteristic.getUuid(), setupMode);
     }
 
+    @Override
+    public Flowable<Flowable<byte[]>> setupNotification(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                        @NonNull NotificationBackpressure backpressure) {
+        return NotificationBackpressureUtil.withBackpressure(setupNotification(characteristicUuid, setupMode), backpressure);
+    }
+
+    @Override
+    public Flowable<Flowable<byte[]>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                        @NonNull NotificationSetupMode setupMode,
+                                                        @NonNull NotificationBackpressure backpressure) {
+        return setupNotification(characteristic.getUuid(), setupMode, backpressure);
+    }
+
+    @Override
+    public Flowable<Flowable<byte[]>> setupIndication(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                      @NonNull NotificationBackpressure backpressure) {
+        return NotificationBackpressureUtil.withBackpressure(setupIndication(characteristicUuid, setupMode), backpressure);
+    }
+
+    @Override
+    public Flowable<Flowable<byte[]>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                      @NonNull NotificationSetupMode setupMode,
+                                                      @NonNull NotificationBackpressure backpressure) {
+        return setupIndication(characteristic.getUuid(), setupMode, backpressure);
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupNotification(@NonNull UUID characteristicUuid,
+                                                                @NonNull NotificationSetupMode setupMode,
+                                                                @NonNull NotificationRingBuffer ringBuffer) {
+        return copyToRingBuffer(setupNotification(characteristicUuid, setupMode), ringBuffer);
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                @NonNull NotificationSetupMode setupMode,
+                                                                @NonNull NotificationRingBuffer ringBuffer) {
+        return setupNotification(characteristic.getUuid(), setupMode, ringBuffer);
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupIndication(@NonNull UUID characteristicUuid,
+                                                              @NonNull NotificationSetupMode setupMode,
+                                                              @NonNull NotificationRingBuffer ringBuffer) {
+        return copyToRingBuffer(setupIndication(characteristicUuid, setupMode), ringBuffer);
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                              @NonNull NotificationSetupMode setupMode,
+                                                              @NonNull NotificationRingBuffer ringBuffer) {
+        return setupIndication(characteristic.getUuid(), setupMode, ringBuffer);
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupNotification(@NonNull UUID characteristicUuid,
+                                                                  @NonNull NotificationSetupMode setupMode,
+                                                                  @NonNull NotificationBatching batching) {
+        return groupIntoBatches(setupNotification(characteristicUuid, setupMode), batching);
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                  @NonNull NotificationSetupMode setupMode,
+                                                                  @NonNull NotificationBatching batching) {
+        return setupNotification(characteristic.getUuid(), setupMode, batching);
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupIndication(@NonNull UUID characteristicUuid,
+                                                                @NonNull NotificationSetupMode setupMode,
+                                                                @NonNull NotificationBatching batching) {
+        return groupIntoBatches(setupIndication(characteristicUuid, setupMode), batching);
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                @NonNull NotificationSetupMode setupMode,
+                                                                @NonNull NotificationBatching batching) {
+        return setupIndication(characteristic.getUuid(), setupMode, batching);
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedNotification(@NonNull UUID characteristicUuid,
+                                                                                 @NonNull NotificationSetupMode setupMode) {
+        return timestampValues(setupNotification(characteristicUuid, setupMode));
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                                 @NonNull NotificationSetupMode setupMode) {
+        return setupTimestampedNotification(characteristic.getUuid(), setupMode);
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedIndication(@NonNull UUID characteristicUuid,
+                                                                               @NonNull NotificationSetupMode setupMode) {
+        return timestampValues(setupIndication(characteristicUuid, setupMode));
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                               @NonNull NotificationSetupMode setupMode) {
+        return setupTimestampedIndication(characteristic.getUuid(), setupMode);
+    }
+
+    private static Observable<Observable<TimestampedValue>> timestampValues(Observable<Observable<byte[]>> notificationObservable) {
+        return notificationObservable.map(new Function<Observable<byte[]>, Observable<TimestampedValue>>() {
+            @Override
+            public Observable<TimestampedValue> apply(Observable<byte[]> observable) {
+                return observable.map(TIMESTAMP_VALUE);
+            }
+        });
+    }
+
+    private static Observable<Observable<List<byte[]>>> groupIntoBatches(Observable<Observable<byte[]>> notificationObservable,
+                                                                         final NotificationBatching batching) {
+        return notificationObservable.map(new Function<Observable<byte[]>, Observable<List<byte[]>>>() {
+            @Override
+            public Observable<List<byte[]>> apply(Observable<byte[]> observable) {
+                if (batching.getMaxTimeNanos() == NotificationBatching.NO_TIME_WINDOW) {
+                    return observable.buffer(batching.getMaxCount());
+                }
+                return observable
+                        .buffer(batching.getMaxTimeNanos(), TimeUnit.NANOSECONDS, batching.getMaxCount())
+                        .filter(new Predicate<List<byte[]>>() {
+                            @Override
+                            public boolean test(List<byte[]> batch) {
+                                return !batch.isEmpty();
+                            }
+                        });
+            }
+        });
+    }
+
+    private static Observable<NotificationRingBuffer> copyToRingBuffer(Observable<Observable<byte[]>> notificationObservable,
+                                                                       final NotificationRingBuffer ringBuffer) {
+        final NotificationRingBufferSink sink = new NotificationRingBufferSink(ringBuffer);
+        return notificationObservable.flatMap(new Function<Observable<byte[]>, ObservableSource<NotificationRingBuffer>>() {
+            @Override
+            public ObservableSource<NotificationRingBuffer> apply(Observable<byte[]> observable) {
+                return observable
+                        .doOnNext(new Consumer<byte[]>() {
+                            @Override
+                            public void accept(byte[] value) {
+                                sink.onValue(value);
+                            }
+                        })
+                        .ignoreElements()
+                        .<NotificationRingBuffer>toObservable()
+                        .startWith(ringBuffer);
+            }
+        });
+    }
+
     @Override
     public Single<byte[]> writeCharacteristic(@NonNull BluetoothGattCharacteristic bluetoothGattCharacteristic,
                                               @NonNull final byte[] data) {
@@ -461,15 +690,51 @@ public class RxBleConnectionMock implements RxBleConnection {
             private Single<BluetoothGattCharacteristic> bluetoothGattCharacteristicObservable;
             private int maxBatchSize = 20; // default
             private byte[] bytes;
+            private long length;
             private WriteOperationAckStrategy writeOperationAckStrategy = // default
                     new ImmediateSerializedBatchAckStrategy();
 
             @Override
             public LongWriteOperationBuilder setBytes(@NonNull byte[] bytes) {
                 this.bytes = bytes;
+                this.length = bytes.length;
                 return this;
             }
 
+            @Override
+            public LongWriteOperationBuilder setBytes(@NonNull ByteBuffer bytes) {
+                this.bytes = new byte[0];
+                this.length = bytes.remaining();
+                return this;
+            }
+
+            @Override
+            public LongWriteOperationBuilder setBytes(@NonNull ReadableByteChannel channel) {
+                this.bytes = new byte[0];
+                this.length = countRemainingBytes(channel);
+                return this;
+            }
+
+            @Override
+            public LongWriteOperationBuilder setBytes(@NonNull InputStream inputStream) {
+                return setBytes(Channels.newChannel(inputStream));
+            }
+
+            private long countRemainingBytes(ReadableByteChannel channel) {
+                final ByteBuffer buffer = ByteBuffer.allocate(4096);
+                long count = 0;
+                try {
+                    int read;
+                    while ((read = channel.read(buffer)) >= 0) {
+                        count += read;
+                        buffer.clear();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("The channel could not be read", e);
+                }
+                return count;
+            }
+
             @Override
             public LongWriteOperationBuilder setCharacteristicUuid(@NonNull final UUID uuid) {
                 bluetoothGattCharacteristicObservable = discoverServices().flatMap(
@@ -509,6 +774,28 @@ public class RxBleConnectionMock implements RxBleConnection {
                 return this;
             }
 
+            @Override
+            public LongWriteOperationBuilder setWindowSize(int windowSize) {
+                Log.e("RxBleConnectionMock", "Mock does not support windowed writes. Batches will always be written one after another.");
+                return this;
+            }
+
+            @Override
+            public LongWriteOperationBuilder setWindowAcknowledgements(@NonNull Observable<Integer> acknowledgedBatchCounts) {
+                Log.e("RxBleConnectionMock", "Mock does not support windowed writes. Acknowledgements will be ignored.");
+                return this;
+            }
+
+            @Override
+            public LongWriteOperationBuilder setProgressConsumer(
+                    @NonNull Consumer<LongWriteProgress> progressConsumer,
+                    long minimumInterval,
+                    @NonNull TimeUnit timeUnit
+            ) {
+                Log.e("RxBleConnectionMock", "Mock does not support long write progress. The consumer will not be called.");
+                return this;
+            }
+
             @Override
             public Observable<byte[]> build() {
 
@@ -520,8 +807,8 @@ public class RxBleConnectionMock implements RxBleConnection {
                     throw new IllegalArgumentException("setBytes() needs to be called before build()");
                 }
 
-                final boolean excess = bytes.length % maxBatchSize > 0;
-                final AtomicInteger numberOfBatches = new AtomicInteger(bytes.length / maxBatchSize + (excess ? 1 : 0));
+                final boolean excess = length % maxBatchSize > 0;
+                final AtomicInteger numberOfBatches = new AtomicInteger((int) (length / maxBatchSize) + (excess ? 1 : 0));
                 return Observable
                         .fromCallable(new Callable<Boolean>() {
                             @Override
@@ -548,6 +835,97 @@ public class RxBleConnectionMock implements RxBleConnection {
         };
     }
 
+    @Override
+    public BatchOperationBuilder createNewBatchBuilder() {
+        return new BatchOperationBuilder() {
+
+            private final List<Single<byte[]>> batchedOperations = new ArrayList<>();
+
+            @Override
+            public BatchOperationBuilder addReadCharacteristic(@NonNull final BluetoothGattCharacteristic characteristic) {
+                batchedOperations.add(Single.defer(new Callable<SingleSource<byte[]>>() {
+                    @Override
+                    public SingleSource<byte[]> call() {
+                        return readCharacteristic(characteristic);
+                    }
+                }));
+                return this;
+            }
+
+            @Override
+            public BatchOperationBuilder addWriteCharacteristic(@NonNull final BluetoothGattCharacteristic characteristic,
+                                                                @NonNull final byte[] data) {
+                batchedOperations.add(Single.defer(new Callable<SingleSource<byte[]>>() {
+                    @Override
+                    public SingleSource<byte[]> call() {
+                        return writeCharacteristic(characteristic, data);
+                    }
+                }));
+                return this;
+            }
+
+            @Override
+            public BatchOperationBuilder addReadDescriptor(@NonNull final BluetoothGattDescriptor descriptor) {
+                batchedOperations.add(Single.defer(new Callable<SingleSource<byte[]>>() {
+                    @Override
+                    public SingleSource<byte[]> call() {
+                        return readDescriptor(descriptor);
+                    }
+                }));
+                return this;
+            }
+
+            @Override
+            public BatchOperationBuilder addWriteDescriptor(@NonNull final BluetoothGattDescriptor descriptor,
+                                                            @NonNull final byte[] data) {
+                batchedOperations.add(Single.defer(new Callable<SingleSource<byte[]>>() {
+                    @Override
+                    public SingleSource<byte[]> call() {
+                        return writeDescriptor(descriptor, data).andThen(Single.just(data));
+                    }
+                }));
+                return this;
+            }
+
+            @Override
+            public Single<List<byte[]>> build() {
+                if (batchedOperations.isEmpty()) {
+                    throw new IllegalArgumentException("At least one operation needs to be added before build()");
+                }
+                return Single.concat(new ArrayList<>(batchedOperations)).toList();
+            }
+        };
+    }
+
+    @Override
+    public ReliableWriteOperationBuilder createNewReliableWriteBuilder() {
+        return new ReliableWriteOperationBuilder() {
+
+            private final List<Completable> writes = new ArrayList<>();
+
+            @Override
+            public ReliableWriteOperationBuilder addWriteCharacteristic(@NonNull final BluetoothGattCharacteristic characteristic,
+                                                                        @NonNull final byte[] data) {
+                writes.add(Completable.defer(new Callable<CompletableSource>() {
+                    @Override
+                    public CompletableSource call() {
+                        return writeCharacteristic(characteristic, data).ignoreElement();
+                    }
+                }));
+                return this;
+            }
+
+            @Override
+            public Completable build() {
+                if (writes.isEmpty()) {
+                    throw new IllegalArgumentException("At least one write needs to be added before build()");
+                }
+                Log.e("RxBleConnectionMock", "Mock does not support reliable writes. Values will be written one by one.");
+                return Completable.concat(new ArrayList<>(writes));
+            }
+        };
+    }
+
     @Override
     public Completable writeDescriptor(@NonNull final UUID serviceUuid, @NonNull final UUID characteristicUuid,
                                               @NonNull final UUID descriptorUuid, @NonNull final byte[] data) {
@@ -36,7 +36,9 @@ import com.polidea.rxandroidble2.internal.scan.ScanSetupBuilderImplApi21;
 import com.polidea.rxandroidble2.internal.scan.ScanSetupBuilderImplApi23;
 import com.polidea.rxandroidble2.internal.serialization.ClientOperationQueue;
 import com.polidea.rxandroidble2.internal.serialization.ClientOperationQueueImpl;
+import com.polidea.rxandroidble2.internal.serialization.RadioScheduler;
 import com.polidea.rxandroidble2.internal.serialization.RxBleThreadFactory;
+import com.polidea.rxandroidble2.internal.serialization.TimerWheelScheduler;
 import com.polidea.rxandroidble2.internal.util.LocationServicesOkObservableApi23Factory;
 import com.polidea.rxandroidble2.internal.util.LocationServicesStatus;
 import com.polidea.rxandroidble2.internal.util.LocationServicesStatusApi18;
@@ -69,7 +71,7 @@ public interface ClientComponent {
     class NamedExecutors {
 
         public static final String BLUETOOTH_INTERACTION = "executor_bluetooth_interaction";
-        public static final String CONNECTION_QUEUE = "executor_connection_queue";
+        public static final String OPERATION_QUEUE = "executor_operation_queue";
 
         private NamedExecutors() {
 
@@ -128,6 +130,9 @@ public interface ClientComponent {
 
         @BindsInstance
         Builder applicationContext(Context context);
+
+        @BindsInstance
+        Builder clientSetup(ClientSetup clientSetup);
     }
 
     @Module(subcomponents = DeviceComponent.class)
@@ -144,6 +149,17 @@ public interface ClientComponent {
             return BluetoothAdapter.getDefaultAdapter();
         }
 
+        @Provides
+        static OperationSchedulingPolicy provideOperationSchedulingPolicy(ClientSetup clientSetup) {
+            return clientSetup.operationSchedulingPolicy;
+        }
+
+        @Provides
+        @ClientScope
+        static RadioScheduler provideRadioScheduler(ClientSetup clientSetup) {
+            return new RadioScheduler(clientSetup.maxConcurrentGattOperations);
+        }
+
         @Provides
         @Named(NamedSchedulers.COMPUTATION)
         static Scheduler provideComputationScheduler() {
@@ -243,11 +259,15 @@ public interface ClientComponent {
                     : locationServicesOkObservableApi23Factory.get();
         }
 
+        /**
+         * A single thread shared by the client and all connection operation queues. Queues are drained on it only when they may
+         * proceed so the number of threads does not grow with the number of connections.
+         */
         @Provides
-        @Named(NamedExecutors.CONNECTION_QUEUE)
+        @Named(NamedExecutors.OPERATION_QUEUE)
         @ClientScope
-        static ExecutorService provideConnectionQueueExecutorService() {
-            return Executors.newCachedThreadPool();
+        static ExecutorService provideOperationQueueExecutorService() {
+            return Executors.newSingleThreadExecutor(new RxBleThreadFactory());
         }
 
         @Provides
@@ -271,18 +291,33 @@ public interface ClientComponent {
             return RxJavaPlugins.createSingleScheduler(new RxBleThreadFactory());
         }
 
+        /**
+         * All operation, connection and long write timeouts of the client share a single timer wheel so that scheduling and
+         * cancelling a timeout — done for nearly every GATT operation — does not go through the delayed queue of the computation
+         * scheduler. Timeouts which are due are run on the computation scheduler. The wheel ticks every 100 ms so it must not be
+         * used for delays which are not timeouts — these are scheduled on the computation scheduler.
+         */
+        @Provides
+        @Named(NamedSchedulers.TIMEOUT)
+        @ClientScope
+        static Scheduler provideTimeoutScheduler(@Named(NamedSchedulers.COMPUTATION) Scheduler computationScheduler) {
+            return new TimerWheelScheduler(computationScheduler, new RxBleThreadFactory());
+        }
+
         @Provides
         static ClientComponentFinalizer provideFinalizationCloseable(
                 @Named(NamedExecutors.BLUETOOTH_INTERACTION) final ExecutorService interactionExecutorService,
                 @Named(NamedSchedulers.BLUETOOTH_CALLBACKS) final Scheduler callbacksScheduler,
-                @Named(NamedExecutors.CONNECTION_QUEUE) final ExecutorService connectionQueueExecutorService
+                @Named(NamedExecutors.OPERATION_QUEUE) final ExecutorService operationQueueExecutorService,
+                @Named(NamedSchedulers.TIMEOUT) final Scheduler timeoutScheduler
         ) {
             return new ClientComponentFinalizer() {
                 @Override
                 public void onFinalize() {
                     interactionExecutorService.shutdown();
                     callbacksScheduler.shutdown();
-                    connectionQueueExecutorService.shutdown();
+                    operationQueueExecutorService.shutdown();
+                    timeoutScheduler.shutdown();
                 }
             };
         }
@@ -419,10 +454,6 @@ public interface ClientComponent {
         @ClientScope
         abstract ClientOperationQueue bindClientOperationQueue(ClientOperationQueueImpl clientOperationQueue);
 
-        @Binds
-        @Named(NamedSchedulers.TIMEOUT)
-        abstract Scheduler bindTimeoutScheduler(@Named(NamedSchedulers.COMPUTATION) Scheduler computationScheduler);
-
         @Binds
         abstract Function<RxBleInternalScanResult, ScanResult> provideScanResultMapper(InternalToExternalScanResultConverter mapper);
     }
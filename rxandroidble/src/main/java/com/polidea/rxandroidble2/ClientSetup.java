@@ -0,0 +1,69 @@
+package com.polidea.rxandroidble2;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Container for various client parameters.
+ */
+public class ClientSetup {
+
+    /**
+     * Value of {@link #maxConcurrentGattOperations} which does not limit the number of GATT operations executed at once.
+     */
+    public static final int UNLIMITED_CONCURRENT_GATT_OPERATIONS = 0;
+
+    /**
+     * Policy describing the order in which queued operations are started.
+     */
+    public final OperationSchedulingPolicy operationSchedulingPolicy;
+
+    /**
+     * The maximum number of GATT operations executed at once by all connections of the client.
+     */
+    public final int maxConcurrentGattOperations;
+
+    ClientSetup(OperationSchedulingPolicy operationSchedulingPolicy, int maxConcurrentGattOperations) {
+        this.operationSchedulingPolicy = operationSchedulingPolicy;
+        this.maxConcurrentGattOperations = maxConcurrentGattOperations;
+    }
+
+    public static class Builder {
+
+        private OperationSchedulingPolicy operationSchedulingPolicy = OperationSchedulingPolicy.strictPriority();
+        private int maxConcurrentGattOperations = UNLIMITED_CONCURRENT_GATT_OPERATIONS;
+
+        /**
+         * @param operationSchedulingPolicy Policy describing the order in which operations waiting in the client queue and in
+         *                                  the connection queues are started. Defaults to
+         *                                  {@link OperationSchedulingPolicy#strictPriority()}.
+         * @return this builder instance
+         */
+        public Builder setOperationSchedulingPolicy(@NonNull OperationSchedulingPolicy operationSchedulingPolicy) {
+            this.operationSchedulingPolicy = operationSchedulingPolicy;
+            return this;
+        }
+
+        /**
+         * Limits the number of GATT operations executed at once by all connections of the client. Some Bluetooth stacks cope
+         * badly with many connections issuing requests at the same time — with the limit set the connections waiting for
+         * the radio are served in turns (round-robin) or according to their weights.
+         *
+         * @param maxConcurrentGattOperations The maximum number of GATT operations executed at once or
+         *                                    {@link #UNLIMITED_CONCURRENT_GATT_OPERATIONS}. Defaults to
+         *                                    {@link #UNLIMITED_CONCURRENT_GATT_OPERATIONS}.
+         * @return this builder instance
+         * @see ConnectionSetup.Builder#setGattOperationsWeight(int)
+         */
+        public Builder setMaxConcurrentGattOperations(int maxConcurrentGattOperations) {
+            if (maxConcurrentGattOperations < 0) {
+                throw new IllegalArgumentException("maxConcurrentGattOperations must not be negative");
+            }
+            this.maxConcurrentGattOperations = maxConcurrentGattOperations;
+            return this;
+        }
+
+        public ClientSetup build() {
+            return new ClientSetup(operationSchedulingPolicy, maxConcurrentGattOperations);
+        }
+    }
+}
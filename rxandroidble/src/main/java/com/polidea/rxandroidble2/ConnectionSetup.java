@@ -3,6 +3,8 @@ package com.polidea.rxandroidble2;
 import android.bluetooth.BluetoothGattCallback;
 import android.content.Context;
 
+import androidx.annotation.Nullable;
+
 import com.polidea.rxandroidble2.internal.BleIllegalOperationException;
 
 import java.util.concurrent.TimeUnit;
@@ -13,6 +15,8 @@ import java.util.concurrent.TimeUnit;
 public class ConnectionSetup {
 
     public static final int DEFAULT_OPERATION_TIMEOUT = 30;
+    public static final int DEFAULT_MAX_PIPELINED_WRITES_WITHOUT_RESPONSE = 0;
+    public static final int DEFAULT_GATT_OPERATIONS_WEIGHT = 1;
     /**
      * Flag related with
      * {@link android.bluetooth.BluetoothDevice#connectGatt(Context, boolean, BluetoothGattCallback)} autoConnect flag.
@@ -32,11 +36,38 @@ public class ConnectionSetup {
      * canceled and removed from queue.
      */
     public final Timeout operationTimeout;
+    /**
+     * Maximum number of write without response operations that may be handed to the Android BLE stack before
+     * {@link android.bluetooth.BluetoothGattCallback#onCharacteristicWrite} is received for the earliest of them. Zero disables
+     * pipelining and every operation waits for the previous one to finish.
+     */
+    public final int maxPipelinedWritesWithoutResponse;
+    /**
+     * Flag describing if a characteristic read may share the result of a read of the same characteristic that is already queued or
+     * in progress instead of performing a separate radio operation.
+     */
+    public final boolean coalesceCharacteristicReads;
+    /**
+     * Maximum time an operation may wait in the connection queue. Operations that were not started in time are not run and emit
+     * {@link com.polidea.rxandroidble2.exceptions.BleOperationQueueDeadlineException}. Null if operations may wait indefinitely.
+     */
+    @Nullable
+    public final Timeout operationQueueDeadline;
+    /**
+     * Number of GATT operations the connection may start in a row when it competes with other connections for the radio. Used only if
+     * the client limits the number of concurrent GATT operations.
+     */
+    public final int gattOperationsWeight;
 
-    ConnectionSetup(boolean autoConnect, boolean suppressOperationCheck, Timeout operationTimeout) {
+    ConnectionSetup(boolean autoConnect, boolean suppressOperationCheck, Timeout operationTimeout, int maxPipelinedWritesWithoutResponse,
+                    boolean coalesceCharacteristicReads, @Nullable Timeout operationQueueDeadline, int gattOperationsWeight) {
         this.autoConnect = autoConnect;
         this.suppressOperationCheck = suppressOperationCheck;
         this.operationTimeout = operationTimeout;
+        this.maxPipelinedWritesWithoutResponse = maxPipelinedWritesWithoutResponse;
+        this.coalesceCharacteristicReads = coalesceCharacteristicReads;
+        this.operationQueueDeadline = operationQueueDeadline;
+        this.gattOperationsWeight = gattOperationsWeight;
     }
 
     public static class Builder {
@@ -44,6 +75,10 @@ public class ConnectionSetup {
         private boolean autoConnect = false;
         private boolean suppressOperationCheck = false;
         private Timeout operationTimeout = new Timeout(DEFAULT_OPERATION_TIMEOUT, TimeUnit.SECONDS);
+        private int maxPipelinedWritesWithoutResponse = DEFAULT_MAX_PIPELINED_WRITES_WITHOUT_RESPONSE;
+        private boolean coalesceCharacteristicReads = false;
+        private Timeout operationQueueDeadline = null;
+        private int gattOperationsWeight = DEFAULT_GATT_OPERATIONS_WEIGHT;
 
 
         /**
@@ -87,8 +122,82 @@ public class ConnectionSetup {
             return this;
         }
 
+        /**
+         * Enables pipelining of write without response operations. When enabled, a characteristic write of a
+         * {@link android.bluetooth.BluetoothGattCharacteristic} with
+         * {@link android.bluetooth.BluetoothGattCharacteristic#WRITE_TYPE_NO_RESPONSE} write type does not block the connection queue
+         * until its result is delivered — the next pipelined write is started as soon as a credit is available. Credits are returned
+         * when {@link android.bluetooth.BluetoothGattCallback#onCharacteristicWrite} is received. All other operations (reads,
+         * descriptor writes, writes with response, custom operations, etc.) are started only after all credits have been returned.
+         * <p>
+         * NOTE: most Android versions accept only a single outstanding GATT request per {@link android.bluetooth.BluetoothGatt}. Values
+         * bigger than 1 are useful only on BLE stacks that accept more — otherwise writes may fail to start with
+         * {@link com.polidea.rxandroidble2.exceptions.BleGattCannotStartException}.
+         *
+         * @param maxPipelinedWritesWithoutResponse maximum number of write without response operations awaiting the callback at once,
+         *                                          0 (default) disables pipelining
+         * @return this builder instance
+         */
+        public Builder setMaxPipelinedWritesWithoutResponse(int maxPipelinedWritesWithoutResponse) {
+            if (maxPipelinedWritesWithoutResponse < 0) {
+                throw new IllegalArgumentException("maxPipelinedWritesWithoutResponse must not be negative");
+            }
+            this.maxPipelinedWritesWithoutResponse = maxPipelinedWritesWithoutResponse;
+            return this;
+        }
+
+        /**
+         * @param coalesceCharacteristicReads Flag describing if reads of a characteristic should be coalesced. If set to true,
+         *                                    {@link RxBleConnection#readCharacteristic(android.bluetooth.BluetoothGattCharacteristic)}
+         *                                    of a characteristic that is already queued or being read will share the result of that
+         *                                    read instead of queueing a separate operation. The number of coalesced reads is available
+         *                                    via {@link RxBleConnection#getCoalescedCharacteristicReadsCount()}. Defaults to false.
+         * @return this builder instance
+         */
+        public Builder setCoalesceCharacteristicReads(boolean coalesceCharacteristicReads) {
+            this.coalesceCharacteristicReads = coalesceCharacteristicReads;
+            return this;
+        }
+
+        /**
+         * Sets the deadline for operations waiting in the connection queue. An operation that was not started within the deadline
+         * from the moment it was queued is not run — it is removed from the queue and emits
+         * {@link com.polidea.rxandroidble2.exceptions.BleOperationQueueDeadlineException}. This saves radio time for operations
+         * which results are still awaited when the queue is backlogged. The number of shed operations is available via
+         * {@link RxBleClient#getOperationQueueMetrics()}.
+         *
+         * @param operationQueueDeadline the maximum time an operation may wait in the queue, null (default) for no deadline
+         * @return this builder instance
+         */
+        public Builder setOperationQueueDeadline(@Nullable Timeout operationQueueDeadline) {
+            if (operationQueueDeadline != null && operationQueueDeadline.timeout < 0) {
+                throw new IllegalArgumentException("operationQueueDeadline must not be negative");
+            }
+            this.operationQueueDeadline = operationQueueDeadline;
+            return this;
+        }
+
+        /**
+         * Sets the weight of the connection used when the client limits the number of concurrent GATT operations with
+         * {@link ClientSetup.Builder#setMaxConcurrentGattOperations(int)}. Connections waiting for the radio are served in turns —
+         * a connection may start up to its weight of operations before the next waiting connection is served. Connections with equal
+         * weights are served round-robin.
+         *
+         * @param gattOperationsWeight the number of operations started in a single turn, must be positive, defaults to
+         *                             {@link #DEFAULT_GATT_OPERATIONS_WEIGHT}
+         * @return this builder instance
+         */
+        public Builder setGattOperationsWeight(int gattOperationsWeight) {
+            if (gattOperationsWeight < 1) {
+                throw new IllegalArgumentException("gattOperationsWeight must be positive");
+            }
+            this.gattOperationsWeight = gattOperationsWeight;
+            return this;
+        }
+
         public ConnectionSetup build() {
-            return new ConnectionSetup(autoConnect, suppressOperationCheck, operationTimeout);
+            return new ConnectionSetup(autoConnect, suppressOperationCheck, operationTimeout, maxPipelinedWritesWithoutResponse,
+                    coalesceCharacteristicReads, operationQueueDeadline, gattOperationsWeight);
         }
     }
 }
@@ -0,0 +1,36 @@
+package com.polidea.rxandroidble2;
+
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The interface used for results of {@link RxBleConnection#setupHighThroughput(int, long, TimeUnit)}
+ */
+public interface HighThroughputParameters {
+
+    /**
+     * Returns the MTU negotiated with the peripheral
+     *
+     * @return the negotiated MTU
+     */
+    int getMtu();
+
+    /**
+     * Returns the PHY negotiated with the peripheral. Setting the PHY is possible only since API 26 (8.0, Oreo)
+     *
+     * @return the negotiated PHY or null on lower API levels
+     */
+    @Nullable
+    PhyPair getPhy();
+
+    /**
+     * Returns the connection priority that was requested. The peripheral may silently decline the request — the effective
+     * parameters may be observed with {@link RxBleConnection#observeConnectionParametersUpdates()}
+     *
+     * @return the requested connection priority
+     */
+    @RxBleConnection.ConnectionPriority
+    int getConnectionPriority();
+}
@@ -0,0 +1,104 @@
+package com.polidea.rxandroidble2;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Describes how the values of a notification or an indication are buffered when the consumer of the {@code Flowable<byte[]>} is
+ * slower than the peripheral. The number of values which did not fit into the buffer is counted — an instance may be shared by
+ * several notifications and then counts the overflows of all of them.
+ *
+ * @see RxBleConnection#setupNotification(java.util.UUID, NotificationSetupMode, NotificationBackpressure)
+ * @see RxBleConnection#setupIndication(java.util.UUID, NotificationSetupMode, NotificationBackpressure)
+ */
+public final class NotificationBackpressure {
+
+    /**
+     * What happens when a value arrives and the buffer is full.
+     */
+    public enum OverflowStrategy {
+        /**
+         * The oldest buffered value is dropped and the new value is buffered.
+         */
+        DROP_OLDEST,
+        /**
+         * The newest buffered value is replaced with the new value.
+         */
+        DROP_LATEST,
+        /**
+         * The {@code Flowable<byte[]>} is terminated with a {@code MissingBackpressureException}.
+         */
+        ERROR
+    }
+
+    private final int bufferSize;
+    private final OverflowStrategy overflowStrategy;
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    private NotificationBackpressure(int bufferSize, OverflowStrategy overflowStrategy) {
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    /**
+     * Values are buffered until the consumer requests them. When the buffer is full the overflow strategy is applied.
+     *
+     * @param bufferSize       the maximum number of buffered values, at least 1
+     * @param overflowStrategy the strategy applied when a value arrives and the buffer is full
+     * @return the bounded buffer backpressure
+     */
+    @NonNull
+    public static NotificationBackpressure bounded(int bufferSize, @NonNull OverflowStrategy overflowStrategy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1");
+        }
+        if (overflowStrategy == null) {
+            throw new IllegalArgumentException("overflowStrategy must not be null");
+        }
+        return new NotificationBackpressure(bufferSize, overflowStrategy);
+    }
+
+    /**
+     * Only the latest value is kept until the consumer requests it — each value which was not consumed before the next one
+     * arrived is counted as an overflow.
+     *
+     * @return the latest only backpressure
+     */
+    @NonNull
+    public static NotificationBackpressure latest() {
+        return new NotificationBackpressure(1, OverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * @return the number of values which did not fit into the buffer
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public OverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void onOverflow() {
+        overflowCount.incrementAndGet();
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "NotificationBackpressure{bufferSize=" + bufferSize
+                + ", overflowStrategy=" + overflowStrategy
+                + ", overflowCount=" + overflowCount.get()
+                + '}';
+    }
+}
@@ -0,0 +1,100 @@
+package com.polidea.rxandroidble2;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes how the values of a notification or an indication are grouped into batches. The values are grouped right in
+ * the Bluetooth callback so a batch passes the Rx chain as a single emission. A batch is emitted when it has the maximum count of
+ * values or when the time window which starts with the first value of the batch passes — whichever happens first.
+ *
+ * @see RxBleConnection#setupNotification(java.util.UUID, NotificationSetupMode, NotificationBatching)
+ * @see RxBleConnection#setupIndication(java.util.UUID, NotificationSetupMode, NotificationBatching)
+ */
+public final class NotificationBatching {
+
+    /**
+     * The value of {@link #getMaxTimeNanos()} when batches are not limited by time.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public static final long NO_TIME_WINDOW = 0;
+    private final int maxCount;
+    private final long maxTimeNanos;
+
+    private NotificationBatching(int maxCount, long maxTimeNanos) {
+        this.maxCount = maxCount;
+        this.maxTimeNanos = maxTimeNanos;
+    }
+
+    /**
+     * @param maxCount the number of values in each batch, at least 1
+     * @return the batching by count
+     */
+    @NonNull
+    public static NotificationBatching byCount(int maxCount) {
+        checkMaxCount(maxCount);
+        return new NotificationBatching(maxCount, NO_TIME_WINDOW);
+    }
+
+    /**
+     * @param time     the length of the time window, greater than 0
+     * @param timeUnit the unit of the time
+     * @return the batching by time
+     */
+    @NonNull
+    public static NotificationBatching byTime(long time, @NonNull TimeUnit timeUnit) {
+        return new NotificationBatching(Integer.MAX_VALUE, toMaxTimeNanos(time, timeUnit));
+    }
+
+    /**
+     * @param maxCount the maximum number of values in each batch, at least 1
+     * @param time     the length of the time window, greater than 0
+     * @param timeUnit the unit of the time
+     * @return the batching by count or time
+     */
+    @NonNull
+    public static NotificationBatching byCountOrTime(int maxCount, long time, @NonNull TimeUnit timeUnit) {
+        checkMaxCount(maxCount);
+        return new NotificationBatching(maxCount, toMaxTimeNanos(time, timeUnit));
+    }
+
+    private static void checkMaxCount(int maxCount) {
+        if (maxCount < 1) {
+            throw new IllegalArgumentException("maxCount must be at least 1");
+        }
+    }
+
+    private static long toMaxTimeNanos(long time, TimeUnit timeUnit) {
+        final long maxTimeNanos = timeUnit.toNanos(time);
+        if (maxTimeNanos <= 0) {
+            throw new IllegalArgumentException("time must be greater than 0");
+        }
+        return maxTimeNanos;
+    }
+
+    /**
+     * @return the maximum number of values in a batch or {@link Integer#MAX_VALUE} if batches are not limited by count
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * @return the length of the time window in nanoseconds or {@link #NO_TIME_WINDOW}
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public long getMaxTimeNanos() {
+        return maxTimeNanos;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "NotificationBatching{maxCount=" + maxCount
+                + ", maxTimeNanos=" + maxTimeNanos
+                + '}';
+    }
+}
@@ -0,0 +1,173 @@
+package com.polidea.rxandroidble2;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size buffer the values of a notification or an indication are copied to directly from the Bluetooth callback — no objects
+ * are allocated per value and no {@code Observable} is involved. The values are read by a single consumer thread with
+ * {@link #poll(ByteBuffer)} at its own pace. When a value does not fit into the free space of the buffer it is dropped and counted.
+ * <p>
+ * The buffer does not signal the arrival of values on its own — the consumer either polls it periodically (e.g. once per frame) or
+ * sets a listener with {@link #setValueAvailableListener(Runnable)} to be woken up.
+ * <p>
+ * Each value takes its length plus {@value #VALUE_HEADER_SIZE} bytes of the capacity.
+ *
+ * @see RxBleConnection#setupNotification(java.util.UUID, NotificationSetupMode, NotificationRingBuffer)
+ * @see RxBleConnection#setupIndication(java.util.UUID, NotificationSetupMode, NotificationRingBuffer)
+ */
+public final class NotificationRingBuffer {
+
+    /**
+     * The number of bytes taken by the length of each value.
+     */
+    public static final int VALUE_HEADER_SIZE = 4;
+    private final byte[] buffer;
+    private final Object producerLock = new Object();
+    /*
+     * Positions grow monotonically — the index in the buffer is the position modulo the capacity.
+     */
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong readPosition = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    @Nullable
+    private volatile Runnable valueAvailableListener;
+
+    /**
+     * @param capacity the size of the buffer in bytes, greater than {@link #VALUE_HEADER_SIZE}
+     */
+    public NotificationRingBuffer(int capacity) {
+        if (capacity <= VALUE_HEADER_SIZE) {
+            throw new IllegalArgumentException("capacity must be greater than " + VALUE_HEADER_SIZE);
+        }
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * @return the length of the next value or -1 if the buffer is empty
+     */
+    public int nextValueLength() {
+        final long read = readPosition.get();
+        if (read == writePosition.get()) {
+            return -1;
+        }
+        return readLength(read);
+    }
+
+    /**
+     * Copies the next value to the destination and removes it from the buffer. The position of the destination is advanced by
+     * the length of the value.
+     *
+     * @param destination the buffer to copy the value to
+     * @return the length of the value or -1 if the buffer is empty
+     * @throws IllegalArgumentException if the value does not fit into the remaining space of the destination — the value stays
+     *                                  in the buffer, see {@link #nextValueLength()}
+     */
+    public int poll(@NonNull ByteBuffer destination) {
+        final long read = readPosition.get();
+        if (read == writePosition.get()) {
+            return -1;
+        }
+        final int length = readLength(read);
+        if (length > destination.remaining()) {
+            throw new IllegalArgumentException("The value of " + length + " bytes does not fit into " + destination.remaining()
+                    + " remaining bytes of the destination");
+        }
+        final int index = index(read + VALUE_HEADER_SIZE);
+        final int firstPartLength = Math.min(length, buffer.length - index);
+        destination.put(buffer, index, firstPartLength);
+        destination.put(buffer, 0, length - firstPartLength);
+        readPosition.set(read + VALUE_HEADER_SIZE + length);
+        return length;
+    }
+
+    /**
+     * Removes all values from the buffer. Needs to be called from the consumer thread.
+     */
+    public void clear() {
+        readPosition.set(writePosition.get());
+    }
+
+    /**
+     * @return the number of values which were dropped because they did not fit into the free space of the buffer
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * Sets the listener called after each value is copied to the buffer. It is called on the thread of the Bluetooth callback so it
+     * must not block and should only wake up the consumer — e.g. with {@link java.util.concurrent.locks.LockSupport#unpark(Thread)}.
+     *
+     * @param listener the listener or null to remove the current one
+     */
+    public void setValueAvailableListener(@Nullable Runnable listener) {
+        valueAvailableListener = listener;
+    }
+
+    /**
+     * Called only by {@link NotificationRingBufferSink} — the producer side is not a part of the public API.
+     *
+     * @param value the value to be copied to the buffer
+     * @return true if the value was copied, false if it was dropped
+     */
+    boolean offer(@NonNull byte[] value) {
+        if (!copy(value)) {
+            return false;
+        }
+        final Runnable listener = valueAvailableListener;
+        if (listener != null) {
+            listener.run();
+        }
+        return true;
+    }
+
+    private boolean copy(byte[] value) {
+        final int length = value.length;
+        synchronized (producerLock) {
+            final long write = writePosition.get();
+            final long freeSpace = buffer.length - (write - readPosition.get());
+            if (VALUE_HEADER_SIZE + length > freeSpace) {
+                overflowCount.incrementAndGet();
+                return false;
+            }
+            writeLength(write, length);
+            final int index = index(write + VALUE_HEADER_SIZE);
+            final int firstPartLength = Math.min(length, buffer.length - index);
+            System.arraycopy(value, 0, buffer, index, firstPartLength);
+            System.arraycopy(value, firstPartLength, buffer, 0, length - firstPartLength);
+            // publishes the value to the consumer
+            writePosition.set(write + VALUE_HEADER_SIZE + length);
+            return true;
+        }
+    }
+
+    private int index(long position) {
+        return (int) (position % buffer.length);
+    }
+
+    private void writeLength(long position, int length) {
+        for (int i = 0; i < VALUE_HEADER_SIZE; i++) {
+            buffer[index(position + i)] = (byte) (length >>> (8 * i));
+        }
+    }
+
+    private int readLength(long position) {
+        int length = 0;
+        for (int i = 0; i < VALUE_HEADER_SIZE; i++) {
+            length |= (buffer[index(position + i)] & 0xFF) << (8 * i);
+        }
+        return length;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "NotificationRingBuffer{capacity=" + buffer.length
+                + ", overflowCount=" + overflowCount.get()
+                + '}';
+    }
+}
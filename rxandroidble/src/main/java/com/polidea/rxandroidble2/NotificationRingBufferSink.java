@@ -0,0 +1,24 @@
+package com.polidea.rxandroidble2;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.polidea.rxandroidble2.internal.connection.CharacteristicValueSink;
+
+/**
+ * The producer side of a {@link NotificationRingBuffer} — keeps {@link NotificationRingBuffer#offer(byte[])} out of the public API.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class NotificationRingBufferSink implements CharacteristicValueSink {
+
+    private final NotificationRingBuffer ringBuffer;
+
+    public NotificationRingBufferSink(@NonNull NotificationRingBuffer ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public void onValue(byte[] value) {
+        ringBuffer.offer(value);
+    }
+}
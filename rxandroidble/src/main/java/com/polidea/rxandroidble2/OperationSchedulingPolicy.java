@@ -0,0 +1,63 @@
+package com.polidea.rxandroidble2;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Describes the order in which operations waiting in the client queue and in the connection queues are started.
+ */
+public final class OperationSchedulingPolicy {
+
+    private static final OperationSchedulingPolicy STRICT_PRIORITY = new OperationSchedulingPolicy(Integer.MAX_VALUE);
+    private final int maxOvertakes;
+
+    private OperationSchedulingPolicy(int maxOvertakes) {
+        this.maxOvertakes = maxOvertakes;
+    }
+
+    /**
+     * Operations with a higher priority are always started first, operations with the same priority are started in the order they
+     * were queued. A steady stream of higher priority operations may delay lower priority operations indefinitely. This is
+     * the default policy.
+     *
+     * @return the strict priority policy
+     */
+    @NonNull
+    public static OperationSchedulingPolicy strictPriority() {
+        return STRICT_PRIORITY;
+    }
+
+    /**
+     * Operations are started by priority as with {@link #strictPriority()} but an operation that is next in line for its priority
+     * ages each time an operation of a higher priority is started before it. Once it has been overtaken the passed number of times
+     * it is started before any not aged operation. Operations of each priority are therefore started after a bounded number of
+     * other operations regardless of how many higher priority operations are queued.
+     *
+     * @param maxOvertakes the number of times an operation may be overtaken by operations of a higher priority, at least 1
+     * @return the aging policy
+     */
+    @NonNull
+    public static OperationSchedulingPolicy aging(int maxOvertakes) {
+        if (maxOvertakes < 1) {
+            throw new IllegalArgumentException("maxOvertakes must be at least 1");
+        }
+        return new OperationSchedulingPolicy(maxOvertakes);
+    }
+
+    /**
+     * @return the number of times an operation may be overtaken by operations of a higher priority or {@link Integer#MAX_VALUE} if
+     * operations are started strictly by priority
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public int getMaxOvertakes() {
+        return maxOvertakes;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return maxOvertakes == Integer.MAX_VALUE
+                ? "OperationSchedulingPolicy{strictPriority}"
+                : "OperationSchedulingPolicy{aging, maxOvertakes=" + maxOvertakes + '}';
+    }
+}
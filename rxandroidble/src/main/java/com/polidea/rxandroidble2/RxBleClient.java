@@ -5,15 +5,21 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.polidea.rxandroidble2.internal.RxBleLog;
+import com.polidea.rxandroidble2.metrics.OperationMetrics;
+import com.polidea.rxandroidble2.metrics.OperationQueueMetrics;
+import com.polidea.rxandroidble2.metrics.QueueDepthMetrics;
 import com.polidea.rxandroidble2.scan.BackgroundScanner;
 import com.polidea.rxandroidble2.scan.ScanFilter;
 import com.polidea.rxandroidble2.scan.ScanResult;
 import com.polidea.rxandroidble2.scan.ScanSettings;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Observable;
+import io.reactivex.functions.Function;
 
 
 public abstract class RxBleClient {
@@ -52,9 +58,22 @@ public abstract class RxBleClient {
      * @return BLE client instance.
      */
     public static RxBleClient create(@NonNull Context context) {
+        return create(context, new ClientSetup.Builder().build());
+    }
+
+    /**
+     * Returns instance of RxBleClient using application context and the passed setup. It is required by the client to maintain single
+     * instance of RxBleClient.
+     *
+     * @param context     Any Android context
+     * @param clientSetup the setup of the client
+     * @return BLE client instance.
+     */
+    public static RxBleClient create(@NonNull Context context, @NonNull ClientSetup clientSetup) {
         return DaggerClientComponent
                 .builder()
                 .applicationContext(context.getApplicationContext())
+                .clientSetup(clientSetup)
                 .build()
                 .rxBleClient();
     }
@@ -257,4 +276,38 @@ public abstract class RxBleClient {
      * @return an ordered array of possible scan permissions
      */
     public abstract String[] getRecommendedConnectRuntimePermissions();
+
+    /**
+     * Returns a snapshot of metrics of the operation queues — the client queue and connection queues of the most recently
+     * connected devices. For each queue and operation type it contains histograms of time spent waiting in
+     * the queue, time to the first callback and total time of the operations. Queue depths are reported for each queue.
+     * <p>
+     * The default implementation returns an empty snapshot.
+     *
+     * @return the snapshot of the metrics
+     */
+    public OperationQueueMetrics getOperationQueueMetrics() {
+        return new OperationQueueMetrics(System.nanoTime(), Collections.<OperationMetrics>emptyList(),
+                Collections.<QueueDepthMetrics>emptyList());
+    }
+
+    /**
+     * Returns an observable periodically emitting snapshots of metrics of the operation queues.
+     * <p>
+     * The default implementation emits the result of {@link #getOperationQueueMetrics()} on the computation scheduler.
+     *
+     * @see #getOperationQueueMetrics() for the description of the metrics
+     * @param interval the interval between emissions
+     * @param timeUnit the unit of the interval
+     * @return the observable
+     */
+    public Observable<OperationQueueMetrics> observeOperationQueueMetrics(long interval, @NonNull TimeUnit timeUnit) {
+        return Observable.interval(interval, timeUnit)
+                .map(new Function<Long, OperationQueueMetrics>() {
+                    @Override
+                    public OperationQueueMetrics apply(Long ignored) {
+                        return getOperationQueueMetrics();
+                    }
+                });
+    }
 }
@@ -8,6 +8,7 @@ import com.polidea.rxandroidble2.RxBleAdapterStateObservable.BleAdapterState;
 import com.polidea.rxandroidble2.exceptions.BleScanException;
 import com.polidea.rxandroidble2.internal.RxBleDeviceProvider;
 import com.polidea.rxandroidble2.internal.RxBleLog;
+import com.polidea.rxandroidble2.internal.metrics.OperationQueueMetricsRecorder;
 import com.polidea.rxandroidble2.internal.operations.LegacyScanOperation;
 import com.polidea.rxandroidble2.internal.operations.Operation;
 import com.polidea.rxandroidble2.internal.scan.RxBleInternalScanResult;
@@ -23,6 +24,7 @@ import com.polidea.rxandroidble2.internal.util.LocationServicesStatus;
 import com.polidea.rxandroidble2.internal.util.RxBleAdapterWrapper;
 import com.polidea.rxandroidble2.internal.util.BluetoothManagerWrapper;
 import com.polidea.rxandroidble2.internal.util.ScanRecordParser;
+import com.polidea.rxandroidble2.metrics.OperationQueueMetrics;
 import com.polidea.rxandroidble2.scan.BackgroundScanner;
 import com.polidea.rxandroidble2.scan.ScanFilter;
 import com.polidea.rxandroidble2.scan.ScanResult;
@@ -35,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import bleshadow.dagger.Lazy;
 import bleshadow.javax.inject.Inject;
@@ -66,6 +69,8 @@ class RxBleClientImpl extends RxBleClient {
     private final BackgroundScanner backgroundScanner;
     private final CheckerScanPermission checkerScanPermission;
     private final CheckerConnectPermission checkerConnectPermission;
+    private final OperationQueueMetricsRecorder operationQueueMetricsRecorder;
+    private final Scheduler computationScheduler;
 
     @Inject
     RxBleClientImpl(BluetoothManagerWrapper bluetoothManagerWrapper,
@@ -83,7 +88,9 @@ class RxBleClientImpl extends RxBleClient {
                     ClientComponent.ClientComponentFinalizer clientComponentFinalizer,
                     BackgroundScanner backgroundScanner,
                     CheckerScanPermission checkerScanPermission,
-                    CheckerConnectPermission checkerConnectPermission) {
+                    CheckerConnectPermission checkerConnectPermission,
+                    OperationQueueMetricsRecorder operationQueueMetricsRecorder,
+                    @Named(ClientComponent.NamedSchedulers.COMPUTATION) Scheduler computationScheduler) {
         this.operationQueue = operationQueue;
         this.bluetoothManagerWrapper = bluetoothManagerWrapper;
         this.rxBleAdapterWrapper = rxBleAdapterWrapper;
@@ -100,6 +107,8 @@ class RxBleClientImpl extends RxBleClient {
         this.backgroundScanner = backgroundScanner;
         this.checkerScanPermission = checkerScanPermission;
         this.checkerConnectPermission = checkerConnectPermission;
+        this.operationQueueMetricsRecorder = operationQueueMetricsRecorder;
+        this.computationScheduler = computationScheduler;
     }
 
     @Override
@@ -271,4 +280,20 @@ class RxBleClientImpl extends RxBleClient {
     public String[] getRecommendedConnectRuntimePermissions() {
         return checkerConnectPermission.getRecommendedConnectRuntimePermissions();
     }
+
+    @Override
+    public OperationQueueMetrics getOperationQueueMetrics() {
+        return operationQueueMetricsRecorder.snapshot();
+    }
+
+    @Override
+    public Observable<OperationQueueMetrics> observeOperationQueueMetrics(long interval, @NonNull TimeUnit timeUnit) {
+        return Observable.interval(interval, timeUnit, computationScheduler)
+                .map(new Function<Long, OperationQueueMetrics>() {
+                    @Override
+                    public OperationQueueMetrics apply(Long ignored) {
+                        return operationQueueMetricsRecorder.snapshot();
+                    }
+                });
+    }
 }
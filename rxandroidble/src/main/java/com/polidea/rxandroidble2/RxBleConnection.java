@@ -12,6 +12,7 @@ import androidx.annotation.RequiresApi;
 import com.polidea.rxandroidble2.exceptions.BleCannotSetCharacteristicNotificationException;
 import com.polidea.rxandroidble2.exceptions.BleCharacteristicNotFoundException;
 import com.polidea.rxandroidble2.exceptions.BleConflictingNotificationAlreadySetException;
+import com.polidea.rxandroidble2.exceptions.BleConflictingNotificationDeliveryException;
 import com.polidea.rxandroidble2.exceptions.BleException;
 import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException;
 import com.polidea.rxandroidble2.exceptions.BleGattException;
@@ -19,18 +20,26 @@ import com.polidea.rxandroidble2.exceptions.BleGattOperationType;
 import com.polidea.rxandroidble2.internal.Priority;
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble2.internal.operations.CharacteristicLongWriteOperation;
+import com.polidea.rxandroidble2.metrics.CallbackDispatchMetrics;
+import com.polidea.rxandroidble2.metrics.LongWriteProgress;
 
+import java.io.InputStream;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.ObservableTransformer;
 import io.reactivex.Scheduler;
 import io.reactivex.Single;
+import io.reactivex.functions.Consumer;
 
 /**
  * The BLE connection handle, supporting GATT operations. Operations are enqueued and the library makes sure that they are not
@@ -52,6 +61,13 @@ public interface RxBleConnection {
      */
     int GATT_READ_MTU_OVERHEAD = 1;
 
+    /**
+     * The overhead value that is subtracted from the amount of bytes available when writing to a characteristic as a part of
+     * a reliable write (a Prepare Write Request carries the offset additionally). The default MTU value on Android is 23 bytes
+     * which gives effectively 23 - GATT_PREPARE_WRITE_MTU_OVERHEAD = 18 bytes available for payload.
+     */
+    int GATT_PREPARE_WRITE_MTU_OVERHEAD = 5;
+
     /**
      * The minimum (default) value for MTU (Maximum Transfer Unit) used by a bluetooth connection.
      */
@@ -108,13 +124,49 @@ public interface RxBleConnection {
 
         /**
          * Setter for a byte array to write
-         * This function MUST be called prior to {@link #build()}
+         * This function or another setBytes() MUST be called prior to {@link #build()}
          *
          * @param bytes the bytes to write
          * @return the LongWriteOperationBuilder
          */
         LongWriteOperationBuilder setBytes(@NonNull byte[] bytes);
 
+        /**
+         * Setter for a buffer to write — the bytes between its position and limit are written. The position of the buffer is not
+         * changed. A {@link java.nio.MappedByteBuffer} allows writing a file that is read by the OS only as the batches are written.
+         * The Observable returned by {@link #build()} emits an empty byte array when the write completes.
+         * This function or another setBytes() MUST be called prior to {@link #build()}
+         *
+         * @param bytes the buffer to write
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setBytes(@NonNull ByteBuffer bytes);
+
+        /**
+         * Setter for a blocking channel to write — it is read from its current position to its end, a few kilobytes ahead of the written
+         * batches. A {@link java.nio.channels.FileChannel} is repositioned when a batch is retried and may be written again by another
+         * subscription. Other channels keep only the bytes of the batches that may be retried and may be written only once.
+         * The channel is not closed by the library. The Observable returned by {@link #build()} emits an empty byte array when the write
+         * completes.
+         * This function or another setBytes() MUST be called prior to {@link #build()}
+         *
+         * @param channel the channel to write
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setBytes(@NonNull ReadableByteChannel channel);
+
+        /**
+         * Setter for a stream to write — it is read until its end the same way as {@link #setBytes(ReadableByteChannel)}.
+         * A {@link java.io.FileInputStream} is read through its {@link java.nio.channels.FileChannel}.
+         * The stream is not closed by the library. The Observable returned by {@link #build()} emits an empty byte array when the write
+         * completes.
+         * This function or another setBytes() MUST be called prior to {@link #build()}
+         *
+         * @param inputStream the stream to write
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setBytes(@NonNull InputStream inputStream);
+
         /**
          * Setter for a {@link UUID} of the {@link BluetoothGattCharacteristic} to write to
          * This function or {@link #setCharacteristic(BluetoothGattCharacteristic)} MUST be called prior to {@link #build()}
@@ -180,6 +232,60 @@ public interface RxBleConnection {
          */
         LongWriteOperationBuilder setWriteOperationAckStrategy(@NonNull WriteOperationAckStrategy writeOperationAckStrategy);
 
+        /**
+         * Setter for the number of batches that may be written before the first of them is acknowledged. Every acknowledged batch
+         * allows writing the next one so up to windowSize batches are in flight. By default a batch is acknowledged when
+         * {@link android.bluetooth.BluetoothGattCallback#onCharacteristicWrite} is called for it — see
+         * {@link #setWindowAcknowledgements(Observable)} for acknowledgements sent by the peripheral.
+         * If this is not specified - the default value of 1 is used and batches are written one after another.
+         *
+         * The window is meant for characteristics written with {@link BluetoothGattCharacteristic#WRITE_TYPE_NO_RESPONSE} where it allows
+         * filling the connection events instead of waiting for each write to be reported. If the Android BLE stack does not accept
+         * a batch while others are in flight it is written again after the next acknowledgement.
+         *
+         * A windowed write does not use the {@link WriteOperationAckStrategy}. The {@link WriteOperationRetryStrategy} receives
+         * the index of the first batch that was not acknowledged and the write is resumed from it.
+         *
+         * @param windowSize the maximum number of batches that are not acknowledged yet
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setWindowSize(@IntRange(from = 1) int windowSize);
+
+        /**
+         * Setter for acknowledgements of written batches sent by the peripheral, i.e. notifications of a characteristic reporting how
+         * many batches were received. Each emitted value is the count of batches that were acknowledged since the previous emission.
+         * When set, {@link android.bluetooth.BluetoothGattCallback#onCharacteristicWrite} no longer acknowledges batches and the write
+         * completes only after all batches were acknowledged by the peripheral.
+         *
+         * The Observable is subscribed when the long write starts (and again on every retry). Since the long write occupies
+         * the connection operation queue the notification needs to be set up before — i.e. by sharing the Observable emitted by
+         * {@link RxBleConnection#setupNotification(UUID)}.
+         *
+         * @param acknowledgedBatchCounts the Observable emitting the counts of batches acknowledged by the peripheral
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setWindowAcknowledgements(@NonNull Observable<Integer> acknowledgedBatchCounts);
+
+        /**
+         * Setter for a consumer of the {@link LongWriteProgress} — the acknowledged bytes, the retries and the throughput of the write.
+         * The progress is passed after a batch was acknowledged but not more often than once per the minimum interval. The final
+         * progress is always passed — possibly after the Observable returned by {@link #build()} completes.
+         *
+         * The consumer is called on the computation scheduler, one progress at a time. If it is slower than the updates the older
+         * progress is skipped and only the latest one is passed. Exceptions thrown by the consumer are logged and otherwise ignored.
+         * If this is not specified - the progress is not tracked.
+         *
+         * @param progressConsumer the consumer of the progress
+         * @param minimumInterval the minimum time between two progress updates, 0 to pass the progress on every acknowledgement
+         * @param timeUnit the unit of the minimumInterval
+         * @return the LongWriteOperationBuilder
+         */
+        LongWriteOperationBuilder setProgressConsumer(
+                @NonNull Consumer<LongWriteProgress> progressConsumer,
+                @IntRange(from = 0) long minimumInterval,
+                @NonNull TimeUnit timeUnit
+        );
+
         /**
          * Build function for the long write
          *
@@ -240,6 +346,91 @@ public interface RxBleConnection {
 
     }
 
+    /**
+     * The interface of a builder of a batch of GATT operations that are executed back-to-back within a single slot of the connection
+     * operation queue. No other operation may be executed in between operations of a batch which allows performing atomic
+     * configuration sequences and saves the per-operation overhead of the queue.
+     * <p>
+     * Operations are executed in the order they were added. If any of them fails the rest is not executed and the batch emits the
+     * error.
+     */
+    interface BatchOperationBuilder {
+
+        /**
+         * Adds a read of the {@link BluetoothGattCharacteristic}. The result contains the read value.
+         *
+         * @param characteristic the characteristic to read
+         * @return the BatchOperationBuilder
+         */
+        BatchOperationBuilder addReadCharacteristic(@NonNull BluetoothGattCharacteristic characteristic);
+
+        /**
+         * Adds a write to the {@link BluetoothGattCharacteristic}. The result contains the written value.
+         *
+         * @param characteristic the characteristic to write
+         * @param data           the value to write
+         * @return the BatchOperationBuilder
+         */
+        BatchOperationBuilder addWriteCharacteristic(@NonNull BluetoothGattCharacteristic characteristic, @NonNull byte[] data);
+
+        /**
+         * Adds a read of the {@link BluetoothGattDescriptor}. The result contains the read value.
+         *
+         * @param descriptor the descriptor to read
+         * @return the BatchOperationBuilder
+         */
+        BatchOperationBuilder addReadDescriptor(@NonNull BluetoothGattDescriptor descriptor);
+
+        /**
+         * Adds a write to the {@link BluetoothGattDescriptor}. The result contains the written value.
+         *
+         * @param descriptor the descriptor to write
+         * @param data       the value to write
+         * @return the BatchOperationBuilder
+         */
+        BatchOperationBuilder addWriteDescriptor(@NonNull BluetoothGattDescriptor descriptor, @NonNull byte[] data);
+
+        /**
+         * Build function for the batch. At least one operation MUST be added prior to calling it.
+         *
+         * @return the Single which will enqueue the batch when subscribed and emit results of all operations in the order they were
+         * added
+         */
+        Single<List<byte[]>> build();
+    }
+
+    /**
+     * Builder of a reliable write — writes to characteristics that are applied by the peripheral all together or not at all.
+     */
+    interface ReliableWriteOperationBuilder {
+
+        /**
+         * Adds a write to the {@link BluetoothGattCharacteristic}. The value is queued on the peripheral with a Prepare Write Request
+         * and needs to fit into it — at most the MTU - {@link #GATT_PREPARE_WRITE_MTU_OVERHEAD} bytes. Android does not pass the value
+         * echoed by the peripheral in the Prepare Write Response to the application — validating it is left to the Android stack.
+         *
+         * @param characteristic the characteristic to write
+         * @param data           the value to write
+         * @return the ReliableWriteOperationBuilder
+         */
+        ReliableWriteOperationBuilder addWriteCharacteristic(@NonNull BluetoothGattCharacteristic characteristic, @NonNull byte[] data);
+
+        /**
+         * Build function for the reliable write. At least one write MUST be added prior to calling it.
+         *
+         * The writes are queued on the peripheral in the order they were added and then executed with
+         * {@link BluetoothGatt#executeReliableWrite()} within a single slot of the connection operation queue. If any write fails
+         * or the Completable is disposed before the execution, the reliable write is aborted with
+         * {@link BluetoothGatt#abortReliableWrite()} and none of the values are written.
+         *
+         * @return the Completable which will enqueue the reliable write when subscribed
+         * @throws BleGattCannotStartException with {@link BleGattOperationType#RELIABLE_WRITE_COMPLETED} type if the reliable write
+         *                                     could not be started or executed
+         * @throws BleGattException            if any of the writes or the execution failed
+         */
+        Completable build();
+    }
+
     /**
      * Performs GATT service discovery and emits discovered results. After service discovery you can walk through
      * {@link android.bluetooth.BluetoothGattService}s and {@link BluetoothGattCharacteristic}s.
@@ -380,6 +571,326 @@ public interface RxBleConnection {
     Observable<Observable<byte[]>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
                                                    @NonNull NotificationSetupMode setupMode);
 
+    /**
+     * Setup characteristic notification with a bounded buffer of the notification values. Works as
+     * {@link #setupNotification(UUID, NotificationSetupMode)} but the values are emitted by a {@code Flowable<byte[]>} — when
+     * the consumer is slower than the peripheral the values are buffered and the buffer overflows as described by the passed
+     * backpressure instead of growing without a limit.
+     *
+     * @param characteristicUuid Characteristic UUID for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param backpressure Configures how the values are buffered. The number of overflows can be read from it.
+     * @return Flowable emitting another flowable when the notification setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     */
+    Flowable<Flowable<byte[]>> setupNotification(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                 @NonNull NotificationBackpressure backpressure);
+
+    /**
+     * Setup characteristic notification with a bounded buffer of the notification values. Works as
+     * {@link #setupNotification(BluetoothGattCharacteristic, NotificationSetupMode)} but the values are emitted by
+     * a {@code Flowable<byte[]>} — when the consumer is slower than the peripheral the values are buffered and the buffer overflows
+     * as described by the passed backpressure instead of growing without a limit.
+     *
+     * @param characteristic Characteristic for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param backpressure Configures how the values are buffered. The number of overflows can be read from it.
+     * @return Flowable emitting another flowable when the notification setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     */
+    Flowable<Flowable<byte[]>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                 @NonNull NotificationSetupMode setupMode,
+                                                 @NonNull NotificationBackpressure backpressure);
+
+    /**
+     * Setup characteristic indication with a bounded buffer of the indication values. Works as
+     * {@link #setupIndication(UUID, NotificationSetupMode)} but the values are emitted by a {@code Flowable<byte[]>} — when
+     * the consumer is slower than the peripheral the values are buffered and the buffer overflows as described by the passed
+     * backpressure instead of growing without a limit.
+     *
+     * @param characteristicUuid Characteristic UUID for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param backpressure Configures how the values are buffered. The number of overflows can be read from it.
+     * @return Flowable emitting another flowable when the indication setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     */
+    Flowable<Flowable<byte[]>> setupIndication(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                               @NonNull NotificationBackpressure backpressure);
+
+    /**
+     * Setup characteristic indication with a bounded buffer of the indication values. Works as
+     * {@link #setupIndication(BluetoothGattCharacteristic, NotificationSetupMode)} but the values are emitted by
+     * a {@code Flowable<byte[]>} — when the consumer is slower than the peripheral the values are buffered and the buffer overflows
+     * as described by the passed backpressure instead of growing without a limit.
+     *
+     * @param characteristic Characteristic for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param backpressure Configures how the values are buffered. The number of overflows can be read from it.
+     * @return Flowable emitting another flowable when the indication setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     */
+    Flowable<Flowable<byte[]>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                               @NonNull NotificationSetupMode setupMode,
+                                               @NonNull NotificationBackpressure backpressure);
+
+    /**
+     * Setup characteristic notification with the values copied directly to the ring buffer. Works as
+     * {@link #setupNotification(UUID, NotificationSetupMode)} but instead of being emitted the values are
+     * copied to the ring buffer on the thread of the Bluetooth callback and read from it by the consumer — no objects are allocated
+     * per value. The ring buffer cannot be set up while the values of the same characteristic are emitted by other setups — and they
+     * cannot be set up while the ring buffer is, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Notification is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristicUuid Characteristic UUID for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param ringBuffer The buffer to copy the values to.
+     * @return Observable emitting the ring buffer when the notification setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<NotificationRingBuffer> setupNotification(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                         @NonNull NotificationRingBuffer ringBuffer);
+
+    /**
+     * Setup characteristic notification with the values copied directly to the ring buffer. Works as
+     * {@link #setupNotification(BluetoothGattCharacteristic, NotificationSetupMode)} but instead of being emitted the values are
+     * copied to the ring buffer on the thread of the Bluetooth callback and read from it by the consumer — no objects are allocated
+     * per value. The ring buffer cannot be set up while the values of the same characteristic are emitted by other setups — and they
+     * cannot be set up while the ring buffer is, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Notification is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristic Characteristic for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param ringBuffer The buffer to copy the values to.
+     * @return Observable emitting the ring buffer when the notification setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<NotificationRingBuffer> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                         @NonNull NotificationSetupMode setupMode,
+                                                         @NonNull NotificationRingBuffer ringBuffer);
+
+    /**
+     * Setup characteristic indication with the values copied directly to the ring buffer. Works as
+     * {@link #setupIndication(UUID, NotificationSetupMode)} but instead of being emitted the values are
+     * copied to the ring buffer on the thread of the Bluetooth callback and read from it by the consumer — no objects are allocated
+     * per value. The ring buffer cannot be set up while the values of the same characteristic are emitted by other setups — and they
+     * cannot be set up while the ring buffer is, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Indication is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristicUuid Characteristic UUID for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param ringBuffer The buffer to copy the values to.
+     * @return Observable emitting the ring buffer when the indication setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<NotificationRingBuffer> setupIndication(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                       @NonNull NotificationRingBuffer ringBuffer);
+
+    /**
+     * Setup characteristic indication with the values copied directly to the ring buffer. Works as
+     * {@link #setupIndication(BluetoothGattCharacteristic, NotificationSetupMode)} but instead of being emitted the values are
+     * copied to the ring buffer on the thread of the Bluetooth callback and read from it by the consumer — no objects are allocated
+     * per value. The ring buffer cannot be set up while the values of the same characteristic are emitted by other setups — and they
+     * cannot be set up while the ring buffer is, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Indication is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristic Characteristic for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param ringBuffer The buffer to copy the values to.
+     * @return Observable emitting the ring buffer when the indication setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<NotificationRingBuffer> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                       @NonNull NotificationSetupMode setupMode,
+                                                       @NonNull NotificationRingBuffer ringBuffer);
+
+    /**
+     * Setup characteristic notification with the values grouped into batches. Works as
+     * {@link #setupNotification(UUID, NotificationSetupMode)} but the emitted observable emits lists of values —
+     * the values are grouped as they arrive in the Bluetooth callback so each batch passes the Rx chain as a single emission.
+     * The batches cannot be set up while the values of the same characteristic are emitted by other setups — and they cannot be
+     * set up while the batches are observed, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Notification is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristicUuid Characteristic UUID for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param batching Configures how the values are grouped into batches.
+     * @return Observable emitting another observable when the notification setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<Observable<List<byte[]>>> setupNotification(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                           @NonNull NotificationBatching batching);
+
+    /**
+     * Setup characteristic notification with the values grouped into batches. Works as
+     * {@link #setupNotification(BluetoothGattCharacteristic, NotificationSetupMode)} but the emitted observable emits lists of values —
+     * the values are grouped as they arrive in the Bluetooth callback so each batch passes the Rx chain as a single emission.
+     * The batches cannot be set up while the values of the same characteristic are emitted by other setups — and they cannot be
+     * set up while the batches are observed, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Notification is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristic Characteristic for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param batching Configures how the values are grouped into batches.
+     * @return Observable emitting another observable when the notification setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<Observable<List<byte[]>>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                           @NonNull NotificationSetupMode setupMode,
+                                                           @NonNull NotificationBatching batching);
+
+    /**
+     * Setup characteristic indication with the values grouped into batches. Works as
+     * {@link #setupIndication(UUID, NotificationSetupMode)} but the emitted observable emits lists of values —
+     * the values are grouped as they arrive in the Bluetooth callback so each batch passes the Rx chain as a single emission.
+     * The batches cannot be set up while the values of the same characteristic are emitted by other setups — and they cannot be
+     * set up while the batches are observed, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Indication is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristicUuid Characteristic UUID for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param batching Configures how the values are grouped into batches.
+     * @return Observable emitting another observable when the indication setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<Observable<List<byte[]>>> setupIndication(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                         @NonNull NotificationBatching batching);
+
+    /**
+     * Setup characteristic indication with the values grouped into batches. Works as
+     * {@link #setupIndication(BluetoothGattCharacteristic, NotificationSetupMode)} but the emitted observable emits lists of values —
+     * the values are grouped as they arrive in the Bluetooth callback so each batch passes the Rx chain as a single emission.
+     * The batches cannot be set up while the values of the same characteristic are emitted by other setups — and they cannot be
+     * set up while the batches are observed, see {@link BleConflictingNotificationDeliveryException}.
+     * <p>
+     * Indication is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristic Characteristic for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @param batching Configures how the values are grouped into batches.
+     * @return Observable emitting another observable when the indication setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     * @throws BleConflictingNotificationDeliveryException if the values of the characteristic are emitted by other setups
+     */
+    Observable<Observable<List<byte[]>>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                         @NonNull NotificationSetupMode setupMode,
+                                                         @NonNull NotificationBatching batching);
+
+    /**
+     * Setup characteristic notification with the values timestamped. Works as {@link #setupNotification(UUID, NotificationSetupMode)}
+     * but each value is emitted together with the time it arrived at the native Bluetooth callback — the time is not affected by the
+     * hand-over to the callback scheduler and may be used to reconstruct the timing of the values sent by the peripheral.
+     * <p>
+     * Notification is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristicUuid Characteristic UUID for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @return Observable emitting another observable when the notification setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     */
+    Observable<Observable<TimestampedValue>> setupTimestampedNotification(@NonNull UUID characteristicUuid,
+                                                                          @NonNull NotificationSetupMode setupMode);
+
+    /**
+     * Setup characteristic notification with the values timestamped. Works as {@link #setupNotification(BluetoothGattCharacteristic,
+     * NotificationSetupMode)} but each value is emitted together with the time it arrived at the native Bluetooth callback — the time
+     * is not affected by the hand-over to the callback scheduler and may be used to reconstruct the timing of the values sent by the
+     * peripheral.
+     * <p>
+     * Notification is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristic Characteristic for notification setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @return Observable emitting another observable when the notification setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process notification setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if indication is already setup for this characteristic
+     */
+    Observable<Observable<TimestampedValue>> setupTimestampedNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                          @NonNull NotificationSetupMode setupMode);
+
+    /**
+     * Setup characteristic indication with the values timestamped. Works as {@link #setupIndication(UUID, NotificationSetupMode)} but
+     * each value is emitted together with the time it arrived at the native Bluetooth callback — the time is not affected by the
+     * hand-over to the callback scheduler and may be used to reconstruct the timing of the values sent by the peripheral.
+     * <p>
+     * Indication is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristicUuid Characteristic UUID for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @return Observable emitting another observable when the indication setup is complete.
+     * @throws BleCharacteristicNotFoundException              if characteristic with given UUID hasn't been found.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     */
+    Observable<Observable<TimestampedValue>> setupTimestampedIndication(@NonNull UUID characteristicUuid,
+                                                                        @NonNull NotificationSetupMode setupMode);
+
+    /**
+     * Setup characteristic indication with the values timestamped. Works as {@link #setupIndication(BluetoothGattCharacteristic,
+     * NotificationSetupMode)} but each value is emitted together with the time it arrived at the native Bluetooth callback — the time
+     * is not affected by the hand-over to the callback scheduler and may be used to reconstruct the timing of the values sent by the
+     * peripheral.
+     * <p>
+     * Indication is automatically unregistered once this observable is unsubscribed.
+     *
+     * @param characteristic Characteristic for indication setup.
+     * @param setupMode Configures how the notification is set up. For available modes see {@link NotificationSetupMode}.
+     * @return Observable emitting another observable when the indication setup is complete.
+     * @throws BleCannotSetCharacteristicNotificationException if setup process indication setup process fail. This may be an internal
+     *                                                         reason or lack of permissions.
+     * @throws BleConflictingNotificationAlreadySetException if notification is already setup for this characteristic
+     */
+    Observable<Observable<TimestampedValue>> setupTimestampedIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                        @NonNull NotificationSetupMode setupMode);
+
     /**
      * Convenience method for characteristic retrieval. First step is service discovery which is followed by service/characteristic
      * traversal. This is an alias to:
@@ -418,6 +929,48 @@ public interface RxBleConnection {
      */
     Single<byte[]> readCharacteristic(@NonNull BluetoothGattCharacteristic characteristic);
 
+    /**
+     * Performs GATT read operation on a characteristic with given UUID. Works as {@link #readCharacteristic(UUID)} but the value is
+     * emitted together with the time it arrived at the native Bluetooth callback. The read is not coalesced with other reads.
+     *
+     * @param characteristicUuid Requested characteristic UUID.
+     * @return Single emitting characteristic value with the time of its arrival or an error in case of failure.
+     * @throws BleCharacteristicNotFoundException if characteristic with given UUID hasn't been found.
+     * @throws BleGattCannotStartException        if read operation couldn't be started for internal reason.
+     * @throws BleGattException                   if read operation failed
+     */
+    Single<TimestampedValue> readCharacteristicTimestamped(@NonNull UUID characteristicUuid);
+
+    /**
+     * Performs GATT read operation on a given characteristic. Works as {@link #readCharacteristic(BluetoothGattCharacteristic)} but the
+     * value is emitted together with the time it arrived at the native Bluetooth callback. The read is not coalesced with other reads.
+     *
+     * @param characteristic Requested characteristic.
+     * @return Single emitting characteristic value with the time of its arrival or an error in case of failure.
+     * @throws BleGattCannotStartException        if read operation couldn't be started for internal reason.
+     * @throws BleGattException                   if read operation failed
+     */
+    Single<TimestampedValue> readCharacteristicTimestamped(@NonNull BluetoothGattCharacteristic characteristic);
+
+    /**
+     * Returns the number of characteristic reads that shared the result of an already queued or running read of the same
+     * characteristic instead of performing a separate radio operation. Reads are coalesced only if enabled with
+     * {@link ConnectionSetup.Builder#setCoalesceCharacteristicReads(boolean)}.
+     *
+     * @return the number of radio operations saved by coalescing reads
+     */
+    long getCoalescedCharacteristicReadsCount();
+
+    /**
+     * Returns the latencies between the arrival of the values of notifications, indications and characteristic reads at the native
+     * Bluetooth callback and their delivery to the library on the callback scheduler. High latencies mean that the callback scheduler
+     * does not keep up with the values.
+     *
+     * @return the snapshot of the dispatch latencies recorded since the connection was established
+     */
+    @NonNull
+    CallbackDispatchMetrics getCallbackDispatchMetrics();
+
     /**
      * Performs GATT write operation on a characteristic with given UUID.
      *
@@ -451,6 +1004,22 @@ public interface RxBleConnection {
      */
     LongWriteOperationBuilder createNewLongWriteBuilder();
 
+    /**
+     * Returns a BatchOperationBuilder used for creating a batch of reads and writes of characteristics and descriptors which are
+     * executed back-to-back within a single slot of the connection operation queue.
+     *
+     * @return the BatchOperationBuilder
+     */
+    BatchOperationBuilder createNewBatchBuilder();
+
+    /**
+     * Returns a ReliableWriteOperationBuilder used for creating a reliable write of multiple characteristics which the peripheral
+     * applies atomically. Values queued with Prepare Write Requests do not need to be confirmed one by one by the application.
+     *
+     * @return the ReliableWriteOperationBuilder
+     */
+    ReliableWriteOperationBuilder createNewReliableWriteBuilder();
+
     /**
      * Performs GATT read operation on a descriptor from a characteristic with a given UUID from a service with a given UUID.
      *
@@ -609,6 +1178,36 @@ public interface RxBleConnection {
     @RequiresApi(26 /* Build.VERSION_CODES.O */)
     Single<PhyPair> setPreferredPhy(Set<RxBlePhy> txPhy, Set<RxBlePhy> rxPhy, RxBlePhyOption phyOptions);
 
+    /**
+     * Sets up the connection for a bulk transfer for as long as the returned Observable is subscribed. Requests in order:
+     * <p>
+     * 1. the passed MTU — see {@link #requestMtu(int)}
+     * <p>
+     * 2. {@link RxBlePhy#PHY_2M} for both Tx and Rx — see {@link #setPreferredPhy(Set, Set, RxBlePhyOption)}. Skipped below API 26
+     * (8.0, Oreo). If the peripheral does not support it the PHY stays unchanged.
+     * <p>
+     * 3. {@link BluetoothGatt#CONNECTION_PRIORITY_HIGH} — see {@link #requestConnectionPriority(int, long, TimeUnit)}
+     * <p>
+     * When all requests finish the negotiated values are emitted. The Observable does not complete on its own. When it is disposed
+     * or any of the requests fails the previous PHY is requested again and the connection priority is set to
+     * {@link BluetoothGatt#CONNECTION_PRIORITY_BALANCED}. The MTU is not restored as it can be negotiated only once per connection —
+     * the payload sizes of subsequent operations stay larger which is harmless. Only a single session should be set up at a time.
+     *
+     * @param mtu                     the MTU to request
+     * @param connectionPriorityDelay delay after which the connection priority change is assumed to be successful
+     * @param timeUnit                time unit of the delay
+     * @return Observable emitting the negotiated values once all of them were applied
+     * @throws BleGattCannotStartException if any of the requests could not be started
+     * @throws BleGattException            in case of GATT operation error of the MTU or PHY request
+     * @throws IllegalArgumentException    in case of invalid delay
+     */
+    @RequiresApi(21 /* Build.VERSION_CODES.LOLLIPOP */)
+    Observable<HighThroughputParameters> setupHighThroughput(
+            @IntRange(from = GATT_MTU_MINIMUM, to = GATT_MTU_MAXIMUM) int mtu,
+            @IntRange(from = 1) long connectionPriorityDelay,
+            @NonNull TimeUnit timeUnit
+    );
+
     /**
      * <b>This method requires deep knowledge of RxAndroidBLE internals. Use it only as a last resort if you know
      * what your are doing.</b>
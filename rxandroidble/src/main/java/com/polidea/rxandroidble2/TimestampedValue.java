@@ -0,0 +1,67 @@
+package com.polidea.rxandroidble2;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.util.Arrays;
+
+/**
+ * A value of a characteristic together with the time it arrived at the native Bluetooth callback. The time is taken before the value
+ * is handed over to the callback scheduler so it is not affected by the time spent in the queue or in RxJava.
+ *
+ * @see RxBleConnection#setupTimestampedNotification(java.util.UUID, NotificationSetupMode)
+ * @see RxBleConnection#readCharacteristicTimestamped(java.util.UUID)
+ */
+public final class TimestampedValue {
+
+    private final byte[] value;
+    private final long arrivalRealtimeNanos;
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public TimestampedValue(@NonNull byte[] value, long arrivalRealtimeNanos) {
+        this.value = value;
+        this.arrivalRealtimeNanos = arrivalRealtimeNanos;
+    }
+
+    /**
+     * @return the value of the characteristic
+     */
+    @NonNull
+    public byte[] getValue() {
+        return value;
+    }
+
+    /**
+     * @return the time of the arrival in the {@link android.os.SystemClock#elapsedRealtimeNanos()} time base
+     */
+    public long getArrivalRealtimeNanos() {
+        return arrivalRealtimeNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimestampedValue)) {
+            return false;
+        }
+        TimestampedValue that = (TimestampedValue) o;
+        return arrivalRealtimeNanos == that.arrivalRealtimeNanos && Arrays.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(value);
+        result = 31 * result + (int) (arrivalRealtimeNanos ^ (arrivalRealtimeNanos >>> 32));
+        return result;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "TimestampedValue{value=" + Arrays.toString(value)
+                + ", arrivalRealtimeNanos=" + arrivalRealtimeNanos
+                + '}';
+    }
+}
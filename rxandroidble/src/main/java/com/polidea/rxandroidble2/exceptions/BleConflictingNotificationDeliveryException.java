@@ -0,0 +1,36 @@
+package com.polidea.rxandroidble2.exceptions;
+
+import java.util.UUID;
+
+/**
+ * An exception being emitted from {@link com.polidea.rxandroidble2.RxBleConnection#setupNotification(UUID)}/
+ * {@link com.polidea.rxandroidble2.RxBleConnection#setupIndication(UUID)} or overloads in case when the values of the characteristic
+ * are already delivered in a conflicting way. Values copied to a {@link com.polidea.rxandroidble2.NotificationRingBuffer} or grouped
+ * into batches ({@link com.polidea.rxandroidble2.NotificationBatching}) are not emitted by the other setups of the same characteristic.
+ *
+ * To make it possible to set up this kind of notification/indication the previous ones must be unsubscribed.
+ */
+public class BleConflictingNotificationDeliveryException extends BleException {
+
+    private final UUID characteristicUuid;
+
+    private final boolean alreadyDeliveredToValueSink;
+
+    public BleConflictingNotificationDeliveryException(UUID characteristicUuid, boolean alreadyDeliveredToValueSink) {
+        super("Characteristic " + characteristicUuid + " values already "
+                + (alreadyDeliveredToValueSink ? "copied to a ring buffer or batched" : "emitted by a notification/indication observable"));
+        this.characteristicUuid = characteristicUuid;
+        this.alreadyDeliveredToValueSink = alreadyDeliveredToValueSink;
+    }
+
+    public UUID getCharacteristicUuid() {
+        return characteristicUuid;
+    }
+
+    /**
+     * @return true if the values are copied to a ring buffer or batched, false if they are emitted by a regular or timestamped setup
+     */
+    public boolean valuesAlreadyDeliveredToValueSink() {
+        return alreadyDeliveredToValueSink;
+    }
+}
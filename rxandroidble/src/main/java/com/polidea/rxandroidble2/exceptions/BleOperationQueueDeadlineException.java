@@ -0,0 +1,25 @@
+package com.polidea.rxandroidble2.exceptions;
+
+/**
+ * This exception is emitted when an operation was not started before its queue deadline passed. The operation was not run so
+ * no interaction with the peripheral took place.
+ *
+ * @see com.polidea.rxandroidble2.ConnectionSetup.Builder#setOperationQueueDeadline(com.polidea.rxandroidble2.Timeout)
+ */
+public class BleOperationQueueDeadlineException extends BleException {
+
+    private final long queueTimeNanos;
+
+    public BleOperationQueueDeadlineException(String operationName, long queueTimeNanos) {
+        super(String.format("Operation %s was not started within its queue deadline (waited %d ms)", operationName,
+                queueTimeNanos / 1_000_000L));
+        this.queueTimeNanos = queueTimeNanos;
+    }
+
+    /**
+     * @return the time the operation spent in the queue in nanoseconds
+     */
+    public long getQueueTimeNanos() {
+        return queueTimeNanos;
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 
 import com.polidea.rxandroidble2.ClientComponent;
+import com.polidea.rxandroidble2.ClientSetup;
 import com.polidea.rxandroidble2.DaggerClientComponent;
 
 import java.util.UUID;
@@ -28,6 +29,7 @@ public class LocationServicesOkObservable extends Observable<Boolean> {
         return DaggerClientComponent
                 .builder()
                 .applicationContext(context.getApplicationContext())
+                .clientSetup(new ClientSetup.Builder().build())
                 .build()
                 .locationServicesOkObservable();
     }
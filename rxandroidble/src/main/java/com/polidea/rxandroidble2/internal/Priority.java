@@ -1,5 +1,6 @@
 package com.polidea.rxandroidble2.internal;
 
+import androidx.annotation.RestrictTo;
 
 /**
  * The class representing a priority with which an {@link QueueOperation} should be executed.
@@ -16,4 +17,12 @@ public class Priority {
 
         this.priority = priority;
     }
+
+    /**
+     * @return the value of this priority — operations with bigger values are executed first
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public int getValue() {
+        return priority;
+    }
 }
@@ -2,12 +2,14 @@ package com.polidea.rxandroidble2.internal;
 
 import android.bluetooth.BluetoothGatt;
 import android.os.DeadObjectException;
+import androidx.annotation.Nullable;
 
 import com.polidea.rxandroidble2.exceptions.BleDisconnectedException;
 import com.polidea.rxandroidble2.exceptions.BleException;
 import com.polidea.rxandroidble2.exceptions.BleGattCallbackTimeoutException;
 import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException;
 import com.polidea.rxandroidble2.exceptions.BleGattOperationType;
+import com.polidea.rxandroidble2.internal.connection.ResponseSlot;
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
 import com.polidea.rxandroidble2.internal.operations.TimeoutConfiguration;
@@ -20,6 +22,8 @@ import io.reactivex.Observable;
 import io.reactivex.ObservableEmitter;
 import io.reactivex.Scheduler;
 import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Cancellable;
 
 /**
  * A convenience class intended to use with {@link BluetoothGatt} functions that fire one-time actions.
@@ -46,6 +50,9 @@ public abstract class SingleResponseOperation<T> extends QueueOperation<T> {
     @Override
     final protected void protectedRun(final ObservableEmitter<T> emitter, final QueueReleaseInterface queueReleaseInterface) {
         final QueueReleasingEmitterWrapper<T> emitterWrapper = new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface);
+        if (runWithResponseSlot(emitter, emitterWrapper, queueReleaseInterface)) {
+            return;
+        }
         getCallback(rxBleGattCallback)
                 .timeout(
                         timeoutConfiguration.timeout,
@@ -62,6 +69,74 @@ public abstract class SingleResponseOperation<T> extends QueueOperation<T> {
         }
     }
 
+    private boolean runWithResponseSlot(final ObservableEmitter<T> emitter,
+                                        final QueueReleasingEmitterWrapper<T> emitterWrapper,
+                                        final QueueReleaseInterface queueReleaseInterface) {
+        final OperationResponseSlot<?> slot = createResponseSlot();
+        if (slot == null) {
+            return false;
+        }
+        slot.emitterWrapper = emitterWrapper;
+        // scheduled before the slot is set so the slot may be completed right away
+        slot.timeoutDisposable = timeoutConfiguration.timeoutScheduler.scheduleDirect(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        if (slot.cancel()) {
+                            rxBleGattCallback.removeResponseSlot(slot);
+                            timeoutFallbackProcedure(bluetoothGatt, rxBleGattCallback, timeoutConfiguration.timeoutScheduler)
+                                    .toObservable()
+                                    .subscribe(emitterWrapper);
+                        }
+                    }
+                },
+                timeoutConfiguration.timeout,
+                timeoutConfiguration.timeoutTimeUnit
+        );
+        if (!slot.setOn(rxBleGattCallback)) {
+            slot.timeoutDisposable.dispose();
+            return false;
+        }
+
+        if (!startOperation(bluetoothGatt)) {
+            if (slot.cancel()) {
+                rxBleGattCallback.removeNotStartedResponseSlot(slot);
+                slot.timeoutDisposable.dispose();
+                emitterWrapper.cancel();
+                emitterWrapper.onError(new BleGattCannotStartException(bluetoothGatt, operationType));
+            }
+            return true;
+        }
+        // set after the start so a disposed operation removes the slot of a started one — replacing the cancellable of the wrapper
+        // cancels it right away which is fine as its flag is not checked here
+        emitter.setCancellable(new Cancellable() {
+            @Override
+            public void cancel() {
+                emitterWrapper.cancel();
+                if (slot.cancel()) {
+                    rxBleGattCallback.removeResponseSlot(slot);
+                    slot.timeoutDisposable.dispose();
+                    queueReleaseInterface.release();
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Allows the operation to receive its response through a {@link ResponseSlot} completed directly from the native callback instead of
+     * subscribing to {@link #getCallback(RxBleGattCallback)}. Operations that may be in flight together with another operation
+     * completed by the same callback need a slot completed in order, like
+     * {@link RxBleGattCallback#addPipelinedCharacteristicWriteSlot(android.bluetooth.BluetoothGattCharacteristic, ResponseSlot)}.
+     * If the slot cannot be set the operation falls back to {@link #getCallback(RxBleGattCallback)}.
+     *
+     * @return the slot of the operation or null to use {@link #getCallback(RxBleGattCallback)}
+     */
+    @Nullable
+    protected OperationResponseSlot<?> createResponseSlot() {
+        return null;
+    }
+
     /**
      * A function that should return {@link Observable} derived from the passed {@link RxBleGattCallback}.
      * The returned {@link Observable} will be automatically unsubscribed after the first emission.
@@ -102,4 +177,42 @@ public abstract class SingleResponseOperation<T> extends QueueOperation<T> {
     public String toString() {
         return LoggerUtil.commonMacMessage(bluetoothGatt);
     }
+
+    /**
+     * The slot which completes the operation with the response mapped by {@link #mapResponse(Object)}.
+     *
+     * @param <R> the type of the response
+     */
+    protected abstract class OperationResponseSlot<R> extends ResponseSlot<R> {
+
+        QueueReleasingEmitterWrapper<T> emitterWrapper;
+        Disposable timeoutDisposable;
+
+        /**
+         * @param rxBleGattCallback the callback to set the slot on
+         * @return true if the slot was set
+         */
+        protected abstract boolean setOn(RxBleGattCallback rxBleGattCallback);
+
+        /**
+         * Called on the callback thread.
+         *
+         * @param response the response of the operation
+         * @return the result of the operation
+         */
+        protected abstract T mapResponse(R response);
+
+        @Override
+        protected final void onResponse(R response) {
+            timeoutDisposable.dispose();
+            emitterWrapper.onNext(mapResponse(response));
+            emitterWrapper.onComplete();
+        }
+
+        @Override
+        protected final void onError(Throwable error) {
+            timeoutDisposable.dispose();
+            emitterWrapper.onError(error);
+        }
+    }
 }
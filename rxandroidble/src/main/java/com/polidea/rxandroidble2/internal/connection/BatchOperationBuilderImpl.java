@@ -0,0 +1,120 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_READ;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_SIGNED_WRITE;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_WRITE;
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_WRITE_NO_RESPONSE;
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+
+import androidx.annotation.NonNull;
+
+import com.polidea.rxandroidble2.RxBleConnection;
+import com.polidea.rxandroidble2.RxBleCustomOperation;
+import com.polidea.rxandroidble2.internal.operations.OperationsProvider;
+import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble2.internal.util.ByteAssociationUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import bleshadow.javax.inject.Inject;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.functions.Function;
+
+public final class BatchOperationBuilderImpl implements RxBleConnection.BatchOperationBuilder {
+
+    /**
+     * Operations of a batch are run inside of a single custom operation which holds the queue until the whole batch finishes.
+     */
+    private static final QueueReleaseInterface BATCH_HOLDS_QUEUE_RELEASE_INTERFACE = new QueueReleaseInterface() {
+        @Override
+        public void release() {
+            // the queue is released when the whole batch terminates
+        }
+    };
+
+    private final RxBleConnection rxBleConnection;
+    private final OperationsProvider operationsProvider;
+    private final IllegalOperationChecker illegalOperationChecker;
+    private final List<Completable> illegalOperationChecks = new ArrayList<>();
+    private final List<Observable<byte[]>> batchedOperations = new ArrayList<>();
+
+    @Inject
+    BatchOperationBuilderImpl(
+            RxBleConnection rxBleConnection,
+            OperationsProvider operationsProvider,
+            IllegalOperationChecker illegalOperationChecker
+    ) {
+        this.rxBleConnection = rxBleConnection;
+        this.operationsProvider = operationsProvider;
+        this.illegalOperationChecker = illegalOperationChecker;
+    }
+
+    @Override
+    public RxBleConnection.BatchOperationBuilder addReadCharacteristic(@NonNull BluetoothGattCharacteristic characteristic) {
+        illegalOperationChecks.add(illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_READ));
+        batchedOperations.add(operationsProvider.provideReadCharacteristic(characteristic).run(BATCH_HOLDS_QUEUE_RELEASE_INTERFACE));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.BatchOperationBuilder addWriteCharacteristic(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                        @NonNull byte[] data) {
+        illegalOperationChecks.add(illegalOperationChecker.checkAnyPropertyMatches(
+                characteristic,
+                PROPERTY_WRITE | PROPERTY_WRITE_NO_RESPONSE | PROPERTY_SIGNED_WRITE
+        ));
+        batchedOperations.add(operationsProvider.provideWriteCharacteristic(characteristic, data)
+                .run(BATCH_HOLDS_QUEUE_RELEASE_INTERFACE));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.BatchOperationBuilder addReadDescriptor(@NonNull BluetoothGattDescriptor descriptor) {
+        batchedOperations.add(operationsProvider.provideReadDescriptor(descriptor)
+                .run(BATCH_HOLDS_QUEUE_RELEASE_INTERFACE)
+                .map(ByteAssociationUtil.getBytesFromAssociation()));
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.BatchOperationBuilder addWriteDescriptor(@NonNull BluetoothGattDescriptor descriptor, @NonNull byte[] data) {
+        batchedOperations.add(operationsProvider.provideWriteDescriptor(descriptor, data).run(BATCH_HOLDS_QUEUE_RELEASE_INTERFACE));
+        return this;
+    }
+
+    @Override
+    public Single<List<byte[]>> build() {
+        if (batchedOperations.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation needs to be added before build()");
+        }
+
+        final List<Observable<byte[]>> operations = new ArrayList<>(batchedOperations);
+        return Completable.concat(new ArrayList<>(illegalOperationChecks))
+                .andThen(rxBleConnection.queue(new RxBleCustomOperation<List<byte[]>>() {
+                    @NonNull
+                    @Override
+                    public Observable<List<byte[]>> asObservable(BluetoothGatt bluetoothGatt, RxBleGattCallback rxBleGattCallback,
+                                                                 final Scheduler scheduler) {
+                        return Observable.fromIterable(operations)
+                                .concatMap(new Function<Observable<byte[]>, ObservableSource<byte[]>>() {
+                                    @Override
+                                    public ObservableSource<byte[]> apply(Observable<byte[]> operation) {
+                                        // every operation starts on the scheduler that is used for interactions with the BluetoothGatt
+                                        return operation.subscribeOn(scheduler);
+                                    }
+                                })
+                                .toList()
+                                .toObservable();
+                    }
+                }))
+                .firstOrError();
+    }
+}
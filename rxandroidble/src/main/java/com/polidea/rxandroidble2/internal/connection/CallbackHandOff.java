@@ -0,0 +1,138 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Hands the signals of the {@link RxBleGattCallback} streams over from the native callback threads to the callback scheduler.
+ * All streams of a connection share a single queue so the signals are delivered in the order of the native callbacks — also across
+ * the streams. The queue is drained by a single task which is scheduled only when the queue was empty, so no task (and no timer) is
+ * scheduled per signal.
+ */
+class CallbackHandOff {
+
+    private final Scheduler callbackScheduler;
+    private final Queue<Runnable> signals = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Runnable drainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    CallbackHandOff(Scheduler callbackScheduler) {
+        this.callbackScheduler = callbackScheduler;
+    }
+
+    /**
+     * @param upstream the observable to be observed on the callback scheduler
+     * @return the observable emitting the signals of the upstream on the callback scheduler
+     */
+    <T> Observable<T> handOff(final Observable<T> upstream) {
+        return new Observable<T>() {
+            @Override
+            protected void subscribeActual(Observer<? super T> observer) {
+                upstream.subscribe(new HandOffObserver<>(observer));
+            }
+        };
+    }
+
+    void enqueue(Runnable signal) {
+        signals.offer(signal);
+        if (wip.getAndIncrement() == 0) {
+            callbackScheduler.scheduleDirect(drainRunnable);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            Runnable signal;
+            while ((signal = signals.poll()) != null) {
+                try {
+                    signal.run();
+                } catch (Throwable throwable) {
+                    // the next signals need to be delivered regardless — same as when each signal was a separate scheduled task
+                    Exceptions.throwIfFatal(throwable);
+                    RxJavaPlugins.onError(throwable);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private final class HandOffObserver<T> implements Observer<T>, Disposable {
+
+        private final Observer<? super T> downstream;
+        private Disposable upstreamDisposable;
+        volatile boolean disposed;
+
+        HandOffObserver(Observer<? super T> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstreamDisposable = d;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(final T t) {
+            enqueue(new Runnable() {
+                @Override
+                public void run() {
+                    if (!disposed) {
+                        downstream.onNext(t);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onError(final Throwable e) {
+            enqueue(new Runnable() {
+                @Override
+                public void run() {
+                    if (!disposed) {
+                        disposed = true;
+                        downstream.onError(e);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            enqueue(new Runnable() {
+                @Override
+                public void run() {
+                    if (!disposed) {
+                        disposed = true;
+                        downstream.onComplete();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            upstreamDisposable.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import com.jakewharton.rxrelay2.PublishRelay;
+import com.polidea.rxandroidble2.TimestampedValue;
+import com.polidea.rxandroidble2.internal.util.CharacteristicChangedEvent;
+import com.polidea.rxandroidble2.internal.util.CharacteristicNotificationId;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import bleshadow.javax.inject.Inject;
+import io.reactivex.Observable;
+
+/**
+ * Routes characteristic change events of a connection to the observers of the changed characteristic. All active notifications
+ * share a single subscription to {@link RxBleGattCallback#getOnCharacteristicChanged()} and each event is dispatched with a single
+ * lookup in a routing table keyed by {@link CharacteristicNotificationId} — the cost of an event does not depend on the number
+ * of active notifications. The latency of each dispatched event is recorded with
+ * {@link RxBleGattCallback#recordNotificationDispatch(long)}.
+ */
+@ConnectionScope
+class CharacteristicChangedEventDemultiplexer {
+
+    /*
+     * Read on every event without locking. Modified only while holding the lock of the map.
+     */
+    private final Map<CharacteristicNotificationId, Route> routes = new ConcurrentHashMap<>();
+    /*
+     * Dispatches the events to the routes. Emits only the errors of the upstream — i.e. the disconnection.
+     */
+    private final Observable<CharacteristicChangedEvent> dispatchingObservable;
+    private final RxBleGattCallback gattCallback;
+
+    @Inject
+    CharacteristicChangedEventDemultiplexer(final RxBleGattCallback gattCallback) {
+        this.gattCallback = gattCallback;
+        this.dispatchingObservable = Observable.defer(gattCallback::getOnCharacteristicChanged)
+                .doOnNext(this::dispatch)
+                .ignoreElements()
+                .<CharacteristicChangedEvent>toObservable()
+                .share();
+    }
+
+    private void dispatch(CharacteristicChangedEvent event) {
+        final Route route = routes.get(new CharacteristicNotificationId(event.first, event.second));
+        if (route != null) {
+            gattCallback.recordNotificationDispatch(event.arrivalRealtimeNanos);
+            route.relay.accept(event);
+        }
+    }
+
+    /**
+     * @param characteristicId the id of the characteristic to observe
+     * @return the observable emitting the values of the characteristic change events and the errors of
+     * {@link RxBleGattCallback#getOnCharacteristicChanged()}
+     */
+    Observable<byte[]> observeCharacteristicChanges(final CharacteristicNotificationId characteristicId) {
+        return observeEvents(characteristicId).map(event -> event.data);
+    }
+
+    /**
+     * @param characteristicId the id of the characteristic to observe
+     * @return the observable emitting the values of the characteristic change events with the time of their arrival and the errors of
+     * {@link RxBleGattCallback#getOnCharacteristicChanged()}
+     */
+    Observable<TimestampedValue> observeTimestampedCharacteristicChanges(final CharacteristicNotificationId characteristicId) {
+        return observeEvents(characteristicId).map(event -> new TimestampedValue(event.data, event.arrivalRealtimeNanos));
+    }
+
+    private Observable<CharacteristicChangedEvent> observeEvents(final CharacteristicNotificationId characteristicId) {
+        return Observable.defer(() -> {
+            final Route route;
+            synchronized (routes) {
+                Route existingRoute = routes.get(characteristicId);
+                if (existingRoute == null) {
+                    existingRoute = new Route();
+                    routes.put(characteristicId, existingRoute);
+                }
+                existingRoute.observersCount++;
+                route = existingRoute;
+            }
+            // the route needs to be subscribed first as the upstream may emit right after being subscribed
+            return Observable.merge(route.relay, dispatchingObservable)
+                    .doFinally(() -> {
+                        synchronized (routes) {
+                            if (--route.observersCount == 0) {
+                                routes.remove(characteristicId);
+                            }
+                        }
+                    });
+        });
+    }
+
+    private static class Route {
+
+        final PublishRelay<CharacteristicChangedEvent> relay = PublishRelay.create();
+        /*
+         * Guarded by the lock of the routes map.
+         */
+        int observersCount = 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble2.internal.RxBleLog;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.functions.Action;
+
+/**
+ * Lets reads of a characteristic that is already queued or being read attach to the pending read and share its result instead
+ * of queueing a separate radio operation. Coalescing is opt-in — see
+ * {@link com.polidea.rxandroidble2.ConnectionSetup.Builder#setCoalesceCharacteristicReads(boolean)}.
+ * <p>
+ * The pending read is cancelled only if all reads attached to it are disposed.
+ */
+@ConnectionScope
+class CharacteristicReadCoalescer {
+
+    private final boolean isEnabled;
+    private final Map<BluetoothGattCharacteristic, Observable<byte[]>> pendingReads = new HashMap<>();
+    private final AtomicLong coalescedReadsCount = new AtomicLong();
+
+    @Inject
+    CharacteristicReadCoalescer(@Named(ConnectionComponent.NamedBooleans.COALESCE_CHARACTERISTIC_READS) boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * @param characteristic the characteristic to read
+     * @param read           the Observable queueing a new read of the characteristic when subscribed
+     * @return the Observable that on subscription attaches to a pending read of the characteristic if there is one or subscribes
+     * to the passed read otherwise
+     */
+    Observable<byte[]> coalesce(final BluetoothGattCharacteristic characteristic, final Observable<byte[]> read) {
+        if (!isEnabled) {
+            return read;
+        }
+        return Observable.defer(new Callable<ObservableSource<byte[]>>() {
+            @Override
+            public ObservableSource<byte[]> call() {
+                synchronized (CharacteristicReadCoalescer.this) {
+                    final Observable<byte[]> pendingRead = pendingReads.get(characteristic);
+                    if (pendingRead != null) {
+                        coalescedReadsCount.incrementAndGet();
+                        RxBleLog.d("Coalescing read of characteristic %s with a pending one", characteristic.getUuid());
+                        return pendingRead;
+                    }
+                    final Observable<byte[]> sharedRead = share(characteristic, read);
+                    pendingReads.put(characteristic, sharedRead);
+                    return sharedRead;
+                }
+            }
+        });
+    }
+
+    private Observable<byte[]> share(final BluetoothGattCharacteristic characteristic, Observable<byte[]> read) {
+        final AtomicReference<Observable<byte[]>> sharedReadReference = new AtomicReference<>();
+        final Observable<byte[]> sharedRead = read
+                .doFinally(new Action() {
+                    @Override
+                    public void run() {
+                        removePendingRead(characteristic, sharedReadReference.get());
+                    }
+                })
+                .share();
+        sharedReadReference.set(sharedRead);
+        return sharedRead;
+    }
+
+    synchronized void removePendingRead(BluetoothGattCharacteristic characteristic, Observable<byte[]> sharedRead) {
+        if (pendingReads.get(characteristic) == sharedRead) {
+            pendingReads.remove(characteristic);
+        }
+    }
+
+    /**
+     * @return the number of reads that shared the result of a pending read instead of performing a separate radio operation
+     */
+    long getCoalescedReadsCount() {
+        return coalescedReadsCount.get();
+    }
+}
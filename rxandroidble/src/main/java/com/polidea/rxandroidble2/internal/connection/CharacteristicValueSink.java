@@ -0,0 +1,16 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+/**
+ * Receives the values of a characteristic directly from the native callback — on its thread and before any Rx dispatch.
+ *
+ * @see RxBleGattCallback#addCharacteristicValueSink(java.util.UUID, int, CharacteristicValueSink)
+ */
+public interface CharacteristicValueSink {
+
+    /**
+     * Must not block — it is called on the thread of the native callback.
+     *
+     * @param value the value of the characteristic change
+     */
+    void onValue(byte[] value);
+}
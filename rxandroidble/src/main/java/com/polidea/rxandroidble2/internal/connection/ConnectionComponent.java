@@ -1,5 +1,7 @@
 package com.polidea.rxandroidble2.internal.connection;
 
+import androidx.annotation.Nullable;
+
 import com.polidea.rxandroidble2.RxBleConnection;
 import com.polidea.rxandroidble2.Timeout;
 import com.polidea.rxandroidble2.internal.operations.ConnectOperation;
@@ -15,6 +17,7 @@ public interface ConnectionComponent {
     class NamedBooleans {
         public static final String AUTO_CONNECT = "autoConnect";
         public static final String SUPPRESS_OPERATION_CHECKS = "suppressOperationChecks";
+        public static final String COALESCE_CHARACTERISTIC_READS = "coalesceCharacteristicReads";
         private NamedBooleans() { }
     }
 
@@ -22,9 +25,16 @@ public interface ConnectionComponent {
         static final String GATT_WRITE_MTU_OVERHEAD = "GATT_WRITE_MTU_OVERHEAD";
         static final String GATT_MTU_MINIMUM = "GATT_MTU_MINIMUM";
         static final String GATT_MAX_ATTR_LENGTH = "GATT_MAX_ATTR_LENGTH";
+        public static final String MAX_PIPELINED_WRITES_WITHOUT_RESPONSE = "maxPipelinedWritesWithoutResponse";
+        public static final String GATT_OPERATIONS_WEIGHT = "gattOperationsWeight";
         private NamedInts() { }
     }
 
+    class NamedTimeouts {
+        public static final String OPERATION_QUEUE_DEADLINE = "operationQueueDeadline";
+        private NamedTimeouts() { }
+    }
+
     @Subcomponent.Builder
     interface Builder {
 
@@ -37,6 +47,18 @@ public interface ConnectionComponent {
         @BindsInstance
         Builder operationTimeout(Timeout operationTimeout);
 
+        @BindsInstance
+        Builder maxPipelinedWritesWithoutResponse(@Named(NamedInts.MAX_PIPELINED_WRITES_WITHOUT_RESPONSE) int maxPipelinedWrites);
+
+        @BindsInstance
+        Builder coalesceCharacteristicReads(@Named(NamedBooleans.COALESCE_CHARACTERISTIC_READS) boolean coalesceCharacteristicReads);
+
+        @BindsInstance
+        Builder operationQueueDeadline(@Nullable @Named(NamedTimeouts.OPERATION_QUEUE_DEADLINE) Timeout operationQueueDeadline);
+
+        @BindsInstance
+        Builder gattOperationsWeight(@Named(NamedInts.GATT_OPERATIONS_WEIGHT) int gattOperationsWeight);
+
         ConnectionComponent build();
     }
 
@@ -98,6 +98,14 @@ public abstract class ConnectionModule {
     @Binds
     abstract RxBleConnection.LongWriteOperationBuilder bindLongWriteOperationBuilder(LongWriteOperationBuilderImpl operationBuilder);
 
+    @Binds
+    abstract RxBleConnection.BatchOperationBuilder bindBatchOperationBuilder(BatchOperationBuilderImpl operationBuilder);
+
+    @Binds
+    abstract RxBleConnection.ReliableWriteOperationBuilder bindReliableWriteOperationBuilder(
+            ReliableWriteOperationBuilderImpl operationBuilder
+    );
+
     @Binds
     abstract OperationsProvider bindOperationsProvider(OperationsProviderImpl operationsProvider);
 
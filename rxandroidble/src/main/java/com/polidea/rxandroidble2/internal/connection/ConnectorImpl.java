@@ -37,6 +37,10 @@ public class ConnectorImpl implements Connector {
                     .autoConnect(options.autoConnect)
                     .suppressOperationChecks(options.suppressOperationCheck)
                     .operationTimeout(options.operationTimeout)
+                    .maxPipelinedWritesWithoutResponse(options.maxPipelinedWritesWithoutResponse)
+                    .coalesceCharacteristicReads(options.coalesceCharacteristicReads)
+                    .operationQueueDeadline(options.operationQueueDeadline)
+                    .gattOperationsWeight(options.gattOperationsWeight)
                     .build();
 
             final Set<ConnectionSubscriptionWatcher> connSubWatchers = connectionComponent.connectionSubscriptionWatchers();
@@ -0,0 +1,190 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+
+import android.annotation.SuppressLint;
+import android.bluetooth.BluetoothGatt;
+
+import androidx.annotation.Nullable;
+
+import com.polidea.rxandroidble2.ClientComponent;
+import com.polidea.rxandroidble2.HighThroughputParameters;
+import com.polidea.rxandroidble2.PhyPair;
+import com.polidea.rxandroidble2.RxBlePhy;
+import com.polidea.rxandroidble2.RxBlePhyOption;
+import com.polidea.rxandroidble2.internal.RxBleLog;
+import com.polidea.rxandroidble2.internal.RxBlePhyImpl;
+import com.polidea.rxandroidble2.internal.RxBlePhyOptionImpl;
+import com.polidea.rxandroidble2.internal.operations.OperationsProvider;
+import com.polidea.rxandroidble2.internal.serialization.ConnectionOperationQueue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+import io.reactivex.Completable;
+import io.reactivex.CompletableSource;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Single;
+import io.reactivex.SingleSource;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+
+/**
+ * Applies the connection settings for a bulk transfer for as long as the session is subscribed. The MTU is exchanged first as
+ * it may be done only once per connection, then the PHY and at last the connection priority so that the short connection interval
+ * starts draining the battery only once the transfer may start. On dispose the PHY is restored while the connection interval
+ * is still short and only then the priority is lowered.
+ */
+@ConnectionScope
+class HighThroughputManager {
+
+    private static final Set<RxBlePhyImpl> PHY_2M = Collections.singleton(RxBlePhyImpl.PHY_2M);
+
+    private final ConnectionOperationQueue operationQueue;
+    private final OperationsProvider operationsProvider;
+    private final int deviceSdk;
+
+    @Inject
+    HighThroughputManager(
+            ConnectionOperationQueue operationQueue,
+            OperationsProvider operationsProvider,
+            @Named(ClientComponent.PlatformConstants.INT_DEVICE_SDK) int deviceSdk
+    ) {
+        this.operationQueue = operationQueue;
+        this.operationsProvider = operationsProvider;
+        this.deviceSdk = deviceSdk;
+    }
+
+    Observable<HighThroughputParameters> setupHighThroughput(final int mtu, final long delay, final TimeUnit timeUnit) {
+        return Observable.defer(new Callable<ObservableSource<HighThroughputParameters>>() {
+            @Override
+            public ObservableSource<HighThroughputParameters> call() {
+                final AppliedSettings appliedSettings = new AppliedSettings();
+                return applySettings(appliedSettings, mtu, delay, timeUnit)
+                        .toObservable()
+                        .concatWith(Observable.<HighThroughputParameters>never())
+                        .doFinally(new Action() {
+                            @Override
+                            public void run() {
+                                restoreSettings(appliedSettings, delay, timeUnit);
+                            }
+                        });
+            }
+        });
+    }
+
+    private Single<HighThroughputParameters> applySettings(final AppliedSettings appliedSettings, int mtu, final long delay,
+                                                           final TimeUnit timeUnit) {
+        return operationQueue.queue(operationsProvider.provideMtuChangeOperation(mtu))
+                .firstOrError()
+                .flatMap(new Function<Integer, SingleSource<HighThroughputParameters>>() {
+                    @Override
+                    public SingleSource<HighThroughputParameters> apply(final Integer negotiatedMtu) {
+                        if (deviceSdk < 26 /* Build.VERSION_CODES.O */) {
+                            return requestHighPriority(appliedSettings, delay, timeUnit)
+                                    .andThen(Single.<HighThroughputParameters>just(
+                                            new HighThroughputParametersImpl(negotiatedMtu, null, BluetoothGatt.CONNECTION_PRIORITY_HIGH)
+                                    ));
+                        }
+                        return request2MPhy(appliedSettings)
+                                .flatMap(new Function<PhyPair, SingleSource<HighThroughputParameters>>() {
+                                    @Override
+                                    public SingleSource<HighThroughputParameters> apply(PhyPair negotiatedPhy) {
+                                        return requestHighPriority(appliedSettings, delay, timeUnit)
+                                                .andThen(Single.<HighThroughputParameters>just(new HighThroughputParametersImpl(
+                                                        negotiatedMtu, negotiatedPhy, BluetoothGatt.CONNECTION_PRIORITY_HIGH
+                                                )));
+                                    }
+                                });
+                    }
+                });
+    }
+
+    @SuppressLint("NewApi")
+    private Single<PhyPair> request2MPhy(final AppliedSettings appliedSettings) {
+        return operationQueue.queue(operationsProvider.providePhyReadOperation())
+                .firstOrError()
+                .flatMap(new Function<PhyPair, SingleSource<PhyPair>>() {
+                    @Override
+                    public SingleSource<PhyPair> apply(PhyPair previousPhy) {
+                        appliedSettings.previousPhy = previousPhy;
+                        return operationQueue.queue(operationsProvider.providePhyRequestOperation(PHY_2M, PHY_2M, noPreferredOption()))
+                                .firstOrError();
+                    }
+                })
+                .doOnSuccess(new Consumer<PhyPair>() {
+                    @Override
+                    public void accept(PhyPair negotiatedPhy) {
+                        appliedSettings.negotiatedPhy = negotiatedPhy;
+                    }
+                });
+    }
+
+    private Completable requestHighPriority(final AppliedSettings appliedSettings, final long delay, final TimeUnit timeUnit) {
+        return Completable.defer(new Callable<CompletableSource>() {
+            @SuppressLint("NewApi")
+            @Override
+            public CompletableSource call() {
+                // a rejected request leaves the priority unchanged — restoring it is harmless then
+                appliedSettings.isPriorityRequested = true;
+                return operationQueue.queue(operationsProvider.provideConnectionPriorityChangeOperation(
+                        BluetoothGatt.CONNECTION_PRIORITY_HIGH, delay, timeUnit
+                )).ignoreElements();
+            }
+        });
+    }
+
+    /**
+     * The MTU cannot be restored — it is exchanged only once per connection. The connection priority cannot be read so it is
+     * restored to {@link BluetoothGatt#CONNECTION_PRIORITY_BALANCED} which is the default.
+     */
+    @SuppressLint("NewApi")
+    private void restoreSettings(AppliedSettings appliedSettings, long delay, TimeUnit timeUnit) {
+        Completable restoration = Completable.complete();
+        final PhyPair previousPhy = appliedSettings.previousPhy;
+        if (previousPhy != null && !previousPhy.equals(appliedSettings.negotiatedPhy)) {
+            restoration = restoration.andThen(operationQueue.queue(operationsProvider.providePhyRequestOperation(
+                    RxBlePhyImpl.fromInterface(Collections.<RxBlePhy>singleton(previousPhy.getTxPhy())),
+                    RxBlePhyImpl.fromInterface(Collections.<RxBlePhy>singleton(previousPhy.getRxPhy())),
+                    noPreferredOption()
+            )).ignoreElements());
+        }
+        if (appliedSettings.isPriorityRequested) {
+            restoration = restoration.andThen(operationQueue.queue(operationsProvider.provideConnectionPriorityChangeOperation(
+                    BluetoothGatt.CONNECTION_PRIORITY_BALANCED, delay, timeUnit
+            )).ignoreElements());
+        }
+        restoration.subscribe(
+                new Action() {
+                    @Override
+                    public void run() {
+                        RxBleLog.d("Restored the connection settings after the high throughput session");
+                    }
+                },
+                new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) {
+                        RxBleLog.w(throwable, "Could not restore the connection settings after the high throughput session");
+                    }
+                }
+        );
+    }
+
+    private static RxBlePhyOptionImpl noPreferredOption() {
+        return RxBlePhyOptionImpl.fromInterface(RxBlePhyOption.PHY_OPTION_NO_PREFERRED);
+    }
+
+    private static class AppliedSettings {
+
+        @Nullable
+        volatile PhyPair previousPhy;
+        @Nullable
+        volatile PhyPair negotiatedPhy;
+        volatile boolean isPriorityRequested;
+    }
+}
@@ -0,0 +1,48 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.polidea.rxandroidble2.HighThroughputParameters;
+import com.polidea.rxandroidble2.PhyPair;
+
+
+public class HighThroughputParametersImpl implements HighThroughputParameters {
+
+    private final int mtu;
+    @Nullable
+    private final PhyPair phy;
+    private final int connectionPriority;
+
+    public HighThroughputParametersImpl(int mtu, @Nullable PhyPair phy, int connectionPriority) {
+        this.mtu = mtu;
+        this.phy = phy;
+        this.connectionPriority = connectionPriority;
+    }
+
+    @Override
+    public int getMtu() {
+        return mtu;
+    }
+
+    @Nullable
+    @Override
+    public PhyPair getPhy() {
+        return phy;
+    }
+
+    @Override
+    public int getConnectionPriority() {
+        return connectionPriority;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "HighThroughputParametersImpl{"
+                + "mtu=" + mtu
+                + ", phy=" + phy
+                + ", connectionPriority=" + connectionPriority
+                + '}';
+    }
+}
@@ -2,18 +2,26 @@ package com.polidea.rxandroidble2.internal.connection;
 
 import android.bluetooth.BluetoothGattCharacteristic;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.polidea.rxandroidble2.RxBleConnection;
 import com.polidea.rxandroidble2.RxBleDeviceServices;
+import com.polidea.rxandroidble2.internal.operations.LongWriteSource;
 import com.polidea.rxandroidble2.internal.operations.OperationsProvider;
 import com.polidea.rxandroidble2.internal.serialization.ConnectionOperationQueue;
+import com.polidea.rxandroidble2.metrics.LongWriteProgress;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import bleshadow.javax.inject.Inject;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.SingleSource;
+import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
 
 public final class LongWriteOperationBuilderImpl implements RxBleConnection.LongWriteOperationBuilder {
@@ -26,8 +34,14 @@ public final class LongWriteOperationBuilderImpl implements RxBleConnection.Long
     PayloadSizeLimitProvider maxBatchSizeProvider;
     RxBleConnection.WriteOperationAckStrategy writeOperationAckStrategy = new ImmediateSerializedBatchAckStrategy();
     RxBleConnection.WriteOperationRetryStrategy writeOperationRetryStrategy = new NoRetryStrategy();
+    int windowSize = 1;
+    @Nullable
+    Observable<Integer> windowAcknowledgements;
+    @Nullable
+    Consumer<LongWriteProgress> progressConsumer;
+    long progressIntervalNanos;
 
-    byte[] bytes;
+    LongWriteSource source;
 
     @Inject
     LongWriteOperationBuilderImpl(
@@ -44,7 +58,25 @@ public final class LongWriteOperationBuilderImpl implements RxBleConnection.Long
 
     @Override
     public RxBleConnection.LongWriteOperationBuilder setBytes(@NonNull byte[] bytes) {
-        this.bytes = bytes;
+        this.source = LongWriteSource.fromBytes(bytes);
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setBytes(@NonNull ByteBuffer bytes) {
+        this.source = LongWriteSource.fromByteBuffer(bytes);
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setBytes(@NonNull ReadableByteChannel channel) {
+        this.source = LongWriteSource.fromChannel(channel);
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setBytes(@NonNull InputStream inputStream) {
+        this.source = LongWriteSource.fromInputStream(inputStream);
         return this;
     }
 
@@ -86,13 +118,39 @@ public final class LongWriteOperationBuilderImpl implements RxBleConnection.Long
         return this;
     }
 
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setWindowSize(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be greater than zero (now: " + windowSize + ")");
+        }
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setWindowAcknowledgements(@NonNull Observable<Integer> acknowledgedBatchCounts) {
+        this.windowAcknowledgements = acknowledgedBatchCounts;
+        return this;
+    }
+
+    @Override
+    public RxBleConnection.LongWriteOperationBuilder setProgressConsumer(
+            @NonNull Consumer<LongWriteProgress> progressConsumer,
+            long minimumInterval,
+            @NonNull TimeUnit timeUnit
+    ) {
+        this.progressConsumer = progressConsumer;
+        this.progressIntervalNanos = timeUnit.toNanos(minimumInterval);
+        return this;
+    }
+
     @Override
     public Observable<byte[]> build() {
         if (writtenCharacteristicObservable == null) {
             throw new IllegalArgumentException("setCharacteristicUuid() or setCharacteristic() needs to be called before build()");
         }
 
-        if (bytes == null) {
+        if (source == null) {
             throw new IllegalArgumentException("setBytes() needs to be called before build()");
         }
 
@@ -103,7 +161,8 @@ public final class LongWriteOperationBuilderImpl implements RxBleConnection.Long
             public Observable<byte[]> apply(BluetoothGattCharacteristic bluetoothGattCharacteristic) {
                 return operationQueue.queue(
                         operationsProvider.provideLongWriteOperation(bluetoothGattCharacteristic,
-                                writeOperationAckStrategy, writeOperationRetryStrategy, maxBatchSizeProvider, bytes)
+                                writeOperationAckStrategy, writeOperationRetryStrategy, maxBatchSizeProvider,
+                                windowSize, windowAcknowledgements, source, progressConsumer, progressIntervalNanos)
                 );
             }
         });
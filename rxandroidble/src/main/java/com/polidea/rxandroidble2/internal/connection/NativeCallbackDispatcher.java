@@ -25,6 +25,13 @@ class NativeCallbackDispatcher {
         }
     }
 
+    @TargetApi(33 /* Build.VERSION_CODES.TIRAMISU */)
+    void notifyNativeChangedCallback(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, byte[] value) {
+        if (nativeCallback != null) {
+            nativeCallback.onCharacteristicChanged(gatt, characteristic, value);
+        }
+    }
+
     void notifyNativeConnectionStateCallback(BluetoothGatt gatt, int status, int newState) {
         if (nativeCallback != null) {
             nativeCallback.onConnectionStateChange(gatt, status, newState);
@@ -37,6 +44,13 @@ class NativeCallbackDispatcher {
         }
     }
 
+    @TargetApi(33 /* Build.VERSION_CODES.TIRAMISU */)
+    void notifyNativeDescriptorReadCallback(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status, byte[] value) {
+        if (nativeCallback != null) {
+            nativeCallback.onDescriptorRead(gatt, descriptor, status, value);
+        }
+    }
+
     void notifyNativeDescriptorWriteCallback(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status) {
         if (nativeCallback != null) {
             nativeCallback.onDescriptorWrite(gatt, descriptor, status);
@@ -104,6 +118,13 @@ class NativeCallbackDispatcher {
         }
     }
 
+    @TargetApi(33 /* Build.VERSION_CODES.TIRAMISU */)
+    void notifyNativeReadCallback(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, byte[] value, int status) {
+        if (nativeCallback != null) {
+            nativeCallback.onCharacteristicRead(gatt, characteristic, value, status);
+        }
+    }
+
     void setNativeCallbackHidden(HiddenBluetoothGattCallback callbackHidden) {
         this.nativeCallbackHidden = callbackHidden;
     }
@@ -7,15 +7,21 @@ import android.bluetooth.BluetoothGattDescriptor;
 import androidx.annotation.NonNull;
 
 import com.polidea.rxandroidble2.ClientComponent;
+import com.polidea.rxandroidble2.NotificationBatching;
+import com.polidea.rxandroidble2.NotificationRingBuffer;
+import com.polidea.rxandroidble2.NotificationRingBufferSink;
 import com.polidea.rxandroidble2.NotificationSetupMode;
+import com.polidea.rxandroidble2.TimestampedValue;
 import com.polidea.rxandroidble2.exceptions.BleCannotSetCharacteristicNotificationException;
 import com.polidea.rxandroidble2.exceptions.BleConflictingNotificationAlreadySetException;
+import com.polidea.rxandroidble2.exceptions.BleConflictingNotificationDeliveryException;
 import com.polidea.rxandroidble2.internal.util.ActiveCharacteristicNotification;
 import com.polidea.rxandroidble2.internal.util.CharacteristicNotificationId;
 import com.polidea.rxandroidble2.internal.util.ObservableUtil;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -26,7 +32,9 @@ import io.reactivex.Completable;
 import io.reactivex.CompletableTransformer;
 import io.reactivex.Observable;
 import io.reactivex.ObservableTransformer;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.internal.functions.Functions;
+import io.reactivex.observables.ConnectableObservable;
 import io.reactivex.subjects.PublishSubject;
 
 @ConnectionScope
@@ -40,8 +48,14 @@ class NotificationAndIndicationManager {
     final BluetoothGatt bluetoothGatt;
     final RxBleGattCallback gattCallback;
     final DescriptorWriter descriptorWriter;
+    final CharacteristicChangedEventDemultiplexer characteristicChangedEventDemultiplexer;
 
     final Map<CharacteristicNotificationId, ActiveCharacteristicNotification> activeNotificationObservableMap = new HashMap<>();
+    /*
+     * Guarded by activeNotificationObservableMap. Values passed to value sinks are not emitted to the observers of the characteristic
+     * so both kinds of setups cannot be subscribed at the same time.
+     */
+    final Map<CharacteristicNotificationId, ValueDeliveries> valueDeliveriesMap = new HashMap<>();
 
     @Inject
     NotificationAndIndicationManager(
@@ -50,7 +64,8 @@ class NotificationAndIndicationManager {
             @Named(ClientComponent.BluetoothConstants.DISABLE_NOTIFICATION_VALUE) byte[] configDisable,
             BluetoothGatt bluetoothGatt,
             RxBleGattCallback gattCallback,
-            DescriptorWriter descriptorWriter
+            DescriptorWriter descriptorWriter,
+            CharacteristicChangedEventDemultiplexer characteristicChangedEventDemultiplexer
     ) {
         this.configEnableNotification = configEnableNotification;
         this.configEnableIndication = configEnableIndication;
@@ -58,10 +73,19 @@ class NotificationAndIndicationManager {
         this.bluetoothGatt = bluetoothGatt;
         this.gattCallback = gattCallback;
         this.descriptorWriter = descriptorWriter;
+        this.characteristicChangedEventDemultiplexer = characteristicChangedEventDemultiplexer;
     }
 
     Observable<Observable<byte[]>> setupServerInitiatedCharacteristicRead(
             @NonNull final BluetoothGattCharacteristic characteristic, final NotificationSetupMode setupMode, final boolean isIndication
+    ) {
+        return withValueDelivery(
+                characteristic, false, setupSharedServerInitiatedCharacteristicRead(characteristic, setupMode, isIndication)
+        );
+    }
+
+    private Observable<Observable<byte[]>> setupSharedServerInitiatedCharacteristicRead(
+            @NonNull final BluetoothGattCharacteristic characteristic, final NotificationSetupMode setupMode, final boolean isIndication
     ) {
         return Observable.defer(() -> {
             synchronized (activeNotificationObservableMap) {
@@ -84,7 +108,7 @@ class NotificationAndIndicationManager {
                 final PublishSubject<?> notificationCompletedSubject = PublishSubject.create();
 
                 final Observable<Observable<byte[]>> newObservable = setCharacteristicNotification(bluetoothGatt, characteristic, true)
-                        .andThen(ObservableUtil.justOnNext(observeOnCharacteristicChangeCallbacks(gattCallback, id)))
+                        .andThen(ObservableUtil.justOnNext(characteristicChangedEventDemultiplexer.observeCharacteristicChanges(id)))
                         .compose(setupModeTransformer(descriptorWriter, characteristic, enableNotificationTypeValue, setupMode))
                         .map(observable -> Observable.amb(Arrays.asList(
                                 notificationCompletedSubject.cast(byte[].class),
@@ -112,6 +136,112 @@ class NotificationAndIndicationManager {
         });
     }
 
+    /**
+     * Sets up the notification as {@link #setupServerInitiatedCharacteristicRead(BluetoothGattCharacteristic, NotificationSetupMode,
+     * boolean)} does but the values of the characteristic are copied to the ring buffer while the returned observable is subscribed.
+     */
+    Observable<NotificationRingBuffer> setupServerInitiatedCharacteristicRead(
+            @NonNull final BluetoothGattCharacteristic characteristic, final NotificationSetupMode setupMode, final boolean isIndication,
+            @NonNull final NotificationRingBuffer ringBuffer
+    ) {
+        return withValueDelivery(characteristic, true, Observable.defer(() -> {
+            final CharacteristicValueSink sink = new NotificationRingBufferSink(ringBuffer);
+            // added before the setup so no early value is missed
+            gattCallback.addCharacteristicValueSink(characteristic.getUuid(), characteristic.getInstanceId(), sink);
+            return setupSharedServerInitiatedCharacteristicRead(characteristic, setupMode, isIndication)
+                    // the emitted observable still needs to be subscribed to write the descriptor in QUICK_SETUP mode and to propagate
+                    // the disconnection — it emits no values of the characteristic while the ring buffer is added
+                    .flatMap(observable -> observable.ignoreElements().<NotificationRingBuffer>toObservable().startWith(ringBuffer))
+                    .doFinally(() -> gattCallback.removeCharacteristicValueSink(sink));
+        }));
+    }
+
+    /**
+     * Sets up the notification as {@link #setupServerInitiatedCharacteristicRead(BluetoothGattCharacteristic, NotificationSetupMode,
+     * boolean)} does but the emitted observable emits the values of the characteristic grouped into batches.
+     */
+    Observable<Observable<List<byte[]>>> setupServerInitiatedCharacteristicRead(
+            @NonNull final BluetoothGattCharacteristic characteristic, final NotificationSetupMode setupMode, final boolean isIndication,
+            @NonNull final NotificationBatching batching
+    ) {
+        return withValueDelivery(characteristic, true, Observable.defer(() -> {
+            final ConnectableObservable<List<byte[]>> batchesObservable = gattCallback
+                    .observeCharacteristicBatches(characteristic.getUuid(), characteristic.getInstanceId(), batching)
+                    .publish();
+            // connected before the setup so no early value is missed
+            final Disposable batchesConnection = batchesObservable.connect();
+            return setupSharedServerInitiatedCharacteristicRead(characteristic, setupMode, isIndication)
+                    // the emitted observable still needs to be subscribed to write the descriptor in QUICK_SETUP mode — it emits
+                    // no values of the characteristic while the batches are observed and completes when the notification is torn down
+                    .map(observable -> batchesObservable.takeUntil(observable.ignoreElements().andThen(Observable.just(true))))
+                    .doFinally(batchesConnection::dispose);
+        }));
+    }
+
+    /**
+     * Sets up the notification as {@link #setupServerInitiatedCharacteristicRead(BluetoothGattCharacteristic, NotificationSetupMode,
+     * boolean)} does but the emitted observable emits the values of the characteristic with the time of their arrival.
+     */
+    Observable<Observable<TimestampedValue>> setupTimestampedServerInitiatedCharacteristicRead(
+            @NonNull final BluetoothGattCharacteristic characteristic, final NotificationSetupMode setupMode, final boolean isIndication
+    ) {
+        return withValueDelivery(characteristic, false, Observable.defer(() -> {
+            final CharacteristicNotificationId id
+                    = new CharacteristicNotificationId(characteristic.getUuid(), characteristic.getInstanceId());
+            return setupSharedServerInitiatedCharacteristicRead(characteristic, setupMode, isIndication)
+                    // the emitted observable still needs to be subscribed to write the descriptor in QUICK_SETUP mode — it completes
+                    // when the notification is torn down
+                    .map(observable -> characteristicChangedEventDemultiplexer.observeTimestampedCharacteristicChanges(id)
+                            .takeUntil(observable.ignoreElements().andThen(Observable.just(true))));
+        }));
+    }
+
+    /**
+     * Counts the subscribed setups of the characteristic and fails the setup if its values are delivered the other way — either to
+     * value sinks (ring buffers and batches) or emitted to the observers.
+     */
+    private <T> Observable<T> withValueDelivery(
+            @NonNull final BluetoothGattCharacteristic characteristic, final boolean toValueSink, final Observable<T> setupObservable
+    ) {
+        return Observable.defer(() -> {
+            final CharacteristicNotificationId id
+                    = new CharacteristicNotificationId(characteristic.getUuid(), characteristic.getInstanceId());
+            synchronized (activeNotificationObservableMap) {
+                ValueDeliveries valueDeliveries = valueDeliveriesMap.get(id);
+                if (valueDeliveries == null) {
+                    valueDeliveries = new ValueDeliveries();
+                    valueDeliveriesMap.put(id, valueDeliveries);
+                } else if ((toValueSink ? valueDeliveries.toObservers : valueDeliveries.toValueSinks) > 0) {
+                    return Observable.error(new BleConflictingNotificationDeliveryException(characteristic.getUuid(), !toValueSink));
+                }
+                valueDeliveries.add(toValueSink, 1);
+            }
+            return setupObservable.doFinally(() -> {
+                synchronized (activeNotificationObservableMap) {
+                    final ValueDeliveries valueDeliveries = valueDeliveriesMap.get(id);
+                    valueDeliveries.add(toValueSink, -1);
+                    if (valueDeliveries.toValueSinks == 0 && valueDeliveries.toObservers == 0) {
+                        valueDeliveriesMap.remove(id);
+                    }
+                }
+            });
+        });
+    }
+
+    static final class ValueDeliveries {
+
+        int toValueSinks;
+        int toObservers;
+
+        void add(boolean toValueSink, int delta) {
+            if (toValueSink) {
+                toValueSinks += delta;
+            } else {
+                toObservers += delta;
+            }
+        }
+    }
+
     @NonNull
     static Completable setCharacteristicNotification(final BluetoothGatt bluetoothGatt,
                                                      final BluetoothGattCharacteristic characteristic,
@@ -167,14 +297,6 @@ class NotificationAndIndicationManager {
         };
     }
 
-    @NonNull
-    static Observable<byte[]> observeOnCharacteristicChangeCallbacks(RxBleGattCallback gattCallback,
-                                                                     final CharacteristicNotificationId characteristicId) {
-        return gattCallback.getOnCharacteristicChanged()
-                .filter(notificationIdWithData -> notificationIdWithData.equals(characteristicId))
-                .map(notificationIdWithData -> notificationIdWithData.data);
-    }
-
     @NonNull
     static Completable writeClientCharacteristicConfig(
             final BluetoothGattCharacteristic bluetoothGattCharacteristic,
@@ -0,0 +1,93 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import com.polidea.rxandroidble2.NotificationBatching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.ObservableEmitter;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Groups the values of a characteristic into batches on the thread of the native callback. A batch is emitted when it is full or
+ * when its time window — scheduled once per batch — passes.
+ */
+class NotificationBatcher implements CharacteristicValueSink {
+
+    private static final int MAX_INITIAL_CAPACITY = 64;
+    private final int maxCount;
+    private final long maxTimeNanos;
+    private final Scheduler timeWindowScheduler;
+    private final ObservableEmitter<List<byte[]>> emitter;
+    // guarded by this
+    private List<byte[]> batch = null;
+    // guarded by this
+    private Disposable timeWindow = null;
+
+    NotificationBatcher(NotificationBatching batching, Scheduler timeWindowScheduler, ObservableEmitter<List<byte[]>> emitter) {
+        this.maxCount = batching.getMaxCount();
+        this.maxTimeNanos = batching.getMaxTimeNanos();
+        this.timeWindowScheduler = timeWindowScheduler;
+        this.emitter = emitter;
+    }
+
+    @Override
+    public synchronized void onValue(byte[] value) {
+        if (batch == null) {
+            batch = new ArrayList<>(Math.min(maxCount, MAX_INITIAL_CAPACITY));
+            if (maxTimeNanos != NotificationBatching.NO_TIME_WINDOW) {
+                timeWindow = timeWindowScheduler.scheduleDirect(new TimeWindowEnd(batch), maxTimeNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        batch.add(value);
+        if (batch.size() >= maxCount) {
+            if (timeWindow != null) {
+                timeWindow.dispose();
+                timeWindow = null;
+            }
+            emitBatch();
+        }
+    }
+
+    synchronized void onTimeWindowEnd(List<byte[]> timedBatch) {
+        // the batch might have been emitted already because it was full
+        if (batch == timedBatch) {
+            timeWindow = null;
+            emitBatch();
+        }
+    }
+
+    /**
+     * Discards the values of the current batch.
+     */
+    synchronized void dispose() {
+        batch = null;
+        if (timeWindow != null) {
+            timeWindow.dispose();
+            timeWindow = null;
+        }
+    }
+
+    private void emitBatch() {
+        final List<byte[]> fullBatch = batch;
+        batch = null;
+        // emitting under the lock keeps the batches in order
+        emitter.onNext(fullBatch);
+    }
+
+    private final class TimeWindowEnd implements Runnable {
+
+        private final List<byte[]> timedBatch;
+
+        TimeWindowEnd(List<byte[]> timedBatch) {
+            this.timedBatch = timedBatch;
+        }
+
+        @Override
+        public void run() {
+            onTimeWindowEnd(timedBatch);
+        }
+    }
+}
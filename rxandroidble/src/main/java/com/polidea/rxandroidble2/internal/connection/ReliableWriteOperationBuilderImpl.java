@@ -0,0 +1,66 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import static android.bluetooth.BluetoothGattCharacteristic.PROPERTY_WRITE;
+
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import androidx.annotation.NonNull;
+
+import com.polidea.rxandroidble2.RxBleConnection;
+import com.polidea.rxandroidble2.internal.operations.OperationsProvider;
+import com.polidea.rxandroidble2.internal.serialization.ConnectionOperationQueue;
+import com.polidea.rxandroidble2.internal.util.ByteAssociation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import bleshadow.javax.inject.Inject;
+import io.reactivex.Completable;
+import io.reactivex.CompletableSource;
+
+public final class ReliableWriteOperationBuilderImpl implements RxBleConnection.ReliableWriteOperationBuilder {
+
+    private final ConnectionOperationQueue operationQueue;
+    private final OperationsProvider operationsProvider;
+    private final IllegalOperationChecker illegalOperationChecker;
+    private final List<Completable> illegalOperationChecks = new ArrayList<>();
+    private final List<ByteAssociation<BluetoothGattCharacteristic>> writes = new ArrayList<>();
+
+    @Inject
+    ReliableWriteOperationBuilderImpl(
+            ConnectionOperationQueue operationQueue,
+            OperationsProvider operationsProvider,
+            IllegalOperationChecker illegalOperationChecker
+    ) {
+        this.operationQueue = operationQueue;
+        this.operationsProvider = operationsProvider;
+        this.illegalOperationChecker = illegalOperationChecker;
+    }
+
+    @Override
+    public RxBleConnection.ReliableWriteOperationBuilder addWriteCharacteristic(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                                @NonNull byte[] data) {
+        // the Prepare Write Request needs a write with response
+        illegalOperationChecks.add(illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_WRITE));
+        writes.add(new ByteAssociation<>(characteristic, data));
+        return this;
+    }
+
+    @Override
+    public Completable build() {
+        if (writes.isEmpty()) {
+            throw new IllegalArgumentException("At least one write needs to be added before build()");
+        }
+
+        final List<ByteAssociation<BluetoothGattCharacteristic>> transactionWrites = new ArrayList<>(writes);
+        return Completable.concat(new ArrayList<>(illegalOperationChecks))
+                .andThen(Completable.defer(new Callable<CompletableSource>() {
+                    @Override
+                    public CompletableSource call() {
+                        return operationQueue.queue(operationsProvider.provideReliableWriteOperation(transactionWrites))
+                                .ignoreElements();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,79 @@
+package com.polidea.rxandroidble2.internal.connection;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Receives the single response of the GATT operation in flight directly from the {@link RxBleGattCallback} — the slot is completed
+ * in the native callback and no Rx operators are subscribed for the operation. The response or the error is then passed to
+ * {@link #onResponse(Object)} or {@link #onError(Throwable)} on the callback thread, in order with the other callbacks.
+ * <p>
+ * The slot terminates only once — by the response, by an error or by {@link #cancel()}, whichever comes first.
+ *
+ * @param <R> the type of the response
+ */
+public abstract class ResponseSlot<R> implements Runnable {
+
+    private final AtomicBoolean isTerminated = new AtomicBoolean(false);
+    private R response;
+    private Throwable error;
+
+    /**
+     * Called on the thread of the native callback.
+     *
+     * @param response the response of an operation of the type of the slot
+     * @return true if the response belongs to the operation of the slot
+     */
+    protected abstract boolean matches(R response);
+
+    /**
+     * Called on the callback thread.
+     *
+     * @param response the response of the operation
+     */
+    protected abstract void onResponse(R response);
+
+    /**
+     * Called on the callback thread.
+     *
+     * @param error the status error of the operation or the disconnection
+     */
+    protected abstract void onError(Throwable error);
+
+    /**
+     * @return true if the slot was terminated by this call — neither {@link #onResponse(Object)} nor {@link #onError(Throwable)}
+     * will be called then
+     */
+    public boolean cancel() {
+        return isTerminated.compareAndSet(false, true);
+    }
+
+    boolean isTerminated() {
+        return isTerminated.get();
+    }
+
+    boolean tryComplete(R response) {
+        if (!isTerminated.compareAndSet(false, true)) {
+            return false;
+        }
+        this.response = response;
+        return true;
+    }
+
+    boolean tryFail(Throwable error) {
+        if (!isTerminated.compareAndSet(false, true)) {
+            return false;
+        }
+        this.error = error;
+        return true;
+    }
+
+    @Override
+    public final void run() {
+        // the fields were set before the slot was handed over to the callback thread
+        if (error != null) {
+            onError(error);
+        } else {
+            onResponse(response);
+        }
+    }
+}
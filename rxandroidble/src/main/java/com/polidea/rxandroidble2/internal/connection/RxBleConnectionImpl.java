@@ -17,6 +17,10 @@ import androidx.annotation.RequiresApi;
 
 import com.polidea.rxandroidble2.ClientComponent;
 import com.polidea.rxandroidble2.ConnectionParameters;
+import com.polidea.rxandroidble2.HighThroughputParameters;
+import com.polidea.rxandroidble2.NotificationBackpressure;
+import com.polidea.rxandroidble2.NotificationBatching;
+import com.polidea.rxandroidble2.NotificationRingBuffer;
 import com.polidea.rxandroidble2.NotificationSetupMode;
 import com.polidea.rxandroidble2.PhyPair;
 import com.polidea.rxandroidble2.RxBleConnection;
@@ -24,6 +28,7 @@ import com.polidea.rxandroidble2.RxBleCustomOperation;
 import com.polidea.rxandroidble2.RxBleDeviceServices;
 import com.polidea.rxandroidble2.RxBlePhy;
 import com.polidea.rxandroidble2.RxBlePhyOption;
+import com.polidea.rxandroidble2.TimestampedValue;
 import com.polidea.rxandroidble2.exceptions.BleDisconnectedException;
 import com.polidea.rxandroidble2.exceptions.BleException;
 import com.polidea.rxandroidble2.internal.Priority;
@@ -34,8 +39,11 @@ import com.polidea.rxandroidble2.internal.operations.OperationsProvider;
 import com.polidea.rxandroidble2.internal.serialization.ConnectionOperationQueue;
 import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface;
 import com.polidea.rxandroidble2.internal.util.ByteAssociation;
+import com.polidea.rxandroidble2.internal.util.NotificationBackpressureUtil;
 import com.polidea.rxandroidble2.internal.util.QueueReleasingEmitterWrapper;
+import com.polidea.rxandroidble2.metrics.CallbackDispatchMetrics;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -45,6 +53,7 @@ import bleshadow.javax.inject.Named;
 import bleshadow.javax.inject.Provider;
 import io.reactivex.Completable;
 import io.reactivex.CompletableSource;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.ObservableEmitter;
 import io.reactivex.ObservableSource;
@@ -62,12 +71,16 @@ public class RxBleConnectionImpl implements RxBleConnection {
     final BluetoothGatt bluetoothGatt;
     private final OperationsProvider operationsProvider;
     private final Provider<LongWriteOperationBuilder> longWriteOperationBuilderProvider;
+    private final Provider<BatchOperationBuilder> batchOperationBuilderProvider;
+    private final Provider<ReliableWriteOperationBuilder> reliableWriteOperationBuilderProvider;
     final Scheduler callbackScheduler;
     private final ServiceDiscoveryManager serviceDiscoveryManager;
     private final NotificationAndIndicationManager notificationIndicationManager;
     private final MtuProvider mtuProvider;
     private final DescriptorWriter descriptorWriter;
     private final IllegalOperationChecker illegalOperationChecker;
+    private final CharacteristicReadCoalescer characteristicReadCoalescer;
+    private final HighThroughputManager highThroughputManager;
 
     @Inject
     public RxBleConnectionImpl(
@@ -80,8 +93,12 @@ public class RxBleConnectionImpl implements RxBleConnection {
             DescriptorWriter descriptorWriter,
             OperationsProvider operationProvider,
             Provider<LongWriteOperationBuilder> longWriteOperationBuilderProvider,
+            Provider<BatchOperationBuilder> batchOperationBuilderProvider,
+            Provider<ReliableWriteOperationBuilder> reliableWriteOperationBuilderProvider,
             @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler callbackScheduler,
-            IllegalOperationChecker illegalOperationChecker
+            IllegalOperationChecker illegalOperationChecker,
+            CharacteristicReadCoalescer characteristicReadCoalescer,
+            HighThroughputManager highThroughputManager
     ) {
         this.operationQueue = operationQueue;
         this.gattCallback = gattCallback;
@@ -92,8 +109,12 @@ public class RxBleConnectionImpl implements RxBleConnection {
         this.descriptorWriter = descriptorWriter;
         this.operationsProvider = operationProvider;
         this.longWriteOperationBuilderProvider = longWriteOperationBuilderProvider;
+        this.batchOperationBuilderProvider = batchOperationBuilderProvider;
+        this.reliableWriteOperationBuilderProvider = reliableWriteOperationBuilderProvider;
         this.callbackScheduler = callbackScheduler;
         this.illegalOperationChecker = illegalOperationChecker;
+        this.characteristicReadCoalescer = characteristicReadCoalescer;
+        this.highThroughputManager = highThroughputManager;
     }
 
     @Override
@@ -101,6 +122,16 @@ public class RxBleConnectionImpl implements RxBleConnection {
         return longWriteOperationBuilderProvider.get();
     }
 
+    @Override
+    public BatchOperationBuilder createNewBatchBuilder() {
+        return batchOperationBuilderProvider.get();
+    }
+
+    @Override
+    public ReliableWriteOperationBuilder createNewReliableWriteBuilder() {
+        return reliableWriteOperationBuilderProvider.get();
+    }
+
     @Override
     @RequiresApi(21 /* Build.VERSION_CODES.LOLLIPOP */)
     public Completable requestConnectionPriority(int connectionPriority, long delay, @NonNull TimeUnit timeUnit) {
@@ -150,6 +181,16 @@ public class RxBleConnectionImpl implements RxBleConnection {
         return operationQueue.queue(operationsProvider.providePhyRequestOperation(txPhyImpls, rxPhyImpls, phyOptionImpl)).firstOrError();
     }
 
+    @Override
+    @RequiresApi(21 /* Build.VERSION_CODES.LOLLIPOP */)
+    public Observable<HighThroughputParameters> setupHighThroughput(int mtu, long connectionPriorityDelay, @NonNull TimeUnit timeUnit) {
+        if (connectionPriorityDelay <= 0) {
+            return Observable.error(new IllegalArgumentException("Delay must be bigger than 0"));
+        }
+
+        return highThroughputManager.setupHighThroughput(mtu, connectionPriorityDelay, timeUnit);
+    }
+
     @Override
     public Single<RxBleDeviceServices> discoverServices() {
         return serviceDiscoveryManager.getDiscoverServicesSingle(20L, TimeUnit.SECONDS);
@@ -230,6 +271,166 @@ public class RxBleConnectionImpl implements RxBleConnection {
                 .andThen(notificationIndicationManager.setupServerInitiatedCharacteristicRead(characteristic, setupMode, true));
     }
 
+    @Override
+    public Flowable<Flowable<byte[]>> setupNotification(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                        @NonNull NotificationBackpressure backpressure) {
+        return NotificationBackpressureUtil.withBackpressure(setupNotification(characteristicUuid, setupMode), backpressure);
+    }
+
+    @Override
+    public Flowable<Flowable<byte[]>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                        @NonNull NotificationSetupMode setupMode,
+                                                        @NonNull NotificationBackpressure backpressure) {
+        return NotificationBackpressureUtil.withBackpressure(setupNotification(characteristic, setupMode), backpressure);
+    }
+
+    @Override
+    public Flowable<Flowable<byte[]>> setupIndication(@NonNull UUID characteristicUuid, @NonNull NotificationSetupMode setupMode,
+                                                      @NonNull NotificationBackpressure backpressure) {
+        return NotificationBackpressureUtil.withBackpressure(setupIndication(characteristicUuid, setupMode), backpressure);
+    }
+
+    @Override
+    public Flowable<Flowable<byte[]>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                      @NonNull NotificationSetupMode setupMode,
+                                                      @NonNull NotificationBackpressure backpressure) {
+        return NotificationBackpressureUtil.withBackpressure(setupIndication(characteristic, setupMode), backpressure);
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupNotification(@NonNull UUID characteristicUuid,
+                                                                @NonNull final NotificationSetupMode setupMode,
+                                                                @NonNull final NotificationRingBuffer ringBuffer) {
+        return getCharacteristic(characteristicUuid)
+                .flatMapObservable(new Function<BluetoothGattCharacteristic, ObservableSource<NotificationRingBuffer>>() {
+                    @Override
+                    public Observable<NotificationRingBuffer> apply(BluetoothGattCharacteristic characteristic) {
+                        return setupNotification(characteristic, setupMode, ringBuffer);
+                    }
+                });
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                @NonNull NotificationSetupMode setupMode,
+                                                                @NonNull NotificationRingBuffer ringBuffer) {
+        return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_NOTIFY)
+                .andThen(notificationIndicationManager.setupServerInitiatedCharacteristicRead(
+                        characteristic, setupMode, false, ringBuffer
+                ));
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupIndication(@NonNull UUID characteristicUuid,
+                                                              @NonNull final NotificationSetupMode setupMode,
+                                                              @NonNull final NotificationRingBuffer ringBuffer) {
+        return getCharacteristic(characteristicUuid)
+                .flatMapObservable(new Function<BluetoothGattCharacteristic, ObservableSource<NotificationRingBuffer>>() {
+                    @Override
+                    public Observable<NotificationRingBuffer> apply(BluetoothGattCharacteristic characteristic) {
+                        return setupIndication(characteristic, setupMode, ringBuffer);
+                    }
+                });
+    }
+
+    @Override
+    public Observable<NotificationRingBuffer> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                              @NonNull NotificationSetupMode setupMode,
+                                                              @NonNull NotificationRingBuffer ringBuffer) {
+        return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_INDICATE)
+                .andThen(notificationIndicationManager.setupServerInitiatedCharacteristicRead(
+                        characteristic, setupMode, true, ringBuffer
+                ));
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupNotification(@NonNull UUID characteristicUuid,
+                                                                  @NonNull final NotificationSetupMode setupMode,
+                                                                  @NonNull final NotificationBatching batching) {
+        return getCharacteristic(characteristicUuid)
+                .flatMapObservable(new Function<BluetoothGattCharacteristic, ObservableSource<Observable<List<byte[]>>>>() {
+                    @Override
+                    public Observable<Observable<List<byte[]>>> apply(BluetoothGattCharacteristic characteristic) {
+                        return setupNotification(characteristic, setupMode, batching);
+                    }
+                });
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                  @NonNull NotificationSetupMode setupMode,
+                                                                  @NonNull NotificationBatching batching) {
+        return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_NOTIFY)
+                .andThen(notificationIndicationManager.setupServerInitiatedCharacteristicRead(
+                        characteristic, setupMode, false, batching
+                ));
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupIndication(@NonNull UUID characteristicUuid,
+                                                                @NonNull final NotificationSetupMode setupMode,
+                                                                @NonNull final NotificationBatching batching) {
+        return getCharacteristic(characteristicUuid)
+                .flatMapObservable(new Function<BluetoothGattCharacteristic, ObservableSource<Observable<List<byte[]>>>>() {
+                    @Override
+                    public Observable<Observable<List<byte[]>>> apply(BluetoothGattCharacteristic characteristic) {
+                        return setupIndication(characteristic, setupMode, batching);
+                    }
+                });
+    }
+
+    @Override
+    public Observable<Observable<List<byte[]>>> setupIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                @NonNull NotificationSetupMode setupMode,
+                                                                @NonNull NotificationBatching batching) {
+        return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_INDICATE)
+                .andThen(notificationIndicationManager.setupServerInitiatedCharacteristicRead(
+                        characteristic, setupMode, true, batching
+                ));
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedNotification(@NonNull UUID characteristicUuid,
+                                                                                 @NonNull final NotificationSetupMode setupMode) {
+        return getCharacteristic(characteristicUuid)
+                .flatMapObservable(new Function<BluetoothGattCharacteristic, ObservableSource<Observable<TimestampedValue>>>() {
+                    @Override
+                    public Observable<Observable<TimestampedValue>> apply(BluetoothGattCharacteristic characteristic) {
+                        return setupTimestampedNotification(characteristic, setupMode);
+                    }
+                });
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedNotification(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                                 @NonNull NotificationSetupMode setupMode) {
+        return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_NOTIFY)
+                .andThen(notificationIndicationManager.setupTimestampedServerInitiatedCharacteristicRead(
+                        characteristic, setupMode, false
+                ));
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedIndication(@NonNull UUID characteristicUuid,
+                                                                               @NonNull final NotificationSetupMode setupMode) {
+        return getCharacteristic(characteristicUuid)
+                .flatMapObservable(new Function<BluetoothGattCharacteristic, ObservableSource<Observable<TimestampedValue>>>() {
+                    @Override
+                    public Observable<Observable<TimestampedValue>> apply(BluetoothGattCharacteristic characteristic) {
+                        return setupTimestampedIndication(characteristic, setupMode);
+                    }
+                });
+    }
+
+    @Override
+    public Observable<Observable<TimestampedValue>> setupTimestampedIndication(@NonNull BluetoothGattCharacteristic characteristic,
+                                                                               @NonNull NotificationSetupMode setupMode) {
+        return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_INDICATE)
+                .andThen(notificationIndicationManager.setupTimestampedServerInitiatedCharacteristicRead(
+                        characteristic, setupMode, true
+                ));
+    }
+
     @Override
     public Single<byte[]> readCharacteristic(@NonNull UUID characteristicUuid) {
         return getCharacteristic(characteristicUuid)
@@ -244,10 +445,42 @@ public class RxBleConnectionImpl implements RxBleConnection {
     @Override
     public Single<byte[]> readCharacteristic(@NonNull BluetoothGattCharacteristic characteristic) {
         return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_READ)
-                .andThen(operationQueue.queue(operationsProvider.provideReadCharacteristic(characteristic)))
+                .andThen(characteristicReadCoalescer.coalesce(
+                        characteristic,
+                        operationQueue.queue(operationsProvider.provideReadCharacteristic(characteristic))
+                ))
                 .firstOrError();
     }
 
+    @Override
+    public Single<TimestampedValue> readCharacteristicTimestamped(@NonNull UUID characteristicUuid) {
+        return getCharacteristic(characteristicUuid)
+                .flatMap(new Function<BluetoothGattCharacteristic, SingleSource<? extends TimestampedValue>>() {
+                    @Override
+                    public SingleSource<? extends TimestampedValue> apply(BluetoothGattCharacteristic characteristic) {
+                        return readCharacteristicTimestamped(characteristic);
+                    }
+                });
+    }
+
+    @Override
+    public Single<TimestampedValue> readCharacteristicTimestamped(@NonNull BluetoothGattCharacteristic characteristic) {
+        return illegalOperationChecker.checkAnyPropertyMatches(characteristic, PROPERTY_READ)
+                .andThen(operationQueue.queue(operationsProvider.provideTimestampedReadCharacteristic(characteristic)))
+                .firstOrError();
+    }
+
+    @Override
+    public long getCoalescedCharacteristicReadsCount() {
+        return characteristicReadCoalescer.getCoalescedReadsCount();
+    }
+
+    @Override
+    @NonNull
+    public CallbackDispatchMetrics getCallbackDispatchMetrics() {
+        return gattCallback.getCallbackDispatchMetrics();
+    }
+
     @Override
     public Single<byte[]> writeCharacteristic(@NonNull UUID characteristicUuid, @NonNull final byte[] data) {
         return getCharacteristic(characteristicUuid)
@@ -4,72 +4,115 @@ import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCallback;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattDescriptor;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
 
 import com.jakewharton.rxrelay2.PublishRelay;
 import com.jakewharton.rxrelay2.Relay;
 import com.polidea.rxandroidble2.ConnectionParameters;
 import com.polidea.rxandroidble2.HiddenBluetoothGattCallback;
+import com.polidea.rxandroidble2.NotificationBatching;
 import com.polidea.rxandroidble2.ClientComponent;
 import com.polidea.rxandroidble2.PhyPair;
 import com.polidea.rxandroidble2.RxBleConnection.RxBleConnectionState;
 import com.polidea.rxandroidble2.RxBleDeviceServices;
 import com.polidea.rxandroidble2.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble2.exceptions.BleException;
 import com.polidea.rxandroidble2.exceptions.BleGattCharacteristicException;
 import com.polidea.rxandroidble2.exceptions.BleGattDescriptorException;
 import com.polidea.rxandroidble2.exceptions.BleGattException;
 import com.polidea.rxandroidble2.exceptions.BleGattOperationType;
+import com.polidea.rxandroidble2.internal.RxBleLog;
 import com.polidea.rxandroidble2.internal.RxBlePhyImpl;
 import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
+import com.polidea.rxandroidble2.internal.metrics.LatencyHistogramRecorder;
+import com.polidea.rxandroidble2.internal.serialization.PipelineCredits;
 import com.polidea.rxandroidble2.internal.util.ByteAssociation;
 import com.polidea.rxandroidble2.internal.util.CharacteristicChangedEvent;
+import com.polidea.rxandroidble2.internal.util.TimestampedByteAssociation;
+import com.polidea.rxandroidble2.metrics.CallbackDispatchMetrics;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 
 import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.ObservableOnSubscribe;
 import io.reactivex.Scheduler;
+import io.reactivex.functions.Cancellable;
+import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
-import java.util.concurrent.TimeUnit;
 
 
 @ConnectionScope
 public class RxBleGattCallback {
 
     private final Scheduler callbackScheduler;
+    private final CallbackHandOff callbackHandOff;
     final BluetoothGattProvider bluetoothGattProvider;
     final DisconnectionRouter disconnectionRouter;
     final NativeCallbackDispatcher nativeCallbackDispatcher;
+    final PipelineCredits pipelineCredits;
     final PublishRelay<RxBleConnectionState> connectionStatePublishRelay = PublishRelay.create();
     final Output<RxBleDeviceServices> servicesDiscoveredOutput = new Output<>();
-    final Output<ByteAssociation<UUID>> readCharacteristicOutput = new Output<>();
+    final Output<TimestampedByteAssociation<UUID>> readCharacteristicOutput = new Output<>();
     final Output<ByteAssociation<UUID>> writeCharacteristicOutput = new Output<>();
+    /*
+     * The writes which may be in flight together. Android calls onCharacteristicWrite in the order the writes were started so each
+     * callback completes the oldest write of its characteristic. A write which has timed out stays here with its cancelled slot
+     * until its late callback arrives so the callback cannot complete the next write.
+     */
+    final Queue<PipelinedWrite> pipelinedWrites = new ConcurrentLinkedQueue<>();
     final Relay<CharacteristicChangedEvent>
             changedCharacteristicSerializedPublishRelay = PublishRelay.<CharacteristicChangedEvent>create().toSerialized();
     final Output<ByteAssociation<BluetoothGattDescriptor>> readDescriptorOutput = new Output<>();
     final Output<ByteAssociation<BluetoothGattDescriptor>> writeDescriptorOutput = new Output<>();
+    final Output<Integer> reliableWriteCompletedOutput = new Output<>();
     final Output<Integer> readRssiOutput = new Output<>();
     final Output<Integer> changedMtuOutput = new Output<>();
     final Output<PhyPair> phyReadOutput = new Output<>();
     final Output<PhyPair> phyUpdateOutput = new Output<>();
     final Output<ConnectionParameters> updatedConnectionOutput = new Output<>();
-    private final Function<BleGattException, Observable<?>> errorMapper = new Function<BleGattException, Observable<?>>() {
+    final LatencyHistogramRecorder notificationDispatchLatencyRecorder = new LatencyHistogramRecorder();
+    final LatencyHistogramRecorder characteristicReadDispatchLatencyRecorder = new LatencyHistogramRecorder();
+    private final Object valueSinkRoutesLock = new Object();
+    /*
+     * Replaced on each change so the callback can iterate it without locking.
+     */
+    private volatile ValueSinkRoute[] valueSinkRoutes = new ValueSinkRoute[0];
+    private final Function<BleGattException, Object> errorThrower = new Function<BleGattException, Object>() {
         @Override
-        public Observable<?> apply(BleGattException bleGattException) {
-            return Observable.error(bleGattException);
+        public Object apply(BleGattException bleGattException) {
+            throw bleGattException;
         }
     };
+    private final Observable<RxBleConnectionState> connectionStateStream;
+    private volatile Observable<CharacteristicChangedEvent> characteristicChangedStream;
+    private final AtomicBoolean isDisconnectionObservedForResponseSlots = new AtomicBoolean(false);
+    volatile BleException responseSlotsDisconnectionException;
 
     @Inject
     public RxBleGattCallback(@Named(ClientComponent.NamedSchedulers.BLUETOOTH_CALLBACKS) Scheduler callbackScheduler,
                              BluetoothGattProvider bluetoothGattProvider,
                              DisconnectionRouter disconnectionRouter,
-                             NativeCallbackDispatcher nativeCallbackDispatcher) {
+                             NativeCallbackDispatcher nativeCallbackDispatcher,
+                             PipelineCredits pipelineCredits) {
         this.callbackScheduler = callbackScheduler;
+        this.callbackHandOff = new CallbackHandOff(callbackScheduler);
         this.bluetoothGattProvider = bluetoothGattProvider;
         this.disconnectionRouter = disconnectionRouter;
         this.nativeCallbackDispatcher = nativeCallbackDispatcher;
+        this.pipelineCredits = pipelineCredits;
+        this.connectionStateStream = callbackHandOff.handOff(connectionStatePublishRelay);
     }
 
     private final BluetoothGattCallback bluetoothGattCallback = new BluetoothGattCallback() {
@@ -104,43 +147,93 @@ public class RxBleGattCallback {
 
             if (servicesDiscoveredOutput.hasObservers()
                     && !propagateErrorIfOccurred(servicesDiscoveredOutput, gatt, status, BleGattOperationType.SERVICE_DISCOVERY)) {
-                servicesDiscoveredOutput.valueRelay.accept(new RxBleDeviceServices(gatt.getServices()));
+                passValue(servicesDiscoveredOutput, new RxBleDeviceServices(gatt.getServices()));
             }
         }
 
         @Override
         public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
+            // taken first so the time of the arrival is not affected by the logging and the native callback
+            final long arrivalRealtimeNanos = SystemClock.elapsedRealtimeNanos();
             byte[] characteristicValue = characteristic.getValue();
             LoggerUtil.logCallback("onCharacteristicRead", gatt, status, characteristic, characteristicValue);
             nativeCallbackDispatcher.notifyNativeReadCallback(gatt, characteristic, status);
             super.onCharacteristicRead(gatt, characteristic, status);
+            passCharacteristicRead(gatt, characteristic, characteristicValue, status, arrivalRealtimeNanos);
+        }
 
+        /*
+         * Since Android 13 (API 33) the value is passed to this callback instead of the deprecated one so it does not need to be taken
+         * from the characteristic object which is shared with concurrent callbacks. The super implementation is not called as it calls
+         * the deprecated callback.
+         */
+        @Override
+        public void onCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, byte[] value, int status) {
+            final long arrivalRealtimeNanos = SystemClock.elapsedRealtimeNanos();
+            LoggerUtil.logCallback("onCharacteristicRead", gatt, status, characteristic, value);
+            nativeCallbackDispatcher.notifyNativeReadCallback(gatt, characteristic, value, status);
+            passCharacteristicRead(gatt, characteristic, value, status, arrivalRealtimeNanos);
+        }
+
+        private void passCharacteristicRead(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, byte[] value, int status,
+                                            long arrivalRealtimeNanos) {
             if (readCharacteristicOutput.hasObservers() && !propagateErrorIfOccurred(
                     readCharacteristicOutput, gatt, characteristic, status, BleGattOperationType.CHARACTERISTIC_READ
             )) {
-                readCharacteristicOutput.valueRelay.accept(new ByteAssociation<>(characteristic.getUuid(), characteristicValue));
+                passValue(readCharacteristicOutput,
+                        new TimestampedByteAssociation<>(characteristic.getUuid(), value, arrivalRealtimeNanos));
             }
         }
 
         @Override
         public void onCharacteristicWrite(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, int status) {
             LoggerUtil.logCallback("onCharacteristicWrite", gatt, status, characteristic, null);
+            final PipelinedWrite pipelinedWrite = pollPipelinedWrite(characteristic);
+            if (pipelinedWrite != null) {
+                // returning the credit right away lets the connection queue start the next pipelined write without waiting for Rx
+                pipelineCredits.onCharacteristicWrite();
+            }
             nativeCallbackDispatcher.notifyNativeWriteCallback(gatt, characteristic, status);
             super.onCharacteristicWrite(gatt, characteristic, status);
+            if (pipelinedWrite != null) {
+                passPipelinedWrite(pipelinedWrite.slot, gatt, characteristic, status);
+            }
 
             if (writeCharacteristicOutput.hasObservers() && !propagateErrorIfOccurred(
                     writeCharacteristicOutput, gatt, characteristic, status, BleGattOperationType.CHARACTERISTIC_WRITE
             )) {
-                writeCharacteristicOutput.valueRelay.accept(new ByteAssociation<>(characteristic.getUuid(), characteristic.getValue()));
+                passValue(writeCharacteristicOutput, new ByteAssociation<>(characteristic.getUuid(), characteristic.getValue()));
             }
         }
 
         @Override
         public void onCharacteristicChanged(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic) {
+            // taken first so the time of the arrival is not affected by the logging and the native callback
+            final long arrivalRealtimeNanos = SystemClock.elapsedRealtimeNanos();
             byte[] characteristicValue = characteristic.getValue();
             LoggerUtil.logCallback("onCharacteristicChanged", gatt, characteristic, characteristicValue);
             nativeCallbackDispatcher.notifyNativeChangedCallback(gatt, characteristic);
             super.onCharacteristicChanged(gatt, characteristic);
+            passCharacteristicChanged(characteristic, characteristicValue, arrivalRealtimeNanos);
+        }
+
+        /*
+         * Since Android 13 (API 33) the value is passed to this callback instead of the deprecated one — a quickly changing
+         * characteristic may get the next value set on the shared characteristic object before this one is read from it. The super
+         * implementation is not called as it calls the deprecated callback.
+         */
+        @Override
+        public void onCharacteristicChanged(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, byte[] value) {
+            final long arrivalRealtimeNanos = SystemClock.elapsedRealtimeNanos();
+            LoggerUtil.logCallback("onCharacteristicChanged", gatt, characteristic, value);
+            nativeCallbackDispatcher.notifyNativeChangedCallback(gatt, characteristic, value);
+            passCharacteristicChanged(characteristic, value, arrivalRealtimeNanos);
+        }
+
+        private void passCharacteristicChanged(BluetoothGattCharacteristic characteristic, byte[] value, long arrivalRealtimeNanos) {
+            if (passToValueSinks(characteristic, value)) {
+                return;
+            }
 
             /*
              * It is important to call changedCharacteristicSerializedPublishRelay as soon as possible because a quick changing
@@ -152,7 +245,8 @@ public class RxBleGattCallback {
                         new CharacteristicChangedEvent(
                                 characteristic.getUuid(),
                                 characteristic.getInstanceId(),
-                                characteristicValue
+                                value,
+                                arrivalRealtimeNanos
                         )
                 );
             }
@@ -164,10 +258,24 @@ public class RxBleGattCallback {
             LoggerUtil.logCallback("onDescriptorRead", gatt, status, descriptor, descriptorValue);
             nativeCallbackDispatcher.notifyNativeDescriptorReadCallback(gatt, descriptor, status);
             super.onDescriptorRead(gatt, descriptor, status);
+            passDescriptorRead(gatt, descriptor, descriptorValue, status);
+        }
+
+        /*
+         * Since Android 13 (API 33) the value is passed to this callback instead of the deprecated one. The super implementation is not
+         * called as it calls the deprecated callback.
+         */
+        @Override
+        public void onDescriptorRead(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, int status, byte[] value) {
+            LoggerUtil.logCallback("onDescriptorRead", gatt, status, descriptor, value);
+            nativeCallbackDispatcher.notifyNativeDescriptorReadCallback(gatt, descriptor, status, value);
+            passDescriptorRead(gatt, descriptor, value, status);
+        }
 
+        private void passDescriptorRead(BluetoothGatt gatt, BluetoothGattDescriptor descriptor, byte[] value, int status) {
             if (readDescriptorOutput.hasObservers()
                     && !propagateErrorIfOccurred(readDescriptorOutput, gatt, descriptor, status, BleGattOperationType.DESCRIPTOR_READ)) {
-                readDescriptorOutput.valueRelay.accept(new ByteAssociation<>(descriptor, descriptorValue));
+                passValue(readDescriptorOutput, new ByteAssociation<>(descriptor, value));
             }
         }
 
@@ -179,7 +287,7 @@ public class RxBleGattCallback {
 
             if (writeDescriptorOutput.hasObservers()
                     && !propagateErrorIfOccurred(writeDescriptorOutput, gatt, descriptor, status, BleGattOperationType.DESCRIPTOR_WRITE)) {
-                writeDescriptorOutput.valueRelay.accept(new ByteAssociation<>(descriptor, descriptor.getValue()));
+                passValue(writeDescriptorOutput, new ByteAssociation<>(descriptor, descriptor.getValue()));
             }
         }
 
@@ -188,6 +296,12 @@ public class RxBleGattCallback {
             LoggerUtil.logCallback("onReliableWriteCompleted", gatt, status);
             nativeCallbackDispatcher.notifyNativeReliableWriteCallback(gatt, status);
             super.onReliableWriteCompleted(gatt, status);
+
+            if (reliableWriteCompletedOutput.hasObservers() && !propagateErrorIfOccurred(
+                    reliableWriteCompletedOutput, gatt, status, BleGattOperationType.RELIABLE_WRITE_COMPLETED
+            )) {
+                passValue(reliableWriteCompletedOutput, status);
+            }
         }
 
         @Override
@@ -198,7 +312,7 @@ public class RxBleGattCallback {
 
             if (readRssiOutput.hasObservers()
                     && !propagateErrorIfOccurred(readRssiOutput, gatt, status, BleGattOperationType.READ_RSSI)) {
-                readRssiOutput.valueRelay.accept(rssi);
+                passValue(readRssiOutput, rssi);
             }
         }
 
@@ -210,7 +324,7 @@ public class RxBleGattCallback {
 
             if (changedMtuOutput.hasObservers()
                     && !propagateErrorIfOccurred(changedMtuOutput, gatt, status, BleGattOperationType.ON_MTU_CHANGED)) {
-                changedMtuOutput.valueRelay.accept(mtu);
+                passValue(changedMtuOutput, mtu);
             }
         }
 
@@ -223,7 +337,7 @@ public class RxBleGattCallback {
             if (phyReadOutput.hasObservers()
                     && !propagateErrorIfOccurred(phyReadOutput, gatt, status, BleGattOperationType.PHY_READ)) {
                 PhyPair phyPair = RxBlePhyImpl.toPhyPair(txPhy, rxPhy);
-                phyReadOutput.valueRelay.accept(phyPair);
+                passValue(phyReadOutput, phyPair);
             }
         }
 
@@ -236,7 +350,7 @@ public class RxBleGattCallback {
             if (phyUpdateOutput.hasObservers()
                     && !propagateErrorIfOccurred(phyUpdateOutput, gatt, status, BleGattOperationType.PHY_UPDATE)) {
                 PhyPair phyPair = RxBlePhyImpl.toPhyPair(txPhy, rxPhy);
-                phyUpdateOutput.valueRelay.accept(phyPair);
+                passValue(phyUpdateOutput, phyPair);
             }
         }
 
@@ -248,11 +362,28 @@ public class RxBleGattCallback {
             nativeCallbackDispatcher.notifyNativeParamsUpdateCallback(gatt, interval, latency, timeout, status);
             if (updatedConnectionOutput.hasObservers()
                     && !propagateErrorIfOccurred(updatedConnectionOutput, gatt, status, BleGattOperationType.CONNECTION_PRIORITY_CHANGE)) {
-                updatedConnectionOutput.valueRelay.accept(new ConnectionParametersImpl(interval, latency, timeout));
+                passValue(updatedConnectionOutput, new ConnectionParametersImpl(interval, latency, timeout));
             }
         }
     };
 
+    boolean passToValueSinks(BluetoothGattCharacteristic characteristic, byte[] value) {
+        final ValueSinkRoute[] routes = valueSinkRoutes;
+        if (routes.length == 0) {
+            return false;
+        }
+        final UUID uuid = characteristic.getUuid();
+        final int instanceId = characteristic.getInstanceId();
+        boolean isPassed = false;
+        for (ValueSinkRoute route : routes) {
+            if (route.instanceId == instanceId && route.uuid.equals(uuid)) {
+                route.sink.onValue(value);
+                isPassed = true;
+            }
+        }
+        return isPassed;
+    }
+
     static RxBleConnectionState mapConnectionStateToRxBleConnectionStatus(int newState) {
 
         switch (newState) {
@@ -267,7 +398,7 @@ public class RxBleGattCallback {
         }
     }
 
-    static boolean propagateErrorIfOccurred(
+    boolean propagateErrorIfOccurred(
             Output<?> output,
             BluetoothGatt gatt,
             BluetoothGattCharacteristic characteristic,
@@ -282,7 +413,7 @@ public class RxBleGattCallback {
         ));
     }
 
-    static boolean propagateErrorIfOccurred(
+    boolean propagateErrorIfOccurred(
             Output<?> output,
             BluetoothGatt gatt,
             BluetoothGattDescriptor descriptor,
@@ -297,7 +428,7 @@ public class RxBleGattCallback {
         ));
     }
 
-    static boolean propagateErrorIfOccurred(Output<?> output, BluetoothGatt gatt, int status, BleGattOperationType operationType) {
+    boolean propagateErrorIfOccurred(Output<?> output, BluetoothGatt gatt, int status, BleGattOperationType operationType) {
         return isException(status) && propagateStatusError(output, new BleGattException(gatt, status, operationType));
     }
 
@@ -305,18 +436,111 @@ public class RxBleGattCallback {
         return status != BluetoothGatt.GATT_SUCCESS;
     }
 
-    private static boolean propagateStatusError(Output<?> output, BleGattException exception) {
+    private boolean propagateStatusError(Output<?> output, BleGattException exception) {
+        failResponseSlot(output, exception);
         output.errorRelay.accept(exception);
         return true;
     }
 
+    @SuppressWarnings("unchecked")
+    <T> void passValue(Output<T> output, T value) {
+        final ResponseSlot<T> slot = (ResponseSlot<T>) output.slot.get();
+        if (slot != null && slot.matches(value) && output.slot.compareAndSet(slot, null) && slot.tryComplete(value)) {
+            callbackHandOff.enqueue(slot);
+        }
+        output.valueRelay.accept(value);
+    }
+
+    void passPipelinedWrite(ResponseSlot<? super ByteAssociation<UUID>> slot, BluetoothGatt gatt,
+                            BluetoothGattCharacteristic characteristic, int status) {
+        final boolean isTerminated = isException(status)
+                ? slot.tryFail(new BleGattCharacteristicException(gatt, characteristic, status, BleGattOperationType.CHARACTERISTIC_WRITE))
+                : slot.tryComplete(new ByteAssociation<>(characteristic.getUuid(), characteristic.getValue()));
+        if (isTerminated) {
+            callbackHandOff.enqueue(slot);
+        }
+    }
+
+    @Nullable
+    PipelinedWrite pollPipelinedWrite(BluetoothGattCharacteristic characteristic) {
+        for (PipelinedWrite pipelinedWrite : pipelinedWrites) {
+            if (pipelinedWrite.isOf(characteristic) && pipelinedWrites.remove(pipelinedWrite)) {
+                return pipelinedWrite;
+            }
+        }
+        return null;
+    }
+
+    void failPipelinedWriteSlots(Throwable error) {
+        PipelinedWrite pipelinedWrite;
+        while ((pipelinedWrite = pipelinedWrites.poll()) != null) {
+            if (pipelinedWrite.slot.tryFail(error)) {
+                callbackHandOff.enqueue(pipelinedWrite.slot);
+            }
+        }
+    }
+
+    void failResponseSlot(Output<?> output, Throwable error) {
+        final ResponseSlot<?> slot = output.slot.get();
+        if (slot != null && output.slot.compareAndSet(slot, null) && slot.tryFail(error)) {
+            callbackHandOff.enqueue(slot);
+        }
+    }
+
+    private boolean setResponseSlot(Output<?> output, ResponseSlot<?> slot) {
+        observeDisconnectionForResponseSlots();
+        final ResponseSlot<?> currentSlot = output.slot.get();
+        if (currentSlot != null && !currentSlot.isTerminated() || !output.slot.compareAndSet(currentSlot, slot)) {
+            return false;
+        }
+        // the disconnection could have happened before the slot was set
+        final BleException disconnectionException = responseSlotsDisconnectionException;
+        if (disconnectionException != null) {
+            failResponseSlot(output, disconnectionException);
+        }
+        return true;
+    }
+
+    private void observeDisconnectionForResponseSlots() {
+        if (!isDisconnectionObservedForResponseSlots.compareAndSet(false, true)) {
+            return;
+        }
+        // the router completes after the first disconnection so the subscription does not need to be disposed
+        disconnectionRouter.asValueOnlyObservable().subscribe(new Consumer<BleException>() {
+            @Override
+            public void accept(BleException exception) {
+                responseSlotsDisconnectionException = exception;
+                failResponseSlot(readCharacteristicOutput, exception);
+                failResponseSlot(writeCharacteristicOutput, exception);
+                failPipelinedWriteSlots(exception);
+            }
+        }, new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable throwable) {
+                RxBleLog.e(throwable, "Failed to observe the disconnection for the response slots.");
+            }
+        });
+    }
+
+    /**
+     * The stream of an output is built once and shared by all operations — observers which subscribe at the same time share a single
+     * subscription of the merge. Each observer has its own hand-over to the callback thread so it gets only the signals emitted after
+     * it has subscribed — not the ones still queued for the observers before it. It is built on the first use so
+     * the {@link DisconnectionRouter} does not need to be ready when the callback is created.
+     */
     @SuppressWarnings("unchecked")
     private <T> Observable<T> withDisconnectionHandling(Output<T> output) {
-        return Observable.merge(
-                disconnectionRouter.<T>asErrorOnlyObservable(),
-                output.valueRelay,
-                (Observable<T>) output.errorRelay.flatMap(errorMapper)
-        );
+        Observable<T> stream = output.stream;
+        if (stream == null) {
+            // a race here only builds an equivalent stream twice
+            stream = callbackHandOff.handOff(Observable.merge(
+                    disconnectionRouter.<T>asErrorOnlyObservable(),
+                    output.valueRelay,
+                    output.errorRelay.map((Function<BleGattException, T>) (Function<BleGattException, ?>) errorThrower)
+            ).share());
+            output.stream = stream;
+        }
+        return stream;
     }
 
     public BluetoothGattCallback getBluetoothGattCallback() {
@@ -337,55 +561,242 @@ public class RxBleGattCallback {
      * Does NOT emit errors even if status != GATT_SUCCESS.
      */
     public Observable<RxBleConnectionState> getOnConnectionStateChange() {
-        return connectionStatePublishRelay.delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return connectionStateStream;
     }
 
     public Observable<RxBleDeviceServices> getOnServicesDiscovered() {
-        return withDisconnectionHandling(servicesDiscoveredOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(servicesDiscoveredOutput);
     }
 
     public Observable<Integer> getOnMtuChanged() {
-        return withDisconnectionHandling(changedMtuOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(changedMtuOutput);
     }
 
     public Observable<PhyPair> getOnPhyRead() {
-        return withDisconnectionHandling(phyReadOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(phyReadOutput);
     }
 
     public Observable<PhyPair> getOnPhyUpdate() {
-        return withDisconnectionHandling(phyUpdateOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(phyUpdateOutput);
     }
 
+    @SuppressWarnings("unchecked")
     public Observable<ByteAssociation<UUID>> getOnCharacteristicRead() {
-        return withDisconnectionHandling(readCharacteristicOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return (Observable<ByteAssociation<UUID>>) (Observable<?>) getOnCharacteristicReadTimestamped();
+    }
+
+    /**
+     * @return Observable emitting the same values as {@link #getOnCharacteristicRead()} together with the time of their arrival
+     */
+    public Observable<TimestampedByteAssociation<UUID>> getOnCharacteristicReadTimestamped() {
+        return withDisconnectionHandling(readCharacteristicOutput);
+    }
+
+    /**
+     * Sets the slot for the response of the characteristic read in flight. The slot is removed when it is completed or failed.
+     *
+     * @param slot the slot of the read operation
+     * @return false if the slot of another read is set — the operation needs to observe {@link #getOnCharacteristicReadTimestamped()}
+     */
+    public boolean setCharacteristicReadSlot(ResponseSlot<? super TimestampedByteAssociation<UUID>> slot) {
+        return setResponseSlot(readCharacteristicOutput, slot);
     }
 
     public Observable<ByteAssociation<UUID>> getOnCharacteristicWrite() {
-        return withDisconnectionHandling(writeCharacteristicOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(writeCharacteristicOutput);
+    }
+
+    /**
+     * Sets the slot for the response of the characteristic write in flight. The slot is removed when it is completed or failed.
+     * Writes which may be in flight together with other writes must use
+     * {@link #addPipelinedCharacteristicWriteSlot(BluetoothGattCharacteristic, ResponseSlot)} instead.
+     *
+     * @param slot the slot of the write operation
+     * @return false if the slot of another write is set — the operation needs to observe {@link #getOnCharacteristicWrite()}
+     */
+    public boolean setCharacteristicWriteSlot(ResponseSlot<? super ByteAssociation<UUID>> slot) {
+        return setResponseSlot(writeCharacteristicOutput, slot);
+    }
+
+    /**
+     * Adds the slot for the response of a write which may be in flight together with other writes — also to the same characteristic.
+     * The slots of a characteristic are completed in the order they were added — one by each
+     * {@link BluetoothGattCallback#onCharacteristicWrite} of the characteristic. The slot has to be added right before the write is
+     * started and removed with {@link #removeNotStartedResponseSlot(ResponseSlot)} if the write was not started. A slot removed with
+     * {@link #removeResponseSlot(ResponseSlot)} is kept until the callback of its write arrives.
+     *
+     * @param characteristic the characteristic being written
+     * @param slot the slot of the write operation
+     */
+    public void addPipelinedCharacteristicWriteSlot(BluetoothGattCharacteristic characteristic,
+                                                    ResponseSlot<? super ByteAssociation<UUID>> slot) {
+        observeDisconnectionForResponseSlots();
+        pipelineCredits.onPipelinedWriteStarting();
+        pipelinedWrites.add(new PipelinedWrite(characteristic.getUuid(), characteristic.getInstanceId(), slot));
+        // the disconnection could have happened before the slot was added
+        final BleException disconnectionException = responseSlotsDisconnectionException;
+        if (disconnectionException != null) {
+            failPipelinedWriteSlots(disconnectionException);
+        }
+    }
+
+    /**
+     * Removes the slot if it was not completed — e.g. after the operation has timed out. The cancelled slot of a pipelined write
+     * is kept to absorb the late callback of the write.
+     *
+     * @param slot the slot previously set
+     */
+    public void removeResponseSlot(ResponseSlot<?> slot) {
+        readCharacteristicOutput.slot.compareAndSet(slot, null);
+        writeCharacteristicOutput.slot.compareAndSet(slot, null);
+    }
+
+    /**
+     * Removes the slot of an operation which could not be started — no callback will arrive for it.
+     *
+     * @param slot the slot previously set
+     */
+    public void removeNotStartedResponseSlot(ResponseSlot<?> slot) {
+        removeResponseSlot(slot);
+        for (PipelinedWrite pipelinedWrite : pipelinedWrites) {
+            if (pipelinedWrite.slot == slot && pipelinedWrites.remove(pipelinedWrite)) {
+                pipelineCredits.onPipelinedWriteNotStarted();
+                return;
+            }
+        }
     }
 
     public Observable<CharacteristicChangedEvent> getOnCharacteristicChanged() {
-        return Observable.merge(
-                disconnectionRouter.<CharacteristicChangedEvent>asErrorOnlyObservable(),
-                changedCharacteristicSerializedPublishRelay
-        )
-                .delay(0, TimeUnit.SECONDS, callbackScheduler);
+        Observable<CharacteristicChangedEvent> stream = characteristicChangedStream;
+        if (stream == null) {
+            stream = callbackHandOff.handOff(Observable.merge(
+                    disconnectionRouter.<CharacteristicChangedEvent>asErrorOnlyObservable(),
+                    changedCharacteristicSerializedPublishRelay
+            ).share());
+            characteristicChangedStream = stream;
+        }
+        return stream;
+    }
+
+    /**
+     * The values of the characteristic are grouped into batches as they arrive in the native callback. While subscribed the values are
+     * not emitted by {@link #getOnCharacteristicChanged()}.
+     *
+     * @param characteristicUuid the UUID of the characteristic
+     * @param instanceId         the instance id of the characteristic
+     * @param batching           describes the batches
+     * @return Observable emitting the batches of the values of the characteristic changes
+     */
+    public Observable<List<byte[]>> observeCharacteristicBatches(final UUID characteristicUuid, final int instanceId,
+                                                                 final NotificationBatching batching) {
+        final Observable<List<byte[]>> batchesObservable = Observable.create(new ObservableOnSubscribe<List<byte[]>>() {
+            @Override
+            public void subscribe(ObservableEmitter<List<byte[]>> emitter) {
+                final NotificationBatcher batcher = new NotificationBatcher(batching, callbackScheduler, emitter);
+                addCharacteristicValueSink(characteristicUuid, instanceId, batcher);
+                emitter.setCancellable(new Cancellable() {
+                    @Override
+                    public void cancel() {
+                        removeCharacteristicValueSink(batcher);
+                        batcher.dispose();
+                    }
+                });
+            }
+        });
+        return callbackHandOff.handOff(Observable.merge(
+                disconnectionRouter.<List<byte[]>>asErrorOnlyObservable(),
+                batchesObservable
+        ));
     }
 
     public Observable<ByteAssociation<BluetoothGattDescriptor>> getOnDescriptorRead() {
-        return withDisconnectionHandling(readDescriptorOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(readDescriptorOutput);
     }
 
     public Observable<ByteAssociation<BluetoothGattDescriptor>> getOnDescriptorWrite() {
-        return withDisconnectionHandling(writeDescriptorOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(writeDescriptorOutput);
+    }
+
+    /**
+     * @return Observable emitting {@link BluetoothGatt#GATT_SUCCESS} when a reliable write was executed — other statuses are emitted
+     * as {@link BleGattException}
+     */
+    public Observable<Integer> getOnReliableWriteCompleted() {
+        return withDisconnectionHandling(reliableWriteCompletedOutput);
     }
 
     public Observable<Integer> getOnRssiRead() {
-        return withDisconnectionHandling(readRssiOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(readRssiOutput);
     }
 
     public Observable<ConnectionParameters> getConnectionParametersUpdates() {
-        return withDisconnectionHandling(updatedConnectionOutput).delay(0, TimeUnit.SECONDS, callbackScheduler);
+        return withDisconnectionHandling(updatedConnectionOutput);
+    }
+
+    /**
+     * Passes the values of the characteristic changes to the sink — they are passed on the thread of the native callback and are not
+     * emitted by {@link #getOnCharacteristicChanged()} until all sinks of the characteristic are removed. The notification setups which
+     * add sinks fail while the values of the same characteristic are observed — see {@link NotificationAndIndicationManager}.
+     *
+     * @param characteristicUuid the UUID of the characteristic
+     * @param instanceId         the instance id of the characteristic
+     * @param sink               the sink to pass the values to
+     */
+    public void addCharacteristicValueSink(UUID characteristicUuid, int instanceId, CharacteristicValueSink sink) {
+        synchronized (valueSinkRoutesLock) {
+            final ValueSinkRoute[] routes = valueSinkRoutes;
+            final ValueSinkRoute[] newRoutes = Arrays.copyOf(routes, routes.length + 1);
+            newRoutes[routes.length] = new ValueSinkRoute(characteristicUuid, instanceId, sink);
+            valueSinkRoutes = newRoutes;
+        }
+    }
+
+    /**
+     * @param sink the sink previously passed to {@link #addCharacteristicValueSink(UUID, int, CharacteristicValueSink)}
+     */
+    public void removeCharacteristicValueSink(CharacteristicValueSink sink) {
+        synchronized (valueSinkRoutesLock) {
+            final ValueSinkRoute[] routes = valueSinkRoutes;
+            for (int i = 0; i < routes.length; i++) {
+                if (routes[i].sink == sink) {
+                    final ValueSinkRoute[] newRoutes = new ValueSinkRoute[routes.length - 1];
+                    System.arraycopy(routes, 0, newRoutes, 0, i);
+                    System.arraycopy(routes, i + 1, newRoutes, i, routes.length - i - 1);
+                    valueSinkRoutes = newRoutes;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the time between the arrival of a characteristic change at the native callback and its dispatch to the notification
+     * observers. Should be called once per change.
+     *
+     * @param arrivalRealtimeNanos the time of the arrival, see {@link CharacteristicChangedEvent#arrivalRealtimeNanos}
+     */
+    public void recordNotificationDispatch(long arrivalRealtimeNanos) {
+        notificationDispatchLatencyRecorder.record(SystemClock.elapsedRealtimeNanos() - arrivalRealtimeNanos);
+    }
+
+    /**
+     * Records the time between the arrival of a characteristic read result at the native callback and its dispatch to the read
+     * operation. Should be called once per read.
+     *
+     * @param arrivalRealtimeNanos the time of the arrival, see {@link TimestampedByteAssociation#arrivalRealtimeNanos}
+     */
+    public void recordCharacteristicReadDispatch(long arrivalRealtimeNanos) {
+        characteristicReadDispatchLatencyRecorder.record(SystemClock.elapsedRealtimeNanos() - arrivalRealtimeNanos);
+    }
+
+    /**
+     * @return the snapshot of the dispatch latencies recorded on this connection
+     */
+    public CallbackDispatchMetrics getCallbackDispatchMetrics() {
+        return new CallbackDispatchMetrics(
+                notificationDispatchLatencyRecorder.snapshot(),
+                characteristicReadDispatchLatencyRecorder.snapshot()
+        );
     }
 
     /**
@@ -416,10 +827,42 @@ public class RxBleGattCallback {
         nativeCallbackDispatcher.setNativeCallbackHidden(callbackHidden);
     }
 
+    private static class ValueSinkRoute {
+
+        final UUID uuid;
+        final int instanceId;
+        final CharacteristicValueSink sink;
+
+        ValueSinkRoute(UUID uuid, int instanceId, CharacteristicValueSink sink) {
+            this.uuid = uuid;
+            this.instanceId = instanceId;
+            this.sink = sink;
+        }
+    }
+
+    static class PipelinedWrite {
+
+        final UUID uuid;
+        final int instanceId;
+        final ResponseSlot<? super ByteAssociation<UUID>> slot;
+
+        PipelinedWrite(UUID uuid, int instanceId, ResponseSlot<? super ByteAssociation<UUID>> slot) {
+            this.uuid = uuid;
+            this.instanceId = instanceId;
+            this.slot = slot;
+        }
+
+        boolean isOf(BluetoothGattCharacteristic characteristic) {
+            return instanceId == characteristic.getInstanceId() && uuid.equals(characteristic.getUuid());
+        }
+    }
+
     private static class Output<T> {
 
         final PublishRelay<T> valueRelay;
         final PublishRelay<BleGattException> errorRelay;
+        final AtomicReference<ResponseSlot<?>> slot = new AtomicReference<>();
+        volatile Observable<T> stream;
 
         Output() {
             this.valueRelay = PublishRelay.create();
@@ -427,7 +870,7 @@ public class RxBleGattCallback {
         }
 
         boolean hasObservers() {
-            return valueRelay.hasObservers() || errorRelay.hasObservers();
+            return slot.get() != null || valueRelay.hasObservers() || errorRelay.hasObservers();
         }
     }
 }
@@ -5,6 +5,7 @@ import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattService;
 import androidx.annotation.NonNull;
 
+import com.polidea.rxandroidble2.ClientComponent;
 import com.polidea.rxandroidble2.RxBleDeviceServices;
 import com.polidea.rxandroidble2.internal.operations.OperationsProvider;
 import com.polidea.rxandroidble2.internal.operations.ServiceDiscoveryOperation;
@@ -16,7 +17,9 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
 import io.reactivex.Maybe;
+import io.reactivex.Scheduler;
 import io.reactivex.Single;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Action;
@@ -24,7 +27,6 @@ import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
 import io.reactivex.functions.Predicate;
 import io.reactivex.internal.functions.Functions;
-import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.BehaviorSubject;
 import io.reactivex.subjects.Subject;
 
@@ -34,15 +36,19 @@ class ServiceDiscoveryManager {
     final ConnectionOperationQueue operationQueue;
     final BluetoothGatt bluetoothGatt;
     final OperationsProvider operationProvider;
+    final Scheduler timeoutScheduler;
     private Single<RxBleDeviceServices> deviceServicesObservable;
     final Subject<TimeoutConfiguration> timeoutBehaviorSubject = BehaviorSubject.<TimeoutConfiguration>create().toSerialized();
     boolean hasCachedResults = false;
+    TimeoutConfiguration lastTimeoutConfiguration;
 
     @Inject
-    ServiceDiscoveryManager(ConnectionOperationQueue operationQueue, BluetoothGatt bluetoothGatt, OperationsProvider operationProvider) {
+    ServiceDiscoveryManager(ConnectionOperationQueue operationQueue, BluetoothGatt bluetoothGatt, OperationsProvider operationProvider,
+                            @Named(ClientComponent.NamedSchedulers.TIMEOUT) Scheduler timeoutScheduler) {
         this.operationQueue = operationQueue;
         this.bluetoothGatt = bluetoothGatt;
         this.operationProvider = operationProvider;
+        this.timeoutScheduler = timeoutScheduler;
         reset();
     }
 
@@ -55,12 +61,25 @@ class ServiceDiscoveryManager {
                     new Consumer<Disposable>() {
                         @Override
                         public void accept(Disposable disposable) {
-                            timeoutBehaviorSubject.onNext(new TimeoutConfiguration(timeout, timeoutTimeUnit, Schedulers.computation()));
+                            timeoutBehaviorSubject.onNext(getTimeoutConfiguration(timeout, timeoutTimeUnit));
                         }
                     });
         }
     }
 
+    /*
+     * Usually the same timeout is passed on each call so the configuration is reused.
+     */
+    TimeoutConfiguration getTimeoutConfiguration(long timeout, TimeUnit timeoutTimeUnit) {
+        final TimeoutConfiguration last = lastTimeoutConfiguration;
+        if (last != null && last.timeout == timeout && last.timeoutTimeUnit == timeoutTimeUnit) {
+            return last;
+        }
+        final TimeoutConfiguration timeoutConfiguration = new TimeoutConfiguration(timeout, timeoutTimeUnit, timeoutScheduler);
+        lastTimeoutConfiguration = timeoutConfiguration;
+        return timeoutConfiguration;
+    }
+
     void reset() {
         hasCachedResults = false;
         this.deviceServicesObservable = getListOfServicesFromGatt()
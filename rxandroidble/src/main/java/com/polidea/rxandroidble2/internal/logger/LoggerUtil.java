@@ -96,6 +96,13 @@ public class LoggerUtil {
         }
     }
 
+    public static void logOperationSkippedBecauseQueueDeadlinePassed(Operation operation, long queueTimeNanos) {
+        if (RxBleLog.isAtLeast(LogConstants.DEBUG)) {
+            RxBleLog.d("SKIPPED  %s(%d) just before running — queue deadline passed after %d ms", operation.getClass().getSimpleName(),
+                    System.identityHashCode(operation), queueTimeNanos / 1_000_000L);
+        }
+    }
+
     public static void logCallback(String callbackName, BluetoothGatt gatt, int status, BluetoothGattCharacteristic characteristic,
                                    @Nullable byte[] valueBytes) {
         if (!RxBleLog.isAtLeast(LogConstants.INFO)) {
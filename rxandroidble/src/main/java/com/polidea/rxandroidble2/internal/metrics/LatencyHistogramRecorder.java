@@ -0,0 +1,62 @@
+package com.polidea.rxandroidble2.internal.metrics;
+
+import com.polidea.rxandroidble2.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records latencies into fixed buckets without locking — recording is a few atomic increments so it can be done for every
+ * operation. See {@link LatencyHistogram} for the bucket layout.
+ */
+public class LatencyHistogramRecorder {
+
+    static final int BUCKETS_COUNT = 32;
+    private static final long FIRST_BUCKET_UPPER_BOUND_NANOS = 1000L;
+    private static final long[] BUCKET_UPPER_BOUNDS_NANOS = new long[BUCKETS_COUNT];
+
+    static {
+        for (int i = 0; i < BUCKETS_COUNT - 1; i++) {
+            BUCKET_UPPER_BOUNDS_NANOS[i] = FIRST_BUCKET_UPPER_BOUND_NANOS << i;
+        }
+        BUCKET_UPPER_BOUNDS_NANOS[BUCKETS_COUNT - 1] = Long.MAX_VALUE;
+    }
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKETS_COUNT);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxNanos = new AtomicLong(Long.MIN_VALUE);
+
+    public void record(long latencyNanos) {
+        final long nanos = Math.max(latencyNanos, 0);
+        bucketCounts.incrementAndGet(bucketIndex(nanos));
+        totalNanos.addAndGet(nanos);
+        long currentMin = minNanos.get();
+        while (nanos < currentMin && !minNanos.compareAndSet(currentMin, nanos)) {
+            currentMin = minNanos.get();
+        }
+        long currentMax = maxNanos.get();
+        while (nanos > currentMax && !maxNanos.compareAndSet(currentMax, nanos)) {
+            currentMax = maxNanos.get();
+        }
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos <= FIRST_BUCKET_UPPER_BOUND_NANOS) {
+            return 0;
+        }
+        final int index = Long.SIZE - Long.numberOfLeadingZeros((nanos - 1) / FIRST_BUCKET_UPPER_BOUND_NANOS);
+        return Math.min(index, BUCKETS_COUNT - 1);
+    }
+
+    /**
+     * @return the snapshot of the recorded latencies — values recorded concurrently may be only partially reflected in it
+     */
+    public LatencyHistogram snapshot() {
+        final long[] counts = new long[BUCKETS_COUNT];
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            counts[i] = bucketCounts.get(i);
+        }
+        return new LatencyHistogram(BUCKET_UPPER_BOUNDS_NANOS.clone(), counts, totalNanos.get(), minNanos.get(), maxNanos.get());
+    }
+}
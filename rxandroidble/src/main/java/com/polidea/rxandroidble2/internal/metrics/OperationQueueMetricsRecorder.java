@@ -0,0 +1,72 @@
+package com.polidea.rxandroidble2.internal.metrics;
+
+import androidx.annotation.Nullable;
+
+import com.polidea.rxandroidble2.ClientScope;
+import com.polidea.rxandroidble2.metrics.OperationMetrics;
+import com.polidea.rxandroidble2.metrics.OperationQueueMetrics;
+import com.polidea.rxandroidble2.metrics.QueueDepthMetrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bleshadow.javax.inject.Inject;
+
+/**
+ * Holds metrics recorders of the client queue and of the connection queues. Connection queues of the same device share
+ * a recorder so the metrics survive reconnections. Only the recorders of the {@link #MAX_RECORDED_DEVICES} most recently
+ * connected devices are kept so that a client connecting to many devices over its lifetime does not grow without bound.
+ */
+@ClientScope
+public class OperationQueueMetricsRecorder {
+
+    static final int MAX_RECORDED_DEVICES = 32;
+    private final QueueMetricsRecorder clientQueueMetricsRecorder = new QueueMetricsRecorder(null);
+    private final Map<String, QueueMetricsRecorder> connectionQueueMetricsRecorders =
+            new LinkedHashMap<String, QueueMetricsRecorder>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, QueueMetricsRecorder> eldest) {
+                    return size() > MAX_RECORDED_DEVICES;
+                }
+            };
+
+    @Inject
+    public OperationQueueMetricsRecorder() {
+    }
+
+    /**
+     * @param deviceMacAddress the MAC address of the device which connection queue is to be recorded or null for the client queue
+     * @return the recorder for the queue
+     */
+    public QueueMetricsRecorder queueMetricsRecorder(@Nullable String deviceMacAddress) {
+        if (deviceMacAddress == null) {
+            return clientQueueMetricsRecorder;
+        }
+        synchronized (connectionQueueMetricsRecorders) {
+            QueueMetricsRecorder recorder = connectionQueueMetricsRecorders.get(deviceMacAddress);
+            if (recorder == null) {
+                recorder = new QueueMetricsRecorder(deviceMacAddress);
+                connectionQueueMetricsRecorders.put(deviceMacAddress, recorder);
+            }
+            return recorder;
+        }
+    }
+
+    public OperationQueueMetrics snapshot() {
+        final List<OperationMetrics> operationMetrics = new ArrayList<>();
+        final List<QueueDepthMetrics> queueDepthMetrics = new ArrayList<>();
+        clientQueueMetricsRecorder.collectOperationMetrics(operationMetrics);
+        queueDepthMetrics.add(clientQueueMetricsRecorder.queueDepthMetrics());
+        final List<QueueMetricsRecorder> recorders;
+        synchronized (connectionQueueMetricsRecorders) {
+            recorders = new ArrayList<>(connectionQueueMetricsRecorders.values());
+        }
+        for (QueueMetricsRecorder recorder : recorders) {
+            recorder.collectOperationMetrics(operationMetrics);
+            queueDepthMetrics.add(recorder.queueDepthMetrics());
+        }
+        return new OperationQueueMetrics(System.nanoTime(), operationMetrics, queueDepthMetrics);
+    }
+}
@@ -0,0 +1,112 @@
+package com.polidea.rxandroidble2.internal.metrics;
+
+import androidx.annotation.Nullable;
+
+import com.polidea.rxandroidble2.internal.operations.Operation;
+import com.polidea.rxandroidble2.metrics.OperationMetrics;
+import com.polidea.rxandroidble2.metrics.QueueDepthMetrics;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records metrics of a single operations queue. Latencies are recorded separately for each operation type.
+ */
+public class QueueMetricsRecorder {
+
+    private final String deviceMacAddress;
+    private final ConcurrentMap<Class<?>, OperationTypeRecorder> operationTypeRecorders = new ConcurrentHashMap<>();
+    private final AtomicInteger currentDepth = new AtomicInteger();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    /**
+     * @param deviceMacAddress the MAC address of the device which connection queue is recorded or null for the client queue
+     */
+    public QueueMetricsRecorder(@Nullable String deviceMacAddress) {
+        this.deviceMacAddress = deviceMacAddress;
+    }
+
+    public void onOperationQueued() {
+        final int depth = currentDepth.incrementAndGet();
+        int currentMaxDepth = maxDepth.get();
+        while (depth > currentMaxDepth && !maxDepth.compareAndSet(currentMaxDepth, depth)) {
+            currentMaxDepth = maxDepth.get();
+        }
+    }
+
+    /**
+     * Called when an operation leaves the queue — either to be run or because it was removed.
+     */
+    public void onOperationDequeued() {
+        currentDepth.decrementAndGet();
+    }
+
+    public void onOperationStarted(Operation<?> operation, long queueWaitTimeNanos) {
+        recorderFor(operation).queueWaitTime.record(queueWaitTimeNanos);
+    }
+
+    public void onOperationFirstCallback(Operation<?> operation, long timeToFirstCallbackNanos) {
+        recorderFor(operation).timeToFirstCallback.record(timeToFirstCallbackNanos);
+    }
+
+    public void onOperationFinished(Operation<?> operation, long totalTimeNanos) {
+        recorderFor(operation).totalTime.record(totalTimeNanos);
+    }
+
+    /**
+     * Called when an operation was not run because its queue deadline passed.
+     */
+    public void onOperationShed(Operation<?> operation) {
+        recorderFor(operation).shedCount.incrementAndGet();
+    }
+
+    private OperationTypeRecorder recorderFor(Operation<?> operation) {
+        final Class<?> operationClass = operation.getClass();
+        final OperationTypeRecorder recorder = operationTypeRecorders.get(operationClass);
+        if (recorder != null) {
+            return recorder;
+        }
+        final OperationTypeRecorder newRecorder = new OperationTypeRecorder(operationNameOf(operationClass));
+        final OperationTypeRecorder previousRecorder = operationTypeRecorders.putIfAbsent(operationClass, newRecorder);
+        return previousRecorder != null ? previousRecorder : newRecorder;
+    }
+
+    private static String operationNameOf(Class<?> operationClass) {
+        final String simpleName = operationClass.getSimpleName();
+        // anonymous classes (i.e. custom operations) have no simple name
+        return simpleName.isEmpty() ? operationClass.getName() : simpleName;
+    }
+
+    void collectOperationMetrics(List<OperationMetrics> operationMetrics) {
+        for (OperationTypeRecorder recorder : operationTypeRecorders.values()) {
+            operationMetrics.add(new OperationMetrics(
+                    deviceMacAddress,
+                    recorder.operationName,
+                    recorder.queueWaitTime.snapshot(),
+                    recorder.timeToFirstCallback.snapshot(),
+                    recorder.totalTime.snapshot(),
+                    recorder.shedCount.get()
+            ));
+        }
+    }
+
+    QueueDepthMetrics queueDepthMetrics() {
+        return new QueueDepthMetrics(deviceMacAddress, currentDepth.get(), maxDepth.get());
+    }
+
+    private static class OperationTypeRecorder {
+
+        final String operationName;
+        final LatencyHistogramRecorder queueWaitTime = new LatencyHistogramRecorder();
+        final LatencyHistogramRecorder timeToFirstCallback = new LatencyHistogramRecorder();
+        final LatencyHistogramRecorder totalTime = new LatencyHistogramRecorder();
+        final AtomicLong shedCount = new AtomicLong();
+
+        OperationTypeRecorder(String operationName) {
+            this.operationName = operationName;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import java.nio.ByteBuffer;
+
+class ByteBufferLongWriteSource extends LongWriteSource {
+
+    private final ByteBuffer byteBuffer;
+    private final int startPosition;
+    private final byte[] result;
+
+    ByteBufferLongWriteSource(ByteBuffer byteBuffer, byte[] result) {
+        this.byteBuffer = byteBuffer;
+        this.startPosition = byteBuffer.position();
+        this.result = result;
+    }
+
+    @Override
+    void open(int rewindableBytes) {
+        byteBuffer.position(startPosition);
+    }
+
+    @Override
+    long length() {
+        return byteBuffer.limit() - startPosition;
+    }
+
+    @Override
+    boolean hasRemaining() {
+        return byteBuffer.hasRemaining();
+    }
+
+    @Override
+    int read(byte[] batch, int length) {
+        final int count = Math.min(length, byteBuffer.remaining());
+        byteBuffer.get(batch, 0, count);
+        return count;
+    }
+
+    @Override
+    long position() {
+        return byteBuffer.position() - startPosition;
+    }
+
+    @Override
+    void seek(long position) {
+        byteBuffer.position(startPosition + (int) position);
+    }
+
+    @Override
+    byte[] getResult() {
+        return result;
+    }
+}
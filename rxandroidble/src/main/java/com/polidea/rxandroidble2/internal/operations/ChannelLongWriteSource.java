@@ -0,0 +1,142 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import androidx.annotation.Nullable;
+
+import com.polidea.rxandroidble2.metrics.LongWriteProgress;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads the channel ahead in chunks into a buffer that is reused for the whole long write. A {@link FileChannel} is repositioned
+ * for retries, of other channels only the last read bytes which may need to be written again are kept in the buffer.
+ */
+class ChannelLongWriteSource extends LongWriteSource {
+
+    private static final int READ_AHEAD_BYTES = 4096;
+
+    private final ReadableByteChannel channel;
+    @Nullable
+    private final FileChannel fileChannel;
+    private long channelStartPosition = -1;
+    private long length = LongWriteProgress.UNKNOWN_TOTAL_BYTES;
+    private boolean wasOpened;
+    private int rewindableBytes;
+    private boolean isEndOfChannel;
+    /**
+     * Holds the bytes of the source starting at {@link #bufferStart} up to the limit. The position is the next byte to read.
+     */
+    private ByteBuffer buffer;
+    private long bufferStart;
+
+    ChannelLongWriteSource(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.fileChannel = channel instanceof FileChannel ? (FileChannel) channel : null;
+    }
+
+    @Override
+    void open(int rewindableBytes) throws IOException {
+        if (fileChannel != null) {
+            if (channelStartPosition < 0) {
+                channelStartPosition = fileChannel.position();
+            } else {
+                fileChannel.position(channelStartPosition);
+            }
+            length = fileChannel.size() - channelStartPosition;
+        } else if (wasOpened) {
+            throw new IllegalStateException("The channel was already read by a previous long write and cannot be read again.");
+        }
+        wasOpened = true;
+        this.rewindableBytes = rewindableBytes;
+        final int capacity = rewindableBytes + READ_AHEAD_BYTES;
+        if (buffer == null || buffer.capacity() < capacity) {
+            buffer = ByteBuffer.allocateDirect(capacity);
+        }
+        bufferStart = 0;
+        clearBuffer();
+    }
+
+    @Override
+    long length() {
+        return length;
+    }
+
+    @Override
+    boolean hasRemaining() throws IOException {
+        return buffer.hasRemaining() || readAhead();
+    }
+
+    @Override
+    int read(byte[] batch, int length) throws IOException {
+        int count = 0;
+        while (count < length && hasRemaining()) {
+            final int chunk = Math.min(length - count, buffer.remaining());
+            buffer.get(batch, count, chunk);
+            count += chunk;
+        }
+        return count;
+    }
+
+    @Override
+    long position() {
+        return bufferStart + buffer.position();
+    }
+
+    @Override
+    void seek(long position) throws IOException {
+        if (position >= bufferStart && position <= bufferStart + buffer.limit()) {
+            buffer.position((int) (position - bufferStart));
+            return;
+        }
+        if (fileChannel != null) {
+            fileChannel.position(channelStartPosition + position);
+            bufferStart = position;
+            clearBuffer();
+            return;
+        }
+        if (position < bufferStart) {
+            throw new IllegalStateException("Cannot move the channel back to byte " + position + " — only the last "
+                    + rewindableBytes + " read bytes are kept.");
+        }
+        while (position > bufferStart + buffer.limit()) {
+            buffer.position(buffer.limit());
+            if (!readAhead()) {
+                throw new EOFException("Cannot move the channel to byte " + position + " beyond its end.");
+            }
+        }
+        buffer.position((int) (position - bufferStart));
+    }
+
+    /**
+     * Called when all buffered bytes were read. Drops the bytes that no longer may be written again and reads the next chunk.
+     *
+     * @return true if any bytes were read
+     */
+    private boolean readAhead() throws IOException {
+        if (isEndOfChannel) {
+            return false;
+        }
+        final int readPosition = buffer.position();
+        final int keptFrom = Math.max(0, readPosition - rewindableBytes);
+        buffer.position(keptFrom);
+        buffer.compact();
+        bufferStart += keptFrom;
+        int count;
+        do {
+            count = channel.read(buffer);
+        } while (count == 0 && buffer.hasRemaining());
+        isEndOfChannel = count < 0;
+        buffer.flip();
+        buffer.position(readPosition - keptFrom);
+        return buffer.hasRemaining();
+    }
+
+    private void clearBuffer() {
+        buffer.clear();
+        buffer.limit(0);
+        isEndOfChannel = false;
+    }
+}
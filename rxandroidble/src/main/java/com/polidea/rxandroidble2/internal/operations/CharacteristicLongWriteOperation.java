@@ -4,6 +4,7 @@ import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.os.DeadObjectException;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.polidea.rxandroidble2.ClientComponent;
 import com.polidea.rxandroidble2.LogConstants;
@@ -26,8 +27,11 @@ import com.polidea.rxandroidble2.internal.util.ByteAssociation;
 import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
 import com.polidea.rxandroidble2.internal.util.QueueReleasingEmitterWrapper;
 
-import java.nio.ByteBuffer;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
 
 import bleshadow.javax.inject.Named;
 import io.reactivex.Observable;
@@ -54,7 +58,13 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
     private final PayloadSizeLimitProvider batchSizeProvider;
     private final WriteOperationAckStrategy writeOperationAckStrategy;
     private final WriteOperationRetryStrategy writeOperationRetryStrategy;
-    final byte[] bytesToWrite;
+    private final int windowSize;
+    @Nullable
+    private final Observable<Integer> windowAcknowledgements;
+    private final LongWriteSource source;
+    @Nullable
+    private final LongWriteProgressRecorder progressRecorder;
+    private final int deviceSdk;
     private byte[] tempBatchArray;
 
     CharacteristicLongWriteOperation(
@@ -66,7 +76,11 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
             PayloadSizeLimitProvider batchSizeProvider,
             WriteOperationAckStrategy writeOperationAckStrategy,
             WriteOperationRetryStrategy writeOperationRetryStrategy,
-            byte[] bytesToWrite) {
+            int windowSize,
+            @Nullable Observable<Integer> windowAcknowledgements,
+            LongWriteSource source,
+            @Nullable LongWriteProgressRecorder progressRecorder,
+            int deviceSdk) {
         this.bluetoothGatt = bluetoothGatt;
         this.rxBleGattCallback = rxBleGattCallback;
         this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
@@ -75,7 +89,11 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
         this.batchSizeProvider = batchSizeProvider;
         this.writeOperationAckStrategy = writeOperationAckStrategy;
         this.writeOperationRetryStrategy = writeOperationRetryStrategy;
-        this.bytesToWrite = bytesToWrite;
+        this.windowSize = windowSize;
+        this.windowAcknowledgements = windowAcknowledgements;
+        this.source = source;
+        this.progressRecorder = progressRecorder;
+        this.deviceSdk = deviceSdk;
     }
 
     @Override
@@ -84,18 +102,56 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
         if (batchSize <= 0) {
             throw new IllegalArgumentException("batchSizeProvider value must be greater than zero (now: " + batchSize + ")");
         }
+        final QueueReleasingEmitterWrapper<byte[]> emitterWrapper = new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface);
+        try {
+            // a retry may go back to the first batch that was not acknowledged
+            source.open(windowSize * batchSize);
+        } catch (IOException e) {
+            emitterWrapper.onError(e);
+            return;
+        }
+        if (progressRecorder != null) {
+            progressRecorder.onStarted(source.length());
+        }
+        final Observer<Object> resultObserver = new Observer<Object>() {
+            @Override
+            public void onSubscribe(Disposable d) {
+                // not used
+            }
+
+            @Override
+            public void onNext(Object progress) {
+                // not used
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                emitterWrapper.onError(e);
+            }
+
+            @Override
+            public void onComplete() {
+                if (progressRecorder != null) {
+                    progressRecorder.onFinished();
+                }
+                emitterWrapper.onNext(source.getResult());
+                emitterWrapper.onComplete();
+            }
+        };
+        if (windowSize > 1 || windowAcknowledgements != null) {
+            writeWindowed(batchSize, emitterWrapper).subscribe(resultObserver);
+            return;
+        }
         final Observable<ByteAssociation<UUID>> timeoutObservable = Observable.error(
                 new BleGattCallbackTimeoutException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_LONG_WRITE)
         );
-        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytesToWrite);
-        final QueueReleasingEmitterWrapper<byte[]> emitterWrapper = new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface);
         final IntSupplier previousBatchIndexSupplier = new IntSupplier() {
             @Override
             public int get() {
-                return (int) Math.ceil(byteBuffer.position() / (float) batchSize) - 1;
+                return (int) ((source.position() + batchSize - 1) / batchSize) - 1;
             }
         };
-        writeBatchAndObserve(batchSize, byteBuffer, previousBatchIndexSupplier)
+        writeBatchAndObserve(batchSize, previousBatchIndexSupplier)
                 .subscribeOn(bluetoothInteractionScheduler)
                 .filter(writeResponseForMatchingCharacteristic(bluetoothGattCharacteristic))
                 .take(1)
@@ -105,32 +161,19 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
                         timeoutConfiguration.timeoutScheduler,
                         timeoutObservable
                 )
-                .repeatWhen(bufferIsNotEmptyAndOperationHasBeenAcknowledgedAndNotUnsubscribed(
-                        writeOperationAckStrategy, byteBuffer, emitterWrapper
-                ))
-                .retryWhen(errorIsRetryableAndAccordingTo(writeOperationRetryStrategy, byteBuffer, batchSize, previousBatchIndexSupplier))
-                .subscribe(new Observer<ByteAssociation<UUID>>() {
-                    @Override
-                    public void onSubscribe(Disposable d) {
-                        // not used
-                    }
-
-                    @Override
-                    public void onNext(ByteAssociation<UUID> uuidByteAssociation) {
-                        // not used
-                    }
-
+                .doOnNext(new Consumer<ByteAssociation<UUID>>() {
                     @Override
-                    public void onError(Throwable e) {
-                        emitterWrapper.onError(e);
+                    public void accept(ByteAssociation<UUID> uuidByteAssociation) {
+                        recordProgress(previousBatchIndexSupplier.get() + 1, batchSize);
                     }
-
-                    @Override
-                    public void onComplete() {
-                        emitterWrapper.onNext(bytesToWrite);
-                        emitterWrapper.onComplete();
-                    }
-                });
+                })
+                .repeatWhen(bufferIsNotEmptyAndOperationHasBeenAcknowledgedAndNotUnsubscribed(
+                        writeOperationAckStrategy, source, emitterWrapper
+                ))
+                .retryWhen(errorIsRetryableAndAccordingTo(
+                        writeOperationRetryStrategy, source, batchSize, previousBatchIndexSupplier, progressRecorder
+                ))
+                .subscribe(resultObserver);
     }
 
     @Override
@@ -140,8 +183,7 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
     }
 
     @NonNull
-    private Observable<ByteAssociation<UUID>> writeBatchAndObserve(final int batchSize, final ByteBuffer byteBuffer,
-                                                                   final IntSupplier previousBatchIndexSupplier) {
+    private Observable<ByteAssociation<UUID>> writeBatchAndObserve(final int batchSize, final IntSupplier previousBatchIndexSupplier) {
         final Observable<ByteAssociation<UUID>> onCharacteristicWrite = rxBleGattCallback.getOnCharacteristicWrite();
         return Observable.create(
                 new ObservableOnSubscribe<ByteAssociation<UUID>>() {
@@ -161,7 +203,7 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
                          * call writeCharacteristic.
                          */
                         try {
-                            final byte[] bytesBatch = getNextBatch(byteBuffer, batchSize);
+                            final byte[] bytesBatch = getNextBatch(batchSize);
                             writeData(bytesBatch, previousBatchIndexSupplier);
                         } catch (Throwable throwable) {
                             emitter.onError(throwable);
@@ -170,24 +212,146 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
                 });
     }
 
-    byte[] getNextBatch(ByteBuffer byteBuffer, int batchSize) {
-        final int remainingBytes = byteBuffer.remaining();
-        final int nextBatchSize = Math.min(remainingBytes, batchSize);
-        if (tempBatchArray == null || tempBatchArray.length != nextBatchSize) {
-            tempBatchArray = new byte[nextBatchSize];
+    byte[] getNextBatch(int batchSize) throws IOException {
+        if (tempBatchArray == null || tempBatchArray.length != batchSize) {
+            tempBatchArray = new byte[batchSize];
         }
-        byteBuffer.get(tempBatchArray);
-        return tempBatchArray;
+        final int nextBatchSize = source.read(tempBatchArray, batchSize);
+        // only the last batch may be shorter
+        return nextBatchSize == batchSize ? tempBatchArray : Arrays.copyOf(tempBatchArray, nextBatchSize);
     }
 
     void writeData(byte[] bytesBatch, IntSupplier batchIndexGetter) {
+        if (!writeBatch(bytesBatch, batchIndexGetter.get())) {
+            throw new BleGattCannotStartException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_LONG_WRITE);
+        }
+    }
+
+    private boolean writeBatch(byte[] bytesBatch, int batchIndex) {
         if (RxBleLog.isAtLeast(LogConstants.DEBUG)) {
-            RxBleLog.d("Writing batch #%04d: %s", batchIndexGetter.get(), LoggerUtil.bytesToHex(bytesBatch));
+            RxBleLog.d("Writing batch #%04d: %s", batchIndex, LoggerUtil.bytesToHex(bytesBatch));
         }
-        bluetoothGattCharacteristic.setValue(bytesBatch);
-        final boolean success = bluetoothGatt.writeCharacteristic(bluetoothGattCharacteristic);
-        if (!success) {
-            throw new BleGattCannotStartException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_LONG_WRITE);
+        return GattWriteCompat.writeCharacteristic(deviceSdk, bluetoothGatt, bluetoothGattCharacteristic, bytesBatch);
+    }
+
+    /**
+     * The batches are acknowledged in order so all bytes before the first not acknowledged batch were acknowledged — except
+     * the last batch which may be shorter.
+     */
+    private void recordProgress(int acknowledgedBatchCount, int batchSize) {
+        if (progressRecorder != null) {
+            progressRecorder.onAcknowledged(Math.min((long) acknowledgedBatchCount * batchSize, source.position()), acknowledgedBatchCount);
+        }
+    }
+
+    /**
+     * Writes up to {@link #windowSize} batches before the first of them is acknowledged. Every acknowledged batch returns a credit
+     * which is used to write the next one. Batches are acknowledged by {@link RxBleGattCallback#getOnCharacteristicWrite()} or,
+     * if set, by {@link #windowAcknowledgements} which emits the count of batches acknowledged by the peripheral.
+     * <p>
+     * The Observable emits the index of the first not acknowledged batch on every acknowledgement, so the timeout is measured
+     * between acknowledgements, and completes once all batches were acknowledged.
+     */
+    @NonNull
+    private Observable<Integer> writeWindowed(final int batchSize, final QueueReleasingEmitterWrapper<byte[]> emitterWrapper) {
+        final Observable<Integer> timeoutObservable = Observable.error(
+                new BleGattCallbackTimeoutException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_LONG_WRITE)
+        );
+        final AtomicReference<Window> currentWindow = new AtomicReference<>();
+        final IntSupplier firstNotAcknowledgedBatchIndexSupplier = new IntSupplier() {
+            @Override
+            public int get() {
+                return currentWindow.get().firstNotAcknowledgedBatchIndex;
+            }
+        };
+        return Observable.defer(new Callable<ObservableSource<Integer>>() {
+            @Override
+            public ObservableSource<Integer> call() {
+                final Window window = new Window(batchSize, emitterWrapper);
+                currentWindow.set(window);
+                return acknowledgedBatchCounts()
+                        .observeOn(bluetoothInteractionScheduler)
+                        .map(window)
+                        .takeUntil(window);
+            }
+        })
+                .timeout(
+                        timeoutConfiguration.timeout,
+                        timeoutConfiguration.timeoutTimeUnit,
+                        timeoutConfiguration.timeoutScheduler,
+                        timeoutObservable
+                )
+                .retryWhen(errorIsRetryableAndAccordingTo(
+                        writeOperationRetryStrategy, source, batchSize, firstNotAcknowledgedBatchIndexSupplier, progressRecorder
+                ));
+    }
+
+    /**
+     * Write callbacks are observed in both modes — with the application acknowledgements they return no credits but they still let
+     * the batch rejected by a busy stack be written again and carry the write errors. The trailing zero starts writing only after
+     * both sources were subscribed.
+     */
+    private Observable<Integer> acknowledgedBatchCounts() {
+        final Integer creditsPerWriteCallback = windowAcknowledgements == null ? 1 : 0;
+        final Observable<Integer> writeCallbacks = rxBleGattCallback.getOnCharacteristicWrite()
+                .filter(writeResponseForMatchingCharacteristic(bluetoothGattCharacteristic))
+                .map(new Function<ByteAssociation<UUID>, Integer>() {
+                    @Override
+                    public Integer apply(ByteAssociation<UUID> uuidByteAssociation) {
+                        return creditsPerWriteCallback;
+                    }
+                });
+        if (windowAcknowledgements == null) {
+            return Observable.merge(writeCallbacks, Observable.just(0));
+        }
+        return Observable.merge(writeCallbacks, windowAcknowledgements, Observable.just(0));
+    }
+
+    /**
+     * State of a single attempt of the windowed write. Called serially on the {@link #bluetoothInteractionScheduler}.
+     */
+    private final class Window implements Function<Integer, Integer>, Predicate<Integer> {
+
+        private final int batchSize;
+        private final QueueReleasingEmitterWrapper<byte[]> emitterWrapper;
+        private int batchesInFlight;
+        private int nextBatchIndex;
+        volatile int firstNotAcknowledgedBatchIndex;
+
+        Window(int batchSize, QueueReleasingEmitterWrapper<byte[]> emitterWrapper) {
+            this.batchSize = batchSize;
+            this.emitterWrapper = emitterWrapper;
+            this.nextBatchIndex = (int) (source.position() / batchSize);
+            this.firstNotAcknowledgedBatchIndex = nextBatchIndex;
+        }
+
+        @Override
+        public Integer apply(Integer acknowledgedBatchCount) throws IOException {
+            final int acknowledged = Math.min(acknowledgedBatchCount, batchesInFlight);
+            batchesInFlight -= acknowledged;
+            firstNotAcknowledgedBatchIndex += acknowledged;
+            if (acknowledged > 0) {
+                recordProgress(firstNotAcknowledgedBatchIndex, batchSize);
+            }
+            while (batchesInFlight < windowSize && source.hasRemaining() && !emitterWrapper.isWrappedEmitterUnsubscribed()) {
+                final byte[] bytesBatch = getNextBatch(batchSize);
+                if (!writeBatch(bytesBatch, nextBatchIndex)) {
+                    if (batchesInFlight == 0) {
+                        throw new BleGattCannotStartException(bluetoothGatt, BleGattOperationType.CHARACTERISTIC_LONG_WRITE);
+                    }
+                    // the stack is still busy with the batches in flight — the batch is written again on the next acknowledgement
+                    source.seek(source.position() - bytesBatch.length);
+                    break;
+                }
+                batchesInFlight++;
+                nextBatchIndex++;
+            }
+            return firstNotAcknowledgedBatchIndex;
+        }
+
+        @Override
+        public boolean test(Integer firstNotAcknowledgedBatchIndex) throws IOException {
+            return batchesInFlight == 0 && (emitterWrapper.isWrappedEmitterUnsubscribed() || !source.hasRemaining());
         }
     }
 
@@ -204,7 +368,7 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
 
     static Function<Observable<?>, ObservableSource<?>> bufferIsNotEmptyAndOperationHasBeenAcknowledgedAndNotUnsubscribed(
             final WriteOperationAckStrategy writeOperationAckStrategy,
-            final ByteBuffer byteBuffer,
+            final LongWriteSource source,
             final QueueReleasingEmitterWrapper<byte[]> emitterWrapper) {
         return new Function<Observable<?>, ObservableSource<?>>() {
 
@@ -212,7 +376,7 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
             public ObservableSource<?> apply(Observable<?> emittingOnBatchWriteFinished) {
                 return emittingOnBatchWriteFinished
                         .takeWhile(notUnsubscribed(emitterWrapper))
-                        .map(bufferIsNotEmpty(byteBuffer))
+                        .map(sourceIsNotEmpty(source))
                         .compose(writeOperationAckStrategy)
                         .takeWhile(new Predicate<Boolean>() {
                             @Override
@@ -223,11 +387,11 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
             }
 
             @NonNull
-            private Function<Object, Boolean> bufferIsNotEmpty(final ByteBuffer byteBuffer) {
+            private Function<Object, Boolean> sourceIsNotEmpty(final LongWriteSource source) {
                 return new Function<Object, Boolean>() {
                     @Override
-                    public Boolean apply(Object emittedFromActStrategy) {
-                        return byteBuffer.hasRemaining();
+                    public Boolean apply(Object emittedFromActStrategy) throws IOException {
+                        return source.hasRemaining();
                     }
                 };
             }
@@ -246,17 +410,19 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
 
     private static Function<Observable<Throwable>, ObservableSource<?>> errorIsRetryableAndAccordingTo(
             final WriteOperationRetryStrategy writeOperationRetryStrategy,
-            final ByteBuffer byteBuffer,
+            final LongWriteSource source,
             final int batchSize,
-            final IntSupplier previousBatchIndexSupplier) {
+            final IntSupplier previousBatchIndexSupplier,
+            @Nullable final LongWriteProgressRecorder progressRecorder) {
         return new Function<Observable<Throwable>, ObservableSource<?>>() {
 
             @Override
             public ObservableSource<?> apply(Observable<Throwable> emittedOnWriteFailure) {
                 return emittedOnWriteFailure
                         .flatMap(toLongWriteFailureOrError())
-                        .doOnNext(repositionByteBufferForRetry())
-                        .compose(writeOperationRetryStrategy);
+                        .doOnNext(repositionSourceForRetry())
+                        .compose(writeOperationRetryStrategy)
+                        .doOnNext(countRetry());
             }
 
             @NonNull
@@ -278,12 +444,24 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
             }
 
             @NonNull
-            private Consumer<WriteOperationRetryStrategy.LongWriteFailure> repositionByteBufferForRetry() {
+            private Consumer<WriteOperationRetryStrategy.LongWriteFailure> repositionSourceForRetry() {
+                return new Consumer<WriteOperationRetryStrategy.LongWriteFailure>() {
+                    @Override
+                    public void accept(WriteOperationRetryStrategy.LongWriteFailure longWriteFailure) throws IOException {
+                        final long newSourcePosition = (long) longWriteFailure.getBatchIndex() * batchSize;
+                        source.seek(newSourcePosition);
+                    }
+                };
+            }
+
+            @NonNull
+            private Consumer<WriteOperationRetryStrategy.LongWriteFailure> countRetry() {
                 return new Consumer<WriteOperationRetryStrategy.LongWriteFailure>() {
                     @Override
                     public void accept(WriteOperationRetryStrategy.LongWriteFailure longWriteFailure) {
-                        final int newBufferPosition = longWriteFailure.getBatchIndex() * batchSize;
-                        byteBuffer.position(newBufferPosition);
+                        if (progressRecorder != null) {
+                            progressRecorder.onRetry();
+                        }
                     }
                 };
             }
@@ -296,6 +474,7 @@ public class CharacteristicLongWriteOperation extends QueueOperation<byte[]> {
                 + LoggerUtil.commonMacMessage(bluetoothGatt)
                 + ", characteristic=" + LoggerUtil.wrap(bluetoothGattCharacteristic, null)
                 + ", maxBatchSize=" + batchSizeProvider.getPayloadSizeLimit()
+                + ", windowSize=" + windowSize
                 + '}';
     }
 
@@ -8,31 +8,69 @@ import com.polidea.rxandroidble2.internal.SingleResponseOperation;
 import com.polidea.rxandroidble2.internal.connection.ConnectionModule;
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
+import com.polidea.rxandroidble2.internal.util.ByteAssociation;
+import com.polidea.rxandroidble2.internal.util.TimestampedByteAssociation;
+
+import java.util.UUID;
 
 import bleshadow.javax.inject.Named;
 
 import io.reactivex.Single;
+import io.reactivex.functions.Consumer;
 
 import static com.polidea.rxandroidble2.internal.util.ByteAssociationUtil.characteristicUUIDPredicate;
 import static com.polidea.rxandroidble2.internal.util.ByteAssociationUtil.getBytesFromAssociation;
 
 public class CharacteristicReadOperation extends SingleResponseOperation<byte[]> {
 
+    private final RxBleGattCallback rxBleGattCallback;
     private final BluetoothGattCharacteristic bluetoothGattCharacteristic;
 
     CharacteristicReadOperation(RxBleGattCallback rxBleGattCallback, BluetoothGatt bluetoothGatt,
                                 @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
                                 BluetoothGattCharacteristic bluetoothGattCharacteristic) {
         super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.CHARACTERISTIC_READ, timeoutConfiguration);
+        this.rxBleGattCallback = rxBleGattCallback;
         this.bluetoothGattCharacteristic = bluetoothGattCharacteristic;
     }
 
     @Override
-    protected Single<byte[]> getCallback(RxBleGattCallback rxBleGattCallback) {
+    protected OperationResponseSlot<?> createResponseSlot() {
+        return new OperationResponseSlot<TimestampedByteAssociation<UUID>>() {
+            @Override
+            protected boolean setOn(RxBleGattCallback rxBleGattCallback) {
+                return rxBleGattCallback.setCharacteristicReadSlot(this);
+            }
+
+            @Override
+            protected boolean matches(TimestampedByteAssociation<UUID> response) {
+                return response.first.equals(bluetoothGattCharacteristic.getUuid());
+            }
+
+            @Override
+            protected byte[] mapResponse(TimestampedByteAssociation<UUID> response) {
+                rxBleGattCallback.recordCharacteristicReadDispatch(response.arrivalRealtimeNanos);
+                return response.second;
+            }
+        };
+    }
+
+    @Override
+    protected Single<byte[]> getCallback(final RxBleGattCallback rxBleGattCallback) {
         return rxBleGattCallback
                 .getOnCharacteristicRead()
                 .filter(characteristicUUIDPredicate(bluetoothGattCharacteristic.getUuid()))
                 .firstOrError()
+                .doOnSuccess(new Consumer<ByteAssociation<UUID>>() {
+                    @Override
+                    public void accept(ByteAssociation<UUID> association) {
+                        if (association instanceof TimestampedByteAssociation) {
+                            rxBleGattCallback.recordCharacteristicReadDispatch(
+                                    ((TimestampedByteAssociation<UUID>) association).arrivalRealtimeNanos
+                            );
+                        }
+                    }
+                })
                 .map(getBytesFromAssociation());
     }
 
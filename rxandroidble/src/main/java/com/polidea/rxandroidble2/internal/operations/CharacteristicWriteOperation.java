@@ -8,25 +8,87 @@ import com.polidea.rxandroidble2.internal.SingleResponseOperation;
 import com.polidea.rxandroidble2.internal.connection.ConnectionModule;
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
+import com.polidea.rxandroidble2.internal.serialization.PipelinableOperation;
+import com.polidea.rxandroidble2.internal.util.ByteAssociation;
+
+import java.util.UUID;
 
 import bleshadow.javax.inject.Named;
 import io.reactivex.Single;
+import io.reactivex.internal.functions.Functions;
 
 import static com.polidea.rxandroidble2.internal.util.ByteAssociationUtil.characteristicUUIDPredicate;
 import static com.polidea.rxandroidble2.internal.util.ByteAssociationUtil.getBytesFromAssociation;
 
-public class CharacteristicWriteOperation extends SingleResponseOperation<byte[]> {
+public class CharacteristicWriteOperation extends SingleResponseOperation<byte[]> implements PipelinableOperation {
 
     private final BluetoothGattCharacteristic bluetoothGattCharacteristic;
     private final byte[] data;
+    private final boolean isWriteWithoutResponse;
+    private final int deviceSdk;
 
     CharacteristicWriteOperation(RxBleGattCallback rxBleGattCallback, BluetoothGatt bluetoothGatt,
                                  @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
                                  BluetoothGattCharacteristic bluetoothGattCharacteristic,
-                                 byte[] data) {
+                                 byte[] data,
+                                 int deviceSdk) {
         super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.CHARACTERISTIC_WRITE, timeoutConfiguration);
         this.bluetoothGattCharacteristic = bluetoothGattCharacteristic;
         this.data = data;
+        this.isWriteWithoutResponse = bluetoothGattCharacteristic.getWriteType() == BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE;
+        this.deviceSdk = deviceSdk;
+    }
+
+    @Override
+    public boolean isPipelinable() {
+        return isWriteWithoutResponse;
+    }
+
+    @Override
+    protected OperationResponseSlot<?> createResponseSlot() {
+        if (isWriteWithoutResponse) {
+            return createPipelinedResponseSlot();
+        }
+        return new OperationResponseSlot<ByteAssociation<UUID>>() {
+            @Override
+            protected boolean setOn(RxBleGattCallback rxBleGattCallback) {
+                return rxBleGattCallback.setCharacteristicWriteSlot(this);
+            }
+
+            @Override
+            protected boolean matches(ByteAssociation<UUID> response) {
+                return response.first.equals(bluetoothGattCharacteristic.getUuid());
+            }
+
+            @Override
+            protected byte[] mapResponse(ByteAssociation<UUID> response) {
+                return GattWriteCompat.isValueSetOnAttribute(deviceSdk) ? response.second : data;
+            }
+        };
+    }
+
+    /**
+     * A write without response may be pipelined with other writes — also to the same characteristic — so it is completed by
+     * the callback of its characteristic in order. The characteristic object may already hold the value of a later write.
+     */
+    private OperationResponseSlot<ByteAssociation<UUID>> createPipelinedResponseSlot() {
+        return new OperationResponseSlot<ByteAssociation<UUID>>() {
+            @Override
+            protected boolean setOn(RxBleGattCallback rxBleGattCallback) {
+                rxBleGattCallback.addPipelinedCharacteristicWriteSlot(bluetoothGattCharacteristic, this);
+                return true;
+            }
+
+            @Override
+            protected boolean matches(ByteAssociation<UUID> response) {
+                return response.first.equals(bluetoothGattCharacteristic.getUuid());
+            }
+
+            @Override
+            protected byte[] mapResponse(ByteAssociation<UUID> response) {
+                return data;
+            }
+        };
     }
 
     @Override
@@ -35,13 +97,13 @@ public class CharacteristicWriteOperation extends SingleResponseOperation<byte[]
                 .getOnCharacteristicWrite()
                 .filter(characteristicUUIDPredicate(bluetoothGattCharacteristic.getUuid()))
                 .firstOrError()
-                .map(getBytesFromAssociation());
+                // the characteristic object does not hold the written value if it was passed to the write directly
+                .map(GattWriteCompat.isValueSetOnAttribute(deviceSdk) ? getBytesFromAssociation() : Functions.justFunction(data));
     }
 
     @Override
     protected boolean startOperation(BluetoothGatt bluetoothGatt) {
-        bluetoothGattCharacteristic.setValue(data);
-        return bluetoothGatt.writeCharacteristic(bluetoothGattCharacteristic);
+        return GattWriteCompat.writeCharacteristic(deviceSdk, bluetoothGatt, bluetoothGattCharacteristic, data);
     }
 
     @Override
@@ -13,6 +13,7 @@ import bleshadow.javax.inject.Named;
 
 import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
 import io.reactivex.Single;
+import io.reactivex.internal.functions.Functions;
 
 import static com.polidea.rxandroidble2.internal.util.ByteAssociationUtil.descriptorPredicate;
 import static com.polidea.rxandroidble2.internal.util.ByteAssociationUtil.getBytesFromAssociation;
@@ -22,17 +23,20 @@ public class DescriptorWriteOperation extends SingleResponseOperation<byte[]> {
     private final BluetoothGattDescriptor bluetoothGattDescriptor;
     private final byte[] data;
     private final int bluetoothGattCharacteristicDefaultWriteType;
+    private final int deviceSdk;
 
     DescriptorWriteOperation(RxBleGattCallback rxBleGattCallback,
                              BluetoothGatt bluetoothGatt,
                              @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
                              int bluetoothGattCharacteristicDefaultWriteType,
                              BluetoothGattDescriptor bluetoothGattDescriptor,
-                             byte[] data) {
+                             byte[] data,
+                             int deviceSdk) {
         super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.DESCRIPTOR_WRITE, timeoutConfiguration);
         this.bluetoothGattCharacteristicDefaultWriteType = bluetoothGattCharacteristicDefaultWriteType;
         this.bluetoothGattDescriptor = bluetoothGattDescriptor;
         this.data = data;
+        this.deviceSdk = deviceSdk;
     }
 
     @Override
@@ -41,13 +45,12 @@ public class DescriptorWriteOperation extends SingleResponseOperation<byte[]> {
                 .getOnDescriptorWrite()
                 .filter(descriptorPredicate(bluetoothGattDescriptor))
                 .firstOrError()
-                .map(getBytesFromAssociation());
+                // the descriptor object does not hold the written value if it was passed to the write directly
+                .map(GattWriteCompat.isValueSetOnAttribute(deviceSdk) ? getBytesFromAssociation() : Functions.justFunction(data));
     }
 
     @Override
     protected boolean startOperation(BluetoothGatt bluetoothGatt) {
-        bluetoothGattDescriptor.setValue(data);
-
         /*
         * According to the source code below Android 7.0.0 the BluetoothGatt.writeDescriptor() function used
         * writeType of the parent BluetoothCharacteristic which caused operation failure (for instance when
@@ -60,7 +63,7 @@ public class DescriptorWriteOperation extends SingleResponseOperation<byte[]> {
         final int originalWriteType = bluetoothGattCharacteristic.getWriteType();
         bluetoothGattCharacteristic.setWriteType(bluetoothGattCharacteristicDefaultWriteType);
 
-        final boolean success = bluetoothGatt.writeDescriptor(bluetoothGattDescriptor);
+        final boolean success = GattWriteCompat.writeDescriptor(deviceSdk, bluetoothGatt, bluetoothGattDescriptor, data);
         bluetoothGattCharacteristic.setWriteType(originalWriteType);
         return success;
     }
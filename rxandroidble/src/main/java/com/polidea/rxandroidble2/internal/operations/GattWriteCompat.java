@@ -0,0 +1,58 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import android.annotation.SuppressLint;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.bluetooth.BluetoothGattDescriptor;
+import android.bluetooth.BluetoothStatusCodes;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * Writes characteristics and descriptors. Since Android 13 (API 33) the value is passed to {@link BluetoothGatt} directly — below it
+ * the value needs to be set on the attribute object first which is shared with concurrent callbacks of the same attribute.
+ */
+final class GattWriteCompat {
+
+    private GattWriteCompat() {
+
+    }
+
+    /**
+     * @param deviceSdk the SDK version of the device
+     * @return true if the attribute object holds the written value when the write callback is called
+     */
+    static boolean isValueSetOnAttribute(int deviceSdk) {
+        return deviceSdk < 33 /* Build.VERSION_CODES.TIRAMISU */;
+    }
+
+    @SuppressLint("NewApi")
+    static boolean writeCharacteristic(int deviceSdk, BluetoothGatt bluetoothGatt, BluetoothGattCharacteristic characteristic,
+                                       byte[] value) {
+        if (!isValueSetOnAttribute(deviceSdk)) {
+            return writeCharacteristicApi33(bluetoothGatt, characteristic, value);
+        }
+        characteristic.setValue(value);
+        return bluetoothGatt.writeCharacteristic(characteristic);
+    }
+
+    @SuppressLint("NewApi")
+    static boolean writeDescriptor(int deviceSdk, BluetoothGatt bluetoothGatt, BluetoothGattDescriptor descriptor, byte[] value) {
+        if (!isValueSetOnAttribute(deviceSdk)) {
+            return writeDescriptorApi33(bluetoothGatt, descriptor, value);
+        }
+        descriptor.setValue(value);
+        return bluetoothGatt.writeDescriptor(descriptor);
+    }
+
+    @RequiresApi(33 /* Build.VERSION_CODES.TIRAMISU */)
+    private static boolean writeCharacteristicApi33(BluetoothGatt bluetoothGatt, BluetoothGattCharacteristic characteristic,
+                                                    byte[] value) {
+        return bluetoothGatt.writeCharacteristic(characteristic, value, characteristic.getWriteType()) == BluetoothStatusCodes.SUCCESS;
+    }
+
+    @RequiresApi(33 /* Build.VERSION_CODES.TIRAMISU */)
+    private static boolean writeDescriptorApi33(BluetoothGatt bluetoothGatt, BluetoothGattDescriptor descriptor, byte[] value) {
+        return bluetoothGatt.writeDescriptor(descriptor, value) == BluetoothStatusCodes.SUCCESS;
+    }
+}
@@ -0,0 +1,117 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import com.polidea.rxandroidble2.internal.RxBleLog;
+import com.polidea.rxandroidble2.metrics.LongWriteProgress;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Scheduler;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Consumer;
+
+/**
+ * Tracks the progress of a single {@link CharacteristicLongWriteOperation} and records it at most once per interval. The events of
+ * the operation are serialized by its Rx flow and run on the shared thread of the Bluetooth interactions, so the recorded progress
+ * is only published to a conflating reference and passed to the consumer on the delivery scheduler — a consumer slower than the
+ * updates gets the latest progress and skips the older ones instead of slowing down the writes. The final progress is always passed.
+ */
+class LongWriteProgressRecorder {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final Consumer<LongWriteProgress> progressConsumer;
+    private final long minimumIntervalNanos;
+    private final Scheduler deliveryScheduler;
+    private final AtomicReference<LongWriteProgress> pendingProgress = new AtomicReference<>();
+    private final Runnable deliverPendingProgress = new Runnable() {
+        @Override
+        public void run() {
+            LongWriteProgress progress = pendingProgress.get();
+            while (true) {
+                deliver(progress);
+                // the reference stays set until the delivery ends so no other delivery is scheduled meanwhile
+                if (pendingProgress.compareAndSet(progress, null)) {
+                    return;
+                }
+                progress = pendingProgress.get();
+            }
+        }
+    };
+    private long totalBytes;
+    private long startNanos;
+    private long lastEmissionNanos;
+    private long lastEmissionBytes;
+    private long acknowledgedBytes;
+    private int acknowledgedBatchCount;
+    private int retryCount;
+    private boolean hasEmitted;
+
+    LongWriteProgressRecorder(Consumer<LongWriteProgress> progressConsumer, long minimumIntervalNanos, Scheduler deliveryScheduler) {
+        this.progressConsumer = progressConsumer;
+        this.minimumIntervalNanos = minimumIntervalNanos;
+        this.deliveryScheduler = deliveryScheduler;
+    }
+
+    void onStarted(long totalBytes) {
+        this.totalBytes = totalBytes;
+        startNanos = System.nanoTime();
+        lastEmissionNanos = startNanos;
+        lastEmissionBytes = 0;
+        acknowledgedBytes = 0;
+        acknowledgedBatchCount = 0;
+        retryCount = 0;
+        hasEmitted = false;
+    }
+
+    void onRetry() {
+        retryCount++;
+    }
+
+    void onAcknowledged(long acknowledgedBytes, int acknowledgedBatchCount) {
+        this.acknowledgedBytes = acknowledgedBytes;
+        this.acknowledgedBatchCount = acknowledgedBatchCount;
+        final long nowNanos = System.nanoTime();
+        if (nowNanos - lastEmissionNanos >= minimumIntervalNanos) {
+            emit(nowNanos);
+        }
+    }
+
+    void onFinished() {
+        if (!hasEmitted || acknowledgedBytes != lastEmissionBytes) {
+            emit(System.nanoTime());
+        }
+    }
+
+    private void emit(long nowNanos) {
+        final long elapsedNanos = nowNanos - startNanos;
+        final long sinceLastEmissionNanos = nowNanos - lastEmissionNanos;
+        final LongWriteProgress progress = new LongWriteProgress(
+                acknowledgedBytes,
+                totalBytes,
+                acknowledgedBatchCount,
+                retryCount,
+                elapsedNanos,
+                bytesPerSecond(acknowledgedBytes - lastEmissionBytes, sinceLastEmissionNanos),
+                bytesPerSecond(acknowledgedBytes, elapsedNanos)
+        );
+        lastEmissionNanos = nowNanos;
+        lastEmissionBytes = acknowledgedBytes;
+        hasEmitted = true;
+        if (pendingProgress.getAndSet(progress) == null) {
+            deliveryScheduler.scheduleDirect(deliverPendingProgress);
+        }
+    }
+
+    void deliver(LongWriteProgress progress) {
+        try {
+            progressConsumer.accept(progress);
+        } catch (Throwable throwable) {
+            Exceptions.throwIfFatal(throwable);
+            RxBleLog.e(throwable, "Long write progress consumer has thrown an exception");
+        }
+    }
+
+    private static double bytesPerSecond(long bytes, long nanos) {
+        return nanos > 0 ? bytes * NANOS_PER_SECOND / nanos : 0;
+    }
+}
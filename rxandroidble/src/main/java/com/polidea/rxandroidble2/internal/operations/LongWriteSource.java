@@ -0,0 +1,98 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Source of the bytes written by the {@link CharacteristicLongWriteOperation}. The bytes are read batch by batch when they are
+ * written so that the whole payload does not need to be held on the heap. To retry a failed batch the source is moved back
+ * to it — sources that cannot be repositioned keep only the bytes that were written but not acknowledged yet.
+ * <p>
+ * Reading happens on the bluetooth interaction thread, one batch at a time.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public abstract class LongWriteSource {
+
+    private static final byte[] EMPTY_RESULT = new byte[0];
+
+    /**
+     * @param bytes the bytes to write
+     * @return the source which emits the written array when the long write completes
+     */
+    public static LongWriteSource fromBytes(@NonNull byte[] bytes) {
+        return new ByteBufferLongWriteSource(ByteBuffer.wrap(bytes), bytes);
+    }
+
+    /**
+     * @param byteBuffer the bytes between the position and the limit of the buffer are written, i.e. a memory mapped file
+     * @return the source which leaves the position of the buffer untouched
+     */
+    public static LongWriteSource fromByteBuffer(@NonNull ByteBuffer byteBuffer) {
+        return new ByteBufferLongWriteSource(byteBuffer.duplicate(), EMPTY_RESULT);
+    }
+
+    /**
+     * @param channel the blocking channel read from its current position until its end
+     * @return the source which repositions {@link java.nio.channels.FileChannel}s and reads other channels only once
+     */
+    public static LongWriteSource fromChannel(@NonNull ReadableByteChannel channel) {
+        return new ChannelLongWriteSource(channel);
+    }
+
+    /**
+     * @param inputStream the stream read until its end
+     * @return the source which reads {@link FileInputStream}s through their channels
+     */
+    public static LongWriteSource fromInputStream(@NonNull InputStream inputStream) {
+        if (inputStream instanceof FileInputStream) {
+            return fromChannel(((FileInputStream) inputStream).getChannel());
+        }
+        return fromChannel(Channels.newChannel(inputStream));
+    }
+
+    /**
+     * Called before each run of the long write — moves the source to its beginning.
+     *
+     * @param rewindableBytes the count of the last read bytes which need to be kept for a retry if the source cannot be repositioned
+     */
+    abstract void open(int rewindableBytes) throws IOException;
+
+    abstract boolean hasRemaining() throws IOException;
+
+    /**
+     * @param batch  the array to fill from its beginning
+     * @param length the maximum count of bytes to read
+     * @return the count of bytes read, less than length only at the end of the source
+     */
+    abstract int read(byte[] batch, int length) throws IOException;
+
+    /**
+     * @return the count of bytes of the source or {@link com.polidea.rxandroidble2.metrics.LongWriteProgress#UNKNOWN_TOTAL_BYTES}
+     * if it is known only after the source was read — valid after {@link #open(int)}
+     */
+    abstract long length();
+
+    /**
+     * @return the count of bytes read since the beginning of the source
+     */
+    abstract long position();
+
+    /**
+     * @param position the count of bytes since the beginning of the source to continue reading from
+     */
+    abstract void seek(long position) throws IOException;
+
+    /**
+     * @return the value emitted when the long write completes
+     */
+    byte[] getResult() {
+        return EMPTY_RESULT;
+    }
+}
@@ -3,16 +3,23 @@ package com.polidea.rxandroidble2.internal.operations;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattDescriptor;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
 import com.polidea.rxandroidble2.RxBleConnection;
 import com.polidea.rxandroidble2.internal.RxBlePhyImpl;
 import com.polidea.rxandroidble2.internal.RxBlePhyOptionImpl;
 import com.polidea.rxandroidble2.internal.connection.PayloadSizeLimitProvider;
+import com.polidea.rxandroidble2.internal.util.ByteAssociation;
+import com.polidea.rxandroidble2.metrics.LongWriteProgress;
 
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.Observable;
+import io.reactivex.functions.Consumer;
+
 public interface OperationsProvider {
 
     CharacteristicLongWriteOperation provideLongWriteOperation(
@@ -20,7 +27,13 @@ public interface OperationsProvider {
             RxBleConnection.WriteOperationAckStrategy writeOperationAckStrategy,
             RxBleConnection.WriteOperationRetryStrategy writeOperationRetryStrategy,
             PayloadSizeLimitProvider maxBatchSizeProvider,
-            byte[] bytes);
+            int windowSize,
+            @Nullable Observable<Integer> windowAcknowledgements,
+            LongWriteSource source,
+            @Nullable Consumer<LongWriteProgress> progressConsumer,
+            long progressIntervalNanos);
+
+    ReliableWriteOperation provideReliableWriteOperation(List<ByteAssociation<BluetoothGattCharacteristic>> writes);
 
     @RequiresApi(21 /* Build.VERSION_CODES.LOLLIPOP */)
     MtuRequestOperation provideMtuChangeOperation(int requestedMtu);
@@ -33,6 +46,8 @@ public interface OperationsProvider {
 
     CharacteristicReadOperation provideReadCharacteristic(BluetoothGattCharacteristic characteristic);
 
+    TimestampedCharacteristicReadOperation provideTimestampedReadCharacteristic(BluetoothGattCharacteristic characteristic);
+
     DescriptorReadOperation provideReadDescriptor(BluetoothGattDescriptor descriptor);
 
     ReadRssiOperation provideRssiReadOperation();
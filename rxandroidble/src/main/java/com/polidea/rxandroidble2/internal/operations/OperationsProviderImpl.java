@@ -4,6 +4,7 @@ import android.bluetooth.BluetoothGatt;
 import android.bluetooth.BluetoothGattCharacteristic;
 import android.bluetooth.BluetoothGattDescriptor;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
 import com.polidea.rxandroidble2.ClientComponent;
@@ -14,14 +15,19 @@ import com.polidea.rxandroidble2.internal.connection.ConnectionModule;
 import com.polidea.rxandroidble2.internal.connection.PayloadSizeLimitProvider;
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
 import com.polidea.rxandroidble2.internal.logger.LoggerUtilBluetoothServices;
+import com.polidea.rxandroidble2.internal.util.ByteAssociation;
+import com.polidea.rxandroidble2.metrics.LongWriteProgress;
 
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 import bleshadow.javax.inject.Provider;
+import io.reactivex.Observable;
 import io.reactivex.Scheduler;
+import io.reactivex.functions.Consumer;
 
 public class OperationsProviderImpl implements OperationsProvider {
 
@@ -31,7 +37,9 @@ public class OperationsProviderImpl implements OperationsProvider {
     private final TimeoutConfiguration timeoutConfiguration;
     private final Scheduler bluetoothInteractionScheduler;
     private final Scheduler timeoutScheduler;
+    private final Scheduler computationScheduler;
     private final Provider<ReadRssiOperation> rssiReadOperationProvider;
+    private final int deviceSdk;
 
     @Inject
     OperationsProviderImpl(
@@ -41,14 +49,18 @@ public class OperationsProviderImpl implements OperationsProvider {
             @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
             @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler bluetoothInteractionScheduler,
             @Named(ClientComponent.NamedSchedulers.TIMEOUT) Scheduler timeoutScheduler,
-            Provider<ReadRssiOperation> rssiReadOperationProvider) {
+            @Named(ClientComponent.NamedSchedulers.COMPUTATION) Scheduler computationScheduler,
+            Provider<ReadRssiOperation> rssiReadOperationProvider,
+            @Named(ClientComponent.PlatformConstants.INT_DEVICE_SDK) int deviceSdk) {
         this.rxBleGattCallback = rxBleGattCallback;
         this.bluetoothGatt = bluetoothGatt;
         this.bleServicesLogger = bleServicesLogger;
         this.timeoutConfiguration = timeoutConfiguration;
         this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
         this.timeoutScheduler = timeoutScheduler;
+        this.computationScheduler = computationScheduler;
         this.rssiReadOperationProvider = rssiReadOperationProvider;
+        this.deviceSdk = deviceSdk;
     }
 
     @Override
@@ -57,7 +69,11 @@ public class OperationsProviderImpl implements OperationsProvider {
             RxBleConnection.WriteOperationAckStrategy writeOperationAckStrategy,
             RxBleConnection.WriteOperationRetryStrategy writeOperationRetryStrategy,
             PayloadSizeLimitProvider maxBatchSizeProvider,
-            byte[] bytes) {
+            int windowSize,
+            @Nullable Observable<Integer> windowAcknowledgements,
+            LongWriteSource source,
+            @Nullable Consumer<LongWriteProgress> progressConsumer,
+            long progressIntervalNanos) {
 
         return new CharacteristicLongWriteOperation(bluetoothGatt,
                 rxBleGattCallback,
@@ -67,7 +83,23 @@ public class OperationsProviderImpl implements OperationsProvider {
                 maxBatchSizeProvider,
                 writeOperationAckStrategy,
                 writeOperationRetryStrategy,
-                bytes);
+                windowSize,
+                windowAcknowledgements,
+                source,
+                progressConsumer == null
+                        ? null
+                        : new LongWriteProgressRecorder(progressConsumer, progressIntervalNanos, computationScheduler),
+                deviceSdk);
+    }
+
+    @Override
+    public ReliableWriteOperation provideReliableWriteOperation(List<ByteAssociation<BluetoothGattCharacteristic>> writes) {
+        return new ReliableWriteOperation(rxBleGattCallback,
+                bluetoothGatt,
+                bluetoothInteractionScheduler,
+                timeoutConfiguration,
+                writes,
+                deviceSdk);
     }
 
     @Override
@@ -93,6 +125,11 @@ public class OperationsProviderImpl implements OperationsProvider {
         return new CharacteristicReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic);
     }
 
+    @Override
+    public TimestampedCharacteristicReadOperation provideTimestampedReadCharacteristic(BluetoothGattCharacteristic characteristic) {
+        return new TimestampedCharacteristicReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic);
+    }
+
     @Override
     public DescriptorReadOperation provideReadDescriptor(BluetoothGattDescriptor descriptor) {
         return new DescriptorReadOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, descriptor);
@@ -106,18 +143,18 @@ public class OperationsProviderImpl implements OperationsProvider {
     @Override
     public ServiceDiscoveryOperation provideServiceDiscoveryOperation(long timeout, TimeUnit timeUnit) {
         return new ServiceDiscoveryOperation(rxBleGattCallback, bluetoothGatt, bleServicesLogger,
-                new TimeoutConfiguration(timeout, timeUnit, timeoutScheduler));
+                new TimeoutConfiguration(timeout, timeUnit, timeoutScheduler), computationScheduler);
     }
 
     @Override
     public CharacteristicWriteOperation provideWriteCharacteristic(BluetoothGattCharacteristic characteristic, byte[] data) {
-        return new CharacteristicWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic, data);
+        return new CharacteristicWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, characteristic, data, deviceSdk);
     }
 
     @Override
     public DescriptorWriteOperation provideWriteDescriptor(BluetoothGattDescriptor bluetoothGattDescriptor, byte[] data) {
         return new DescriptorWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration,
-                BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT, bluetoothGattDescriptor, data);
+                BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT, bluetoothGattDescriptor, data, deviceSdk);
     }
 
     @Override
@@ -126,6 +163,6 @@ public class OperationsProviderImpl implements OperationsProvider {
                                                                                       long delay,
                                                                                       TimeUnit timeUnit) {
         return new ConnectionPriorityChangeOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration,
-                connectionPriority, new TimeoutConfiguration(delay, timeUnit, timeoutScheduler));
+                connectionPriority, new TimeoutConfiguration(delay, timeUnit, computationScheduler));
     }
 }
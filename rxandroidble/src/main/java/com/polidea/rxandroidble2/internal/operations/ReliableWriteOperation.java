@@ -0,0 +1,196 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import android.annotation.SuppressLint;
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+import android.os.DeadObjectException;
+import androidx.annotation.NonNull;
+
+import com.polidea.rxandroidble2.ClientComponent;
+import com.polidea.rxandroidble2.exceptions.BleDisconnectedException;
+import com.polidea.rxandroidble2.exceptions.BleException;
+import com.polidea.rxandroidble2.exceptions.BleGattCallbackTimeoutException;
+import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException;
+import com.polidea.rxandroidble2.exceptions.BleGattOperationType;
+import com.polidea.rxandroidble2.internal.QueueOperation;
+import com.polidea.rxandroidble2.internal.RxBleLog;
+import com.polidea.rxandroidble2.internal.connection.ConnectionModule;
+import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
+import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
+import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface;
+import com.polidea.rxandroidble2.internal.util.ByteAssociation;
+import com.polidea.rxandroidble2.internal.util.QueueReleasingEmitterWrapper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import bleshadow.javax.inject.Named;
+import io.reactivex.Completable;
+import io.reactivex.CompletableSource;
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.ObservableSource;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
+import io.reactivex.observers.DisposableObserver;
+
+import static com.polidea.rxandroidble2.internal.util.DisposableUtil.disposableObserverFromEmitter;
+
+/**
+ * Writes the values of characteristics as a single reliable write transaction. Every write is queued on the peripheral with
+ * a Prepare Write Request — the value echoed in the response is validated by the Android stack as it is not passed to the write
+ * callback. The queued values are then written all at once with
+ * {@link BluetoothGatt#executeReliableWrite()} — or discarded with {@link BluetoothGatt#abortReliableWrite()} if anything fails.
+ * The whole transaction occupies a single slot of the connection operation queue.
+ */
+public class ReliableWriteOperation extends QueueOperation<Void> {
+
+    /**
+     * The prepared writes are run inside of this operation which holds the queue until the whole transaction finishes.
+     */
+    private static final QueueReleaseInterface TRANSACTION_HOLDS_QUEUE_RELEASE_INTERFACE = new QueueReleaseInterface() {
+        @Override
+        public void release() {
+            // the queue is released when the whole transaction terminates
+        }
+    };
+
+    private final RxBleGattCallback rxBleGattCallback;
+    private final BluetoothGatt bluetoothGatt;
+    private final Scheduler bluetoothInteractionScheduler;
+    private final TimeoutConfiguration timeoutConfiguration;
+    private final List<ByteAssociation<BluetoothGattCharacteristic>> writes;
+    private final int deviceSdk;
+
+    ReliableWriteOperation(
+            RxBleGattCallback rxBleGattCallback,
+            BluetoothGatt bluetoothGatt,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) Scheduler bluetoothInteractionScheduler,
+            @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
+            List<ByteAssociation<BluetoothGattCharacteristic>> writes,
+            int deviceSdk) {
+        this.rxBleGattCallback = rxBleGattCallback;
+        this.bluetoothGatt = bluetoothGatt;
+        this.bluetoothInteractionScheduler = bluetoothInteractionScheduler;
+        this.timeoutConfiguration = timeoutConfiguration;
+        this.writes = writes;
+        this.deviceSdk = deviceSdk;
+    }
+
+    @Override
+    protected void protectedRun(final ObservableEmitter<Void> emitter, final QueueReleaseInterface queueReleaseInterface) {
+        final QueueReleasingEmitterWrapper<Void> emitterWrapper = new QueueReleasingEmitterWrapper<>(emitter, queueReleaseInterface);
+        if (!bluetoothGatt.beginReliableWrite()) {
+            emitterWrapper.onError(new BleGattCannotStartException(bluetoothGatt, BleGattOperationType.RELIABLE_WRITE_COMPLETED));
+            return;
+        }
+        Observable.fromIterable(writes)
+                .takeWhile(new Predicate<ByteAssociation<BluetoothGattCharacteristic>>() {
+                    @Override
+                    public boolean test(ByteAssociation<BluetoothGattCharacteristic> write) {
+                        return !emitterWrapper.isWrappedEmitterUnsubscribed();
+                    }
+                })
+                .concatMap(new Function<ByteAssociation<BluetoothGattCharacteristic>, ObservableSource<byte[]>>() {
+                    @Override
+                    public ObservableSource<byte[]> apply(ByteAssociation<BluetoothGattCharacteristic> write) {
+                        return prepareWrite(write);
+                    }
+                })
+                .ignoreElements()
+                .andThen(executeOrAbortIfUnsubscribed(emitterWrapper))
+                .doOnError(new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) {
+                        abortReliableWrite();
+                    }
+                })
+                .<Void>toObservable()
+                .subscribe(emitterWrapper);
+    }
+
+    @Override
+    protected BleException provideException(DeadObjectException deadObjectException) {
+        return new BleDisconnectedException(deadObjectException, bluetoothGatt.getDevice().getAddress(),
+                BleDisconnectedException.UNKNOWN_STATUS);
+    }
+
+    /**
+     * While the reliable write is in progress {@link BluetoothGatt#writeCharacteristic(BluetoothGattCharacteristic)} sends
+     * a Prepare Write Request.
+     */
+    @NonNull
+    private Observable<byte[]> prepareWrite(ByteAssociation<BluetoothGattCharacteristic> write) {
+        return new CharacteristicWriteOperation(rxBleGattCallback, bluetoothGatt, timeoutConfiguration, write.first, write.second,
+                deviceSdk)
+                .run(TRANSACTION_HOLDS_QUEUE_RELEASE_INTERFACE)
+                // every write starts on the scheduler that is used for interactions with the BluetoothGatt
+                .subscribeOn(bluetoothInteractionScheduler);
+    }
+
+    @NonNull
+    private Completable executeOrAbortIfUnsubscribed(final QueueReleasingEmitterWrapper<Void> emitterWrapper) {
+        return Completable.defer(new Callable<CompletableSource>() {
+            @Override
+            public CompletableSource call() {
+                if (emitterWrapper.isWrappedEmitterUnsubscribed()) {
+                    abortReliableWrite();
+                    return Completable.complete();
+                }
+                return executeReliableWrite();
+            }
+        });
+    }
+
+    @NonNull
+    private Completable executeReliableWrite() {
+        final Observable<Integer> onReliableWriteCompleted = rxBleGattCallback.getOnReliableWriteCompleted();
+        final Observable<Integer> timeoutObservable = Observable.error(
+                new BleGattCallbackTimeoutException(bluetoothGatt, BleGattOperationType.RELIABLE_WRITE_COMPLETED)
+        );
+        return Observable.create(
+                new ObservableOnSubscribe<Integer>() {
+                    @Override
+                    public void subscribe(ObservableEmitter<Integer> emitter) {
+                        final DisposableObserver<Integer> reliableWriteCallbackObserver = onReliableWriteCompleted
+                                .subscribeWith(disposableObserverFromEmitter(emitter));
+                        emitter.setDisposable(reliableWriteCallbackObserver);
+
+                        if (!bluetoothGatt.executeReliableWrite()) {
+                            emitter.onError(new BleGattCannotStartException(bluetoothGatt, BleGattOperationType.RELIABLE_WRITE_COMPLETED));
+                        }
+                    }
+                })
+                .subscribeOn(bluetoothInteractionScheduler)
+                .take(1)
+                .timeout(
+                        timeoutConfiguration.timeout,
+                        timeoutConfiguration.timeoutTimeUnit,
+                        timeoutConfiguration.timeoutScheduler,
+                        timeoutObservable
+                )
+                .ignoreElements();
+    }
+
+    @SuppressLint("NewApi")
+    @SuppressWarnings("deprecation")
+    private void abortReliableWrite() {
+        RxBleLog.d("Aborting the reliable write");
+        if (deviceSdk >= 19 /* Build.VERSION_CODES.KITKAT */) {
+            bluetoothGatt.abortReliableWrite();
+        } else {
+            bluetoothGatt.abortReliableWrite(bluetoothGatt.getDevice());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReliableWriteOperation{"
+                + LoggerUtil.commonMacMessage(bluetoothGatt)
+                + ", writes=" + writes.size()
+                + '}';
+    }
+}
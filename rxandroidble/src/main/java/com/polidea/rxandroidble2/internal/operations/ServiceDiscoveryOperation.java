@@ -23,15 +23,18 @@ public class ServiceDiscoveryOperation extends SingleResponseOperation<RxBleDevi
 
     final BluetoothGatt bluetoothGatt;
     final LoggerUtilBluetoothServices bleServicesLogger;
+    final Scheduler timerScheduler;
 
     ServiceDiscoveryOperation(
             RxBleGattCallback rxBleGattCallback,
             BluetoothGatt bluetoothGatt,
             LoggerUtilBluetoothServices bleServicesLogger,
-            TimeoutConfiguration timeoutConfiguration) {
+            TimeoutConfiguration timeoutConfiguration,
+            Scheduler timerScheduler) {
         super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.SERVICE_DISCOVERY, timeoutConfiguration);
         this.bluetoothGatt = bluetoothGatt;
         this.bleServicesLogger = bleServicesLogger;
+        this.timerScheduler = timerScheduler;
     }
 
     @Override
@@ -79,7 +82,7 @@ public class ServiceDiscoveryOperation extends SingleResponseOperation<RxBleDevi
             the timeout was not triggered right in the moment of filling the services and then emit a value.
              */
                 return Single
-                        .timer(5, TimeUnit.SECONDS, timeoutScheduler)
+                        .timer(5, TimeUnit.SECONDS, timerScheduler)
                         .flatMap((Function<Long, Single<RxBleDeviceServices>>) delayedSeconds ->
                                 Single.fromCallable(() -> new RxBleDeviceServices(bluetoothGatt.getServices())));
             }
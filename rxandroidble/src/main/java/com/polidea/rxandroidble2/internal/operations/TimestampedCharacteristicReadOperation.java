@@ -0,0 +1,88 @@
+package com.polidea.rxandroidble2.internal.operations;
+
+import android.bluetooth.BluetoothGatt;
+import android.bluetooth.BluetoothGattCharacteristic;
+
+import com.polidea.rxandroidble2.TimestampedValue;
+import com.polidea.rxandroidble2.exceptions.BleGattOperationType;
+import com.polidea.rxandroidble2.internal.SingleResponseOperation;
+import com.polidea.rxandroidble2.internal.connection.ConnectionModule;
+import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback;
+import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
+import com.polidea.rxandroidble2.internal.util.TimestampedByteAssociation;
+
+import java.util.UUID;
+
+import bleshadow.javax.inject.Named;
+
+import io.reactivex.Single;
+import io.reactivex.functions.Function;
+
+import static com.polidea.rxandroidble2.internal.util.ByteAssociationUtil.characteristicUUIDPredicate;
+
+/**
+ * Reads the characteristic as {@link CharacteristicReadOperation} does but emits the value together with the time of its arrival at
+ * the native callback.
+ */
+public class TimestampedCharacteristicReadOperation extends SingleResponseOperation<TimestampedValue> {
+
+    private final RxBleGattCallback rxBleGattCallback;
+    private final BluetoothGattCharacteristic bluetoothGattCharacteristic;
+
+    TimestampedCharacteristicReadOperation(RxBleGattCallback rxBleGattCallback, BluetoothGatt bluetoothGatt,
+                                           @Named(ConnectionModule.OPERATION_TIMEOUT) TimeoutConfiguration timeoutConfiguration,
+                                           BluetoothGattCharacteristic bluetoothGattCharacteristic) {
+        super(bluetoothGatt, rxBleGattCallback, BleGattOperationType.CHARACTERISTIC_READ, timeoutConfiguration);
+        this.rxBleGattCallback = rxBleGattCallback;
+        this.bluetoothGattCharacteristic = bluetoothGattCharacteristic;
+    }
+
+    @Override
+    protected OperationResponseSlot<?> createResponseSlot() {
+        return new OperationResponseSlot<TimestampedByteAssociation<UUID>>() {
+            @Override
+            protected boolean setOn(RxBleGattCallback rxBleGattCallback) {
+                return rxBleGattCallback.setCharacteristicReadSlot(this);
+            }
+
+            @Override
+            protected boolean matches(TimestampedByteAssociation<UUID> response) {
+                return response.first.equals(bluetoothGattCharacteristic.getUuid());
+            }
+
+            @Override
+            protected TimestampedValue mapResponse(TimestampedByteAssociation<UUID> response) {
+                rxBleGattCallback.recordCharacteristicReadDispatch(response.arrivalRealtimeNanos);
+                return new TimestampedValue(response.second, response.arrivalRealtimeNanos);
+            }
+        };
+    }
+
+    @Override
+    protected Single<TimestampedValue> getCallback(final RxBleGattCallback rxBleGattCallback) {
+        return rxBleGattCallback
+                .getOnCharacteristicReadTimestamped()
+                .filter(characteristicUUIDPredicate(bluetoothGattCharacteristic.getUuid()))
+                .firstOrError()
+                .map(new Function<TimestampedByteAssociation<UUID>, TimestampedValue>() {
+                    @Override
+                    public TimestampedValue apply(TimestampedByteAssociation<UUID> association) {
+                        rxBleGattCallback.recordCharacteristicReadDispatch(association.arrivalRealtimeNanos);
+                        return new TimestampedValue(association.second, association.arrivalRealtimeNanos);
+                    }
+                });
+    }
+
+    @Override
+    protected boolean startOperation(BluetoothGatt bluetoothGatt) {
+        return bluetoothGatt.readCharacteristic(bluetoothGattCharacteristic);
+    }
+
+    @Override
+    public String toString() {
+        return "TimestampedCharacteristicReadOperation{"
+                + super.toString()
+                + ", characteristic=" + LoggerUtil.wrap(bluetoothGattCharacteristic, null)
+                + '}';
+    }
+}
@@ -3,9 +3,14 @@ package com.polidea.rxandroidble2.internal.serialization;
 import androidx.annotation.RestrictTo;
 
 import com.polidea.rxandroidble2.ClientComponent;
-import com.polidea.rxandroidble2.internal.RxBleLog;
+import com.polidea.rxandroidble2.OperationSchedulingPolicy;
+import com.polidea.rxandroidble2.exceptions.BleException;
+import com.polidea.rxandroidble2.internal.metrics.OperationQueueMetricsRecorder;
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder;
 import com.polidea.rxandroidble2.internal.operations.Operation;
 
+import java.util.concurrent.ExecutorService;
+
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
 
@@ -23,36 +28,71 @@ import static com.polidea.rxandroidble2.internal.logger.LoggerUtil.logOperationS
 
 public class ClientOperationQueueImpl implements ClientOperationQueue {
 
-    final OperationPriorityFifoBlockingQueue queue = new OperationPriorityFifoBlockingQueue();
+    final OperationPriorityFifoBlockingQueue queue;
+    final Scheduler callbackScheduler;
+    final QueueMetricsRecorder queueMetricsRecorder;
+    private final QueueDrainer queueDrainer;
+    volatile boolean isOperationRunning = false;
 
     @Inject
-    public ClientOperationQueueImpl(@Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler) {
-        new Thread(new Runnable() {
+    public ClientOperationQueueImpl(
+            @Named(ClientComponent.NamedExecutors.OPERATION_QUEUE) final ExecutorService executorService,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler,
+            final OperationQueueMetricsRecorder operationQueueMetricsRecorder,
+            final OperationSchedulingPolicy operationSchedulingPolicy
+    ) {
+        this.queue = new OperationPriorityFifoBlockingQueue(operationSchedulingPolicy);
+        this.callbackScheduler = callbackScheduler;
+        this.queueMetricsRecorder = operationQueueMetricsRecorder.queueMetricsRecorder(null);
+        this.queueDrainer = new QueueDrainer(executorService, new Runnable() {
             @Override
             public void run() {
-                while (true) {
-                    try {
-                        final FIFORunnableEntry<?> entry = queue.take();
-                        final Operation<?> operation = entry.operation;
-                        final long startedAtTime = System.currentTimeMillis();
-                        logOperationStarted(operation);
-                        logOperationRunning(operation);
+                drainQueue();
+            }
+        }, new QueueDrainer.RejectionHandler() {
+            @Override
+            public void onDrainRejected(BleException exception) {
+                flushQueue(exception);
+            }
+        });
+    }
 
-                        /*
-                         * Calling bluetooth calls before the previous one returns in a callback usually finishes with a failure
-                         * status. Below a QueueSemaphore is passed to the RxBleCustomOperation and is meant to be released
-                         * at appropriate time when the next operation should be able to start successfully.
-                         */
-                        final QueueSemaphore clientOperationSemaphore = new QueueSemaphore();
-                        entry.run(clientOperationSemaphore, callbackScheduler);
-                        clientOperationSemaphore.awaitRelease();
-                        logOperationFinished(operation, startedAtTime, System.currentTimeMillis());
-                    } catch (InterruptedException e) {
-                        RxBleLog.e(e, "Error while processing client operation queue");
-                    }
-                }
+    void drainQueue() {
+        while (!isOperationRunning) {
+            final FIFORunnableEntry<?> entry = queue.takeNow();
+            if (entry == null) {
+                return;
             }
-        }).start();
+            queueMetricsRecorder.onOperationDequeued();
+            final Operation<?> operation = entry.operation;
+            final long startedAtTime = System.currentTimeMillis();
+            logOperationStarted(operation);
+            logOperationRunning(operation);
+
+            /*
+             * Calling bluetooth calls before the previous one returns in a callback usually finishes with a failure
+             * status. Below a QueueReleaseInterface is passed to the RxBleCustomOperation and is meant to be released
+             * at appropriate time when the next operation should be able to start successfully.
+             */
+            isOperationRunning = true;
+            entry.run(new QueueSemaphore() {
+                @Override
+                protected void onReleased() {
+                    logOperationFinished(operation, startedAtTime, System.currentTimeMillis());
+                    entry.recordFinished();
+                    isOperationRunning = false;
+                    queueDrainer.requestDrain();
+                }
+            }, callbackScheduler);
+        }
+    }
+
+    void flushQueue(BleException exception) {
+        FIFORunnableEntry<?> entryToFinish;
+        while ((entryToFinish = queue.takeNow()) != null) {
+            queueMetricsRecorder.onOperationDequeued();
+            entryToFinish.operationResultObserver.tryOnError(exception);
+        }
     }
 
     @Override
@@ -61,19 +101,22 @@ public class ClientOperationQueueImpl implements ClientOperationQueue {
         return Observable.create(new ObservableOnSubscribe<T>() {
             @Override
             public void subscribe(ObservableEmitter<T> tEmitter) {
-                final FIFORunnableEntry entry = new FIFORunnableEntry<>(operation, tEmitter);
+                final FIFORunnableEntry entry = new FIFORunnableEntry<>(operation, tEmitter, queueMetricsRecorder);
 
                 tEmitter.setDisposable(Disposables.fromAction(new Action() {
                     @Override
                     public void run() {
                         if (queue.remove(entry)) {
+                            queueMetricsRecorder.onOperationDequeued();
                             logOperationRemoved(operation);
                         }
                     }
                 }));
 
                 logOperationQueued(operation);
+                queueMetricsRecorder.onOperationQueued();
                 queue.add(entry);
+                queueDrainer.requestDrain();
             }
         });
     }
@@ -1,19 +1,24 @@
 package com.polidea.rxandroidble2.internal.serialization;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
 import com.polidea.rxandroidble2.ClientComponent;
+import com.polidea.rxandroidble2.OperationSchedulingPolicy;
+import com.polidea.rxandroidble2.Timeout;
 import com.polidea.rxandroidble2.exceptions.BleDisconnectedException;
 import com.polidea.rxandroidble2.exceptions.BleException;
 import com.polidea.rxandroidble2.internal.DeviceModule;
 import com.polidea.rxandroidble2.internal.RxBleLog;
+import com.polidea.rxandroidble2.internal.connection.ConnectionComponent;
 import com.polidea.rxandroidble2.internal.connection.ConnectionScope;
 import com.polidea.rxandroidble2.internal.connection.ConnectionSubscriptionWatcher;
 import com.polidea.rxandroidble2.internal.connection.DisconnectionRouterOutput;
+import com.polidea.rxandroidble2.internal.metrics.OperationQueueMetricsRecorder;
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder;
 import com.polidea.rxandroidble2.internal.operations.Operation;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import bleshadow.javax.inject.Inject;
 import bleshadow.javax.inject.Named;
@@ -37,9 +42,24 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
 
     private final String deviceMacAddress;
     private final DisconnectionRouterOutput disconnectionRouterOutput;
+    final PipelineCredits pipelineCredits;
+    final Scheduler callbackScheduler;
+    final QueueMetricsRecorder queueMetricsRecorder;
+    private final long maxQueueTimeNanos;
+    private final QueueDrainer queueDrainer;
+    private final RadioScheduler.Participant radioParticipant;
     private DisposableObserver<BleException> disconnectionThrowableSubscription;
-    final OperationPriorityFifoBlockingQueue queue = new OperationPriorityFifoBlockingQueue();
-    private final Future<?> runnableFuture;
+    final OperationPriorityFifoBlockingQueue queue;
+    /**
+     * The entry taken from the queue which waits for a pipeline credit or for all credits to be returned. Accessed only from
+     * within drain passes.
+     */
+    private FIFORunnableEntry<?> awaitingEntry = null;
+    /**
+     * The radio slot acquired for the {@link #awaitingEntry}. Accessed only from within drain passes.
+     */
+    private QueueReleaseInterface awaitingEntryRadioSlot = null;
+    volatile boolean isOperationRunning = false;
     volatile boolean shouldRun = true;
     private BleException disconnectionException = null;
 
@@ -47,51 +67,159 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
     ConnectionOperationQueueImpl(
             @Named(DeviceModule.MAC_ADDRESS) final String deviceMacAddress,
             final DisconnectionRouterOutput disconnectionRouterOutput,
-            @Named(ClientComponent.NamedExecutors.CONNECTION_QUEUE) final ExecutorService executorService,
-            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler
+            @Named(ClientComponent.NamedExecutors.OPERATION_QUEUE) final ExecutorService executorService,
+            @Named(ClientComponent.NamedSchedulers.BLUETOOTH_INTERACTION) final Scheduler callbackScheduler,
+            final PipelineCredits pipelineCredits,
+            final OperationQueueMetricsRecorder operationQueueMetricsRecorder,
+            final OperationSchedulingPolicy operationSchedulingPolicy,
+            @Nullable @Named(ConnectionComponent.NamedTimeouts.OPERATION_QUEUE_DEADLINE) final Timeout operationQueueDeadline,
+            final RadioScheduler radioScheduler,
+            @Named(ConnectionComponent.NamedInts.GATT_OPERATIONS_WEIGHT) final int gattOperationsWeight
     ) {
+        this.queue = new OperationPriorityFifoBlockingQueue(operationSchedulingPolicy);
         this.deviceMacAddress = deviceMacAddress;
         this.disconnectionRouterOutput = disconnectionRouterOutput;
-        this.runnableFuture = executorService.submit(new Runnable() {
+        this.callbackScheduler = callbackScheduler;
+        this.pipelineCredits = pipelineCredits;
+        this.queueMetricsRecorder = operationQueueMetricsRecorder.queueMetricsRecorder(deviceMacAddress);
+        this.maxQueueTimeNanos = operationQueueDeadline == null
+                ? FIFORunnableEntry.NO_MAX_QUEUE_TIME
+                : operationQueueDeadline.timeUnit.toNanos(operationQueueDeadline.timeout);
+        this.queueDrainer = new QueueDrainer(executorService, new Runnable() {
             @Override
             public void run() {
-                QueueSemaphore currentSemaphore;
-                while (shouldRun) {
-                    try {
-                        final FIFORunnableEntry<?> entry = queue.take();
-                        final Operation<?> operation = entry.operation;
-                        final long startedAtTime = System.currentTimeMillis();
-                        logOperationStarted(operation);
-                        logOperationRunning(operation);
-
-                        /*
-                         * Calling bluetooth calls before the previous one returns in a callback usually finishes with a failure
-                         * status. Below QueueSemaphore is passed to the Operation and is meant to be released
-                         * at appropriate time when the next operation should be able to start successfully.
-                         */
-                        currentSemaphore = new QueueSemaphore();
-                        entry.run(currentSemaphore, callbackScheduler);
-                        currentSemaphore.awaitRelease();
+                drainQueue();
+            }
+        }, new QueueDrainer.RejectionHandler() {
+            @Override
+            public void onDrainRejected(BleException exception) {
+                terminateRejected(exception);
+            }
+        });
+        final Runnable requestDrainRunnable = new Runnable() {
+            @Override
+            public void run() {
+                queueDrainer.requestDrain();
+            }
+        };
+        pipelineCredits.setCreditReturnedListener(requestDrainRunnable);
+        this.radioParticipant = radioScheduler.register(gattOperationsWeight, requestDrainRunnable);
+    }
+
+    void drainQueue() {
+        if (!shouldRun) {
+            flushQueue();
+            return;
+        }
+        while (!isOperationRunning) {
+            if (awaitingEntry == null) {
+                awaitingEntry = queue.takeNow();
+                if (awaitingEntry == null) {
+                    radioParticipant.returnGrantedSlots();
+                    return;
+                }
+                queueMetricsRecorder.onOperationDequeued();
+            }
+            final FIFORunnableEntry<?> entry = awaitingEntry;
+            final Operation<?> operation = entry.operation;
+
+            if (pipelineCredits.canPipeline(operation)) {
+                /*
+                 * A pipelined operation holds a credit until its callback arrives. The queue may proceed with the next
+                 * operation right after this one was started — the credits are limiting how many may be in flight.
+                 */
+                if (!acquireRadioSlot()) {
+                    return; // a drain will be requested when a radio slot is granted
+                }
+                final QueueReleaseInterface credit = pipelineCredits.tryAcquire();
+                if (credit == null) {
+                    return; // a drain will be requested when a credit is returned
+                }
+                final QueueReleaseInterface radioSlot = takeRadioSlot();
+                awaitingEntry = null;
+                final long startedAtTime = System.currentTimeMillis();
+                logOperationStarted(operation);
+                logOperationRunning(operation);
+                isOperationRunning = true;
+                entry.run(new QueueSemaphore() {
+                    @Override
+                    protected void onReleased() {
                         logOperationFinished(operation, startedAtTime, System.currentTimeMillis());
-                    } catch (InterruptedException e) {
-                        synchronized (ConnectionOperationQueueImpl.this) {
-                            if (!shouldRun) {
-                                break;
-                            }
-                        }
-                        RxBleLog.e(e, "Error while processing connection operation queue");
+                        credit.release();
+                        radioSlot.release();
+                        entry.recordFinished();
                     }
-                }
+                }, new QueueSemaphore() {
+                    @Override
+                    protected void onReleased() {
+                        isOperationRunning = false;
+                        queueDrainer.requestDrain();
+                    }
+                }, callbackScheduler);
+                continue;
+            }
 
-                flushQueue();
-                RxBleLog.v("Terminated (%s)", commonMacMessage(deviceMacAddress));
+            if (pipelineCredits.hasOutstandingCredits()) {
+                return; // a drain will be requested when a credit is returned
             }
-        });
+            if (!acquireRadioSlot()) {
+                return; // a drain will be requested when a radio slot is granted
+            }
+            final QueueReleaseInterface radioSlot = takeRadioSlot();
+            awaitingEntry = null;
+            final long startedAtTime = System.currentTimeMillis();
+            logOperationStarted(operation);
+            logOperationRunning(operation);
+
+            /*
+             * Calling bluetooth calls before the previous one returns in a callback usually finishes with a failure
+             * status. Below QueueSemaphore is passed to the Operation and is meant to be released
+             * at appropriate time when the next operation should be able to start successfully.
+             */
+            isOperationRunning = true;
+            entry.run(new QueueSemaphore() {
+                @Override
+                protected void onReleased() {
+                    logOperationFinished(operation, startedAtTime, System.currentTimeMillis());
+                    entry.recordFinished();
+                    radioSlot.release();
+                    isOperationRunning = false;
+                    queueDrainer.requestDrain();
+                }
+            }, callbackScheduler);
+        }
+    }
+
+    /**
+     * Acquires the client-wide radio slot for the {@link #awaitingEntry} unless it already has one.
+     *
+     * @return true if the slot is held
+     */
+    private boolean acquireRadioSlot() {
+        if (awaitingEntryRadioSlot == null) {
+            awaitingEntryRadioSlot = radioParticipant.tryAcquire();
+        }
+        return awaitingEntryRadioSlot != null;
+    }
+
+    private QueueReleaseInterface takeRadioSlot() {
+        final QueueReleaseInterface radioSlot = awaitingEntryRadioSlot;
+        awaitingEntryRadioSlot = null;
+        return radioSlot;
     }
 
     synchronized void flushQueue() {
+        if (awaitingEntryRadioSlot != null) {
+            takeRadioSlot().release();
+        }
+        radioParticipant.unregister();
+        if (awaitingEntry != null) {
+            awaitingEntry.operationResultObserver.tryOnError(disconnectionException);
+            awaitingEntry = null;
+        }
         while (!queue.isEmpty()) {
             final FIFORunnableEntry<?> entryToFinish = queue.takeNow();
+            queueMetricsRecorder.onOperationDequeued();
             entryToFinish.operationResultObserver.tryOnError(disconnectionException);
         }
     }
@@ -106,18 +234,21 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
         return Observable.create(new ObservableOnSubscribe<T>() {
             @Override
             public void subscribe(ObservableEmitter<T> emitter) {
-                final FIFORunnableEntry entry = new FIFORunnableEntry<>(operation, emitter);
+                final FIFORunnableEntry entry = new FIFORunnableEntry<>(operation, emitter, queueMetricsRecorder, maxQueueTimeNanos);
                 emitter.setCancellable(new Cancellable() {
                     @Override
                     public void cancel() {
                         if (queue.remove(entry)) {
+                            queueMetricsRecorder.onOperationDequeued();
                             logOperationRemoved(operation);
                         }
                     }
                 });
 
                 logOperationQueued(operation);
+                queueMetricsRecorder.onOperationQueued();
                 queue.add(entry);
+                queueDrainer.requestDrain();
             }
         });
     }
@@ -129,9 +260,17 @@ public class ConnectionOperationQueueImpl implements ConnectionOperationQueue, C
             return;
         }
         RxBleLog.d(disconnectException, "Connection operations queue to be terminated (%s)", commonMacMessage(deviceMacAddress));
-        shouldRun = false;
         disconnectionException = disconnectException;
-        runnableFuture.cancel(true);
+        shouldRun = false;
+        queueDrainer.requestDrain();
+    }
+
+    synchronized void terminateRejected(BleException rejectedException) {
+        if (disconnectionException == null) {
+            disconnectionException = rejectedException;
+            shouldRun = false;
+        }
+        flushQueue();
     }
 
     @Override
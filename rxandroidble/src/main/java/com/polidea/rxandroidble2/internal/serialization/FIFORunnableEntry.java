@@ -3,6 +3,8 @@ package com.polidea.rxandroidble2.internal.serialization;
 
 import androidx.annotation.NonNull;
 
+import com.polidea.rxandroidble2.exceptions.BleOperationQueueDeadlineException;
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder;
 import com.polidea.rxandroidble2.internal.operations.Operation;
 
 import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
@@ -15,15 +17,47 @@ import io.reactivex.disposables.Disposable;
 
 class FIFORunnableEntry<T> implements Comparable<FIFORunnableEntry> {
 
+    static final long NO_MAX_QUEUE_TIME = Long.MAX_VALUE;
     private static final AtomicLong SEQUENCE = new AtomicLong(0);
     private final long seqNum;
     final Operation<T> operation;
     final ObservableEmitter<T> operationResultObserver;
+    private final QueueMetricsRecorder queueMetricsRecorder;
+    private final long queuedAtNanos;
+    private final long maxQueueTimeNanos;
+    /*
+     * Written before the operation is scheduled to be subscribed, read afterwards.
+     */
+    private boolean wasStarted = false;
+    private long startedAtNanos;
+    private boolean hadFirstCallback = false;
+    /*
+     * Links of the intrusive list in OperationPriorityFifoBlockingQueue. Guarded by the queue's lock.
+     */
+    OperationPriorityFifoBlockingQueue.PriorityBucket queueBucket;
+    FIFORunnableEntry<?> previousEntry;
+    FIFORunnableEntry<?> nextEntry;
+    /*
+     * The number of times an entry of a higher priority was taken from the queue before this one. Guarded by the queue's lock.
+     */
+    int overtakesCount = 0;
+
+    FIFORunnableEntry(Operation<T> operation, ObservableEmitter<T> operationResultObserver, QueueMetricsRecorder queueMetricsRecorder) {
+        this(operation, operationResultObserver, queueMetricsRecorder, NO_MAX_QUEUE_TIME);
+    }
 
-    FIFORunnableEntry(Operation<T> operation, ObservableEmitter<T> operationResultObserver) {
+    /**
+     * @param maxQueueTimeNanos the time after which the entry is no longer run but errors with
+     *                          {@link BleOperationQueueDeadlineException} or {@link #NO_MAX_QUEUE_TIME}
+     */
+    FIFORunnableEntry(Operation<T> operation, ObservableEmitter<T> operationResultObserver, QueueMetricsRecorder queueMetricsRecorder,
+                      long maxQueueTimeNanos) {
         seqNum = SEQUENCE.getAndIncrement();
         this.operation = operation;
         this.operationResultObserver = operationResultObserver;
+        this.queueMetricsRecorder = queueMetricsRecorder;
+        this.queuedAtNanos = System.nanoTime();
+        this.maxQueueTimeNanos = maxQueueTimeNanos;
     }
 
     public int compareTo(@NonNull FIFORunnableEntry other) {
@@ -34,14 +68,51 @@ class FIFORunnableEntry<T> implements Comparable<FIFORunnableEntry> {
         return res;
     }
 
+    private static final QueueReleaseInterface NO_OP_RELEASE_INTERFACE = new QueueReleaseInterface() {
+        @Override
+        public void release() {
+            // nothing to release
+        }
+    };
+
     public void run(final QueueSemaphore semaphore, final Scheduler subscribeScheduler) {
+        run(semaphore, NO_OP_RELEASE_INTERFACE, subscribeScheduler);
+    }
+
+    /**
+     * Runs the operation.
+     *
+     * @param semaphore the interface that the operation releases once it no longer interacts with the BluetoothGatt
+     * @param startedReleaseInterface the interface released right after the operation has been started (or skipped)
+     * @param subscribeScheduler the scheduler to run the operation on
+     */
+    void run(final QueueReleaseInterface semaphore, final QueueReleaseInterface startedReleaseInterface,
+             final Scheduler subscribeScheduler) {
 
         if (operationResultObserver.isDisposed()) {
             LoggerUtil.logOperationSkippedBecauseDisposedWhenAboutToRun(operation);
             semaphore.release();
+            startedReleaseInterface.release();
+            return;
+        }
+
+        final long nowNanos = System.nanoTime();
+        final long queueTimeNanos = nowNanos - queuedAtNanos;
+        if (queueTimeNanos > maxQueueTimeNanos) {
+            LoggerUtil.logOperationSkippedBecauseQueueDeadlinePassed(operation, queueTimeNanos);
+            queueMetricsRecorder.onOperationShed(operation);
+            operationResultObserver.tryOnError(
+                    new BleOperationQueueDeadlineException(operation.getClass().getSimpleName(), queueTimeNanos)
+            );
+            semaphore.release();
+            startedReleaseInterface.release();
             return;
         }
 
+        wasStarted = true;
+        startedAtNanos = nowNanos;
+        queueMetricsRecorder.onOperationStarted(operation, queueTimeNanos);
+
         /*
          * In some implementations (i.e. Samsung Android 4.3) calling BluetoothDevice.connectGatt()
          * from thread other than main thread ends in connecting with status 133. It's safer to make bluetooth calls
@@ -65,20 +136,43 @@ class FIFORunnableEntry<T> implements Comparable<FIFORunnableEntry> {
 
                             @Override
                             public void onNext(T item) {
+                                recordFirstCallback();
                                 operationResultObserver.onNext(item);
                             }
 
                             @Override
                             public void onError(Throwable e) {
+                                recordFirstCallback();
                                 operationResultObserver.tryOnError(e);
                             }
 
                             @Override
                             public void onComplete() {
+                                recordFirstCallback();
                                 operationResultObserver.onComplete();
                             }
                         });
+                startedReleaseInterface.release();
             }
         });
     }
+
+    /*
+     * Called from the serialized operation observer.
+     */
+    void recordFirstCallback() {
+        if (!hadFirstCallback) {
+            hadFirstCallback = true;
+            queueMetricsRecorder.onOperationFirstCallback(operation, System.nanoTime() - startedAtNanos);
+        }
+    }
+
+    /**
+     * Records the total time of the operation. Should be called when the operation releases the queue.
+     */
+    void recordFinished() {
+        if (wasStarted) {
+            queueMetricsRecorder.onOperationFinished(operation, System.nanoTime() - startedAtNanos);
+        }
+    }
 }
@@ -1,34 +1,154 @@
 package com.polidea.rxandroidble2.internal.serialization;
 
 
-import java.util.concurrent.PriorityBlockingQueue;
+import com.polidea.rxandroidble2.OperationSchedulingPolicy;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A priority queue of {@link FIFORunnableEntry} — entries of operations with higher priority are taken first, entries with the same
+ * priority are taken in the order they were added.
+ * <p>
+ * Entries are kept in intrusive doubly linked lists — one per priority value, ordered from the highest priority. There are only
+ * a few priority values so adding, taking and removing an entry takes constant time. This matters when a lot of queued operations
+ * are disposed at once.
+ * <p>
+ * With an aging {@link OperationSchedulingPolicy} the first entry of each priority counts how many times an entry of a higher
+ * priority was taken before it. An entry that was overtaken the maximum number of times is taken before any other entry, highest
+ * priority first.
+ */
 class OperationPriorityFifoBlockingQueue {
 
-    private final PriorityBlockingQueue<FIFORunnableEntry> q = new PriorityBlockingQueue<>();
+    private final List<PriorityBucket> buckets = new ArrayList<>();
+    private final int maxOvertakes;
+    private int size = 0;
 
-    public void add(FIFORunnableEntry fifoRunnableEntry) {
-        q.add(fifoRunnableEntry);
+    OperationPriorityFifoBlockingQueue(OperationSchedulingPolicy operationSchedulingPolicy) {
+        this.maxOvertakes = operationSchedulingPolicy.getMaxOvertakes();
     }
 
-    public FIFORunnableEntry<?> take() throws InterruptedException {
-        return q.take();
+    public synchronized void add(FIFORunnableEntry fifoRunnableEntry) {
+        bucketFor(fifoRunnableEntry.operation.definedPriority().getValue()).addLast(fifoRunnableEntry);
+        size++;
+        notifyAll();
     }
 
-    public FIFORunnableEntry<?> takeNow() {
-        return q.poll();
+    public synchronized FIFORunnableEntry<?> take() throws InterruptedException {
+        while (size == 0) {
+            wait();
+        }
+        return takeNow();
     }
 
-    public boolean isEmpty() {
-        return q.isEmpty();
+    public synchronized FIFORunnableEntry<?> takeNow() {
+        if (size == 0) {
+            return null;
+        }
+        final int bucketIndex = takenBucketIndex();
+        final PriorityBucket bucket = buckets.get(bucketIndex);
+        final FIFORunnableEntry<?> entry = bucket.head;
+        bucket.unlink(entry);
+        size--;
+        if (maxOvertakes != Integer.MAX_VALUE) {
+            for (int i = bucketIndex + 1; i < buckets.size(); i++) {
+                final FIFORunnableEntry<?> overtakenEntry = buckets.get(i).head;
+                if (overtakenEntry != null) {
+                    overtakenEntry.overtakesCount++;
+                }
+            }
+        }
+        return entry;
     }
 
-    public boolean remove(FIFORunnableEntry fifoRunnableEntry) {
-        for (FIFORunnableEntry entry : q) {
-            if (entry == fifoRunnableEntry) {
-                return q.remove(entry);
+    private int takenBucketIndex() {
+        int highestPriorityIndex = -1;
+        for (int i = 0; i < buckets.size(); i++) {
+            final FIFORunnableEntry<?> head = buckets.get(i).head;
+            if (head == null) {
+                continue;
+            }
+            if (head.overtakesCount >= maxOvertakes) {
+                return i;
+            }
+            if (highestPriorityIndex == -1) {
+                highestPriorityIndex = i;
+                if (maxOvertakes == Integer.MAX_VALUE) {
+                    break;
+                }
+            }
+        }
+        return highestPriorityIndex;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized boolean remove(FIFORunnableEntry fifoRunnableEntry) {
+        final PriorityBucket bucket = fifoRunnableEntry.queueBucket;
+        if (bucket == null || !buckets.contains(bucket)) {
+            return false;
+        }
+        bucket.unlink(fifoRunnableEntry);
+        size--;
+        return true;
+    }
+
+    private PriorityBucket bucketFor(int priority) {
+        int index = 0;
+        for (; index < buckets.size(); index++) {
+            final PriorityBucket bucket = buckets.get(index);
+            if (bucket.priority == priority) {
+                return bucket;
+            }
+            if (bucket.priority < priority) {
+                break;
+            }
+        }
+        final PriorityBucket newBucket = new PriorityBucket(priority);
+        buckets.add(index, newBucket);
+        return newBucket;
+    }
+
+    static final class PriorityBucket {
+
+        final int priority;
+        FIFORunnableEntry<?> head;
+        FIFORunnableEntry<?> tail;
+
+        PriorityBucket(int priority) {
+            this.priority = priority;
+        }
+
+        void addLast(FIFORunnableEntry<?> entry) {
+            entry.queueBucket = this;
+            entry.previousEntry = tail;
+            entry.nextEntry = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.nextEntry = entry;
+            }
+            tail = entry;
+        }
+
+        void unlink(FIFORunnableEntry<?> entry) {
+            final FIFORunnableEntry<?> previous = entry.previousEntry;
+            final FIFORunnableEntry<?> next = entry.nextEntry;
+            if (previous == null) {
+                head = next;
+            } else {
+                previous.nextEntry = next;
+            }
+            if (next == null) {
+                tail = previous;
+            } else {
+                next.previousEntry = previous;
             }
+            entry.queueBucket = null;
+            entry.previousEntry = null;
+            entry.nextEntry = null;
         }
-        return false;
     }
 }
@@ -0,0 +1,18 @@
+package com.polidea.rxandroidble2.internal.serialization;
+
+import androidx.annotation.RestrictTo;
+
+/**
+ * Interface of an {@link com.polidea.rxandroidble2.internal.operations.Operation} that may be started on
+ * the {@link android.bluetooth.BluetoothGatt} before the previously started pipelined operations have received their callbacks.
+ *
+ * @see PipelineCredits
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface PipelinableOperation {
+
+    /**
+     * @return true if the operation does not need to wait for responses of previously started pipelined operations
+     */
+    boolean isPipelinable();
+}
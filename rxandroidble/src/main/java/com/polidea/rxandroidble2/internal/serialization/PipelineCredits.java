@@ -0,0 +1,147 @@
+package com.polidea.rxandroidble2.internal.serialization;
+
+import androidx.annotation.Nullable;
+
+import com.polidea.rxandroidble2.internal.connection.ConnectionComponent;
+import com.polidea.rxandroidble2.internal.connection.ConnectionScope;
+import com.polidea.rxandroidble2.internal.operations.Operation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import bleshadow.javax.inject.Inject;
+import bleshadow.javax.inject.Named;
+
+/**
+ * Credit based flow control of pipelined write without response operations of a single connection.
+ * <p>
+ * A credit is taken before a {@link PipelinableOperation} is started. It is returned as soon as the Android BLE stack reports
+ * {@link android.bluetooth.BluetoothGattCallback#onCharacteristicWrite} or when the operation releases the queue — whichever comes
+ * first. Once the write was started the credit is returned only by its callback — a write which has timed out or was disposed is
+ * still in flight until the late callback arrives. Operations that are not pipelinable are started only after all credits were
+ * returned so they stay serialized against the pipelined ones.
+ */
+@ConnectionScope
+public class PipelineCredits {
+
+    private final int maxCredits;
+    private final Deque<Credit> outstandingCredits = new ArrayDeque<>();
+    private volatile Runnable creditReturnedListener;
+
+    @Inject
+    public PipelineCredits(@Named(ConnectionComponent.NamedInts.MAX_PIPELINED_WRITES_WITHOUT_RESPONSE) int maxCredits) {
+        this.maxCredits = maxCredits;
+    }
+
+    boolean canPipeline(Operation<?> operation) {
+        return maxCredits > 0
+                && operation instanceof PipelinableOperation
+                && ((PipelinableOperation) operation).isPipelinable();
+    }
+
+    /**
+     * Sets the listener notified every time a credit is returned. The connection queue uses it to continue with the next operation.
+     *
+     * @param creditReturnedListener the listener to be notified
+     */
+    void setCreditReturnedListener(Runnable creditReturnedListener) {
+        this.creditReturnedListener = creditReturnedListener;
+    }
+
+    /**
+     * Takes a credit if one is available.
+     *
+     * @return the credit which needs to be released when the operation will no longer interact with the BluetoothGatt or null
+     * if all credits are taken
+     */
+    @Nullable
+    synchronized QueueReleaseInterface tryAcquire() {
+        if (outstandingCredits.size() >= maxCredits) {
+            return null;
+        }
+        final Credit credit = new Credit();
+        outstandingCredits.addLast(credit);
+        return credit;
+    }
+
+    synchronized boolean hasOutstandingCredits() {
+        return !outstandingCredits.isEmpty();
+    }
+
+    /**
+     * Called right before a pipelined write is started on the BluetoothGatt. The credit of the write — the newest one as the queue
+     * takes the next credit only after the write was started — is then held until the callback of the write arrives.
+     */
+    public void onPipelinedWriteStarting() {
+        synchronized (this) {
+            final Credit credit = outstandingCredits.peekLast();
+            if (credit != null) {
+                credit.isAwaitingCallback = true;
+            }
+        }
+    }
+
+    /**
+     * Called when a pipelined write could not be started after {@link #onPipelinedWriteStarting()}. No callback will arrive
+     * for it so its credit is returned when the operation releases the queue.
+     */
+    public void onPipelinedWriteNotStarted() {
+        final boolean returned;
+        synchronized (this) {
+            final Credit credit = outstandingCredits.peekLast();
+            if (credit == null || !credit.isAwaitingCallback) {
+                return;
+            }
+            credit.isAwaitingCallback = false;
+            returned = credit.isReleased && outstandingCredits.remove(credit);
+        }
+        if (returned) {
+            notifyCreditReturned();
+        }
+    }
+
+    /**
+     * Called directly from {@link android.bluetooth.BluetoothGattCallback#onCharacteristicWrite} of a pipelined write. Returns
+     * the oldest outstanding credit.
+     */
+    public void onCharacteristicWrite() {
+        final boolean returned;
+        synchronized (this) {
+            returned = outstandingCredits.pollFirst() != null;
+        }
+        if (returned) {
+            notifyCreditReturned();
+        }
+    }
+
+    void returnCredit(Credit credit) {
+        final boolean returned;
+        synchronized (this) {
+            credit.isReleased = true;
+            // the write is still in flight — the credit is returned by its callback
+            returned = !credit.isAwaitingCallback && outstandingCredits.remove(credit);
+        }
+        if (returned) {
+            notifyCreditReturned();
+        }
+    }
+
+    private void notifyCreditReturned() {
+        final Runnable listener = creditReturnedListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    final class Credit implements QueueReleaseInterface {
+
+        // guarded by the PipelineCredits
+        boolean isAwaitingCallback;
+        boolean isReleased;
+
+        @Override
+        public void release() {
+            returnCredit(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.polidea.rxandroidble2.internal.serialization;
+
+
+import com.polidea.rxandroidble2.exceptions.BleException;
+import com.polidea.rxandroidble2.internal.RxBleLog;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking driver of a single operation queue.
+ * <p>
+ * Instead of parking a thread per queue that waits for the next operation or for the current one to release the queue, the queue
+ * requests a drain pass every time something happens that may let it proceed — an operation was added, the running operation
+ * released the queue, the connection was terminated, etc. Drain passes are executed on an {@link Executor} shared by all queues
+ * of the client so the number of threads does not depend on the number of connections. Requests made while a pass is scheduled
+ * or running are coalesced — a single queue is never drained concurrently and no request is lost.
+ * <p>
+ * If the executor rejects a drain (e.g. it was shut down together with the client) no pass will ever run, so the queue is told
+ * to fail its pending operations instead of waiting for a drain forever.
+ */
+class QueueDrainer {
+
+    interface RejectionHandler {
+
+        /**
+         * Called on the thread which requested the rejected drain. No drain pass is running at that time.
+         *
+         * @param exception the exception to fail the pending operations with
+         */
+        void onDrainRejected(BleException exception);
+    }
+
+    private final Executor executor;
+    private final AtomicInteger requestedPasses = new AtomicInteger();
+    private final Runnable drainLoop;
+    private final RejectionHandler rejectionHandler;
+
+    QueueDrainer(Executor executor, final Runnable drainPass, RejectionHandler rejectionHandler) {
+        this.executor = executor;
+        this.rejectionHandler = rejectionHandler;
+        this.drainLoop = new Runnable() {
+            @Override
+            public void run() {
+                int missedPasses;
+                do {
+                    // a pass covers all requests made before it has started
+                    missedPasses = requestedPasses.get();
+                    try {
+                        drainPass.run();
+                    } catch (Throwable throwable) {
+                        RxBleLog.e(throwable, "Error while draining operation queue");
+                    }
+                    missedPasses = requestedPasses.addAndGet(-missedPasses);
+                } while (missedPasses != 0);
+            }
+        };
+    }
+
+    /**
+     * Requests a drain pass. The pass is run on the executor unless one is already scheduled or running — in that case it will
+     * run one more time after the current pass.
+     */
+    void requestDrain() {
+        if (requestedPasses.getAndIncrement() == 0) {
+            try {
+                executor.execute(drainLoop);
+            } catch (RejectedExecutionException rejectedExecutionException) {
+                RxBleLog.e(rejectedExecutionException, "Operation queue drain rejected");
+                // the requests made meanwhile are covered by the handler — the queue is failed after the reset
+                requestedPasses.set(0);
+                rejectionHandler.onDrainRejected(
+                        new BleException("Operation queue cannot be drained anymore", rejectedExecutionException)
+                );
+            }
+        }
+    }
+}
@@ -23,9 +23,19 @@ class QueueSemaphore implements QueueReleaseInterface, QueueAwaitReleaseInterfac
     }
 
     @Override
-    public synchronized void release() {
+    public void release() {
         if (isReleased.compareAndSet(false, true)) {
-            notify();
+            synchronized (this) {
+                notify();
+            }
+            onReleased();
         }
     }
+
+    /**
+     * Called once, on the thread that released the semaphore. Lets a non-blocking queue proceed without awaiting the release.
+     */
+    protected void onReleased() {
+        // nothing to do by default
+    }
 }
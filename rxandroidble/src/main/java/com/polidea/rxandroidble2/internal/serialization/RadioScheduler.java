@@ -0,0 +1,240 @@
+package com.polidea.rxandroidble2.internal.serialization;
+
+import androidx.annotation.Nullable;
+
+import com.polidea.rxandroidble2.ClientSetup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the number of GATT operations executed at once by all connection queues of a client. Each connection queue is
+ * a {@link Participant} which needs to acquire a slot before starting an operation. When all slots are taken the participants
+ * wait and released slots are handed over to them in a weighted round-robin order — a participant may be granted up to its
+ * weight of slots in a row before the next waiting participant is served. To let a participant which runs one operation at a time
+ * use its whole turn, a slot released by the participant during its turn is granted back to it and has to be returned with
+ * {@link Participant#returnGrantedSlots()} if the participant has nothing more to run.
+ * <p>
+ * With no limit set slots are always available and no state is kept.
+ *
+ * @see ClientSetup.Builder#setMaxConcurrentGattOperations(int)
+ */
+public class RadioScheduler {
+
+    private static final QueueReleaseInterface UNLIMITED_SLOT = new QueueReleaseInterface() {
+        @Override
+        public void release() {
+            // nothing to release
+        }
+    };
+
+    private final boolean isLimited;
+    private final List<Participant> participants = new ArrayList<>();
+    private int availableSlots;
+    private int waitingParticipantsCount = 0;
+    private int cursor = 0;
+
+    /**
+     * @param maxConcurrentOperations the maximum number of operations executed at once or
+     *                                {@link ClientSetup#UNLIMITED_CONCURRENT_GATT_OPERATIONS}
+     */
+    public RadioScheduler(int maxConcurrentOperations) {
+        this.isLimited = maxConcurrentOperations != ClientSetup.UNLIMITED_CONCURRENT_GATT_OPERATIONS;
+        this.availableSlots = maxConcurrentOperations;
+    }
+
+    /**
+     * @param weight        the number of slots that may be granted to the participant in a row
+     * @param slotsListener called (outside of any lock) when a slot was granted to the participant after it has failed to acquire one
+     * @return the registered participant
+     */
+    Participant register(int weight, Runnable slotsListener) {
+        final Participant participant = new Participant(weight, slotsListener);
+        if (isLimited) {
+            synchronized (this) {
+                participants.add(participant);
+                participant.isRegistered = true;
+            }
+        }
+        return participant;
+    }
+
+    @Nullable
+    synchronized QueueReleaseInterface tryAcquire(Participant participant) {
+        if (participant.grantedSlots > 0) {
+            participant.grantedSlots--;
+            return new Slot(participant);
+        }
+        if (availableSlots > 0 && waitingParticipantsCount == 0) {
+            availableSlots--;
+            return new Slot(participant);
+        }
+        if (!participant.isWaiting && participant.isRegistered) {
+            participant.isWaiting = true;
+            waitingParticipantsCount++;
+        }
+        return null;
+    }
+
+    void unregister(Participant participant) {
+        final int returnedSlots;
+        synchronized (this) {
+            if (!participant.isRegistered) {
+                return;
+            }
+            final int index = participants.indexOf(participant);
+            participants.remove(index);
+            participant.isRegistered = false;
+            if (index < cursor) {
+                cursor--;
+            }
+            if (cursor >= participants.size()) {
+                cursor = 0;
+            }
+            if (participant.isWaiting) {
+                participant.isWaiting = false;
+                waitingParticipantsCount--;
+            }
+            returnedSlots = participant.grantedSlots;
+            participant.grantedSlots = 0;
+        }
+        for (int i = 0; i < returnedSlots; i++) {
+            releaseSlot(null);
+        }
+    }
+
+    void returnGrantedSlots(Participant participant) {
+        final int returnedSlots;
+        synchronized (this) {
+            returnedSlots = participant.grantedSlots;
+            if (returnedSlots == 0) {
+                return;
+            }
+            participant.grantedSlots = 0;
+            if (isInTurn(participant)) {
+                endTurn(participant);
+            }
+        }
+        for (int i = 0; i < returnedSlots; i++) {
+            releaseSlot(null);
+        }
+    }
+
+    /**
+     * @param owner the participant which has released the slot or null if the slot should be granted to the next waiting participant
+     */
+    void releaseSlot(@Nullable Participant owner) {
+        final Participant grantedParticipant;
+        synchronized (this) {
+            if (waitingParticipantsCount == 0) {
+                availableSlots++;
+                return;
+            }
+            if (owner != null && owner.isRegistered && isInTurn(owner)) {
+                // the owner has not used its whole turn yet
+                grantedParticipant = owner;
+                if (owner.isWaiting) {
+                    owner.isWaiting = false;
+                    waitingParticipantsCount--;
+                }
+                countTurnGrant(owner);
+            } else {
+                grantedParticipant = nextWaitingParticipant();
+                grantedParticipant.isWaiting = false;
+                waitingParticipantsCount--;
+            }
+            grantedParticipant.grantedSlots++;
+        }
+        grantedParticipant.slotsListener.run();
+    }
+
+    private boolean isInTurn(Participant participant) {
+        return participant.turnGrantsCount > 0 && participants.get(cursor) == participant;
+    }
+
+    private void countTurnGrant(Participant participant) {
+        participant.turnGrantsCount++;
+        if (participant.turnGrantsCount >= participant.weight) {
+            endTurn(participant);
+        }
+    }
+
+    private void endTurn(Participant participant) {
+        participant.turnGrantsCount = 0;
+        cursor = (cursor + 1) % participants.size();
+    }
+
+    private Participant nextWaitingParticipant() {
+        // there is at least one waiting participant so the loop ends within a single pass over the participants
+        while (true) {
+            final Participant participant = participants.get(cursor);
+            if (participant.isWaiting) {
+                countTurnGrant(participant);
+                return participant;
+            }
+            participant.turnGrantsCount = 0;
+            cursor = (cursor + 1) % participants.size();
+        }
+    }
+
+    /**
+     * A connection queue taking part in the scheduling. Guarded by the scheduler's lock.
+     */
+    final class Participant {
+
+        final int weight;
+        final Runnable slotsListener;
+        boolean isRegistered = false;
+        boolean isWaiting = false;
+        int grantedSlots = 0;
+        int turnGrantsCount = 0;
+
+        Participant(int weight, Runnable slotsListener) {
+            this.weight = weight;
+            this.slotsListener = slotsListener;
+        }
+
+        /**
+         * @return the slot which needs to be released when the operation finishes or null if the participant needs to wait for
+         * a slot to be granted
+         */
+        @Nullable
+        QueueReleaseInterface tryAcquire() {
+            return isLimited ? RadioScheduler.this.tryAcquire(this) : UNLIMITED_SLOT;
+        }
+
+        /**
+         * Returns the slots granted to the participant which it has not acquired — to be called when the participant has nothing
+         * to run.
+         */
+        void returnGrantedSlots() {
+            if (isLimited) {
+                RadioScheduler.this.returnGrantedSlots(this);
+            }
+        }
+
+        void unregister() {
+            if (isLimited) {
+                RadioScheduler.this.unregister(this);
+            }
+        }
+    }
+
+    private final class Slot implements QueueReleaseInterface {
+
+        private final Participant owner;
+        private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+        Slot(Participant owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void release() {
+            if (isReleased.compareAndSet(false, true)) {
+                releaseSlot(owner);
+            }
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.polidea.rxandroidble2.internal.serialization;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * A {@link Scheduler} for timeouts backed by a hashed timer wheel. Scheduling and cancelling a task takes constant time and does not
+ * touch any shared delayed queue — the task is handed over to a single wheel thread which puts it into the bucket of the tick at
+ * which it is due. The wheel thread wakes up once per tick only while there are scheduled tasks and waits otherwise.
+ * <p>
+ * Tasks are due with the precision of a tick. Once due they are run on the expiry scheduler so a slow task does not delay the other
+ * timeouts. Most of the timeouts are cancelled long before they are due, so the expiry scheduler is rarely involved.
+ */
+public class TimerWheelScheduler extends Scheduler {
+
+    public static final long DEFAULT_TICK_DURATION_MILLIS = 100L;
+    /**
+     * With the default tick duration a round of the wheel takes 51.2 seconds — longer than the default timeouts of the library.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    static final int STATE_SCHEDULED = 0;
+    static final int STATE_EXPIRED = 1;
+    static final int STATE_DONE = 2;
+    static final int STATE_CANCELLED = 3;
+
+    final Scheduler expiryScheduler;
+    private final ThreadFactory threadFactory;
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final long startTime = System.nanoTime();
+    private final AtomicReference<TimerTask> pendingTasks = new AtomicReference<>();
+    private final AtomicReference<TimerTask> cancelledTasks = new AtomicReference<>();
+    /*
+     * The number of tasks which were scheduled and are neither expired nor cancelled.
+     */
+    final AtomicInteger activeCount = new AtomicInteger();
+    private final Object lock = new Object();
+    private Thread thread;
+    private volatile boolean isShutdown;
+    /*
+     * Accessed only by the wheel thread.
+     */
+    private long nextTick;
+
+    public TimerWheelScheduler(Scheduler expiryScheduler, ThreadFactory threadFactory) {
+        this(expiryScheduler, threadFactory, DEFAULT_TICK_DURATION_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param expiryScheduler the scheduler the due tasks are run on
+     * @param threadFactory   the factory of the wheel thread
+     * @param tickDuration    the precision of the timeouts
+     * @param tickTimeUnit    the unit of the tick duration
+     * @param wheelSize       the number of buckets — rounded up to a power of two
+     */
+    public TimerWheelScheduler(Scheduler expiryScheduler, ThreadFactory threadFactory, long tickDuration, TimeUnit tickTimeUnit,
+                               int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0");
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize must be in range (0, 2^30]");
+        }
+        this.expiryScheduler = expiryScheduler;
+        this.threadFactory = threadFactory;
+        this.tickNanos = tickTimeUnit.toNanos(tickDuration);
+        final int normalizedWheelSize = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.mask = normalizedWheelSize - 1;
+        this.wheel = new Bucket[normalizedWheelSize];
+        for (int i = 0; i < normalizedWheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new TimerWheelWorker();
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        final Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+        if (delay <= 0) {
+            return expiryScheduler.scheduleDirect(decoratedRun);
+        }
+        if (isShutdown) {
+            return EmptyDisposable.INSTANCE;
+        }
+        final TimerTask task = new TimerTask(decoratedRun, null, deadlineOf(delay, unit));
+        schedule(task);
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (lock) {
+            isShutdown = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * @return the number of scheduled tasks which are neither due nor cancelled
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    long deadlineOf(long delay, TimeUnit unit) {
+        return System.nanoTime() - startTime + unit.toNanos(delay);
+    }
+
+    void schedule(TimerTask task) {
+        TimerTask head;
+        do {
+            head = pendingTasks.get();
+            task.nextPending = head;
+        } while (!pendingTasks.compareAndSet(head, task));
+        if (activeCount.getAndIncrement() == 0) {
+            synchronized (lock) {
+                if (thread == null && !isShutdown) {
+                    thread = threadFactory.newThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            runWheel();
+                        }
+                    });
+                    thread.start();
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    void cancel(TimerTask task) {
+        TimerTask head;
+        do {
+            head = cancelledTasks.get();
+            task.nextCancelled = head;
+        } while (!cancelledTasks.compareAndSet(head, task));
+    }
+
+    void runWheel() {
+        nextTick = elapsedTicks() + 1;
+        while (true) {
+            transferPendingTasks();
+            removeCancelledTasks();
+            synchronized (lock) {
+                if (isShutdown) {
+                    thread = null;
+                    return;
+                }
+                try {
+                    if (activeCount.get() == 0) {
+                        lock.wait();
+                        // nothing was in the wheel in the meantime so the passed ticks do not need to be processed
+                        nextTick = elapsedTicks() + 1;
+                        continue;
+                    }
+                    final long waitNanos = startTime + nextTick * tickNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, waitNanos);
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    thread = null;
+                    return;
+                }
+            }
+            expireBucket(wheel[(int) (nextTick & mask)]);
+            nextTick++;
+        }
+    }
+
+    private long elapsedTicks() {
+        return (System.nanoTime() - startTime) / tickNanos;
+    }
+
+    private void transferPendingTasks() {
+        TimerTask task = pendingTasks.getAndSet(null);
+        while (task != null) {
+            final TimerTask next = task.nextPending;
+            task.nextPending = null;
+            if (task.state.get() == STATE_SCHEDULED) {
+                final long dueTick = Math.max((task.deadline + tickNanos - 1) / tickNanos, nextTick);
+                task.remainingRounds = (dueTick - nextTick) >> Integer.bitCount(mask);
+                wheel[(int) (dueTick & mask)].add(task);
+            }
+            task = next;
+        }
+    }
+
+    private void removeCancelledTasks() {
+        TimerTask task = cancelledTasks.getAndSet(null);
+        while (task != null) {
+            final TimerTask next = task.nextCancelled;
+            task.nextCancelled = null;
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+            }
+            task = next;
+        }
+    }
+
+    private void expireBucket(Bucket bucket) {
+        TimerTask task = bucket.head;
+        while (task != null) {
+            final TimerTask next = task.next;
+            if (task.state.get() != STATE_SCHEDULED) {
+                bucket.remove(task);
+            } else if (task.remainingRounds <= 0) {
+                bucket.remove(task);
+                task.expire();
+            } else {
+                task.remainingRounds--;
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * A doubly linked list of tasks — only accessed by the wheel thread.
+     */
+    static final class Bucket {
+
+        TimerTask head;
+        TimerTask tail;
+
+        void add(TimerTask task) {
+            task.bucket = this;
+            if (head == null) {
+                head = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+            }
+            tail = task;
+        }
+
+        void remove(TimerTask task) {
+            if (task.prev != null) {
+                task.prev.next = task.next;
+            } else {
+                head = task.next;
+            }
+            if (task.next != null) {
+                task.next.prev = task.prev;
+            } else {
+                tail = task.prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+    }
+
+    final class TimerTask implements Runnable, Disposable {
+
+        final Runnable run;
+        final TimerWheelWorker worker;
+        final long deadline;
+        final AtomicInteger state = new AtomicInteger(STATE_SCHEDULED);
+        // the links of the pending and cancelled task stacks
+        volatile TimerTask nextPending;
+        volatile TimerTask nextCancelled;
+        // the fields below are accessed only by the wheel thread
+        long remainingRounds;
+        Bucket bucket;
+        TimerTask prev;
+        TimerTask next;
+
+        TimerTask(Runnable run, TimerWheelWorker worker, long deadline) {
+            this.run = run;
+            this.worker = worker;
+            this.deadline = deadline;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(STATE_SCHEDULED, STATE_EXPIRED)) {
+                return;
+            }
+            activeCount.decrementAndGet();
+            try {
+                if (worker != null) {
+                    worker.execute(this);
+                } else {
+                    expiryScheduler.scheduleDirect(this);
+                }
+            } catch (Throwable throwable) {
+                Exceptions.throwIfFatal(throwable);
+                RxJavaPlugins.onError(throwable);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (state.compareAndSet(STATE_EXPIRED, STATE_DONE)) {
+                try {
+                    run.run();
+                } finally {
+                    onFinished();
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            while (true) {
+                final int currentState = state.get();
+                if (currentState == STATE_SCHEDULED) {
+                    if (state.compareAndSet(STATE_SCHEDULED, STATE_CANCELLED)) {
+                        activeCount.decrementAndGet();
+                        cancel(this);
+                        onFinished();
+                        return;
+                    }
+                } else if (currentState == STATE_EXPIRED) {
+                    if (state.compareAndSet(STATE_EXPIRED, STATE_CANCELLED)) {
+                        onFinished();
+                        return;
+                    }
+                } else {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            final int currentState = state.get();
+            return currentState == STATE_DONE || currentState == STATE_CANCELLED;
+        }
+
+        private void onFinished() {
+            if (worker != null) {
+                worker.tasks.delete(this);
+            }
+        }
+    }
+
+    /**
+     * Runs its due tasks one at a time on a worker of the expiry scheduler which is created only when the first task is due.
+     */
+    final class TimerWheelWorker extends Worker {
+
+        final CompositeDisposable tasks = new CompositeDisposable();
+        private Worker expiryWorker;
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (tasks.isDisposed() || isShutdown) {
+                return EmptyDisposable.INSTANCE;
+            }
+            final TimerTask task = new TimerTask(RxJavaPlugins.onSchedule(run), this, deadlineOf(delay, unit));
+            if (!tasks.add(task)) {
+                return EmptyDisposable.INSTANCE;
+            }
+            if (delay <= 0) {
+                task.state.set(STATE_EXPIRED);
+                execute(task);
+            } else {
+                TimerWheelScheduler.this.schedule(task);
+            }
+            return task;
+        }
+
+        void execute(TimerTask task) {
+            final Worker worker;
+            synchronized (this) {
+                if (tasks.isDisposed()) {
+                    return;
+                }
+                if (expiryWorker == null) {
+                    expiryWorker = expiryScheduler.createWorker();
+                }
+                worker = expiryWorker;
+            }
+            worker.schedule(task);
+        }
+
+        @Override
+        public void dispose() {
+            tasks.dispose();
+            synchronized (this) {
+                if (expiryWorker != null) {
+                    expiryWorker.dispose();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return tasks.isDisposed();
+        }
+    }
+}
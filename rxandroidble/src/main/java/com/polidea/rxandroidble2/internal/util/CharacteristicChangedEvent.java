@@ -1,5 +1,6 @@
 package com.polidea.rxandroidble2.internal.util;
 
+import android.os.SystemClock;
 
 import java.util.Arrays;
 import java.util.UUID;
@@ -7,10 +8,19 @@ import java.util.UUID;
 public class CharacteristicChangedEvent extends CharacteristicNotificationId {
 
     public final byte[] data;
+    /*
+     * In the SystemClock.elapsedRealtimeNanos() time base. Not a part of the equality.
+     */
+    public final long arrivalRealtimeNanos;
 
     public CharacteristicChangedEvent(UUID uuid, Integer instanceId, byte[] data) {
+        this(uuid, instanceId, data, SystemClock.elapsedRealtimeNanos());
+    }
+
+    public CharacteristicChangedEvent(UUID uuid, Integer instanceId, byte[] data, long arrivalRealtimeNanos) {
         super(uuid, instanceId);
         this.data = data;
+        this.arrivalRealtimeNanos = arrivalRealtimeNanos;
     }
 
     @Override
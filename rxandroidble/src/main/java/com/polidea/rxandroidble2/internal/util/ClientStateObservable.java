@@ -40,7 +40,7 @@ public class ClientStateObservable extends Observable<RxBleClient.State> {
             final Observable<RxBleAdapterStateObservable.BleAdapterState> bleAdapterStateObservable,
             @Named(ClientComponent.NamedBooleanObservables.LOCATION_SERVICES_OK) final Observable<Boolean> locationServicesOkObservable,
             final LocationServicesStatus locationServicesStatus,
-            @Named(ClientComponent.NamedSchedulers.TIMEOUT) final Scheduler timerScheduler
+            @Named(ClientComponent.NamedSchedulers.COMPUTATION) final Scheduler timerScheduler
     ) {
         this.rxBleAdapterWrapper = rxBleAdapterWrapper;
         this.bleAdapterStateObservable = bleAdapterStateObservable;
@@ -0,0 +1,67 @@
+package com.polidea.rxandroidble2.internal.util;
+
+
+import com.polidea.rxandroidble2.NotificationBackpressure;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.Functions;
+
+public class NotificationBackpressureUtil {
+
+    private NotificationBackpressureUtil() {
+
+    }
+
+    /**
+     * @param notificationObservable the observable emitting the observable of the notification values once it was set up
+     * @param backpressure           the buffering of the notification values
+     * @return the flowable emitting the flowable of the notification values buffered according to the backpressure
+     */
+    public static Flowable<Flowable<byte[]>> withBackpressure(Observable<Observable<byte[]>> notificationObservable,
+                                                               final NotificationBackpressure backpressure) {
+        return notificationObservable
+                .map(new Function<Observable<byte[]>, Flowable<byte[]>>() {
+                    @Override
+                    public Flowable<byte[]> apply(Observable<byte[]> observable) {
+                        return withBackpressure(observable.toFlowable(BackpressureStrategy.MISSING), backpressure);
+                    }
+                })
+                // emits a single value
+                .toFlowable(BackpressureStrategy.BUFFER);
+    }
+
+    private static Flowable<byte[]> withBackpressure(Flowable<byte[]> flowable, final NotificationBackpressure backpressure) {
+        final Action onOverflow = new Action() {
+            @Override
+            public void run() {
+                backpressure.onOverflow();
+            }
+        };
+        switch (backpressure.getOverflowStrategy()) {
+            case DROP_LATEST:
+                return flowable.onBackpressureBuffer(backpressure.getBufferSize(), onOverflow, BackpressureOverflowStrategy.DROP_LATEST);
+            case ERROR:
+                // the overflow action is not called when the buffer overflows with an error
+                return flowable
+                        .onBackpressureBuffer(backpressure.getBufferSize(), Functions.EMPTY_ACTION, BackpressureOverflowStrategy.ERROR)
+                        .doOnError(new Consumer<Throwable>() {
+                            @Override
+                            public void accept(Throwable throwable) {
+                                if (throwable instanceof MissingBackpressureException) {
+                                    backpressure.onOverflow();
+                                }
+                            }
+                        });
+            case DROP_OLDEST:
+            default:
+                return flowable.onBackpressureBuffer(backpressure.getBufferSize(), onOverflow, BackpressureOverflowStrategy.DROP_OLDEST);
+        }
+    }
+}
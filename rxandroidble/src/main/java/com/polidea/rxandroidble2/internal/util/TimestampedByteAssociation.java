@@ -0,0 +1,17 @@
+package com.polidea.rxandroidble2.internal.util;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A {@link ByteAssociation} which carries the time of the arrival at the native callback in the
+ * {@link android.os.SystemClock#elapsedRealtimeNanos()} time base. The time is not a part of the equality.
+ */
+public class TimestampedByteAssociation<T> extends ByteAssociation<T> {
+
+    public final long arrivalRealtimeNanos;
+
+    public TimestampedByteAssociation(@NonNull T first, byte[] second, long arrivalRealtimeNanos) {
+        super(first, second);
+        this.arrivalRealtimeNanos = arrivalRealtimeNanos;
+    }
+}
@@ -0,0 +1,48 @@
+package com.polidea.rxandroidble2.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Latencies between the arrival of values at the native Bluetooth callback and their delivery to the library on the callback
+ * scheduler — i.e. the time the values spent waiting for the thread hand-over.
+ *
+ * @see com.polidea.rxandroidble2.RxBleConnection#getCallbackDispatchMetrics()
+ */
+public final class CallbackDispatchMetrics {
+
+    private final LatencyHistogram notificationDispatchLatency;
+    private final LatencyHistogram characteristicReadDispatchLatency;
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public CallbackDispatchMetrics(@NonNull LatencyHistogram notificationDispatchLatency,
+                                   @NonNull LatencyHistogram characteristicReadDispatchLatency) {
+        this.notificationDispatchLatency = notificationDispatchLatency;
+        this.characteristicReadDispatchLatency = characteristicReadDispatchLatency;
+    }
+
+    /**
+     * @return the latencies of the values of notifications and indications which were set up on the connection
+     */
+    @NonNull
+    public LatencyHistogram getNotificationDispatchLatency() {
+        return notificationDispatchLatency;
+    }
+
+    /**
+     * @return the latencies of the results of characteristic reads
+     */
+    @NonNull
+    public LatencyHistogram getCharacteristicReadDispatchLatency() {
+        return characteristicReadDispatchLatency;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "CallbackDispatchMetrics{"
+                + "notificationDispatchLatency=" + notificationDispatchLatency
+                + ", characteristicReadDispatchLatency=" + characteristicReadDispatchLatency
+                + '}';
+    }
+}
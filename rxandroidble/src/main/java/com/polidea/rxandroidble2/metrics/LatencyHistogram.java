@@ -0,0 +1,113 @@
+package com.polidea.rxandroidble2.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * An immutable snapshot of a latency histogram. Latencies are counted in fixed buckets — the upper bound of the first bucket is
+ * 1 microsecond and every next bucket has an upper bound twice as big as the previous one. The last bucket is unbounded.
+ * <p>
+ * Percentiles are approximated with the upper bound of the bucket they fall into, limited by the maximum recorded latency.
+ */
+public final class LatencyHistogram {
+
+    private final long[] bucketUpperBoundsNanos;
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalNanos;
+    private final long minNanos;
+    private final long maxNanos;
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public LatencyHistogram(long[] bucketUpperBoundsNanos, long[] bucketCounts, long totalNanos, long minNanos, long maxNanos) {
+        this.bucketUpperBoundsNanos = bucketUpperBoundsNanos;
+        this.bucketCounts = bucketCounts;
+        long count = 0;
+        for (long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.minNanos = count == 0 ? 0 : minNanos;
+        this.maxNanos = count == 0 ? 0 : maxNanos;
+    }
+
+    /**
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the smallest recorded latency in nanoseconds or 0 if nothing was recorded
+     */
+    public long getMinNanos() {
+        return minNanos;
+    }
+
+    /**
+     * @return the biggest recorded latency in nanoseconds or 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return the mean of recorded latencies in nanoseconds or 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Returns an approximation of the latency below which the passed percentage of recorded latencies fall.
+     *
+     * @param percentile the percentile in range (0, 100]
+     * @return the upper bound of the bucket in which the percentile falls in nanoseconds or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in range (0, 100] but was " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long countBelowPercentile = (long) Math.ceil(count * percentile / 100);
+        long cumulativeCount = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            cumulativeCount += bucketCounts[i];
+            if (cumulativeCount >= countBelowPercentile) {
+                return Math.min(bucketUpperBoundsNanos[i], maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * @return the inclusive upper bounds of the buckets in nanoseconds
+     */
+    @NonNull
+    public long[] getBucketUpperBoundsNanos() {
+        return bucketUpperBoundsNanos.clone();
+    }
+
+    /**
+     * @return the number of recorded latencies in each of the buckets
+     */
+    @NonNull
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "LatencyHistogram{"
+                + "count=" + count
+                + ", minNanos=" + minNanos
+                + ", meanNanos=" + getMeanNanos()
+                + ", maxNanos=" + maxNanos
+                + '}';
+    }
+}
@@ -0,0 +1,104 @@
+package com.polidea.rxandroidble2.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Progress of a long write. The bytes are counted as acknowledged when the batch containing them was acknowledged — either by
+ * {@link android.bluetooth.BluetoothGattCallback#onCharacteristicWrite} or by the window acknowledgements of the peripheral.
+ * Throughput is measured with {@link System#nanoTime()}.
+ *
+ * @see com.polidea.rxandroidble2.RxBleConnection.LongWriteOperationBuilder#setProgressConsumer
+ */
+public final class LongWriteProgress {
+
+    /**
+     * The value of {@link #getTotalBytes()} when the length of the written source is not known upfront.
+     */
+    public static final long UNKNOWN_TOTAL_BYTES = -1;
+
+    private final long acknowledgedBytes;
+    private final long totalBytes;
+    private final int acknowledgedBatchCount;
+    private final int retryCount;
+    private final long elapsedNanos;
+    private final double instantaneousBytesPerSecond;
+    private final double averageBytesPerSecond;
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public LongWriteProgress(long acknowledgedBytes, long totalBytes, int acknowledgedBatchCount, int retryCount, long elapsedNanos,
+                             double instantaneousBytesPerSecond, double averageBytesPerSecond) {
+        this.acknowledgedBytes = acknowledgedBytes;
+        this.totalBytes = totalBytes;
+        this.acknowledgedBatchCount = acknowledgedBatchCount;
+        this.retryCount = retryCount;
+        this.elapsedNanos = elapsedNanos;
+        this.instantaneousBytesPerSecond = instantaneousBytesPerSecond;
+        this.averageBytesPerSecond = averageBytesPerSecond;
+    }
+
+    /**
+     * @return the count of bytes which were acknowledged since the long write started
+     */
+    public long getAcknowledgedBytes() {
+        return acknowledgedBytes;
+    }
+
+    /**
+     * @return the count of bytes to write or {@link #UNKNOWN_TOTAL_BYTES} when writing a stream or a channel other than
+     * a {@link java.nio.channels.FileChannel}
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return the count of acknowledged batches — the zero-based index of the next batch to be acknowledged
+     */
+    public int getAcknowledgedBatchCount() {
+        return acknowledgedBatchCount;
+    }
+
+    /**
+     * @return the count of retries made according to the
+     * {@link com.polidea.rxandroidble2.RxBleConnection.WriteOperationRetryStrategy}
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * @return the time since the long write started
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the throughput since the previous progress was emitted
+     */
+    public double getInstantaneousBytesPerSecond() {
+        return instantaneousBytesPerSecond;
+    }
+
+    /**
+     * @return the throughput since the long write started
+     */
+    public double getAverageBytesPerSecond() {
+        return averageBytesPerSecond;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "LongWriteProgress{"
+                + "acknowledgedBytes=" + acknowledgedBytes
+                + ", totalBytes=" + totalBytes
+                + ", acknowledgedBatchCount=" + acknowledgedBatchCount
+                + ", retryCount=" + retryCount
+                + ", elapsedNanos=" + elapsedNanos
+                + ", instantaneousBytesPerSecond=" + instantaneousBytesPerSecond
+                + ", averageBytesPerSecond=" + averageBytesPerSecond
+                + '}';
+    }
+}
@@ -0,0 +1,93 @@
+package com.polidea.rxandroidble2.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
+
+/**
+ * Latencies of operations of a single type which were run on a single operations queue.
+ */
+public final class OperationMetrics {
+
+    private final String deviceMacAddress;
+    private final String operationName;
+    private final LatencyHistogram queueWaitTime;
+    private final LatencyHistogram timeToFirstCallback;
+    private final LatencyHistogram totalTime;
+    private final long shedCount;
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public OperationMetrics(@Nullable String deviceMacAddress, @NonNull String operationName, @NonNull LatencyHistogram queueWaitTime,
+                            @NonNull LatencyHistogram timeToFirstCallback, @NonNull LatencyHistogram totalTime, long shedCount) {
+        this.deviceMacAddress = deviceMacAddress;
+        this.operationName = operationName;
+        this.queueWaitTime = queueWaitTime;
+        this.timeToFirstCallback = timeToFirstCallback;
+        this.totalTime = totalTime;
+        this.shedCount = shedCount;
+    }
+
+    /**
+     * @return the MAC address of the device which connection queue has run the operations or null for operations run on the client
+     * queue (i.e. connecting or scanning)
+     */
+    @Nullable
+    public String getDeviceMacAddress() {
+        return deviceMacAddress;
+    }
+
+    /**
+     * @return the name of the operations type
+     */
+    @NonNull
+    public String getOperationName() {
+        return operationName;
+    }
+
+    /**
+     * @return the times between queueing the operations and starting them
+     */
+    @NonNull
+    public LatencyHistogram getQueueWaitTime() {
+        return queueWaitTime;
+    }
+
+    /**
+     * @return the times between starting the operations and their first emission, error or completion
+     */
+    @NonNull
+    public LatencyHistogram getTimeToFirstCallback() {
+        return timeToFirstCallback;
+    }
+
+    /**
+     * @return the times between starting the operations and releasing the queue by them
+     */
+    @NonNull
+    public LatencyHistogram getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * @return the number of operations that were not run because their queue deadline passed
+     * @see com.polidea.rxandroidble2.ConnectionSetup.Builder#setOperationQueueDeadline(com.polidea.rxandroidble2.Timeout)
+     */
+    public long getShedCount() {
+        return shedCount;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "OperationMetrics{"
+                + (deviceMacAddress == null ? "client" : LoggerUtil.commonMacMessage(deviceMacAddress))
+                + ", operationName='" + operationName + '\''
+                + ", queueWaitTime=" + queueWaitTime
+                + ", timeToFirstCallback=" + timeToFirstCallback
+                + ", totalTime=" + totalTime
+                + ", shedCount=" + shedCount
+                + '}';
+    }
+}
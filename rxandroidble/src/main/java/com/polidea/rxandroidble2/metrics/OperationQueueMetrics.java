@@ -0,0 +1,61 @@
+package com.polidea.rxandroidble2.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A snapshot of latency and depth metrics of the operation queues of a {@link com.polidea.rxandroidble2.RxBleClient} — the client
+ * queue and connection queues of the most recently connected devices.
+ * <p>
+ * Latencies are measured with {@link System#nanoTime()}.
+ */
+public final class OperationQueueMetrics {
+
+    private final long timestampNanos;
+    private final List<OperationMetrics> operationMetrics;
+    private final List<QueueDepthMetrics> queueDepthMetrics;
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public OperationQueueMetrics(long timestampNanos, @NonNull List<OperationMetrics> operationMetrics,
+                                 @NonNull List<QueueDepthMetrics> queueDepthMetrics) {
+        this.timestampNanos = timestampNanos;
+        this.operationMetrics = Collections.unmodifiableList(operationMetrics);
+        this.queueDepthMetrics = Collections.unmodifiableList(queueDepthMetrics);
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the snapshot was taken
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * @return the latencies for each pair of queue and operation type that was run on it
+     */
+    @NonNull
+    public List<OperationMetrics> getOperationMetrics() {
+        return operationMetrics;
+    }
+
+    /**
+     * @return the depths of each queue
+     */
+    @NonNull
+    public List<QueueDepthMetrics> getQueueDepthMetrics() {
+        return queueDepthMetrics;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "OperationQueueMetrics{"
+                + "timestampNanos=" + timestampNanos
+                + ", operationMetrics=" + operationMetrics
+                + ", queueDepthMetrics=" + queueDepthMetrics
+                + '}';
+    }
+}
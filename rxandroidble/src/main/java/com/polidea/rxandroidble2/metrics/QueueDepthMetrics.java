@@ -0,0 +1,56 @@
+package com.polidea.rxandroidble2.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import com.polidea.rxandroidble2.internal.logger.LoggerUtil;
+
+/**
+ * The number of operations waiting in a single operations queue.
+ */
+public final class QueueDepthMetrics {
+
+    private final String deviceMacAddress;
+    private final int currentDepth;
+    private final int maxDepth;
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public QueueDepthMetrics(@Nullable String deviceMacAddress, int currentDepth, int maxDepth) {
+        this.deviceMacAddress = deviceMacAddress;
+        this.currentDepth = currentDepth;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @return the MAC address of the device which connection queue is described or null for the client queue
+     */
+    @Nullable
+    public String getDeviceMacAddress() {
+        return deviceMacAddress;
+    }
+
+    /**
+     * @return the number of operations waiting in the queue at the time of taking the snapshot
+     */
+    public int getCurrentDepth() {
+        return currentDepth;
+    }
+
+    /**
+     * @return the biggest number of operations that were waiting in the queue at once
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+        return "QueueDepthMetrics{"
+                + (deviceMacAddress == null ? "client" : LoggerUtil.commonMacMessage(deviceMacAddress))
+                + ", currentDepth=" + currentDepth
+                + ", maxDepth=" + maxDepth
+                + '}';
+    }
+}
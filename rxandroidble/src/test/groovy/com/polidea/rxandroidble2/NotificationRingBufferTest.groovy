@@ -0,0 +1,118 @@
+package com.polidea.rxandroidble2
+
+import java.nio.ByteBuffer
+import spock.lang.Specification
+
+class NotificationRingBufferTest extends Specification {
+
+    def "should return the values in the order they were offered"() {
+        given:
+        def objectUnderTest = new NotificationRingBuffer(64)
+        objectUnderTest.offer([1, 2, 3] as byte[])
+        objectUnderTest.offer([4] as byte[])
+        def destination = ByteBuffer.allocate(16)
+
+        expect:
+        objectUnderTest.nextValueLength() == 3
+        objectUnderTest.poll(destination) == 3
+        objectUnderTest.poll(destination) == 1
+        objectUnderTest.poll(destination) == -1
+        destination.flip() == ByteBuffer.wrap([1, 2, 3, 4] as byte[])
+    }
+
+    def "should return the values wrapped around the end of the buffer"() {
+        given:
+        def objectUnderTest = new NotificationRingBuffer(16)
+        def destination = ByteBuffer.allocate(8)
+
+        when:
+        5.times { index ->
+            assert objectUnderTest.offer([index, index + 1, index + 2, index + 3, index + 4] as byte[])
+            destination.clear()
+            assert objectUnderTest.poll(destination) == 5
+            assert Arrays.copyOf(destination.array(), 5) == ([index, index + 1, index + 2, index + 3, index + 4] as byte[])
+        }
+
+        then:
+        objectUnderTest.nextValueLength() == -1
+    }
+
+    def "should drop and count the values which do not fit into the free space"() {
+        given:
+        def objectUnderTest = new NotificationRingBuffer(16)
+
+        expect:
+        objectUnderTest.offer(new byte[8])
+        !objectUnderTest.offer(new byte[5])
+        objectUnderTest.offer(new byte[0])
+        !objectUnderTest.offer(new byte[0])
+        objectUnderTest.overflowCount == 2
+
+        when:
+        objectUnderTest.poll(ByteBuffer.allocate(8))
+
+        then:
+        objectUnderTest.offer(new byte[8])
+    }
+
+    def "should keep the value if it does not fit into the destination"() {
+        given:
+        def objectUnderTest = new NotificationRingBuffer(16)
+        objectUnderTest.offer([1, 2, 3] as byte[])
+
+        when:
+        objectUnderTest.poll(ByteBuffer.allocate(2))
+
+        then:
+        thrown IllegalArgumentException
+        objectUnderTest.nextValueLength() == 3
+    }
+
+    def "should remove all values when cleared"() {
+        given:
+        def objectUnderTest = new NotificationRingBuffer(16)
+        objectUnderTest.offer([1] as byte[])
+        objectUnderTest.offer([2] as byte[])
+
+        when:
+        objectUnderTest.clear()
+
+        then:
+        objectUnderTest.nextValueLength() == -1
+    }
+
+    def "should call the value available listener only for the copied values"() {
+        given:
+        def objectUnderTest = new NotificationRingBuffer(16)
+        def listener = Mock(Runnable)
+        objectUnderTest.setValueAvailableListener(listener)
+
+        when:
+        new NotificationRingBufferSink(objectUnderTest).onValue(new byte[8])
+
+        then:
+        1 * listener.run()
+
+        when:
+        objectUnderTest.offer(new byte[8])
+
+        then:
+        0 * listener.run()
+
+        when:
+        objectUnderTest.setValueAvailableListener(null)
+        objectUnderTest.poll(ByteBuffer.allocate(8))
+        objectUnderTest.offer(new byte[1])
+
+        then:
+        0 * listener.run()
+    }
+
+    def "should not accept a capacity not greater than the value header size"() {
+        when:
+        new NotificationRingBuffer(NotificationRingBuffer.VALUE_HEADER_SIZE)
+
+        then:
+        thrown IllegalArgumentException
+    }
+}
@@ -5,6 +5,7 @@ import android.content.Context
 import com.polidea.rxandroidble2.exceptions.BleScanException
 
 import com.polidea.rxandroidble2.internal.RxBleDeviceProvider
+import com.polidea.rxandroidble2.internal.metrics.OperationQueueMetricsRecorder
 import com.polidea.rxandroidble2.internal.operations.Operation
 import com.polidea.rxandroidble2.internal.scan.*
 import com.polidea.rxandroidble2.internal.serialization.ClientOperationQueue
@@ -23,6 +24,8 @@ import io.reactivex.observers.TestObserver
 import io.reactivex.schedulers.TestScheduler
 import spock.lang.Unroll
 
+import java.util.concurrent.TimeUnit
+
 import static com.polidea.rxandroidble2.exceptions.BleScanException.*
 
 @SuppressWarnings("GrDeprecatedAPIUsage")
@@ -54,6 +57,8 @@ class RxBleClientTest extends Specification {
     InternalToExternalScanResultConverter mockMapper = Mock InternalToExternalScanResultConverter
     CheckerScanPermission mockCheckerScanPermission = Mock CheckerScanPermission
     CheckerConnectPermission mockCheckerConnectPermission = Mock CheckerConnectPermission
+    OperationQueueMetricsRecorder operationQueueMetricsRecorder = new OperationQueueMetricsRecorder()
+    TestScheduler computationScheduler = new TestScheduler()
     private static someUUID = UUID.randomUUID()
     private static otherUUID = UUID.randomUUID()
     private static Date suggestedDateToRetry = new Date()
@@ -92,7 +97,9 @@ class RxBleClientTest extends Specification {
                 Mock(ClientComponent.ClientComponentFinalizer),
                 backgroundScanner,
                 mockCheckerScanPermission,
-                mockCheckerConnectPermission
+                mockCheckerConnectPermission,
+                operationQueueMetricsRecorder,
+                computationScheduler
         )
     }
 
@@ -604,6 +611,30 @@ class RxBleClientTest extends Specification {
         result == resultRef
     }
 
+    def "should return metrics of the queues recorded by OperationQueueMetricsRecorder"() {
+
+        given:
+        operationQueueMetricsRecorder.queueMetricsRecorder("AA:AA:AA:AA:AA:AA").onOperationQueued()
+
+        when:
+        def result = objectUnderTest.getOperationQueueMetrics()
+
+        then:
+        result.queueDepthMetrics.find { it.deviceMacAddress == "AA:AA:AA:AA:AA:AA" }.currentDepth == 1
+    }
+
+    def "should emit metrics of the queues periodically on the computation scheduler"() {
+
+        given:
+        def testObserver = objectUnderTest.observeOperationQueueMetrics(1, TimeUnit.SECONDS).test()
+
+        when:
+        computationScheduler.advanceTimeBy(3, TimeUnit.SECONDS)
+
+        then:
+        testObserver.assertValueCount(3)
+    }
+
     def waitForThreadsToCompleteWork() {
         Thread.sleep(200) // Nasty :<
         true
@@ -0,0 +1,139 @@
+package com.polidea.rxandroidble2.internal.connection
+
+import com.polidea.rxandroidble2.TimestampedValue
+import com.polidea.rxandroidble2.internal.util.CharacteristicChangedEvent
+import com.polidea.rxandroidble2.internal.util.CharacteristicNotificationId
+import io.reactivex.subjects.PublishSubject
+import spock.lang.Specification
+
+class CharacteristicChangedEventDemultiplexerTest extends Specification {
+
+    public static final UUID CHARACTERISTIC_UUID = UUID.fromString("f301f518-5414-471c-8a7b-2ef6d1b7373d")
+    public static final UUID OTHER_UUID = UUID.fromString("ab906173-5daa-4d6b-8604-c2be69122d57")
+    public static final byte[] DATA = [1, 2, 3] as byte[]
+    def rxBleGattCallbackMock = Mock(RxBleGattCallback)
+    def characteristicChangedSubject = PublishSubject.<CharacteristicChangedEvent>create()
+    CharacteristicChangedEventDemultiplexer objectUnderTest
+
+    def setup() {
+        objectUnderTest = new CharacteristicChangedEventDemultiplexer(rxBleGattCallbackMock)
+    }
+
+    def "should emit only the values of the observed characteristic"() {
+        given:
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def testObserver = objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)).test()
+
+        when:
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(CHARACTERISTIC_UUID, 2, [0] as byte[]))
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(OTHER_UUID, 1, [0] as byte[]))
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(CHARACTERISTIC_UUID, 1, DATA))
+
+        then:
+        testObserver.assertValue(DATA)
+    }
+
+    def "should subscribe to the characteristic changes only once for all observed characteristics"() {
+        when:
+        objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)).test()
+        objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(OTHER_UUID, 1)).test()
+        objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(OTHER_UUID, 1)).test()
+
+        then:
+        1 * rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+    }
+
+    def "should emit the values to all observers of the same characteristic"() {
+        given:
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def id = new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)
+        def firstObserver = objectUnderTest.observeCharacteristicChanges(id).test()
+        def secondObserver = objectUnderTest.observeCharacteristicChanges(id).test()
+
+        when:
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(CHARACTERISTIC_UUID, 1, DATA))
+
+        then:
+        firstObserver.assertValue(DATA)
+        secondObserver.assertValue(DATA)
+    }
+
+    def "should keep emitting to the remaining observers of a characteristic after one was disposed"() {
+        given:
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def id = new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)
+        def firstObserver = objectUnderTest.observeCharacteristicChanges(id).test()
+        def secondObserver = objectUnderTest.observeCharacteristicChanges(id).test()
+
+        when:
+        firstObserver.dispose()
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(CHARACTERISTIC_UUID, 1, DATA))
+
+        then:
+        firstObserver.assertNoValues()
+        secondObserver.assertValue(DATA)
+    }
+
+    def "should unsubscribe from the characteristic changes when all observers are disposed"() {
+        given:
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def firstObserver = objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)).test()
+        def secondObserver = objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(OTHER_UUID, 1)).test()
+
+        when:
+        firstObserver.dispose()
+
+        then:
+        characteristicChangedSubject.hasObservers()
+
+        when:
+        secondObserver.dispose()
+
+        then:
+        !characteristicChangedSubject.hasObservers()
+    }
+
+    def "should emit the error of the characteristic changes to all observers"() {
+        given:
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def testException = new RuntimeException("test")
+        def firstObserver = objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)).test()
+        def secondObserver = objectUnderTest.observeCharacteristicChanges(new CharacteristicNotificationId(OTHER_UUID, 1)).test()
+
+        when:
+        characteristicChangedSubject.onError(testException)
+
+        then:
+        firstObserver.assertError(testException)
+        secondObserver.assertError(testException)
+    }
+
+    def "should emit the values of the observed characteristic with the time of their arrival"() {
+        given:
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def id = new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)
+        def testObserver = objectUnderTest.observeTimestampedCharacteristicChanges(id).test()
+
+        when:
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(CHARACTERISTIC_UUID, 1, DATA, 1337L))
+
+        then:
+        testObserver.assertValue(new TimestampedValue(DATA, 1337L))
+    }
+
+    def "should record the dispatch latency once per dispatched event"() {
+        given:
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def id = new CharacteristicNotificationId(CHARACTERISTIC_UUID, 1)
+        objectUnderTest.observeCharacteristicChanges(id).test()
+        objectUnderTest.observeTimestampedCharacteristicChanges(id).test()
+
+        when:
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(CHARACTERISTIC_UUID, 1, DATA, 1337L))
+        characteristicChangedSubject.onNext(new CharacteristicChangedEvent(OTHER_UUID, 1, DATA, 1338L))
+
+        then:
+        1 * rxBleGattCallbackMock.recordNotificationDispatch(1337L)
+        0 * rxBleGattCallbackMock.recordNotificationDispatch(_)
+    }
+}
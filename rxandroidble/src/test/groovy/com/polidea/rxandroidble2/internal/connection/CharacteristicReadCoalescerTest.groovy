@@ -0,0 +1,104 @@
+package com.polidea.rxandroidble2.internal.connection
+
+import android.bluetooth.BluetoothGattCharacteristic
+import io.reactivex.Observable
+import io.reactivex.subjects.PublishSubject
+import spock.lang.Specification
+
+class CharacteristicReadCoalescerTest extends Specification {
+
+    public static final byte[] READ_VALUE = [1, 2, 3] as byte[]
+    def characteristic = Mock BluetoothGattCharacteristic
+    def otherCharacteristic = Mock BluetoothGattCharacteristic
+    def readSubject = PublishSubject.<byte[]>create()
+    int readSubscriptionsCount = 0
+    def read = readSubject.doOnSubscribe { readSubscriptionsCount++ }
+    CharacteristicReadCoalescer objectUnderTest
+
+    def "should return the passed read if coalescing is disabled"() {
+        given:
+        objectUnderTest = new CharacteristicReadCoalescer(false)
+
+        expect:
+        objectUnderTest.coalesce(characteristic, read).is(read)
+    }
+
+    def "should not count coalesced reads if coalescing is disabled"() {
+        given:
+        objectUnderTest = new CharacteristicReadCoalescer(false)
+
+        when:
+        objectUnderTest.coalesce(characteristic, read).test()
+        objectUnderTest.coalesce(characteristic, read).test()
+
+        then:
+        readSubscriptionsCount == 2
+        objectUnderTest.getCoalescedReadsCount() == 0
+    }
+
+    def "should share the result of a pending read of the same characteristic"() {
+        given:
+        objectUnderTest = new CharacteristicReadCoalescer(true)
+        def firstTestObserver = objectUnderTest.coalesce(characteristic, read).test()
+
+        when:
+        def secondTestObserver = objectUnderTest.coalesce(characteristic, Observable.never()).test()
+        readSubject.onNext(READ_VALUE)
+
+        then:
+        readSubscriptionsCount == 1
+        firstTestObserver.assertValue(READ_VALUE)
+        secondTestObserver.assertValue(READ_VALUE)
+        objectUnderTest.getCoalescedReadsCount() == 1
+    }
+
+    def "should not coalesce reads of different characteristics"() {
+        given:
+        objectUnderTest = new CharacteristicReadCoalescer(true)
+        def otherRead = Observable.<byte[]>never()
+        objectUnderTest.coalesce(characteristic, read).test()
+
+        when:
+        objectUnderTest.coalesce(otherCharacteristic, otherRead.doOnSubscribe { readSubscriptionsCount++ }).test()
+
+        then:
+        readSubscriptionsCount == 2
+        objectUnderTest.getCoalescedReadsCount() == 0
+    }
+
+    def "should perform a new read after the pending read has finished"() {
+        given:
+        objectUnderTest = new CharacteristicReadCoalescer(true)
+        objectUnderTest.coalesce(characteristic, read).test()
+        readSubject.onNext(READ_VALUE)
+        readSubject.onComplete()
+        def newReadSubject = PublishSubject.<byte[]>create()
+
+        when:
+        def testObserver = objectUnderTest.coalesce(characteristic, newReadSubject).test()
+        newReadSubject.onNext(READ_VALUE)
+
+        then:
+        testObserver.assertValue(READ_VALUE)
+        objectUnderTest.getCoalescedReadsCount() == 0
+    }
+
+    def "should keep the pending read as long as at least one attached read is not disposed"() {
+        given:
+        objectUnderTest = new CharacteristicReadCoalescer(true)
+        def firstTestObserver = objectUnderTest.coalesce(characteristic, read).test()
+        def secondTestObserver = objectUnderTest.coalesce(characteristic, read).test()
+
+        when:
+        firstTestObserver.dispose()
+
+        then:
+        readSubject.hasObservers()
+
+        when:
+        secondTestObserver.dispose()
+
+        then:
+        !readSubject.hasObservers()
+    }
+}
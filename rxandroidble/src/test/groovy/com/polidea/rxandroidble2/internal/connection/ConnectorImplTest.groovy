@@ -12,6 +12,8 @@ import io.reactivex.subjects.PublishSubject
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.concurrent.TimeUnit
+
 class ConnectorImplTest extends Specification {
 
     ConnectionComponent.Builder mockConnectionComponentBuilder = Mock ConnectionComponent.Builder
@@ -32,6 +34,10 @@ class ConnectorImplTest extends Specification {
         mockConnectionComponentBuilder.autoConnect(_) >> mockConnectionComponentBuilder
         mockConnectionComponentBuilder.suppressOperationChecks(_) >> mockConnectionComponentBuilder
         mockConnectionComponentBuilder.operationTimeout(_) >> mockConnectionComponentBuilder
+        mockConnectionComponentBuilder.maxPipelinedWritesWithoutResponse(_) >> mockConnectionComponentBuilder
+        mockConnectionComponentBuilder.coalesceCharacteristicReads(_) >> mockConnectionComponentBuilder
+        mockConnectionComponentBuilder.operationQueueDeadline(_) >> mockConnectionComponentBuilder
+        mockConnectionComponentBuilder.gattOperationsWeight(_) >> mockConnectionComponentBuilder
         mockConnectionComponentBuilder.build() >> mockConnectionComponent
         mockConnectionComponent.connectOperation() >> mockConnect
         mockConnectionComponent.gattCallback() >> mockCallback
@@ -74,6 +80,52 @@ class ConnectorImplTest extends Specification {
         [autoConnect, suppressIllegalOperations] << [[true, false], [true, false]].combinations()
     }
 
+    def "subscribing prepareConnection() should pass the max pipelined writes without response to the ConnectionComponent.Builder"() {
+
+        given:
+        clientOperationQueueMock.queue(mockConnect) >> Observable.empty()
+        def connectionSetup = new ConnectionSetup.Builder()
+                .setMaxPipelinedWritesWithoutResponse(4)
+                .build()
+
+        when:
+        objectUnderTest.prepareConnection(connectionSetup).subscribe()
+
+        then:
+        1 * mockConnectionComponentBuilder.maxPipelinedWritesWithoutResponse(4) >> mockConnectionComponentBuilder
+    }
+
+    def "subscribing prepareConnection() should pass the operation queue deadline to the ConnectionComponent.Builder"() {
+
+        given:
+        clientOperationQueueMock.queue(mockConnect) >> Observable.empty()
+        def operationQueueDeadline = new Timeout(5, TimeUnit.SECONDS)
+        def connectionSetup = new ConnectionSetup.Builder()
+                .setOperationQueueDeadline(operationQueueDeadline)
+                .build()
+
+        when:
+        objectUnderTest.prepareConnection(connectionSetup).subscribe()
+
+        then:
+        1 * mockConnectionComponentBuilder.operationQueueDeadline(operationQueueDeadline) >> mockConnectionComponentBuilder
+    }
+
+    def "subscribing prepareConnection() should pass the GATT operations weight to the ConnectionComponent.Builder"() {
+
+        given:
+        clientOperationQueueMock.queue(mockConnect) >> Observable.empty()
+        def connectionSetup = new ConnectionSetup.Builder()
+                .setGattOperationsWeight(3)
+                .build()
+
+        when:
+        objectUnderTest.prepareConnection(connectionSetup).subscribe()
+
+        then:
+        1 * mockConnectionComponentBuilder.gattOperationsWeight(3) >> mockConnectionComponentBuilder
+    }
+
     def "should call ConnectionSubscriptionAware according to prepareConnection() subscription"() {
 
         given:
@@ -0,0 +1,149 @@
+package com.polidea.rxandroidble2.internal.connection
+
+import android.bluetooth.BluetoothGatt
+import com.polidea.rxandroidble2.PhyPair
+import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException
+import com.polidea.rxandroidble2.exceptions.BleGattOperationType
+import com.polidea.rxandroidble2.internal.PhyPairImpl
+import com.polidea.rxandroidble2.internal.RxBlePhyImpl
+import com.polidea.rxandroidble2.internal.operations.ConnectionPriorityChangeOperation
+import com.polidea.rxandroidble2.internal.operations.MtuRequestOperation
+import com.polidea.rxandroidble2.internal.operations.OperationsProvider
+import com.polidea.rxandroidble2.internal.operations.PhyReadOperation
+import com.polidea.rxandroidble2.internal.operations.PhyUpdateOperation
+import com.polidea.rxandroidble2.internal.serialization.ConnectionOperationQueue
+import io.reactivex.Observable
+import io.reactivex.functions.Predicate
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class HighThroughputManagerTest extends Specification {
+
+    static final PhyPair PHY_1M_PAIR = new PhyPairImpl(RxBlePhyImpl.PHY_1M, RxBlePhyImpl.PHY_1M)
+    static final PhyPair PHY_2M_PAIR = new PhyPairImpl(RxBlePhyImpl.PHY_2M, RxBlePhyImpl.PHY_2M)
+    ConnectionOperationQueue mockQueue = Mock ConnectionOperationQueue
+    OperationsProvider mockOperationsProvider = Mock OperationsProvider
+    MtuRequestOperation mockMtuOperation = Mock MtuRequestOperation
+    PhyReadOperation mockPhyReadOperation = Mock PhyReadOperation
+    PhyUpdateOperation mockPhyUpdateOperation = Mock PhyUpdateOperation
+    PhyUpdateOperation mockPhyRestoreOperation = Mock PhyUpdateOperation
+    ConnectionPriorityChangeOperation mockHighPriorityOperation = Mock ConnectionPriorityChangeOperation
+    ConnectionPriorityChangeOperation mockBalancedPriorityOperation = Mock ConnectionPriorityChangeOperation
+
+    def setup() {
+        mockOperationsProvider.provideMtuChangeOperation(247) >> mockMtuOperation
+        mockOperationsProvider.providePhyReadOperation() >> mockPhyReadOperation
+        mockOperationsProvider.providePhyRequestOperation([RxBlePhyImpl.PHY_2M] as Set, [RxBlePhyImpl.PHY_2M] as Set, _) >>
+                mockPhyUpdateOperation
+        mockOperationsProvider.providePhyRequestOperation([RxBlePhyImpl.PHY_1M] as Set, [RxBlePhyImpl.PHY_1M] as Set, _) >>
+                mockPhyRestoreOperation
+        mockOperationsProvider.provideConnectionPriorityChangeOperation(BluetoothGatt.CONNECTION_PRIORITY_HIGH, 1, TimeUnit.SECONDS) >>
+                mockHighPriorityOperation
+        mockOperationsProvider.provideConnectionPriorityChangeOperation(BluetoothGatt.CONNECTION_PRIORITY_BALANCED, 1, TimeUnit.SECONDS) >>
+                mockBalancedPriorityOperation
+    }
+
+    def "should request the MTU, then the PHY and then the connection priority and emit the negotiated values"() {
+
+        given:
+        def objectUnderTest = new HighThroughputManager(mockQueue, mockOperationsProvider, 26)
+
+        when:
+        def testObserver = objectUnderTest.setupHighThroughput(247, 1, TimeUnit.SECONDS).test()
+
+        then:
+        1 * mockQueue.queue({ it.is(mockMtuOperation) }) >> Observable.just(247)
+
+        then:
+        1 * mockQueue.queue({ it.is(mockPhyReadOperation) }) >> Observable.just(PHY_1M_PAIR)
+
+        then:
+        1 * mockQueue.queue({ it.is(mockPhyUpdateOperation) }) >> Observable.just(PHY_2M_PAIR)
+
+        then:
+        1 * mockQueue.queue({ it.is(mockHighPriorityOperation) }) >> Observable.empty()
+
+        and:
+        testObserver.assertValue({
+            it.mtu == 247 && it.phy == PHY_2M_PAIR && it.connectionPriority == BluetoothGatt.CONNECTION_PRIORITY_HIGH
+        } as Predicate)
+        testObserver.assertNotComplete()
+        0 * mockQueue.queue({ it.is(mockPhyRestoreOperation) })
+        0 * mockQueue.queue({ it.is(mockBalancedPriorityOperation) })
+    }
+
+    def "should not request the PHY below API 26"() {
+
+        given:
+        def objectUnderTest = new HighThroughputManager(mockQueue, mockOperationsProvider, 25)
+        mockQueue.queue({ it.is(mockMtuOperation) }) >> Observable.just(185)
+        mockQueue.queue({ it.is(mockHighPriorityOperation) }) >> Observable.empty()
+
+        when:
+        def testObserver = objectUnderTest.setupHighThroughput(247, 1, TimeUnit.SECONDS).test()
+
+        then:
+        testObserver.assertValue({ it.mtu == 185 && it.phy == null } as Predicate)
+        0 * mockOperationsProvider.providePhyReadOperation()
+    }
+
+    def "should restore the previous PHY and then the balanced connection priority when disposed"() {
+
+        given:
+        def objectUnderTest = new HighThroughputManager(mockQueue, mockOperationsProvider, 26)
+        mockQueue.queue({ it.is(mockMtuOperation) }) >> Observable.just(247)
+        mockQueue.queue({ it.is(mockPhyReadOperation) }) >> Observable.just(PHY_1M_PAIR)
+        mockQueue.queue({ it.is(mockPhyUpdateOperation) }) >> Observable.just(PHY_2M_PAIR)
+        mockQueue.queue({ it.is(mockHighPriorityOperation) }) >> Observable.empty()
+        def testObserver = objectUnderTest.setupHighThroughput(247, 1, TimeUnit.SECONDS).test()
+
+        when:
+        testObserver.dispose()
+
+        then:
+        1 * mockQueue.queue({ it.is(mockPhyRestoreOperation) }) >> Observable.just(PHY_1M_PAIR)
+
+        then:
+        1 * mockQueue.queue({ it.is(mockBalancedPriorityOperation) }) >> Observable.empty()
+    }
+
+    def "should restore the settings applied so far and emit the error if a request fails"() {
+
+        given:
+        def objectUnderTest = new HighThroughputManager(mockQueue, mockOperationsProvider, 26)
+        def testException = new BleGattCannotStartException(Mock(BluetoothGatt), BleGattOperationType.CONNECTION_PRIORITY_CHANGE)
+        mockQueue.queue({ it.is(mockMtuOperation) }) >> Observable.just(247)
+        mockQueue.queue({ it.is(mockPhyReadOperation) }) >> Observable.just(PHY_1M_PAIR)
+        mockQueue.queue({ it.is(mockPhyUpdateOperation) }) >> Observable.just(PHY_2M_PAIR)
+        mockQueue.queue({ it.is(mockHighPriorityOperation) }) >> Observable.error(testException)
+
+        when:
+        def testObserver = objectUnderTest.setupHighThroughput(247, 1, TimeUnit.SECONDS).test()
+
+        then:
+        testObserver.assertError(testException)
+        1 * mockQueue.queue({ it.is(mockPhyRestoreOperation) }) >> Observable.just(PHY_1M_PAIR)
+
+        then:
+        1 * mockQueue.queue({ it.is(mockBalancedPriorityOperation) }) >> Observable.empty()
+    }
+
+    def "should not restore the PHY if it has not changed"() {
+
+        given:
+        def objectUnderTest = new HighThroughputManager(mockQueue, mockOperationsProvider, 26)
+        mockQueue.queue({ it.is(mockMtuOperation) }) >> Observable.just(247)
+        mockQueue.queue({ it.is(mockPhyReadOperation) }) >> Observable.just(PHY_1M_PAIR)
+        mockQueue.queue({ it.is(mockPhyUpdateOperation) }) >> Observable.just(PHY_1M_PAIR)
+        mockQueue.queue({ it.is(mockHighPriorityOperation) }) >> Observable.empty()
+        def testObserver = objectUnderTest.setupHighThroughput(247, 1, TimeUnit.SECONDS).test()
+
+        when:
+        testObserver.dispose()
+
+        then:
+        0 * mockQueue.queue({ it.is(mockPhyRestoreOperation) })
+        1 * mockQueue.queue({ it.is(mockBalancedPriorityOperation) }) >> Observable.empty()
+    }
+}
@@ -3,9 +3,13 @@ package com.polidea.rxandroidble2.internal.connection
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCharacteristic
 import android.bluetooth.BluetoothGattDescriptor
+import com.polidea.rxandroidble2.NotificationBatching
+import com.polidea.rxandroidble2.NotificationRingBuffer
 import com.polidea.rxandroidble2.NotificationSetupMode
+import com.polidea.rxandroidble2.TimestampedValue
 import com.polidea.rxandroidble2.exceptions.BleCannotSetCharacteristicNotificationException
 import com.polidea.rxandroidble2.exceptions.BleConflictingNotificationAlreadySetException
+import com.polidea.rxandroidble2.exceptions.BleConflictingNotificationDeliveryException
 import com.polidea.rxandroidble2.internal.util.CharacteristicChangedEvent
 import spock.lang.Specification
 import io.reactivex.Completable
@@ -45,7 +49,8 @@ class NotificationAndIndicationManagerTest extends Specification {
                 DISABLE_NOTIFICATION_VALUE,
                 bluetoothGattMock,
                 rxBleGattCallbackMock,
-                descriptorWriterMock)
+                descriptorWriterMock,
+                new CharacteristicChangedEventDemultiplexer(rxBleGattCallbackMock))
     }
 
     @Unroll
@@ -387,6 +392,155 @@ class NotificationAndIndicationManagerTest extends Specification {
         ].combinations()
     }
 
+    @Unroll
+    def "should route the values to the ring buffer while subscribed mode:#mode ack:#ack"() {
+        given:
+        def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.never()
+        def ringBuffer = new NotificationRingBuffer(64)
+        CharacteristicValueSink addedSink = null
+
+        when:
+        def testObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack, ringBuffer).test()
+
+        then:
+        1 * rxBleGattCallbackMock.addCharacteristicValueSink(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID, _) >> {
+            UUID uuid, int instanceId, CharacteristicValueSink sink -> addedSink = sink
+        }
+        testObserver.assertValue(ringBuffer)
+
+        when:
+        addedSink.onValue(NOT_EMPTY_DATA)
+
+        then:
+        ringBuffer.nextValueLength() == NOT_EMPTY_DATA.length
+
+        when:
+        testObserver.dispose()
+
+        then:
+        1 * rxBleGattCallbackMock.removeCharacteristicValueSink({ it.is(addedSink) })
+
+        where:
+        [mode, ack] << [ALL_MODES, ACK_VALUES].combinations()
+    }
+
+    @Unroll
+    def "should emit the batches of the values mode:#mode ack:#ack"() {
+        given:
+        def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> Observable.never()
+        def batching = NotificationBatching.byCount(2)
+        def batchesSubject = PublishSubject.<List<byte[]>>create()
+        rxBleGattCallbackMock.observeCharacteristicBatches(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID, batching) >> batchesSubject
+        def testObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack, batching)
+                .flatMap({ it })
+                .test()
+
+        when:
+        batchesSubject.onNext([NOT_EMPTY_DATA, OTHER_DATA])
+
+        then:
+        testObserver.assertValue([NOT_EMPTY_DATA, OTHER_DATA])
+
+        when:
+        testObserver.dispose()
+
+        then:
+        !batchesSubject.hasObservers()
+
+        where:
+        [mode, ack] << [ALL_MODES, ACK_VALUES].combinations()
+    }
+
+    @Unroll
+    def "should emit the values with the time of their arrival mode:#mode ack:#ack"() {
+        given:
+        def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
+        def characteristicChangedSubject = PublishSubject.<CharacteristicChangedEvent>create()
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> characteristicChangedSubject
+        def testObserver = objectUnderTest.setupTimestampedServerInitiatedCharacteristicRead(characteristic, mode, ack)
+                .flatMap({ it })
+                .test()
+
+        when:
+        characteristicChangedSubject.onNext(
+                new CharacteristicChangedEvent(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID, NOT_EMPTY_DATA, 1337L)
+        )
+
+        then:
+        testObserver.assertValue(new TimestampedValue(NOT_EMPTY_DATA, 1337L))
+
+        where:
+        [mode, ack] << [ALL_MODES, ACK_VALUES].combinations()
+    }
+
+    @Unroll
+    def "should emit BleConflictingNotificationDeliveryException if the ring buffer is set up while the values are observed mode:#mode ack:#ack"() {
+        given:
+        def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> PublishSubject.create()
+        def testObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).test()
+
+        when:
+        def ringBufferTestObserver = objectUnderTest
+                .setupServerInitiatedCharacteristicRead(characteristic, mode, ack, new NotificationRingBuffer(64))
+                .test()
+
+        then:
+        testObserver.assertNoErrors()
+        ringBufferTestObserver.assertError { BleConflictingNotificationDeliveryException e -> !e.valuesAlreadyDeliveredToValueSink() }
+        0 * rxBleGattCallbackMock.addCharacteristicValueSink(_, _, _)
+
+        where:
+        [mode, ack] << [ALL_MODES, ACK_VALUES].combinations()
+    }
+
+    @Unroll
+    def "should emit BleConflictingNotificationDeliveryException if the values are observed while the batches are set up mode:#mode ack:#ack"() {
+        given:
+        def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> PublishSubject.create()
+        def batching = NotificationBatching.byCount(2)
+        rxBleGattCallbackMock.observeCharacteristicBatches(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID, batching) >> Observable.never()
+        def batchesTestObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack, batching).test()
+
+        when:
+        def testObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).test()
+        def timestampedTestObserver = objectUnderTest.setupTimestampedServerInitiatedCharacteristicRead(characteristic, mode, ack).test()
+
+        then:
+        batchesTestObserver.assertNoErrors()
+        testObserver.assertError { BleConflictingNotificationDeliveryException e -> e.valuesAlreadyDeliveredToValueSink() }
+        timestampedTestObserver.assertError(BleConflictingNotificationDeliveryException)
+
+        where:
+        [mode, ack] << [ALL_MODES, ACK_VALUES].combinations()
+    }
+
+    @Unroll
+    def "should allow to observe the values after the ring buffer is unsubscribed mode:#mode ack:#ack"() {
+        given:
+        def characteristic = shouldSetupCharacteristicNotificationCorrectly(CHARACTERISTIC_UUID, CHARACTERISTIC_INSTANCE_ID)
+        rxBleGattCallbackMock.getOnCharacteristicChanged() >> PublishSubject.create()
+        def ringBuffer = new NotificationRingBuffer(64)
+        def firstRingBufferTestObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack, ringBuffer).test()
+        def secondRingBufferTestObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack, ringBuffer).test()
+
+        when:
+        firstRingBufferTestObserver.dispose()
+        secondRingBufferTestObserver.dispose()
+        def testObserver = objectUnderTest.setupServerInitiatedCharacteristicRead(characteristic, mode, ack).test()
+
+        then:
+        secondRingBufferTestObserver.assertNoErrors()
+        testObserver.assertNoErrors()
+        testObserver.assertValueCount(1)
+
+        where:
+        [mode, ack] << [ALL_MODES, ACK_VALUES].combinations()
+    }
+
     @Unroll
     def "should not notify about value change if UUID and / or instanceId is not matching"() {
         given:
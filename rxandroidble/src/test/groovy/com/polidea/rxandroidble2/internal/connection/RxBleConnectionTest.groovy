@@ -46,14 +46,17 @@ class RxBleConnectionTest extends Specification {
     def testScheduler = new TestScheduler()
     def timeoutConfig = new MockOperationTimeoutConfiguration(testScheduler)
     def operationsProviderMock = new OperationsProviderImpl(gattCallback, bluetoothGattMock, Mock(LoggerUtilBluetoothServices),
-            timeoutConfig, testScheduler, testScheduler,
-            { new ReadRssiOperation(gattCallback, bluetoothGattMock, timeoutConfig) })
+            timeoutConfig, testScheduler, testScheduler, testScheduler,
+            { new ReadRssiOperation(gattCallback, bluetoothGattMock, timeoutConfig) }, 32)
     def notificationAndIndicationManagerMock = Mock NotificationAndIndicationManager
     def descriptorWriterMock = Mock DescriptorWriter
     def mtuProvider = Mock MtuProvider
     def objectUnderTest = new RxBleConnectionImpl(dummyQueue, gattCallback, bluetoothGattMock, mockServiceDiscoveryManager,
             notificationAndIndicationManagerMock, mtuProvider, descriptorWriterMock, operationsProviderMock,
-            { new LongWriteOperationBuilderImpl(dummyQueue, { 20 }, Mock(RxBleConnection)) }, testScheduler, illegalOperationChecker
+            { new LongWriteOperationBuilderImpl(dummyQueue, { 20 }, Mock(RxBleConnection)) },
+            { new BatchOperationBuilderImpl(objectUnderTest, operationsProviderMock, illegalOperationChecker) },
+            { new ReliableWriteOperationBuilderImpl(dummyQueue, operationsProviderMock, illegalOperationChecker) },
+            testScheduler, illegalOperationChecker, new CharacteristicReadCoalescer(false), Mock(HighThroughputManager)
     )
     def connectionStateChange = BehaviorSubject.create()
 
@@ -235,6 +238,74 @@ class RxBleConnectionTest extends Specification {
         ]
     }
 
+    def "should execute batched operations in order and emit their results at once"() {
+        given:
+        def readCharacteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: NOT_EMPTY_DATA)
+        def writtenCharacteristic = mockCharacteristicWithValue(uuid: OTHER_UUID, instanceId: OTHER_INSTANCE_ID, value: OTHER_DATA)
+        shouldGattCallbackReturnDataOnRead([uuid: CHARACTERISTIC_UUID, value: NOT_EMPTY_DATA])
+        def onWriteSubject = PublishSubject.create()
+        gattCallback.getOnCharacteristicWrite() >> onWriteSubject
+
+        when:
+        def testSubscriber = objectUnderTest.createNewBatchBuilder()
+                .addReadCharacteristic(readCharacteristic)
+                .addWriteCharacteristic(writtenCharacteristic, OTHER_DATA)
+                .build()
+                .test()
+        testScheduler.triggerActions()
+
+        then:
+        1 * bluetoothGattMock.readCharacteristic(readCharacteristic) >> true
+
+        then:
+        1 * bluetoothGattMock.writeCharacteristic(writtenCharacteristic) >> {
+            BluetoothGattCharacteristic characteristic ->
+                onWriteSubject.onNext(ByteAssociation.create(characteristic.getUuid(), characteristic.getValue()))
+                true
+        }
+
+        and:
+        testSubscriber.assertValue({ List<byte[]> results -> results == [NOT_EMPTY_DATA, OTHER_DATA] } as Predicate)
+
+        and:
+        dummyQueue.semaphore.isReleased()
+    }
+
+    def "should not execute the rest of the batch if one of batched operations failed"() {
+        given:
+        def readCharacteristic = mockCharacteristicWithValue(uuid: CHARACTERISTIC_UUID, instanceId: CHARACTERISTIC_INSTANCE_ID, value: NOT_EMPTY_DATA)
+        def writtenCharacteristic = mockCharacteristicWithValue(uuid: OTHER_UUID, instanceId: OTHER_INSTANCE_ID, value: OTHER_DATA)
+        gattCallback.getOnCharacteristicRead() >> PublishSubject.create()
+        gattCallback.getOnCharacteristicWrite() >> PublishSubject.create()
+        shouldFailStartingCharacteristicRead()
+
+        when:
+        def testSubscriber = objectUnderTest.createNewBatchBuilder()
+                .addReadCharacteristic(readCharacteristic)
+                .addWriteCharacteristic(writtenCharacteristic, OTHER_DATA)
+                .build()
+                .test()
+        testScheduler.triggerActions()
+
+        then:
+        testSubscriber.assertError { BleGattCannotStartException e -> e.bleGattOperationType == BleGattOperationType.CHARACTERISTIC_READ }
+
+        and:
+        0 * bluetoothGattMock.writeCharacteristic(_)
+
+        and:
+        dummyQueue.semaphore.isReleased()
+    }
+
+    def "should throw IllegalArgumentException when building an empty batch"() {
+
+        when:
+        objectUnderTest.createNewBatchBuilder().build()
+
+        then:
+        thrown IllegalArgumentException
+    }
+
     def "should emit retrieved rssi"() {
         given:
         shouldReturnStartingStatusAndEmitRssiValueThroughCallback {
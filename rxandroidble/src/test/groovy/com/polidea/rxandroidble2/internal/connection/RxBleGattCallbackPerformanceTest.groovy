@@ -4,6 +4,7 @@ import android.bluetooth.BluetoothDevice
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCallback
 import android.bluetooth.BluetoothGattCharacteristic
+import com.polidea.rxandroidble2.internal.serialization.PipelineCredits
 import io.reactivex.Observable
 import io.reactivex.schedulers.TestScheduler
 import spock.lang.Ignore
@@ -15,7 +16,7 @@ import static android.bluetooth.BluetoothGatt.GATT_SUCCESS
 
 class RxBleGattCallbackPerformanceTest extends Specification {
 
-    def objectUnderTest = new RxBleGattCallback(new TestScheduler(), Mock(BluetoothGattProvider), mockDisconnectionRouter, new NativeCallbackDispatcher())
+    def objectUnderTest = new RxBleGattCallback(new TestScheduler(), Mock(BluetoothGattProvider), mockDisconnectionRouter, new NativeCallbackDispatcher(), new PipelineCredits(0))
     @Shared
     def mockDisconnectionRouter = Mock DisconnectionRouter
     @Shared
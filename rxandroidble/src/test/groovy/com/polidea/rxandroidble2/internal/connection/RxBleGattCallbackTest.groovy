@@ -6,13 +6,18 @@ import com.polidea.rxandroidble2.RxBlePhy
 import static com.polidea.rxandroidble2.RxBleConnection.RxBleConnectionState.CONNECTED
 
 import android.bluetooth.*
+import android.os.SystemClock
 import com.polidea.rxandroidble2.ConnectionParameters
 import com.polidea.rxandroidble2.HiddenBluetoothGattCallback
+import com.polidea.rxandroidble2.NotificationBatching
 import com.polidea.rxandroidble2.RxBleConnection
 import com.polidea.rxandroidble2.RxBleDeviceServices
 import com.polidea.rxandroidble2.exceptions.*
+import com.polidea.rxandroidble2.internal.serialization.PipelineCredits
 import com.polidea.rxandroidble2.internal.util.ByteAssociation
 import com.polidea.rxandroidble2.internal.util.CharacteristicChangedEvent
+import com.polidea.rxandroidble2.internal.util.TimestampedByteAssociation
+import java.util.concurrent.TimeUnit
 import spock.lang.Specification
 import io.reactivex.Observable
 import io.reactivex.annotations.NonNull
@@ -37,6 +42,8 @@ class RxBleGattCallbackTest extends Specification {
 
     PublishSubject mockDisconnectionSubject
 
+    PublishSubject<BleException> mockDisconnectionValueSubject
+
     RxBleGattCallback objectUnderTest
 
     @Shared
@@ -75,8 +82,10 @@ class RxBleGattCallbackTest extends Specification {
         mockDisconnectionRouter = Mock DisconnectionRouter
         mockDisconnectionSubject = PublishSubject.create()
         mockDisconnectionRouter.asErrorOnlyObservable() >> mockDisconnectionSubject
+        mockDisconnectionValueSubject = PublishSubject.create()
+        mockDisconnectionRouter.asValueOnlyObservable() >> mockDisconnectionValueSubject
         objectUnderTest = new RxBleGattCallback(Schedulers.trampoline(), Mock(BluetoothGattProvider), mockDisconnectionRouter,
-                new NativeCallbackDispatcher())
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
     }
 
     def "sanity check"() {
@@ -126,6 +135,79 @@ class RxBleGattCallbackTest extends Specification {
         ]
     }
 
+    @Unroll
+    def "should return the same prebuilt observable on each call"() {
+
+        expect:
+        observableGetter.call(objectUnderTest).is(observableGetter.call(objectUnderTest))
+
+        where:
+        observableGetter << [
+                { return (it as RxBleGattCallback).getOnConnectionStateChange() },
+                { return (it as RxBleGattCallback).getOnServicesDiscovered() },
+                { return (it as RxBleGattCallback).getOnCharacteristicReadTimestamped() },
+                { return (it as RxBleGattCallback).getOnCharacteristicWrite() },
+                { return (it as RxBleGattCallback).getOnCharacteristicChanged() },
+                { return (it as RxBleGattCallback).getOnDescriptorRead() },
+                { return (it as RxBleGattCallback).getOnDescriptorWrite() },
+                { return (it as RxBleGattCallback).getOnRssiRead() },
+                { return (it as RxBleGattCallback).getOnMtuChanged() },
+                { return (it as RxBleGattCallback).getOnPhyRead() },
+                { return (it as RxBleGattCallback).getOnPhyUpdate() },
+                { return (it as RxBleGattCallback).getConnectionParametersUpdates() }
+        ]
+    }
+
+    def "should subscribe the stream of an output once for all its observers"() {
+
+        given:
+        def subscriptionCount = 0
+
+        when:
+        def firstTestObserver = objectUnderTest.getOnRssiRead().test()
+        def secondTestObserver = objectUnderTest.getOnRssiRead().test()
+        objectUnderTest.getBluetoothGattCallback().onReadRemoteRssi(mockBluetoothGatt, 1, GATT_SUCCESS)
+
+        then:
+        1 * mockDisconnectionRouter.asErrorOnlyObservable() >> mockDisconnectionSubject.doOnSubscribe { subscriptionCount++ }
+        subscriptionCount == 1
+        firstTestObserver.assertValue(1)
+        secondTestObserver.assertValue(1)
+    }
+
+    def "should not deliver a value still queued for the callback thread to an observer subscribed after its emission"() {
+
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+        def earlierTestObserver = objectUnderTest.getOnRssiRead().test()
+        objectUnderTest.getBluetoothGattCallback().onReadRemoteRssi(mockBluetoothGatt, 1, GATT_SUCCESS)
+
+        when:
+        def laterTestObserver = objectUnderTest.getOnRssiRead().test()
+        testScheduler.triggerActions()
+
+        then:
+        earlierTestObserver.assertValue(1)
+        laterTestObserver.assertNoValues()
+    }
+
+    def "should deliver a disconnection to all observers of a shared stream"() {
+
+        given:
+        def firstTestObserver = objectUnderTest.getOnRssiRead().test()
+        def secondTestObserver = objectUnderTest.getOnRssiRead().test()
+        def testException = new BleDisconnectedException(mockBluetoothDeviceMacAddress, GATT_FAILURE)
+
+        when:
+        mockDisconnectionSubject.onError(testException)
+
+        then:
+        firstTestObserver.assertError(testException)
+        secondTestObserver.assertError(testException)
+    }
+
     def "observeDisconnect() should emit error when DisconnectionRouter.asGenericObservable() emits error"() {
 
         given:
@@ -375,7 +457,7 @@ class RxBleGattCallbackTest extends Specification {
         given:
         def testScheduler = new TestScheduler()
         objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
-                new NativeCallbackDispatcher())
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
 
         def testObserver = Observable.merge(
                 objectUnderTest.getOnCharacteristicChanged().filter({ it.second == 0 }),
@@ -394,6 +476,496 @@ class RxBleGattCallbackTest extends Specification {
         testObserver.assertValueAt(1, { it.second == 0 } as Predicate)
     }
 
+    def "callbacks of different types should maintain the original order when delivered in a burst"() {
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+
+        def testObserver = Observable.merge(
+                objectUnderTest.getOnCharacteristicChanged(),
+                objectUnderTest.getOnMtuChanged()
+        )
+                .test()
+
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristicWithId(0))
+        objectUnderTest.getBluetoothGattCallback().onMtuChanged(mockBluetoothGatt, 1337, GATT_SUCCESS)
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristicWithId(1))
+
+        when:
+        testScheduler.triggerActions()
+
+        then:
+        testObserver.assertValueAt(0, { it instanceof CharacteristicChangedEvent && it.second == 0 } as Predicate)
+        testObserver.assertValueAt(1, { it == 1337 } as Predicate)
+        testObserver.assertValueAt(2, { it instanceof CharacteristicChangedEvent && it.second == 1 } as Predicate)
+    }
+
+    def "should not emit callbacks on the thread of the native callback"() {
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+        def testObserver = objectUnderTest.getOnCharacteristicChanged().test()
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristicWithId(0))
+
+        then:
+        testObserver.assertNoValues()
+
+        when:
+        testScheduler.triggerActions()
+
+        then:
+        testObserver.assertValueCount(1)
+    }
+
+    def "should not emit callbacks handed over before the observer was disposed"() {
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+        def testObserver = objectUnderTest.getOnCharacteristicChanged().test()
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristicWithId(0))
+
+        when:
+        testObserver.dispose()
+        testScheduler.triggerActions()
+
+        then:
+        testObserver.assertNoValues()
+    }
+
+    def "should pass the values of the characteristic to the added sinks instead of emitting them"() {
+        given:
+        def characteristic = Mock(BluetoothGattCharacteristic)
+        characteristic.getUuid() >> mockUuid0
+        characteristic.getInstanceId() >> 0
+        characteristic.getValue() >> ([1, 2, 3] as byte[])
+        def sink0 = Mock(CharacteristicValueSink)
+        def sink1 = Mock(CharacteristicValueSink)
+        def testObserver = objectUnderTest.getOnCharacteristicChanged().test()
+        objectUnderTest.addCharacteristicValueSink(mockUuid0, 0, sink0)
+        objectUnderTest.addCharacteristicValueSink(mockUuid0, 0, sink1)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic)
+
+        then:
+        1 * sink0.onValue([1, 2, 3] as byte[])
+        1 * sink1.onValue([1, 2, 3] as byte[])
+        testObserver.assertNoValues()
+
+        when:
+        objectUnderTest.removeCharacteristicValueSink(sink0)
+        objectUnderTest.removeCharacteristicValueSink(sink1)
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic)
+
+        then:
+        0 * sink0.onValue(_)
+        0 * sink1.onValue(_)
+        testObserver.assertValueCount(1)
+    }
+
+    def "should emit the values of other characteristics when a sink is added"() {
+        given:
+        def testObserver = objectUnderTest.getOnCharacteristicChanged().test()
+        objectUnderTest.addCharacteristicValueSink(mockUuid0, 0, Mock(CharacteristicValueSink))
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid1))
+
+        then:
+        testObserver.assertValueCount(1)
+    }
+
+    def "should emit the values of the characteristic in batches of the max count"() {
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+        def characteristic = mockCharacteristicWithUuid(mockUuid0)
+        def valuesTestObserver = objectUnderTest.getOnCharacteristicChanged().test()
+        def testObserver = objectUnderTest.observeCharacteristicBatches(mockUuid0, 0, NotificationBatching.byCount(2)).test()
+
+        when:
+        3.times { objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic) }
+        testScheduler.triggerActions()
+
+        then:
+        testObserver.assertValueCount(1)
+        testObserver.values()[0].size() == 2
+        valuesTestObserver.assertNoValues()
+    }
+
+    def "should emit the values of the characteristic in a batch when the time window passes"() {
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+        def characteristic = mockCharacteristicWithUuid(mockUuid0)
+        def testObserver = objectUnderTest.observeCharacteristicBatches(mockUuid0, 0,
+                NotificationBatching.byCountOrTime(10, 100, TimeUnit.MILLISECONDS)).test()
+        2.times { objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic) }
+
+        when:
+        testScheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS)
+
+        then:
+        testObserver.assertNoValues()
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+
+        then:
+        testObserver.assertValueCount(1)
+        testObserver.values()[0].size() == 2
+    }
+
+    def "should start the time window of the next batch with its first value"() {
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+        def characteristic = mockCharacteristicWithUuid(mockUuid0)
+        def testObserver = objectUnderTest.observeCharacteristicBatches(mockUuid0, 0,
+                NotificationBatching.byCountOrTime(2, 100, TimeUnit.MILLISECONDS)).test()
+        2.times { objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic) }
+        testScheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS)
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic)
+
+        when:
+        testScheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS)
+
+        then:
+        testObserver.assertValueCount(1)
+
+        when:
+        testScheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+
+        then:
+        testObserver.assertValueCount(2)
+        testObserver.values()[1].size() == 1
+    }
+
+    def "should emit the values of the characteristic again when the batches are not observed anymore"() {
+        given:
+        def characteristic = mockCharacteristicWithUuid(mockUuid0)
+        def valuesTestObserver = objectUnderTest.getOnCharacteristicChanged().test()
+        objectUnderTest.observeCharacteristicBatches(mockUuid0, 0, NotificationBatching.byCount(2)).test().dispose()
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic)
+
+        then:
+        valuesTestObserver.assertValueCount(1)
+    }
+
+    def "should timestamp the characteristic changes with the time of the arrival at the native callback"() {
+        given:
+        def testScheduler = new TestScheduler()
+        objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
+        def testObserver = objectUnderTest.getOnCharacteristicChanged().test()
+        def timeBeforeArrival = SystemClock.elapsedRealtimeNanos()
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, mockCharacteristicWithId(0))
+        def timeAfterArrival = SystemClock.elapsedRealtimeNanos()
+
+        when:
+        testScheduler.triggerActions()
+
+        then:
+        testObserver.assertValue({ CharacteristicChangedEvent event ->
+            event.arrivalRealtimeNanos >= timeBeforeArrival && event.arrivalRealtimeNanos <= timeAfterArrival
+        } as Predicate)
+    }
+
+    def "should timestamp the characteristic read results with the time of the arrival at the native callback"() {
+        given:
+        def testObserver = objectUnderTest.getOnCharacteristicReadTimestamped().test()
+        def timeBeforeArrival = SystemClock.elapsedRealtimeNanos()
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0), GATT_SUCCESS)
+
+        then:
+        testObserver.assertValue({ TimestampedByteAssociation<UUID> association ->
+            association.first == mockUuid0 && association.arrivalRealtimeNanos >= timeBeforeArrival
+        } as Predicate)
+    }
+
+    def "should record the dispatch latencies separately for notifications and characteristic reads"() {
+        given:
+        def latencyNanos = TimeUnit.MILLISECONDS.toNanos(10)
+
+        when:
+        objectUnderTest.recordNotificationDispatch(SystemClock.elapsedRealtimeNanos() - latencyNanos)
+        objectUnderTest.recordNotificationDispatch(SystemClock.elapsedRealtimeNanos() - latencyNanos)
+        def metrics = objectUnderTest.getCallbackDispatchMetrics()
+
+        then:
+        metrics.notificationDispatchLatency.count == 2
+        metrics.notificationDispatchLatency.minNanos >= latencyNanos
+        metrics.characteristicReadDispatchLatency.count == 0
+    }
+
+    def "should emit the value passed to the API 33 characteristic changed callback instead of the value of the characteristic"() {
+        given:
+        def characteristic = mockCharacteristicWithUuid(mockUuid0)
+        def value = [7, 8, 9] as byte[]
+        def testObserver = objectUnderTest.getOnCharacteristicChanged().test()
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic, value)
+
+        then:
+        testObserver.assertValue({ CharacteristicChangedEvent event -> event.data.is(value) } as Predicate)
+    }
+
+    def "should emit the value passed to the API 33 characteristic read callback instead of the value of the characteristic"() {
+        given:
+        def characteristic = mockCharacteristicWithUuid(mockUuid0)
+        def value = [7, 8, 9] as byte[]
+        def testObserver = objectUnderTest.getOnCharacteristicRead().test()
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, characteristic, value, GATT_SUCCESS)
+
+        then:
+        testObserver.assertValue({ ByteAssociation<UUID> association -> association.second.is(value) } as Predicate)
+    }
+
+    def "should emit the value passed to the API 33 descriptor read callback instead of the value of the descriptor"() {
+        given:
+        def value = [7, 8, 9] as byte[]
+        def testObserver = objectUnderTest.getOnDescriptorRead().test()
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onDescriptorRead(mockBluetoothGatt, mockBluetoothGattDescriptor, GATT_SUCCESS, value)
+
+        then:
+        testObserver.assertValue({ ByteAssociation<BluetoothGattDescriptor> association -> association.second.is(value) } as Predicate)
+    }
+
+    def "should pass the API 33 callbacks with the value to the native callback"() {
+        given:
+        def nativeCallback = Mock(BluetoothGattCallback)
+        def characteristic = mockCharacteristicWithUuid(mockUuid0)
+        def value = [7, 8, 9] as byte[]
+        objectUnderTest.setNativeCallback(nativeCallback)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicChanged(mockBluetoothGatt, characteristic, value)
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, characteristic, value, GATT_SUCCESS)
+
+        then:
+        1 * nativeCallback.onCharacteristicChanged(mockBluetoothGatt, characteristic, value)
+        1 * nativeCallback.onCharacteristicRead(mockBluetoothGatt, characteristic, value, GATT_SUCCESS)
+        0 * nativeCallback.onCharacteristicChanged(_, _)
+        0 * nativeCallback.onCharacteristicRead(_, _, _)
+    }
+
+    def "should complete the characteristic read slot with the matching response and remove it"() {
+        given:
+        def slot = new TestResponseSlot(mockUuid0)
+        def value = [1, 2, 3] as byte[]
+        objectUnderTest.setCharacteristicReadSlot(slot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid1), value,
+                GATT_SUCCESS)
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0), value,
+                GATT_SUCCESS)
+
+        then:
+        slot.responses.size() == 1
+        slot.responses[0].first == mockUuid0
+        slot.responses[0].second == value
+        slot.errors.isEmpty()
+
+        and:
+        objectUnderTest.setCharacteristicReadSlot(new TestResponseSlot(mockUuid0))
+    }
+
+    def "should not set a response slot while the slot of another operation is set"() {
+        given:
+        objectUnderTest.setCharacteristicWriteSlot(new TestResponseSlot(mockUuid0))
+
+        expect:
+        !objectUnderTest.setCharacteristicWriteSlot(new TestResponseSlot(mockUuid0))
+        objectUnderTest.setCharacteristicReadSlot(new TestResponseSlot(mockUuid0))
+    }
+
+    def "should fail the characteristic write slot with the status error"() {
+        given:
+        def slot = new TestResponseSlot(mockUuid0)
+        objectUnderTest.setCharacteristicWriteSlot(slot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                GATT_FAILURE)
+
+        then:
+        slot.responses.isEmpty()
+        slot.errors.size() == 1
+        slot.errors[0] instanceof BleGattCharacteristicException
+    }
+
+    def "should complete one of the in flight pipelined writes to the same characteristic per callback in order"() {
+        given:
+        def pipelineCredits = new PipelineCredits(2)
+        objectUnderTest = new RxBleGattCallback(Schedulers.trampoline(), Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), pipelineCredits)
+        def firstSlot = new TestResponseSlot(mockUuid0)
+        def secondSlot = new TestResponseSlot(mockUuid0)
+        def firstCredit = pipelineCredits.tryAcquire()
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), firstSlot)
+        pipelineCredits.tryAcquire()
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), secondSlot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                GATT_SUCCESS)
+        firstCredit.release() // the completed operation releases its credit
+
+        then:
+        firstSlot.responses.size() == 1
+        secondSlot.responses.isEmpty()
+        pipelineCredits.hasOutstandingCredits()
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                GATT_SUCCESS)
+
+        then:
+        firstSlot.responses.size() == 1
+        secondSlot.responses.size() == 1
+        !pipelineCredits.hasOutstandingCredits()
+    }
+
+    def "should fail only the oldest in flight pipelined write with the status error"() {
+        given:
+        def firstSlot = new TestResponseSlot(mockUuid0)
+        def secondSlot = new TestResponseSlot(mockUuid0)
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), firstSlot)
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), secondSlot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                GATT_FAILURE)
+
+        then:
+        firstSlot.errors.size() == 1
+        firstSlot.errors[0] instanceof BleGattCharacteristicException
+        secondSlot.errors.isEmpty()
+        secondSlot.responses.isEmpty()
+    }
+
+    def "should not complete a removed pipelined write slot with the callback of the next write"() {
+        given:
+        def notStartedSlot = new TestResponseSlot(mockUuid0)
+        def startedSlot = new TestResponseSlot(mockUuid0)
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), notStartedSlot)
+        objectUnderTest.removeNotStartedResponseSlot(notStartedSlot)
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), startedSlot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                GATT_SUCCESS)
+
+        then:
+        notStartedSlot.responses.isEmpty()
+        startedSlot.responses.size() == 1
+    }
+
+    def "should complete the in flight pipelined write of the characteristic of the callback"() {
+        given:
+        def firstSlot = new TestResponseSlot(mockUuid0)
+        def secondSlot = new TestResponseSlot(mockUuid1)
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), firstSlot)
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid1), secondSlot)
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid1),
+                GATT_SUCCESS)
+
+        then:
+        firstSlot.responses.isEmpty()
+        secondSlot.responses.size() == 1
+    }
+
+    def "should absorb the late callback of a timed out pipelined write and hold its credit until then"() {
+        given:
+        def pipelineCredits = new PipelineCredits(2)
+        objectUnderTest = new RxBleGattCallback(Schedulers.trampoline(), Mock(BluetoothGattProvider), mockDisconnectionRouter,
+                new NativeCallbackDispatcher(), pipelineCredits)
+        def timedOutSlot = new TestResponseSlot(mockUuid0)
+        def nextSlot = new TestResponseSlot(mockUuid0)
+        def timedOutCredit = pipelineCredits.tryAcquire()
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), timedOutSlot)
+        pipelineCredits.tryAcquire()
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), nextSlot)
+
+        when: // the operation times out and releases the queue
+        timedOutSlot.cancel()
+        objectUnderTest.removeResponseSlot(timedOutSlot)
+        timedOutCredit.release()
+
+        then:
+        pipelineCredits.tryAcquire() == null
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                GATT_FAILURE)
+
+        then:
+        timedOutSlot.errors.isEmpty()
+        nextSlot.errors.isEmpty()
+        nextSlot.responses.isEmpty()
+        pipelineCredits.tryAcquire() != null
+
+        when:
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicWrite(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                GATT_SUCCESS)
+
+        then:
+        nextSlot.responses.size() == 1
+    }
+
+    def "should fail the response slots on the disconnection also when set after it"() {
+        given:
+        def readSlot = new TestResponseSlot(mockUuid0)
+        def writeSlot = new TestResponseSlot(mockUuid0)
+        def pipelinedWriteSlot = new TestResponseSlot(mockUuid0)
+        def disconnectedException = new BleDisconnectedException(mockBluetoothDeviceMacAddress, 0)
+        objectUnderTest.setCharacteristicReadSlot(readSlot)
+
+        when:
+        mockDisconnectionValueSubject.onNext(disconnectedException)
+        objectUnderTest.setCharacteristicWriteSlot(writeSlot)
+        objectUnderTest.addPipelinedCharacteristicWriteSlot(mockCharacteristicWithUuid(mockUuid0), pipelinedWriteSlot)
+
+        then:
+        readSlot.errors == [disconnectedException]
+        writeSlot.errors == [disconnectedException]
+        pipelinedWriteSlot.errors == [disconnectedException]
+    }
+
+    def "should not complete a removed response slot"() {
+        given:
+        def slot = new TestResponseSlot(mockUuid0)
+        objectUnderTest.setCharacteristicReadSlot(slot)
+
+        when:
+        objectUnderTest.removeResponseSlot(slot)
+        objectUnderTest.getBluetoothGattCallback().onCharacteristicRead(mockBluetoothGatt, mockCharacteristicWithUuid(mockUuid0),
+                [1] as byte[], GATT_SUCCESS)
+
+        then:
+        slot.responses.isEmpty()
+    }
+
     @Shared
     def callbackTestCases = [
             new CallbackTestCase(
@@ -483,7 +1055,7 @@ class RxBleGattCallbackTest extends Specification {
         CallbackTestCase testCase0 = ctc0
         CallbackTestCase testCase1 = ctc1
         objectUnderTest = new RxBleGattCallback(testScheduler, Mock(BluetoothGattProvider), mockDisconnectionRouter,
-                new NativeCallbackDispatcher())
+                new NativeCallbackDispatcher(), new PipelineCredits(0))
 
         def testObserver = Observable.merge(
                 testCase0.getSubscriber().apply(objectUnderTest),
@@ -528,6 +1100,32 @@ class RxBleGattCallbackTest extends Specification {
         return descriptor
     }
 
+    static class TestResponseSlot extends ResponseSlot<ByteAssociation<UUID>> {
+
+        final UUID uuid
+        final List<ByteAssociation<UUID>> responses = []
+        final List<Throwable> errors = []
+
+        TestResponseSlot(UUID uuid) {
+            this.uuid = uuid
+        }
+
+        @Override
+        protected boolean matches(ByteAssociation<UUID> response) {
+            return response.first == uuid
+        }
+
+        @Override
+        protected void onResponse(ByteAssociation<UUID> response) {
+            responses.add(response)
+        }
+
+        @Override
+        protected void onError(Throwable error) {
+            errors.add(error)
+        }
+    }
+
     static class CallbackTestCase {
 
         private final String name
@@ -7,6 +7,7 @@ import com.polidea.rxandroidble2.internal.operations.OperationsProvider
 import com.polidea.rxandroidble2.internal.operations.ServiceDiscoveryOperation
 import com.polidea.rxandroidble2.internal.serialization.ConnectionOperationQueue
 import io.reactivex.Observable
+import io.reactivex.schedulers.TestScheduler
 import io.reactivex.subjects.PublishSubject
 import spock.lang.Specification
 
@@ -16,7 +17,8 @@ class ServiceDiscoveryManagerTest extends Specification {
     def mockQueue = Mock ConnectionOperationQueue
     def mockBluetoothGatt = Mock BluetoothGatt
     def mockServiceDiscoveryOperationProvider = Mock OperationsProvider
-    ServiceDiscoveryManager objectUnderTest = new ServiceDiscoveryManager(mockQueue, mockBluetoothGatt, mockServiceDiscoveryOperationProvider)
+    ServiceDiscoveryManager objectUnderTest = new ServiceDiscoveryManager(mockQueue, mockBluetoothGatt, mockServiceDiscoveryOperationProvider,
+            new TestScheduler())
 
     def "should return services instantly if they were already discovered and are in BluetoothGatt cache"() {
 
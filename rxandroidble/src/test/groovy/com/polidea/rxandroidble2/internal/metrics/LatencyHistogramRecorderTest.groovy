@@ -0,0 +1,96 @@
+package com.polidea.rxandroidble2.internal.metrics
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class LatencyHistogramRecorderTest extends Specification {
+
+    LatencyHistogramRecorder objectUnderTest = new LatencyHistogramRecorder()
+
+    @Unroll
+    def "should put #latencyNanos ns into the bucket #expectedBucketIndex"() {
+
+        expect:
+        LatencyHistogramRecorder.bucketIndex(latencyNanos) == expectedBucketIndex
+
+        where:
+        latencyNanos   | expectedBucketIndex
+        0              | 0
+        1000           | 0
+        1001           | 1
+        2000           | 1
+        2001           | 2
+        4000           | 2
+        1_000_000      | 10
+        Long.MAX_VALUE | LatencyHistogramRecorder.BUCKETS_COUNT - 1
+    }
+
+    def "should return an empty histogram if nothing was recorded"() {
+
+        when:
+        def histogram = objectUnderTest.snapshot()
+
+        then:
+        histogram.count == 0
+        histogram.minNanos == 0
+        histogram.maxNanos == 0
+        histogram.meanNanos == 0
+        histogram.getPercentileNanos(50) == 0
+    }
+
+    def "should return count, min, max and mean of recorded latencies"() {
+
+        given:
+        [1000L, 2000L, 6000L].each { objectUnderTest.record(it) }
+
+        when:
+        def histogram = objectUnderTest.snapshot()
+
+        then:
+        histogram.count == 3
+        histogram.minNanos == 1000
+        histogram.maxNanos == 6000
+        histogram.meanNanos == 3000
+    }
+
+    def "should approximate percentiles with upper bounds of buckets limited by the max latency"() {
+
+        given:
+        (1..99).each { objectUnderTest.record(1500) }
+        objectUnderTest.record(10_000)
+
+        when:
+        def histogram = objectUnderTest.snapshot()
+
+        then:
+        histogram.getPercentileNanos(50) == 2000
+        histogram.getPercentileNanos(99) == 2000
+        histogram.getPercentileNanos(100) == 10_000
+    }
+
+    def "should record negative latencies as zero"() {
+
+        given:
+        objectUnderTest.record(-1)
+
+        when:
+        def histogram = objectUnderTest.snapshot()
+
+        then:
+        histogram.bucketCounts[0] == 1
+        histogram.minNanos == 0
+    }
+
+    @Unroll
+    def "should throw IllegalArgumentException for percentile #percentile"() {
+
+        when:
+        objectUnderTest.snapshot().getPercentileNanos(percentile)
+
+        then:
+        thrown IllegalArgumentException
+
+        where:
+        percentile << [0, -1, 100.1]
+    }
+}
@@ -0,0 +1,100 @@
+package com.polidea.rxandroidble2.internal.metrics
+
+import com.polidea.rxandroidble2.MockOperation
+import com.polidea.rxandroidble2.internal.Priority
+import spock.lang.Specification
+
+class OperationQueueMetricsRecorderTest extends Specification {
+
+    public static final String MAC_ADDRESS = "AA:BB:CC:DD:EE:FF"
+    OperationQueueMetricsRecorder objectUnderTest = new OperationQueueMetricsRecorder()
+
+    def "should return the same recorder for the same device"() {
+
+        expect:
+        objectUnderTest.queueMetricsRecorder(MAC_ADDRESS).is(objectUnderTest.queueMetricsRecorder(MAC_ADDRESS))
+        objectUnderTest.queueMetricsRecorder(null).is(objectUnderTest.queueMetricsRecorder(null))
+        !objectUnderTest.queueMetricsRecorder(MAC_ADDRESS).is(objectUnderTest.queueMetricsRecorder(null))
+    }
+
+    def "should always report the depth of the client queue"() {
+
+        when:
+        def snapshot = objectUnderTest.snapshot()
+
+        then:
+        snapshot.queueDepthMetrics.size() == 1
+        snapshot.queueDepthMetrics[0].deviceMacAddress == null
+        snapshot.operationMetrics.isEmpty()
+    }
+
+    def "should report current and max depth of the queues"() {
+
+        given:
+        def queueMetricsRecorder = objectUnderTest.queueMetricsRecorder(MAC_ADDRESS)
+        3.times { queueMetricsRecorder.onOperationQueued() }
+        2.times { queueMetricsRecorder.onOperationDequeued() }
+
+        when:
+        def queueDepthMetrics = objectUnderTest.snapshot().queueDepthMetrics.find { it.deviceMacAddress == MAC_ADDRESS }
+
+        then:
+        queueDepthMetrics.currentDepth == 1
+        queueDepthMetrics.maxDepth == 3
+    }
+
+    def "should report latencies separately for each queue and operation type"() {
+
+        given:
+        def operation = MockOperation.mockOperation(Priority.NORMAL)
+        objectUnderTest.queueMetricsRecorder(MAC_ADDRESS).onOperationStarted(operation, 1000)
+        objectUnderTest.queueMetricsRecorder(MAC_ADDRESS).onOperationFirstCallback(operation, 2000)
+        objectUnderTest.queueMetricsRecorder(MAC_ADDRESS).onOperationFinished(operation, 3000)
+        objectUnderTest.queueMetricsRecorder(null).onOperationStarted(operation, 4000)
+
+        when:
+        def operationMetrics = objectUnderTest.snapshot().operationMetrics
+
+        then:
+        operationMetrics.size() == 2
+        def connectionQueueMetrics = operationMetrics.find { it.deviceMacAddress == MAC_ADDRESS }
+        connectionQueueMetrics.operationName == "MockOperation"
+        connectionQueueMetrics.queueWaitTime.maxNanos == 1000
+        connectionQueueMetrics.timeToFirstCallback.maxNanos == 2000
+        connectionQueueMetrics.totalTime.maxNanos == 3000
+        def clientQueueMetrics = operationMetrics.find { it.deviceMacAddress == null }
+        clientQueueMetrics.queueWaitTime.maxNanos == 4000
+        clientQueueMetrics.totalTime.count == 0
+    }
+
+    def "should report the number of shed operations"() {
+
+        given:
+        def operation = MockOperation.mockOperation(Priority.NORMAL)
+        2.times { objectUnderTest.queueMetricsRecorder(MAC_ADDRESS).onOperationShed(operation) }
+
+        when:
+        def operationMetrics = objectUnderTest.snapshot().operationMetrics.find { it.deviceMacAddress == MAC_ADDRESS }
+
+        then:
+        operationMetrics.shedCount == 2
+        operationMetrics.queueWaitTime.count == 0
+    }
+
+    def "should drop the recorder of the least recently connected device"() {
+
+        given:
+        def firstRecorder = objectUnderTest.queueMetricsRecorder("00:00:00:00:00:00")
+        OperationQueueMetricsRecorder.MAX_RECORDED_DEVICES.times {
+            objectUnderTest.queueMetricsRecorder(String.format("00:00:00:00:01:%02X", it))
+        }
+
+        when:
+        def queueDepthMetrics = objectUnderTest.snapshot().queueDepthMetrics
+
+        then:
+        queueDepthMetrics.size() == OperationQueueMetricsRecorder.MAX_RECORDED_DEVICES + 1
+        queueDepthMetrics.find { it.deviceMacAddress == "00:00:00:00:00:00" } == null
+        !objectUnderTest.queueMetricsRecorder("00:00:00:00:00:00").is(firstRecorder)
+    }
+}
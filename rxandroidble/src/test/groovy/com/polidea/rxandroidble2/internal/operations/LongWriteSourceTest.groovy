@@ -0,0 +1,130 @@
+package com.polidea.rxandroidble2.internal.operations
+
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+
+class LongWriteSourceTest extends Specification {
+
+    def "should read a stream in batches across the chunks read ahead"() {
+        given:
+        byte[] bytes = byteArray(10000)
+        def objectUnderTest = LongWriteSource.fromInputStream(new ByteArrayInputStream(bytes))
+        objectUnderTest.open(0)
+        def readBytes = new ByteArrayOutputStream()
+        byte[] batch = new byte[244]
+
+        when:
+        while (objectUnderTest.hasRemaining()) {
+            readBytes.write(batch, 0, objectUnderTest.read(batch, batch.length))
+        }
+
+        then:
+        readBytes.toByteArray() == bytes
+        objectUnderTest.position() == 10000
+    }
+
+    def "should move a stream back to the kept bytes after the next chunk was read ahead"() {
+        given:
+        byte[] bytes = byteArray(10000)
+        def objectUnderTest = LongWriteSource.fromChannel(Channels.newChannel(new ByteArrayInputStream(bytes)))
+        objectUnderTest.open(3 * 244)
+        byte[] batch = new byte[244]
+        // the 20th batch is read partially from the second chunk
+        20.times { objectUnderTest.read(batch, batch.length) }
+
+        when:
+        objectUnderTest.seek(17 * 244)
+        objectUnderTest.read(batch, batch.length)
+
+        then:
+        batch == subSequence(bytes, 17 * 244, 18 * 244)
+    }
+
+    def "should not move a stream back beyond the kept bytes"() {
+        given:
+        def objectUnderTest = LongWriteSource.fromInputStream(new ByteArrayInputStream(byteArray(10000)))
+        objectUnderTest.open(244)
+        byte[] batch = new byte[244]
+        20.times { objectUnderTest.read(batch, batch.length) }
+
+        when:
+        objectUnderTest.seek(0)
+
+        then:
+        thrown IllegalStateException
+    }
+
+    def "should not read a stream again"() {
+        given:
+        def objectUnderTest = LongWriteSource.fromInputStream(new ByteArrayInputStream(byteArray(10)))
+        objectUnderTest.open(0)
+
+        when:
+        objectUnderTest.open(0)
+
+        then:
+        thrown IllegalStateException
+    }
+
+    def "should read a file again from the position it had when opened for the first time"() {
+        given:
+        byte[] bytes = byteArray(10000)
+        def file = File.createTempFile("LongWriteSourceTest", null)
+        file.bytes = bytes
+        def inputStream = new FileInputStream(file)
+        inputStream.skip(100)
+        def objectUnderTest = LongWriteSource.fromInputStream(inputStream)
+        objectUnderTest.open(0)
+        byte[] batch = new byte[244]
+        40.times { objectUnderTest.read(batch, batch.length) }
+
+        when:
+        objectUnderTest.open(0)
+        objectUnderTest.read(batch, batch.length)
+
+        then:
+        batch == subSequence(bytes, 100, 344)
+
+        when:
+        objectUnderTest.seek(30 * 244)
+        objectUnderTest.read(batch, batch.length)
+
+        then:
+        batch == subSequence(bytes, 100 + 30 * 244, 100 + 31 * 244)
+
+        cleanup:
+        inputStream.close()
+        file.delete()
+    }
+
+    def "should read a buffer without changing its position"() {
+        given:
+        def byteBuffer = ByteBuffer.wrap(byteArray(10))
+        byteBuffer.position(2)
+        def objectUnderTest = LongWriteSource.fromByteBuffer(byteBuffer)
+        objectUnderTest.open(0)
+        byte[] batch = new byte[4]
+
+        when:
+        objectUnderTest.read(batch, batch.length)
+
+        then:
+        batch == [2, 3, 4, 5] as byte[]
+        byteBuffer.position() == 2
+        objectUnderTest.getResult().length == 0
+    }
+
+    private static byte[] byteArray(int size) {
+        byte[] bytes = new byte[size]
+        for (int i = 0; i < size; i++) {
+            bytes[i] = i
+        }
+        return bytes
+    }
+
+    private static byte[] subSequence(byte[] bytes, int startIndex, int endIndexNotIncluded) {
+        return Arrays.copyOfRange(bytes, startIndex, endIndexNotIncluded)
+    }
+}
@@ -6,6 +6,7 @@ import com.polidea.rxandroidble2.internal.connection.NoRetryStrategy
 import com.polidea.rxandroidble2.RxBleConnection
 import com.polidea.rxandroidble2.exceptions.BleGattCallbackTimeoutException
 import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException
+import com.polidea.rxandroidble2.exceptions.BleGattCharacteristicException
 import com.polidea.rxandroidble2.exceptions.BleGattOperationType
 import com.polidea.rxandroidble2.internal.connection.ImmediateSerializedBatchAckStrategy
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback
@@ -13,6 +14,7 @@ import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface
 import com.polidea.rxandroidble2.internal.util.ByteAssociation
 import com.polidea.rxandroidble2.internal.util.MockOperationTimeoutConfiguration
 import com.polidea.rxandroidble2.internal.util.QueueReleasingEmitterWrapper
+import com.polidea.rxandroidble2.metrics.LongWriteProgress
 import io.reactivex.Observable
 import io.reactivex.ObservableSource
 import io.reactivex.Scheduler
@@ -48,6 +50,7 @@ class OperationCharacteristicLongWriteTest extends Specification {
     Scheduler immediateScheduler = Schedulers.trampoline()
     PublishSubject<ByteAssociation<UUID>> onCharacteristicWriteSubject = PublishSubject.create()
     QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
+    LongWriteProgressRecorder progressRecorder
     CharacteristicLongWriteOperation objectUnderTest
     @Shared
     Exception testException = new Exception("testException")
@@ -565,6 +568,293 @@ class OperationCharacteristicLongWriteTest extends Specification {
         RxJavaPlugins.setErrorHandler(null)
     }
 
+    def "attempt to rewrite the failed batch of a stream if the strategy has emitted the LongWriteFailure"() {
+        given:
+        RetryWriteOperation retryWriteOperationStrategy = givenWillRetryWriteOperation()
+        this.writeOperationAckStrategy = new ImmediateSerializedBatchAckStrategy()
+        def inputStream = new ByteArrayInputStream([0x1, 0x1, 0x2, 0x2, 0x3] as byte[])
+        prepareObjectUnderTest(2, LongWriteSource.fromInputStream(inputStream), immediateScheduler)
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        1 * mockCharacteristic.setValue([0x1, 0x1] as byte[]) >> true
+        1 * mockGatt.writeCharacteristic(mockCharacteristic) >> { BluetoothGattCharacteristic characteristic ->
+            onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(characteristic.getUuid(), [] as byte[]))
+            true
+        }
+
+        then:
+        1 * mockCharacteristic.setValue([0x2, 0x2] as byte[]) >> true
+        1 * mockGatt.writeCharacteristic(mockCharacteristic) >> false
+
+        when:
+        retryWriteOperationStrategy.triggerRetry()
+
+        then:
+        1 * mockCharacteristic.setValue([0x2, 0x2] as byte[]) >> true
+        1 * mockGatt.writeCharacteristic(mockCharacteristic) >> { BluetoothGattCharacteristic characteristic ->
+            onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(characteristic.getUuid(), [] as byte[]))
+            true
+        }
+
+        then:
+        1 * mockCharacteristic.setValue([0x3] as byte[]) >> true
+        1 * mockGatt.writeCharacteristic(mockCharacteristic) >> { BluetoothGattCharacteristic characteristic ->
+            onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(characteristic.getUuid(), [] as byte[]))
+            true
+        }
+
+        testSubscriber.assertValuesEquals([[] as byte[]] as byte[][])
+        testSubscriber.assertComplete()
+    }
+
+    def "should write up to windowSize batches before the first of them is acknowledged"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        prepareWindowedObjectUnderTest(2, byteArray(10), 3, null)
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        1 * mockCharacteristic.setValue([0x0, 0x1] as byte[]) >> true
+        1 * mockCharacteristic.setValue([0x2, 0x3] as byte[]) >> true
+        1 * mockCharacteristic.setValue([0x4, 0x5] as byte[]) >> true
+        testSubscriber.assertNotComplete()
+
+        when:
+        acknowledgeWrite()
+
+        then:
+        1 * mockCharacteristic.setValue([0x6, 0x7] as byte[]) >> true
+    }
+
+    def "should complete the windowed write only after all batches were acknowledged"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        byte[] writtenBytes = byteArray(10)
+        prepareWindowedObjectUnderTest(2, writtenBytes, 3, null)
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        4.times { acknowledgeWrite() }
+
+        then:
+        testSubscriber.assertNotComplete()
+        0 * mockQueueReleaseInterface.release()
+
+        when:
+        acknowledgeWrite()
+
+        then:
+        testSubscriber.assertValue(writtenBytes)
+        testSubscriber.assertComplete()
+        1 * mockQueueReleaseInterface.release()
+    }
+
+    def "should write again the batch not accepted while other batches are in flight"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        prepareWindowedObjectUnderTest(2, byteArray(6), 3, null)
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        2 * mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        1 * mockGatt.writeCharacteristic(mockCharacteristic) >> false
+        testSubscriber.assertNoErrors()
+
+        when:
+        acknowledgeWrite()
+
+        then:
+        1 * mockCharacteristic.setValue([0x4, 0x5] as byte[]) >> true
+        1 * mockGatt.writeCharacteristic(mockCharacteristic) >> true
+    }
+
+    def "should emit error if the first batch of the windowed write was not accepted"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> false
+        prepareWindowedObjectUnderTest(2, byteArray(6), 3, null)
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        testSubscriber.assertError(BleGattCannotStartException)
+    }
+
+    def "should acknowledge batches only with the window acknowledgements if they were set"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        PublishSubject<Integer> windowAcknowledgements = PublishSubject.create()
+        prepareWindowedObjectUnderTest(2, byteArray(8), 2, windowAcknowledgements)
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        2.times { acknowledgeWrite() }
+
+        then:
+        0 * mockCharacteristic.setValue(_)
+
+        when:
+        windowAcknowledgements.onNext(2)
+
+        then:
+        1 * mockCharacteristic.setValue([0x4, 0x5] as byte[]) >> true
+        1 * mockCharacteristic.setValue([0x6, 0x7] as byte[]) >> true
+
+        when:
+        2.times { acknowledgeWrite() }
+        windowAcknowledgements.onNext(2)
+
+        then:
+        testSubscriber.assertComplete()
+    }
+
+    def "should resume the windowed write from the first not acknowledged batch if the strategy has emitted the LongWriteFailure"() {
+
+        given:
+        RetryWriteOperation retryWriteOperationStrategy = givenWillRetryWriteOperation()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        PublishSubject<Integer> firstAttemptAcknowledgements = PublishSubject.create()
+        Queue<Observable<Integer>> attemptAcknowledgements = new LinkedList<>([firstAttemptAcknowledgements, Observable.never()])
+        prepareWindowedObjectUnderTest(2, byteArray(8), 2, Observable.defer({ attemptAcknowledgements.poll() }))
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+        firstAttemptAcknowledgements.onNext(1)
+
+        when:
+        firstAttemptAcknowledgements.onError(
+                new BleGattCharacteristicException(mockGatt, mockCharacteristic, 0x85, BleGattOperationType.CHARACTERISTIC_LONG_WRITE)
+        )
+        retryWriteOperationStrategy.triggerRetry()
+
+        then:
+        1 * mockCharacteristic.setValue([0x2, 0x3] as byte[]) >> true
+        1 * mockCharacteristic.setValue([0x4, 0x5] as byte[]) >> true
+        0 * mockCharacteristic.setValue(_)
+        testSubscriber.assertNoErrors()
+    }
+
+    def "should pass the progress of the windowed write after every acknowledgement"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        List<LongWriteProgress> progressList = []
+        progressRecorder = new LongWriteProgressRecorder({ progressList.add(it) }, 0, immediateScheduler)
+        prepareWindowedObjectUnderTest(2, byteArray(9), 3, null)
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        acknowledgeWrite()
+
+        then:
+        progressList.size() == 1
+        progressList[0].acknowledgedBytes == 2
+        progressList[0].acknowledgedBatchCount == 1
+        progressList[0].totalBytes == 9
+        progressList[0].retryCount == 0
+
+        when:
+        4.times { acknowledgeWrite() }
+
+        then:
+        testSubscriber.assertComplete()
+        progressList.size() == 5
+        progressList[4].acknowledgedBytes == 9
+        progressList[4].acknowledgedBatchCount == 5
+    }
+
+    def "should pass only the latest progress to the consumer which is behind the write"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> true
+        List<LongWriteProgress> progressList = []
+        def deliveryScheduler = new TestScheduler()
+        progressRecorder = new LongWriteProgressRecorder({ progressList.add(it) }, 0, deliveryScheduler)
+        prepareWindowedObjectUnderTest(2, byteArray(9), 3, null)
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        3.times { acknowledgeWrite() }
+
+        then:
+        progressList.isEmpty()
+
+        when:
+        deliveryScheduler.triggerActions()
+
+        then:
+        progressList*.acknowledgedBytes == [6L]
+
+        when:
+        2.times { acknowledgeWrite() }
+        deliveryScheduler.triggerActions()
+
+        then:
+        testSubscriber.assertComplete()
+        progressList*.acknowledgedBytes == [6L, 9L]
+    }
+
+    def "should pass only the final progress if the minimum interval has not passed"() {
+
+        given:
+        givenWillWriteNextBatchImmediatelyAfterPrevious()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> { BluetoothGattCharacteristic characteristic ->
+            onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(characteristic.getUuid(), [] as byte[]))
+            true
+        }
+        List<LongWriteProgress> progressList = []
+        progressRecorder = new LongWriteProgressRecorder({ progressList.add(it) }, TimeUnit.HOURS.toNanos(1), immediateScheduler)
+        prepareObjectUnderTest(2, LongWriteSource.fromInputStream(new ByteArrayInputStream(byteArray(7))), immediateScheduler)
+
+        when:
+        objectUnderTest.run(mockQueueReleaseInterface).test().assertComplete()
+
+        then:
+        progressList.size() == 1
+        progressList[0].acknowledgedBytes == 7
+        progressList[0].acknowledgedBatchCount == 4
+        progressList[0].totalBytes == LongWriteProgress.UNKNOWN_TOTAL_BYTES
+    }
+
+    def "should count the retries of the long write in the progress"() {
+
+        given:
+        RetryWriteOperation retryWriteOperationStrategy = givenWillRetryWriteOperation()
+        this.writeOperationAckStrategy = new ImmediateSerializedBatchAckStrategy()
+        mockGatt.writeCharacteristic(mockCharacteristic) >> false >> { BluetoothGattCharacteristic characteristic ->
+            onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(characteristic.getUuid(), [] as byte[]))
+            true
+        }
+        List<LongWriteProgress> progressList = []
+        progressRecorder = new LongWriteProgressRecorder({ progressList.add(it) }, 0, immediateScheduler)
+        prepareObjectUnderTest(2, byteArray(6))
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        retryWriteOperationStrategy.triggerRetry()
+
+        then:
+        testSubscriber.assertComplete()
+        progressList*.retryCount == [1, 1, 1]
+        progressList*.acknowledgedBytes == [2L, 4L, 6L]
+    }
+
     ////////////////////// Testing repetition logic implementation
 
     def "should emit repeat until ByteBuffer is empty"() {
@@ -576,7 +866,7 @@ class OperationCharacteristicLongWriteTest extends Specification {
         Observable repetitionObservable = CharacteristicLongWriteOperation
                 .bufferIsNotEmptyAndOperationHasBeenAcknowledgedAndNotUnsubscribed(
                         new ImmediateSerializedBatchAckStrategy(),
-                        ByteBuffer.allocate(0),
+                        LongWriteSource.fromByteBuffer(ByteBuffer.allocate(0)),
                         mockQueueReleasingEmitterWrapper
                 )
                 .apply(completionSubject)
@@ -786,6 +1076,10 @@ class OperationCharacteristicLongWriteTest extends Specification {
     }
 
     private prepareObjectUnderTest(int maxBatchSize, byte[] testData, Scheduler scheduler) {
+        prepareObjectUnderTest(maxBatchSize, LongWriteSource.fromBytes(testData), scheduler)
+    }
+
+    private prepareObjectUnderTest(int maxBatchSize, LongWriteSource source, Scheduler scheduler) {
         objectUnderTest = new CharacteristicLongWriteOperation(
                 mockGatt,
                 mockCallback,
@@ -795,7 +1089,33 @@ class OperationCharacteristicLongWriteTest extends Specification {
                 { maxBatchSize },
                 writeOperationAckStrategy,
                 writeOperationRetryStrategy,
-                testData
+                1,
+                null,
+                source,
+                progressRecorder,
+                32
         )
     }
+
+    private prepareWindowedObjectUnderTest(int maxBatchSize, byte[] testData, int windowSize, Observable<Integer> windowAcknowledgements) {
+        objectUnderTest = new CharacteristicLongWriteOperation(
+                mockGatt,
+                mockCallback,
+                immediateScheduler,
+                new MockOperationTimeoutConfiguration(10, timeoutScheduler),
+                mockCharacteristic,
+                { maxBatchSize },
+                writeOperationAckStrategy,
+                writeOperationRetryStrategy,
+                windowSize,
+                windowAcknowledgements,
+                LongWriteSource.fromBytes(testData),
+                progressRecorder,
+                32
+        )
+    }
+
+    private acknowledgeWrite() {
+        onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(mockCharacteristicUUID, new byte[0]))
+    }
 }
@@ -5,10 +5,12 @@ import android.bluetooth.BluetoothGattCharacteristic
 import com.polidea.rxandroidble2.exceptions.BleGattCallbackTimeoutException
 import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException
 import com.polidea.rxandroidble2.exceptions.BleGattOperationType
+import com.polidea.rxandroidble2.internal.connection.ResponseSlot
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback
 import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface
 import com.polidea.rxandroidble2.internal.util.ByteAssociation
 import com.polidea.rxandroidble2.internal.util.MockOperationTimeoutConfiguration
+import com.polidea.rxandroidble2.internal.util.TimestampedByteAssociation
 import io.reactivex.schedulers.TestScheduler
 import io.reactivex.subjects.PublishSubject
 import spock.lang.Specification
@@ -217,6 +219,88 @@ public class OperationCharacteristicReadTest extends Specification {
         }
     }
 
+    def "should complete with the response passed to the response slot set on the callback"() {
+
+        given:
+        byte[] dataFromCharacteristic = [3, 4, 5]
+        ResponseSlot slot = null
+        def slotCallback = Mock(RxBleGattCallback)
+        slotCallback.setCharacteristicReadSlot(_) >> { ResponseSlot responseSlot -> slot = responseSlot; true }
+        def slotOperation = new CharacteristicReadOperation(slotCallback, mockGatt,
+                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic)
+        givenCharacteristicReadStartsOk()
+        def testSubscriber = slotOperation.run(mockQueueReleaseInterface).test()
+
+        when:
+        def isMatching = slot.matches(new TimestampedByteAssociation(mockCharacteristicUUID, dataFromCharacteristic, 0L))
+        slot.tryComplete(new TimestampedByteAssociation(mockCharacteristicUUID, dataFromCharacteristic, 0L))
+        slot.run()
+
+        then:
+        isMatching
+        testSubscriber.assertValue dataFromCharacteristic
+        testSubscriber.assertComplete()
+        1 * mockQueueReleaseInterface.release()
+        0 * slotCallback.getOnCharacteristicRead()
+    }
+
+    def "should not match the response of another characteristic in the response slot"() {
+
+        given:
+        ResponseSlot slot = null
+        def slotCallback = Mock(RxBleGattCallback)
+        slotCallback.setCharacteristicReadSlot(_) >> { ResponseSlot responseSlot -> slot = responseSlot; true }
+        def slotOperation = new CharacteristicReadOperation(slotCallback, mockGatt,
+                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic)
+        givenCharacteristicReadStartsOk()
+
+        when:
+        slotOperation.run(mockQueueReleaseInterface).test()
+
+        then:
+        !slot.matches(new TimestampedByteAssociation(differentCharacteristicUUID, new byte[0], 0L))
+    }
+
+    def "should time out and remove the response slot if the response does not arrive in 30 seconds"() {
+
+        given:
+        ResponseSlot slot = null
+        def slotCallback = Mock(RxBleGattCallback)
+        slotCallback.setCharacteristicReadSlot(_) >> { ResponseSlot responseSlot -> slot = responseSlot; true }
+        def slotOperation = new CharacteristicReadOperation(slotCallback, mockGatt,
+                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic)
+        givenCharacteristicReadStartsOk()
+        def testSubscriber = slotOperation.run(mockQueueReleaseInterface).test()
+
+        when:
+        testScheduler.advanceTimeBy(30, TimeUnit.SECONDS)
+
+        then:
+        testSubscriber.assertError(BleGattCallbackTimeoutException)
+        1 * slotCallback.removeResponseSlot({ it.is(slot) })
+
+        and:
+        !slot.tryComplete(new TimestampedByteAssociation(mockCharacteristicUUID, new byte[0], 0L))
+    }
+
+    def "should remove the response slot when the read failed to start"() {
+
+        given:
+        def slotCallback = Mock(RxBleGattCallback)
+        slotCallback.setCharacteristicReadSlot(_) >> true
+        def slotOperation = new CharacteristicReadOperation(slotCallback, mockGatt,
+                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic)
+        givenCharacteristicReadFailToStart()
+
+        when:
+        def testSubscriber = slotOperation.run(mockQueueReleaseInterface).test()
+
+        then:
+        testSubscriber.assertError BleGattCannotStartException
+        1 * slotCallback.removeNotStartedResponseSlot(_)
+        1 * mockQueueReleaseInterface.release()
+    }
+
     private givenCharacteristicWithUUIDContainData(Map... returnedDataOnRead) {
         mockGatt.readCharacteristic(mockCharacteristic) >> {
             returnedDataOnRead.each {
@@ -2,9 +2,11 @@ package com.polidea.rxandroidble2.internal.operations
 
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCharacteristic
+import android.bluetooth.BluetoothStatusCodes
 import com.polidea.rxandroidble2.exceptions.BleGattCallbackTimeoutException
 import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException
 import com.polidea.rxandroidble2.exceptions.BleGattOperationType
+import com.polidea.rxandroidble2.internal.connection.ResponseSlot
 import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback
 import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface
 import com.polidea.rxandroidble2.internal.util.ByteAssociation
@@ -12,6 +14,7 @@ import com.polidea.rxandroidble2.internal.util.MockOperationTimeoutConfiguration
 import io.reactivex.schedulers.TestScheduler
 import io.reactivex.subjects.PublishSubject
 import spock.lang.Specification
+import spock.lang.Unroll
 
 import java.util.concurrent.TimeUnit
 
@@ -46,6 +49,39 @@ public class OperationCharacteristicWriteTest extends Specification {
         1 * mockGatt.writeCharacteristic(mockCharacteristic) >> true
     }
 
+    def "should pass the value directly to BluetoothGatt.writeCharacteristic() without setting it on the characteristic on API 33"() {
+
+        given:
+        mockCharacteristic.getWriteType() >> BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT
+        prepareObjectUnderTest(33)
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        0 * mockCharacteristic.setValue(_)
+        1 * mockGatt.writeCharacteristic(mockCharacteristic, testData, BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT) >> {
+            onCharacteristicWriteSubject.onNext(new ByteAssociation(mockCharacteristicUUID, [0] as byte[]))
+            BluetoothStatusCodes.SUCCESS
+        }
+
+        and:
+        testSubscriber.assertValue testData
+    }
+
+    def "should emit error when BluetoothGatt.writeCharacteristic() does not return SUCCESS on API 33"() {
+
+        given:
+        prepareObjectUnderTest(33)
+        mockGatt.writeCharacteristic(mockCharacteristic, testData, _) >> BluetoothStatusCodes.ERROR_GATT_WRITE_REQUEST_BUSY
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        testSubscriber.assertError BleGattCannotStartException
+    }
+
     def "asObservable() should not emit error when BluetoothGatt.writeCharacteristic() returns true while run()"() {
 
         given:
@@ -233,6 +269,114 @@ public class OperationCharacteristicWriteTest extends Specification {
         }
     }
 
+    @Unroll
+    def "should be pipelinable only if characteristic write type is WRITE_TYPE_NO_RESPONSE (writeType=#writeType)"() {
+
+        given:
+        BluetoothGattCharacteristic characteristic = Mock BluetoothGattCharacteristic
+        characteristic.getWriteType() >> writeType
+
+        when:
+        objectUnderTest = new CharacteristicWriteOperation(mockCallback, mockGatt,
+                new MockOperationTimeoutConfiguration(testScheduler), characteristic, testData, 32)
+
+        then:
+        objectUnderTest.isPipelinable() == expectedPipelinable
+
+        where:
+        writeType                                               | expectedPipelinable
+        BluetoothGattCharacteristic.WRITE_TYPE_DEFAULT          | false
+        BluetoothGattCharacteristic.WRITE_TYPE_SIGNED           | false
+        BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE      | true
+    }
+
+    def "should complete a write without response with its own data through the pipelined write slot"() {
+
+        given:
+        ResponseSlot<ByteAssociation<UUID>> pipelinedSlot = null
+        mockCharacteristic.getWriteType() >> BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE
+        givenCharacteristicWriteStartsOk()
+        prepareObjectUnderTest()
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        1 * mockCallback.addPipelinedCharacteristicWriteSlot(mockCharacteristic, _) >> {
+            BluetoothGattCharacteristic characteristic, ResponseSlot<ByteAssociation<UUID>> slot -> pipelinedSlot = slot
+        }
+        0 * mockCallback.getOnCharacteristicWrite()
+
+        when:
+        // the characteristic object holds the value of a later write
+        pipelinedSlot.tryComplete(new ByteAssociation(mockCharacteristicUUID, [0] as byte[]))
+        pipelinedSlot.run()
+
+        then:
+        testSubscriber.assertValue testData
+        1 * mockQueueReleaseInterface.release()
+    }
+
+    def "should remove the pipelined write slot if the write without response could not be started"() {
+
+        given:
+        mockCharacteristic.getWriteType() >> BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE
+        givenCharacteristicWriteFailToStart()
+        prepareObjectUnderTest()
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        1 * mockCallback.addPipelinedCharacteristicWriteSlot(mockCharacteristic, _)
+        1 * mockCallback.removeNotStartedResponseSlot(_)
+        testSubscriber.assertError(BleGattCannotStartException)
+    }
+
+    def "should keep the pipelined write slot of a timed out write without response for its late callback"() {
+
+        given:
+        mockCharacteristic.getWriteType() >> BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE
+        givenCharacteristicWriteStartsOk()
+        prepareObjectUnderTest()
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        testScheduler.advanceTimeBy(30, TimeUnit.SECONDS)
+
+        then:
+        testSubscriber.assertError(BleGattCallbackTimeoutException)
+        0 * mockCallback.removeNotStartedResponseSlot(_)
+    }
+
+    def "should remove the pipelined write slot and disarm the timeout when the write without response is disposed"() {
+
+        given:
+        ResponseSlot<ByteAssociation<UUID>> pipelinedSlot = null
+        mockCallback.addPipelinedCharacteristicWriteSlot(mockCharacteristic, _) >> {
+            BluetoothGattCharacteristic characteristic, ResponseSlot<ByteAssociation<UUID>> slot -> pipelinedSlot = slot
+        }
+        mockCharacteristic.getWriteType() >> BluetoothGattCharacteristic.WRITE_TYPE_NO_RESPONSE
+        givenCharacteristicWriteStartsOk()
+        prepareObjectUnderTest()
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        testSubscriber.dispose()
+
+        then:
+        1 * mockCallback.removeResponseSlot({ it.is(pipelinedSlot) })
+        1 * mockQueueReleaseInterface.release()
+        !pipelinedSlot.tryComplete(new ByteAssociation(mockCharacteristicUUID, [0] as byte[]))
+
+        when:
+        testScheduler.advanceTimeBy(30, TimeUnit.SECONDS)
+
+        then:
+        0 * mockCallback.removeResponseSlot(_)
+        0 * mockQueueReleaseInterface.release()
+    }
+
     private shouldEmitErrorOnCharacteristicWrite(Throwable testException) {
         mockGatt.writeCharacteristic(mockCharacteristic) >> {
             onCharacteristicWriteSubject.onError(testException)
@@ -248,8 +392,8 @@ public class OperationCharacteristicWriteTest extends Specification {
         mockGatt.writeCharacteristic(mockCharacteristic) >> true
     }
 
-    private prepareObjectUnderTest() {
+    private prepareObjectUnderTest(int deviceSdk = 32) {
         objectUnderTest = new CharacteristicWriteOperation(mockCallback, mockGatt,
-                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic, testData)
+                new MockOperationTimeoutConfiguration(testScheduler), mockCharacteristic, testData, deviceSdk)
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.polidea.rxandroidble2.internal.operations
 import android.bluetooth.BluetoothGatt
 import android.bluetooth.BluetoothGattCharacteristic
 import android.bluetooth.BluetoothGattDescriptor
+import android.bluetooth.BluetoothStatusCodes
 import com.polidea.rxandroidble2.exceptions.BleGattCallbackTimeoutException
 import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException
 import com.polidea.rxandroidble2.exceptions.BleGattOperationType
@@ -51,6 +52,25 @@ public class OperationDescriptorWriteTest extends Specification {
         1 * mockGatt.writeDescriptor(mockDescriptor) >> true
     }
 
+    def "should pass the value directly to BluetoothGatt.writeDescriptor() without setting it on the descriptor on API 33"() {
+
+        given:
+        prepareObjectUnderTest(33)
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        0 * mockDescriptor.setValue(_)
+        1 * mockGatt.writeDescriptor(mockDescriptor, testData) >> {
+            onDescriptorWriteSubject.onNext(new ByteAssociation<BluetoothGattDescriptor>(mockDescriptor, [0] as byte[]))
+            BluetoothStatusCodes.SUCCESS
+        }
+
+        and:
+        testSubscriber.assertValue testData
+    }
+
     def "asObservable() should not emit error when BluetoothGatt.writeDescriptor() returns true while run()"() {
 
         given:
@@ -272,8 +292,9 @@ public class OperationDescriptorWriteTest extends Specification {
         mockGatt.writeDescriptor(mockDescriptor) >> true
     }
 
-    private prepareObjectUnderTest() {
+    private prepareObjectUnderTest(int deviceSdk = 32) {
         objectUnderTest = new DescriptorWriteOperation(mockCallback, mockGatt,
-                new MockOperationTimeoutConfiguration(testScheduler), bluetoothGattCharacteristicDefaultWriteType, mockDescriptor, testData)
+                new MockOperationTimeoutConfiguration(testScheduler), bluetoothGattCharacteristicDefaultWriteType, mockDescriptor, testData,
+                deviceSdk)
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.polidea.rxandroidble2.internal.operations
+
+import android.bluetooth.BluetoothDevice
+import android.bluetooth.BluetoothGatt
+import android.bluetooth.BluetoothGattCharacteristic
+import com.polidea.rxandroidble2.exceptions.BleGattCallbackTimeoutException
+import com.polidea.rxandroidble2.exceptions.BleGattCannotStartException
+import com.polidea.rxandroidble2.exceptions.BleGattOperationType
+import com.polidea.rxandroidble2.internal.connection.RxBleGattCallback
+import com.polidea.rxandroidble2.internal.serialization.QueueReleaseInterface
+import com.polidea.rxandroidble2.internal.util.ByteAssociation
+import com.polidea.rxandroidble2.internal.util.MockOperationTimeoutConfiguration
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class OperationReliableWriteTest extends Specification {
+
+    UUID firstCharacteristicUUID = UUID.randomUUID()
+    UUID secondCharacteristicUUID = UUID.randomUUID()
+    BluetoothGatt mockGatt = Mock BluetoothGatt
+    BluetoothDevice mockDevice = Mock BluetoothDevice
+    RxBleGattCallback mockCallback = Mock RxBleGattCallback
+    BluetoothGattCharacteristic firstCharacteristic = Mock BluetoothGattCharacteristic
+    BluetoothGattCharacteristic secondCharacteristic = Mock BluetoothGattCharacteristic
+    TestScheduler timeoutScheduler = new TestScheduler()
+    PublishSubject<ByteAssociation<UUID>> onCharacteristicWriteSubject = PublishSubject.create()
+    PublishSubject<Integer> onReliableWriteCompletedSubject = PublishSubject.create()
+    QueueReleaseInterface mockQueueReleaseInterface = Mock QueueReleaseInterface
+    byte[] firstData = [0x1, 0x2]
+    byte[] secondData = [0x3, 0x4]
+    ReliableWriteOperation objectUnderTest
+
+    def setup() {
+        firstCharacteristic.getUuid() >> firstCharacteristicUUID
+        secondCharacteristic.getUuid() >> secondCharacteristicUUID
+        mockCallback.getOnCharacteristicWrite() >> onCharacteristicWriteSubject
+        mockCallback.getOnReliableWriteCompleted() >> onReliableWriteCompletedSubject
+        mockGatt.getDevice() >> mockDevice
+        mockDevice.getAddress() >> "test"
+        objectUnderTest = new ReliableWriteOperation(
+                mockCallback,
+                mockGatt,
+                Schedulers.trampoline(),
+                new MockOperationTimeoutConfiguration(10, timeoutScheduler),
+                [new ByteAssociation<>(firstCharacteristic, firstData), new ByteAssociation<>(secondCharacteristic, secondData)],
+                32
+        )
+    }
+
+    def "should prepare all writes in order and then execute the reliable write"() {
+
+        given:
+        givenEachWriteIsEchoed()
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        1 * mockGatt.beginReliableWrite() >> true
+
+        then:
+        1 * firstCharacteristic.setValue(firstData) >> true
+
+        then:
+        1 * secondCharacteristic.setValue(secondData) >> true
+
+        then:
+        1 * mockGatt.executeReliableWrite() >> {
+            onReliableWriteCompletedSubject.onNext(BluetoothGatt.GATT_SUCCESS)
+            true
+        }
+        0 * mockGatt.abortReliableWrite()
+
+        and:
+        testSubscriber.assertComplete()
+        1 * mockQueueReleaseInterface.release()
+    }
+
+    def "should abort the reliable write if any of the writes could not be started"() {
+
+        given:
+        mockGatt.beginReliableWrite() >> true
+        firstCharacteristic.setValue(_) >> true
+        secondCharacteristic.setValue(_) >> true
+        mockGatt.writeCharacteristic(firstCharacteristic) >> {
+            onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(firstCharacteristicUUID, firstData))
+            true
+        }
+        mockGatt.writeCharacteristic(secondCharacteristic) >> false
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        testSubscriber.assertError { BleGattCannotStartException e -> e.bleGattOperationType == BleGattOperationType.CHARACTERISTIC_WRITE }
+        1 * mockGatt.abortReliableWrite()
+        0 * mockGatt.executeReliableWrite()
+    }
+
+    def "should abort the reliable write if the execution has timed out"() {
+
+        given:
+        givenEachWriteIsEchoed()
+        mockGatt.beginReliableWrite() >> true
+        mockGatt.executeReliableWrite() >> true
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        when:
+        timeoutScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+        then:
+        testSubscriber.assertError(BleGattCallbackTimeoutException)
+        1 * mockGatt.abortReliableWrite()
+    }
+
+    def "should emit error and write nothing if the reliable write could not be started"() {
+
+        given:
+        mockGatt.beginReliableWrite() >> false
+
+        when:
+        def testSubscriber = objectUnderTest.run(mockQueueReleaseInterface).test()
+
+        then:
+        testSubscriber.assertError { BleGattCannotStartException e ->
+            e.bleGattOperationType == BleGattOperationType.RELIABLE_WRITE_COMPLETED
+        }
+        0 * mockGatt.writeCharacteristic(_)
+        1 * mockQueueReleaseInterface.release()
+    }
+
+    private givenEachWriteIsEchoed() {
+        mockGatt.writeCharacteristic(_) >> { BluetoothGattCharacteristic characteristic ->
+            def data = characteristic.is(firstCharacteristic) ? firstData : secondData
+            onCharacteristicWriteSubject.onNext(new ByteAssociation<UUID>(characteristic.getUuid(), data))
+            true
+        }
+    }
+}
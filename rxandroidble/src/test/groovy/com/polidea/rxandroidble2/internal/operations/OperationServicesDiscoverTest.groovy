@@ -187,7 +187,7 @@ public class OperationServicesDiscoverTest extends Specification {
 
     private prepareObjectUnderTest() {
         objectUnderTest = new ServiceDiscoveryOperation(mockGattCallback, mockBluetoothGatt, mockRxBleServicesLogger,
-                new MockOperationTimeoutConfiguration(timeout.toInteger(), testScheduler))
+                new MockOperationTimeoutConfiguration(timeout.toInteger(), testScheduler), testScheduler)
     }
 
     private List<BluetoothGattService> createMockedBluetoothGattServiceList() {
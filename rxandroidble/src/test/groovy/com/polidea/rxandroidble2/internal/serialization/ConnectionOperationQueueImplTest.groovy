@@ -0,0 +1,357 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import android.os.DeadObjectException
+import com.polidea.rxandroidble2.ClientSetup
+import com.polidea.rxandroidble2.OperationSchedulingPolicy
+import com.polidea.rxandroidble2.Timeout
+import com.polidea.rxandroidble2.exceptions.BleDisconnectedException
+import com.polidea.rxandroidble2.exceptions.BleException
+import com.polidea.rxandroidble2.exceptions.BleOperationQueueDeadlineException
+import com.polidea.rxandroidble2.internal.QueueOperation
+import com.polidea.rxandroidble2.internal.connection.DisconnectionRouterOutput
+import com.polidea.rxandroidble2.internal.metrics.OperationQueueMetricsRecorder
+import io.reactivex.ObservableEmitter
+import io.reactivex.internal.schedulers.TrampolineScheduler
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+
+class ConnectionOperationQueueImplTest extends Specification {
+
+    def mockDisconnectionRouterOutput = Mock DisconnectionRouterOutput
+    def mockExecutorService = Mock ExecutorService
+    def operationQueueMetricsRecorder = new OperationQueueMetricsRecorder()
+    PipelineCredits pipelineCredits
+    ConnectionOperationQueueImpl objectUnderTest
+
+    def setup() {
+        mockExecutorService.execute(_) >> { Runnable runnable -> runnable.run() }
+    }
+
+    private void prepareObjectUnderTest(int maxPipelinedWrites) {
+        prepareObjectUnderTest(maxPipelinedWrites, null)
+    }
+
+    private void prepareObjectUnderTest(int maxPipelinedWrites, Timeout operationQueueDeadline) {
+        pipelineCredits = new PipelineCredits(maxPipelinedWrites)
+        objectUnderTest = createQueue("AA:BB:CC:DD:EE:FF", pipelineCredits, operationQueueDeadline,
+                new RadioScheduler(ClientSetup.UNLIMITED_CONCURRENT_GATT_OPERATIONS), 1)
+    }
+
+    private ConnectionOperationQueueImpl createQueue(String macAddress, PipelineCredits credits, Timeout operationQueueDeadline,
+                                                     RadioScheduler radioScheduler, int gattOperationsWeight) {
+        new ConnectionOperationQueueImpl(
+                macAddress,
+                mockDisconnectionRouterOutput,
+                mockExecutorService,
+                TrampolineScheduler.instance(),
+                credits,
+                operationQueueMetricsRecorder,
+                OperationSchedulingPolicy.strictPriority(),
+                operationQueueDeadline,
+                radioScheduler,
+                gattOperationsWeight
+        )
+    }
+
+    def "should run the operation right after it was queued if the queue is idle"() {
+        given:
+        prepareObjectUnderTest(0)
+        def operation = new HoldingOperation(false)
+
+        when:
+        objectUnderTest.queue(operation).test()
+
+        then:
+        operation.wasRun()
+    }
+
+    def "should not run the next operation until the previous one released the queue"() {
+        given:
+        prepareObjectUnderTest(0)
+        def firstOperation = new HoldingOperation(false)
+        def secondOperation = new HoldingOperation(false)
+
+        when:
+        objectUnderTest.queue(firstOperation).test()
+        objectUnderTest.queue(secondOperation).test()
+
+        then:
+        firstOperation.wasRun()
+        !secondOperation.wasRun()
+
+        when:
+        firstOperation.releaseQueue()
+
+        then:
+        secondOperation.wasRun()
+    }
+
+    def "should fail the queued operations if the executor rejects the drain"() {
+        given:
+        prepareObjectUnderTest(0)
+        objectUnderTest.queue(new HoldingOperation(false)).test()
+        def queuedOperation = new HoldingOperation(false)
+
+        when:
+        def testObserver = objectUnderTest.queue(queuedOperation).test()
+
+        then:
+        1 * mockExecutorService.execute(_) >> { throw new RejectedExecutionException("test") }
+        !queuedOperation.wasRun()
+        testObserver.assertError { BleException e -> e.cause instanceof RejectedExecutionException }
+        objectUnderTest.queue(new HoldingOperation(false)).test().assertError(BleException)
+    }
+
+    def "should run pipelinable operations without waiting for the previous ones to release the queue up to the credit limit"() {
+        given:
+        prepareObjectUnderTest(2)
+        def operations = (1..3).collect { new HoldingOperation(true) }
+
+        when:
+        operations.each { objectUnderTest.queue(it).test() }
+
+        then:
+        operations[0].wasRun()
+        operations[1].wasRun()
+        !operations[2].wasRun()
+
+        when:
+        pipelineCredits.onCharacteristicWrite()
+
+        then:
+        operations[2].wasRun()
+    }
+
+    def "should not run a not pipelinable operation until all pipeline credits were returned"() {
+        given:
+        prepareObjectUnderTest(2)
+        def firstPipelinedOperation = new HoldingOperation(true)
+        def secondPipelinedOperation = new HoldingOperation(true)
+        def notPipelinableOperation = new HoldingOperation(false)
+        [firstPipelinedOperation, secondPipelinedOperation, notPipelinableOperation].each { objectUnderTest.queue(it).test() }
+
+        when:
+        firstPipelinedOperation.releaseQueue()
+
+        then:
+        !notPipelinableOperation.wasRun()
+
+        when:
+        pipelineCredits.onCharacteristicWrite()
+
+        then:
+        notPipelinableOperation.wasRun()
+    }
+
+    def "should emit the disconnection exception to the awaiting operations when terminated"() {
+        given:
+        prepareObjectUnderTest(0)
+        def disconnectionException = new BleDisconnectedException("AA:BB:CC:DD:EE:FF")
+        objectUnderTest.queue(new HoldingOperation(false)).test()
+        def awaitingOperation = new HoldingOperation(false)
+        def testObserver = objectUnderTest.queue(awaitingOperation).test()
+
+        when:
+        objectUnderTest.terminate(disconnectionException)
+
+        then:
+        testObserver.assertError(disconnectionException)
+        !awaitingOperation.wasRun()
+    }
+
+    def "should emit the disconnection exception when queueing after termination"() {
+        given:
+        prepareObjectUnderTest(0)
+        def disconnectionException = new BleDisconnectedException("AA:BB:CC:DD:EE:FF")
+        objectUnderTest.terminate(disconnectionException)
+
+        when:
+        def testObserver = objectUnderTest.queue(new HoldingOperation(false)).test()
+
+        then:
+        testObserver.assertError(disconnectionException)
+    }
+
+    def "should record the queue depth and latencies of the operations"() {
+        given:
+        prepareObjectUnderTest(0)
+        def firstOperation = new HoldingOperation(false)
+        def secondOperation = new HoldingOperation(false)
+
+        when:
+        objectUnderTest.queue(firstOperation).test()
+        objectUnderTest.queue(secondOperation).test()
+
+        then:
+        def queueDepthMetrics = operationQueueMetricsRecorder.snapshot().queueDepthMetrics
+                .find { it.deviceMacAddress == "AA:BB:CC:DD:EE:FF" }
+        queueDepthMetrics.currentDepth == 1
+        queueDepthMetrics.maxDepth == 1
+
+        when:
+        firstOperation.releaseQueue()
+        secondOperation.releaseQueue()
+
+        then:
+        def operationMetrics = operationQueueMetricsRecorder.snapshot().operationMetrics
+                .find { it.deviceMacAddress == "AA:BB:CC:DD:EE:FF" && it.operationName == "HoldingOperation" }
+        operationMetrics.queueWaitTime.count == 2
+        operationMetrics.totalTime.count == 2
+        operationQueueMetricsRecorder.snapshot().queueDepthMetrics
+                .find { it.deviceMacAddress == "AA:BB:CC:DD:EE:FF" }.currentDepth == 0
+    }
+
+    def "should decrease the recorded queue depth when a queued operation is disposed"() {
+        given:
+        prepareObjectUnderTest(0)
+        objectUnderTest.queue(new HoldingOperation(false)).test()
+        def testObserver = objectUnderTest.queue(new HoldingOperation(false)).test()
+
+        when:
+        testObserver.dispose()
+
+        then:
+        operationQueueMetricsRecorder.snapshot().queueDepthMetrics
+                .find { it.deviceMacAddress == "AA:BB:CC:DD:EE:FF" }.currentDepth == 0
+    }
+
+    def "should not run an operation which waited in the queue longer than the deadline"() {
+        given:
+        prepareObjectUnderTest(0, new Timeout(50, TimeUnit.MILLISECONDS))
+        def firstOperation = new HoldingOperation(false)
+        def secondOperation = new HoldingOperation(false)
+        objectUnderTest.queue(firstOperation).test()
+        def secondTestObserver = objectUnderTest.queue(secondOperation).test()
+        Thread.sleep(100)
+
+        when:
+        firstOperation.releaseQueue()
+
+        then:
+        !secondOperation.wasRun()
+        secondTestObserver.assertError(BleOperationQueueDeadlineException)
+
+        and:
+        operationQueueMetricsRecorder.snapshot().operationMetrics
+                .find { it.deviceMacAddress == "AA:BB:CC:DD:EE:FF" && it.operationName == "HoldingOperation" }.shedCount == 1
+    }
+
+    def "should run the next operation after an operation was shed"() {
+        given:
+        prepareObjectUnderTest(0, new Timeout(50, TimeUnit.MILLISECONDS))
+        def firstOperation = new HoldingOperation(false)
+        objectUnderTest.queue(firstOperation).test()
+        objectUnderTest.queue(new HoldingOperation(false)).test()
+        Thread.sleep(100)
+        firstOperation.releaseQueue()
+        def thirdOperation = new HoldingOperation(false)
+
+        when:
+        objectUnderTest.queue(thirdOperation).test()
+
+        then:
+        thirdOperation.wasRun()
+    }
+
+    def "should not run an operation until a client-wide radio slot is available"() {
+        given:
+        def radioScheduler = new RadioScheduler(1)
+        def firstQueue = createQueue("AA:BB:CC:DD:EE:01", new PipelineCredits(0), null, radioScheduler, 1)
+        def secondQueue = createQueue("AA:BB:CC:DD:EE:02", new PipelineCredits(0), null, radioScheduler, 1)
+        def firstOperation = new HoldingOperation(false)
+        def secondOperation = new HoldingOperation(false)
+
+        when:
+        firstQueue.queue(firstOperation).test()
+        secondQueue.queue(secondOperation).test()
+
+        then:
+        firstOperation.wasRun()
+        !secondOperation.wasRun()
+
+        when:
+        firstOperation.releaseQueue()
+
+        then:
+        secondOperation.wasRun()
+    }
+
+    def "should serve the connection queues waiting for the radio in turns"() {
+        given:
+        def radioScheduler = new RadioScheduler(1)
+        def firstQueue = createQueue("AA:BB:CC:DD:EE:01", new PipelineCredits(0), null, radioScheduler, 1)
+        def secondQueue = createQueue("AA:BB:CC:DD:EE:02", new PipelineCredits(0), null, radioScheduler, 1)
+        def firstQueueOperations = [new HoldingOperation(false), new HoldingOperation(false), new HoldingOperation(false)]
+        def secondQueueOperations = [new HoldingOperation(false), new HoldingOperation(false)]
+        firstQueueOperations.each { firstQueue.queue(it).test() }
+        secondQueueOperations.each { secondQueue.queue(it).test() }
+
+        when:
+        firstQueueOperations[0].releaseQueue()
+
+        then:
+        secondQueueOperations[0].wasRun()
+        !firstQueueOperations[1].wasRun()
+
+        when:
+        secondQueueOperations[0].releaseQueue()
+
+        then:
+        firstQueueOperations[1].wasRun()
+        !secondQueueOperations[1].wasRun()
+    }
+
+    def "should keep serving the other connection queues after a queue was terminated"() {
+        given:
+        def radioScheduler = new RadioScheduler(1)
+        def firstQueue = createQueue("AA:BB:CC:DD:EE:01", new PipelineCredits(0), null, radioScheduler, 1)
+        def secondQueue = createQueue("AA:BB:CC:DD:EE:02", new PipelineCredits(0), null, radioScheduler, 1)
+        def firstOperation = new HoldingOperation(false)
+        def secondOperation = new HoldingOperation(false)
+        firstQueue.queue(firstOperation).test()
+        secondQueue.queue(secondOperation).test()
+
+        when:
+        firstQueue.terminate(new BleDisconnectedException("AA:BB:CC:DD:EE:01", BleDisconnectedException.UNKNOWN_STATUS))
+        firstOperation.releaseQueue()
+
+        then:
+        secondOperation.wasRun()
+    }
+
+    static class HoldingOperation extends QueueOperation<Object> implements PipelinableOperation {
+
+        private final boolean pipelinable
+        private QueueReleaseInterface queueReleaseInterface
+
+        HoldingOperation(boolean pipelinable) {
+            this.pipelinable = pipelinable
+        }
+
+        @Override
+        protected void protectedRun(ObservableEmitter<Object> emitter, QueueReleaseInterface queueReleaseInterface) {
+            this.queueReleaseInterface = queueReleaseInterface
+        }
+
+        @Override
+        protected BleException provideException(DeadObjectException deadObjectException) {
+            return new BleDisconnectedException("AA:BB:CC:DD:EE:FF")
+        }
+
+        @Override
+        boolean isPipelinable() {
+            return pipelinable
+        }
+
+        boolean wasRun() {
+            return queueReleaseInterface != null
+        }
+
+        void releaseQueue() {
+            queueReleaseInterface.release()
+        }
+    }
+}
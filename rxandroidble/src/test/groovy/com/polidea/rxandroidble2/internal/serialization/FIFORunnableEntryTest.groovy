@@ -1,5 +1,7 @@
 package com.polidea.rxandroidble2.internal.serialization
 
+import com.polidea.rxandroidble2.exceptions.BleOperationQueueDeadlineException
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder
 import com.polidea.rxandroidble2.internal.operations.Operation
 import io.reactivex.Observable
 import io.reactivex.ObservableEmitter
@@ -15,12 +17,13 @@ class FIFORunnableEntryTest extends Specification {
     def mockQueueReleaseInterface = Mock QueueReleaseInterface
     def mockObservableEmitter = Mock ObservableEmitter
     def mockQueueSemaphore = Mock QueueSemaphore
+    def mockQueueMetricsRecorder = Mock QueueMetricsRecorder
     def testException = new RuntimeException("test")
 
     FIFORunnableEntry objectUnderTest
 
     void setup() {
-        objectUnderTest = new FIFORunnableEntry(mockOperation, mockObservableEmitter)
+        objectUnderTest = new FIFORunnableEntry(mockOperation, mockObservableEmitter, mockQueueMetricsRecorder)
     }
 
     def "should release the semaphore if ObservableEmitter.isDisposed() returns true at the time of run"() {
@@ -110,4 +113,69 @@ class FIFORunnableEntryTest extends Specification {
         then:
         operationWasRun.get()
     }
+
+    def "should record the queue wait time when the operation is started"() {
+        given:
+        mockObservableEmitter.isDisposed() >> false
+        mockOperation.run(_) >> Observable.never()
+
+        when:
+        objectUnderTest.run(mockQueueSemaphore, TrampolineScheduler.instance())
+
+        then:
+        1 * mockQueueMetricsRecorder.onOperationStarted(mockOperation, { it >= 0 })
+    }
+
+    def "should record the time to the first callback only once"() {
+        given:
+        mockObservableEmitter.isDisposed() >> false
+        mockOperation.run(_) >> Observable.just(1, 2)
+
+        when:
+        objectUnderTest.run(mockQueueSemaphore, TrampolineScheduler.instance())
+
+        then:
+        1 * mockQueueMetricsRecorder.onOperationFirstCallback(mockOperation, { it >= 0 })
+    }
+
+    def "should record the total time of a started operation"() {
+        given:
+        mockObservableEmitter.isDisposed() >> false
+        mockOperation.run(_) >> Observable.never()
+        objectUnderTest.run(mockQueueSemaphore, TrampolineScheduler.instance())
+
+        when:
+        objectUnderTest.recordFinished()
+
+        then:
+        1 * mockQueueMetricsRecorder.onOperationFinished(mockOperation, { it >= 0 })
+    }
+
+    def "should not record latencies of a skipped operation"() {
+        given:
+        mockObservableEmitter.isDisposed() >> true
+
+        when:
+        objectUnderTest.run(mockQueueSemaphore, TrampolineScheduler.instance())
+        objectUnderTest.recordFinished()
+
+        then:
+        0 * mockQueueMetricsRecorder._
+    }
+
+    def "should not run operation and emit an error if it waited in the queue longer than its max queue time"() {
+        given:
+        objectUnderTest = new FIFORunnableEntry(mockOperation, mockObservableEmitter, mockQueueMetricsRecorder, 0)
+        mockObservableEmitter.isDisposed() >> false
+        Thread.sleep(1)
+
+        when:
+        objectUnderTest.run(mockQueueSemaphore, TrampolineScheduler.instance())
+
+        then:
+        0 * mockOperation.run(_)
+        1 * mockObservableEmitter.tryOnError({ it instanceof BleOperationQueueDeadlineException })
+        1 * mockQueueMetricsRecorder.onOperationShed(mockOperation)
+        1 * mockQueueSemaphore.release()
+    }
 }
@@ -0,0 +1,80 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import com.polidea.rxandroidble2.MockOperation
+import com.polidea.rxandroidble2.OperationSchedulingPolicy
+import com.polidea.rxandroidble2.internal.Priority
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder
+import spock.lang.Ignore
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.PriorityBlockingQueue
+
+class OperationPriorityFifoBlockingQueuePerformanceTest extends Specification {
+
+    def priorities = [Priority.LOW, Priority.NORMAL, Priority.HIGH]
+
+    def "sanity check"() {
+
+        expect:
+        priorities.size() == 3
+    }
+
+    @Ignore // not needed to be performed each time
+    @Unroll
+    def "performance test mass dispose of #entriesCount queued entries"() {
+        given:
+        def entries = createEntries(entriesCount)
+        def objectUnderTest = new OperationPriorityFifoBlockingQueue(OperationSchedulingPolicy.strictPriority())
+        entries.each { objectUnderTest.add(it) }
+        def startedTimestamp = System.nanoTime()
+
+        when:
+        entries.each { objectUnderTest.remove(it) }
+
+        then:
+        objectUnderTest.isEmpty()
+        println("Removing $entriesCount entries took ${(System.nanoTime() - startedTimestamp) / 1000}us (intrusive lists)")
+
+        where:
+        entriesCount << [100, 1000, 10000]
+    }
+
+    @Ignore // not needed to be performed each time
+    @Unroll
+    def "performance test mass dispose of #entriesCount queued entries (PriorityBlockingQueue reference)"() {
+        given:
+        def entries = createEntries(entriesCount)
+        def objectUnderTest = new PriorityBlockingQueue<FIFORunnableEntry>()
+        entries.each { objectUnderTest.add(it) }
+        def startedTimestamp = System.nanoTime()
+
+        when:
+        entries.each { FIFORunnableEntry entryToRemove ->
+            // mirrors the previous implementation — identity scan followed by remove()
+            for (FIFORunnableEntry entry : objectUnderTest) {
+                if (entry.is(entryToRemove)) {
+                    objectUnderTest.remove(entry)
+                    break
+                }
+            }
+        }
+
+        then:
+        objectUnderTest.isEmpty()
+        println("Removing $entriesCount entries took ${(System.nanoTime() - startedTimestamp) / 1000}us (PriorityBlockingQueue)")
+
+        where:
+        entriesCount << [100, 1000, 10000]
+    }
+
+    private List<FIFORunnableEntry> createEntries(int count) {
+        def random = new Random(0)
+        def queueMetricsRecorder = new QueueMetricsRecorder(null)
+        def entries = (0..<count).collect {
+            new FIFORunnableEntry(MockOperation.mockOperation(priorities[random.nextInt(priorities.size())]), null, queueMetricsRecorder)
+        }
+        Collections.shuffle(entries, random)
+        return entries
+    }
+}
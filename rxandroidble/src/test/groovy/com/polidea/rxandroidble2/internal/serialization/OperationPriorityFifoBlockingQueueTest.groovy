@@ -1,7 +1,9 @@
 package com.polidea.rxandroidble2.internal.serialization
 
 import com.polidea.rxandroidble2.MockOperation
+import com.polidea.rxandroidble2.OperationSchedulingPolicy
 import com.polidea.rxandroidble2.internal.Priority
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder
 import com.polidea.rxandroidble2.internal.operations.Operation
 import spock.lang.Shared
 import spock.lang.Specification
@@ -22,12 +24,13 @@ public class OperationPriorityFifoBlockingQueueTest extends Specification {
     def static highPriority1 = MockOperation.mockOperation(HIGH)
     def static highPriority2 = MockOperation.mockOperation(HIGH)
 
-    @Shared def static entryOperation0 = new FIFORunnableEntry(MockOperation.mockOperation(NORMAL), null)
-    @Shared def static entryOperation1 = new FIFORunnableEntry(MockOperation.mockOperation(NORMAL), null)
+    @Shared def static queueMetricsRecorder = new QueueMetricsRecorder(null)
+    @Shared def static entryOperation0 = new FIFORunnableEntry(MockOperation.mockOperation(NORMAL), null, queueMetricsRecorder)
+    @Shared def static entryOperation1 = new FIFORunnableEntry(MockOperation.mockOperation(NORMAL), null, queueMetricsRecorder)
     OperationPriorityFifoBlockingQueue objectUnderTest
 
     def setup() {
-        objectUnderTest = new OperationPriorityFifoBlockingQueue()
+        objectUnderTest = new OperationPriorityFifoBlockingQueue(OperationSchedulingPolicy.strictPriority())
     }
 
     @Unroll
@@ -35,7 +38,7 @@ public class OperationPriorityFifoBlockingQueueTest extends Specification {
 
         given:
         for (Operation operation : entryOrder) {
-            objectUnderTest.add(new FIFORunnableEntry(operation, null))
+            objectUnderTest.add(new FIFORunnableEntry(operation, null, queueMetricsRecorder))
         }
 
         expect:
@@ -82,6 +85,80 @@ public class OperationPriorityFifoBlockingQueueTest extends Specification {
         [entryOperation0, entryOperation1] | [entryOperation1, entryOperation0] | []
     }
 
+    def "should keep the order of remaining entries when removing an entry from the middle"() {
+        given:
+        def entries = [lowPriority0, normalPriority0, normalPriority1, normalPriority2, highPriority0].collect {
+            new FIFORunnableEntry(it, null, queueMetricsRecorder)
+        }
+        entries.each { objectUnderTest.add(it) }
+
+        when:
+        def removed = objectUnderTest.remove(entries[2])
+
+        then:
+        removed
+        dumpQueueOperations() == [highPriority0, normalPriority0, normalPriority2, lowPriority0]
+    }
+
+    def "should not remove an entry that was already taken"() {
+        given:
+        def entry = new FIFORunnableEntry(normalPriority0, null, queueMetricsRecorder)
+        objectUnderTest.add(entry)
+        objectUnderTest.takeNow()
+
+        expect:
+        !objectUnderTest.remove(entry)
+        objectUnderTest.isEmpty()
+    }
+
+    def "should not remove an entry that was never added"() {
+        given:
+        objectUnderTest.add(new FIFORunnableEntry(normalPriority0, null, queueMetricsRecorder))
+
+        expect:
+        !objectUnderTest.remove(new FIFORunnableEntry(normalPriority1, null, queueMetricsRecorder))
+        !objectUnderTest.isEmpty()
+    }
+
+    def "should take an entry before higher priority entries once it was overtaken the maximum number of times"() {
+        given:
+        objectUnderTest = new OperationPriorityFifoBlockingQueue(OperationSchedulingPolicy.aging(2))
+        [lowPriority0, highPriority0, highPriority1, highPriority2].each {
+            objectUnderTest.add(new FIFORunnableEntry(it, null, queueMetricsRecorder))
+        }
+
+        expect:
+        dumpQueueOperations() == [highPriority0, highPriority1, lowPriority0, highPriority2]
+    }
+
+    def "should take aged entries starting from the highest priority and not age entries of higher priorities"() {
+        given:
+        objectUnderTest = new OperationPriorityFifoBlockingQueue(OperationSchedulingPolicy.aging(1))
+        [normalPriority0, lowPriority0, highPriority0, highPriority1].each {
+            objectUnderTest.add(new FIFORunnableEntry(it, null, queueMetricsRecorder))
+        }
+
+        expect:
+        dumpQueueOperations() == [highPriority0, normalPriority0, lowPriority0, highPriority1]
+    }
+
+    def "should age only the first entry of each priority"() {
+        given:
+        objectUnderTest = new OperationPriorityFifoBlockingQueue(OperationSchedulingPolicy.aging(1))
+        [lowPriority0, lowPriority1, highPriority0, highPriority1, highPriority2].each {
+            objectUnderTest.add(new FIFORunnableEntry(it, null, queueMetricsRecorder))
+        }
+
+        expect:
+        dumpQueueOperations() == [highPriority0, lowPriority0, highPriority1, lowPriority1, highPriority2]
+    }
+
+    def "should return null from takeNow() when empty"() {
+
+        expect:
+        objectUnderTest.takeNow() == null
+    }
+
     private List<Operation> dumpQueueOperations() {
         def operationsQueueList = new ArrayList<Operation>()
 
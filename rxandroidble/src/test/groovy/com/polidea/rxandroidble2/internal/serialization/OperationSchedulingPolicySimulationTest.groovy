@@ -0,0 +1,88 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import com.polidea.rxandroidble2.MockOperation
+import com.polidea.rxandroidble2.OperationSchedulingPolicy
+import com.polidea.rxandroidble2.internal.Priority
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Simulates an operation queue that is flooded with HIGH priority operations — two are queued for every operation that is
+ * taken — while NORMAL and LOW priority operations arrive occasionally. Waiting times are counted in taken operations.
+ */
+class OperationSchedulingPolicySimulationTest extends Specification {
+
+    private static final int STEPS = 10_000
+    private static final int RARE_ARRIVALS_INTERVAL = 50
+    def queueMetricsRecorder = new QueueMetricsRecorder(null)
+
+    def "should starve lower priority operations with the strict priority policy"() {
+
+        when:
+        def result = simulate(OperationSchedulingPolicy.strictPriority())
+
+        then:
+        result.waits[Priority.NORMAL].isEmpty()
+        result.waits[Priority.LOW].isEmpty()
+        result.waits[Priority.HIGH].size() == STEPS
+    }
+
+    @Unroll
+    def "should bound waiting time of lower priority operations with the aging policy (maxOvertakes=#maxOvertakes)"() {
+
+        given:
+        // an operation is taken after it was overtaken maxOvertakes times or after an aged operation of each higher priority
+        def waitBound = (maxOvertakes + 1) * 3
+
+        when:
+        def result = simulate(OperationSchedulingPolicy.aging(maxOvertakes))
+
+        then:
+        println("maxOvertakes=$maxOvertakes: max NORMAL wait ${result.waits[Priority.NORMAL].max()},"
+                + " max LOW wait ${result.waits[Priority.LOW].max()}, bound $waitBound")
+        result.waits[Priority.NORMAL].max() <= waitBound
+        result.waits[Priority.LOW].max() <= waitBound
+
+        and:
+        result.notTakenQueuedAtSteps(Priority.NORMAL).every { it > STEPS - waitBound }
+        result.notTakenQueuedAtSteps(Priority.LOW).every { it > STEPS - waitBound }
+
+        and: "HIGH priority operations still get most of the queue"
+        result.waits[Priority.HIGH].size() > STEPS * 0.9
+
+        where:
+        maxOvertakes << [1, 4, 16]
+    }
+
+    private SimulationResult simulate(OperationSchedulingPolicy policy) {
+        def queue = new OperationPriorityFifoBlockingQueue(policy)
+        def result = new SimulationResult()
+        STEPS.times { int step ->
+            2.times { queueEntry(queue, result, Priority.HIGH, step) }
+            if (step % RARE_ARRIVALS_INTERVAL == 0) {
+                queueEntry(queue, result, Priority.NORMAL, step)
+                queueEntry(queue, result, Priority.LOW, step)
+            }
+            def takenEntry = queue.takeNow()
+            result.waits[takenEntry.operation.definedPriority()] << step - result.queuedAtSteps.remove(takenEntry)
+        }
+        return result
+    }
+
+    private void queueEntry(OperationPriorityFifoBlockingQueue queue, SimulationResult result, Priority priority, int step) {
+        def entry = new FIFORunnableEntry(MockOperation.mockOperation(priority), null, queueMetricsRecorder)
+        result.queuedAtSteps.put(entry, step)
+        queue.add(entry)
+    }
+
+    private static class SimulationResult {
+
+        Map<Priority, List<Integer>> waits = [(Priority.HIGH): [], (Priority.NORMAL): [], (Priority.LOW): []]
+        Map<FIFORunnableEntry, Integer> queuedAtSteps = new IdentityHashMap<>()
+
+        List<Integer> notTakenQueuedAtSteps(Priority priority) {
+            queuedAtSteps.findAll { it.key.operation.definedPriority().is(priority) }.collect { it.value }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.polidea.rxandroidble2.internal.serialization
 
 import com.polidea.rxandroidble2.MockOperation
+import com.polidea.rxandroidble2.OperationSchedulingPolicy
+import com.polidea.rxandroidble2.internal.metrics.OperationQueueMetricsRecorder
 import io.reactivex.ObservableEmitter
 import io.reactivex.Scheduler
 import io.reactivex.schedulers.Schedulers
@@ -19,7 +21,8 @@ class OperationSynchronizerTest extends Specification {
     ClientOperationQueueImpl objectUnderTest
 
     void setup() {
-        objectUnderTest = new ClientOperationQueueImpl(createSchedulerWithNamedThread(THREAD_NAME))
+        objectUnderTest = new ClientOperationQueueImpl(Executors.newSingleThreadExecutor(), createSchedulerWithNamedThread(THREAD_NAME),
+                new OperationQueueMetricsRecorder(), OperationSchedulingPolicy.strictPriority())
     }
 
     def "should run operation instantly if queue is empty and no operation is in progress"() {
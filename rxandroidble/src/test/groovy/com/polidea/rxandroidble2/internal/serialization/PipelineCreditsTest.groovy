@@ -0,0 +1,152 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import com.polidea.rxandroidble2.MockOperation
+import com.polidea.rxandroidble2.internal.Priority
+import com.polidea.rxandroidble2.internal.operations.Operation
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PipelineCreditsTest extends Specification {
+
+    PipelineCredits objectUnderTest
+
+    @Unroll
+    def "should allow pipelining only of pipelinable operations when enabled (maxCredits=#maxCredits, pipelinable=#pipelinable)"() {
+        given:
+        objectUnderTest = new PipelineCredits(maxCredits)
+        Operation operation = Mock(PipelinableOperationStub)
+        operation.isPipelinable() >> pipelinable
+
+        expect:
+        objectUnderTest.canPipeline(operation) == expectedResult
+
+        where:
+        maxCredits | pipelinable | expectedResult
+        0          | true        | false
+        0          | false       | false
+        1          | false       | false
+        1          | true        | true
+        4          | true        | true
+    }
+
+    def "should not allow pipelining of operations not implementing PipelinableOperation"() {
+        given:
+        objectUnderTest = new PipelineCredits(4)
+
+        expect:
+        !objectUnderTest.canPipeline(MockOperation.mockOperation(Priority.NORMAL))
+    }
+
+    def "should not give a credit when all credits are taken until onCharacteristicWrite() is called"() {
+        given:
+        objectUnderTest = new PipelineCredits(2)
+        objectUnderTest.tryAcquire()
+        objectUnderTest.tryAcquire()
+
+        expect:
+        objectUnderTest.tryAcquire() == null
+
+        when:
+        objectUnderTest.onCharacteristicWrite()
+
+        then:
+        objectUnderTest.tryAcquire() != null
+    }
+
+    def "should return credit when released by the operation"() {
+        given:
+        objectUnderTest = new PipelineCredits(1)
+        def credit = objectUnderTest.tryAcquire()
+
+        expect:
+        objectUnderTest.hasOutstandingCredits()
+
+        when:
+        credit.release()
+
+        then:
+        !objectUnderTest.hasOutstandingCredits()
+    }
+
+    def "should not return another credit when an already returned credit is released"() {
+        given:
+        objectUnderTest = new PipelineCredits(2)
+        def firstCredit = objectUnderTest.tryAcquire()
+        objectUnderTest.tryAcquire()
+        objectUnderTest.onCharacteristicWrite() // returns the first credit
+
+        when:
+        firstCredit.release()
+
+        then:
+        objectUnderTest.hasOutstandingCredits()
+    }
+
+    def "should hold the credit of a started write released by the operation until its callback"() {
+        given:
+        objectUnderTest = new PipelineCredits(1)
+        def credit = objectUnderTest.tryAcquire()
+        objectUnderTest.onPipelinedWriteStarting()
+
+        when:
+        credit.release()
+
+        then:
+        objectUnderTest.hasOutstandingCredits()
+
+        when:
+        objectUnderTest.onCharacteristicWrite()
+
+        then:
+        !objectUnderTest.hasOutstandingCredits()
+    }
+
+    def "should return the credit of a write which could not be started when released by the operation"() {
+        given:
+        objectUnderTest = new PipelineCredits(1)
+        def credit = objectUnderTest.tryAcquire()
+        objectUnderTest.onPipelinedWriteStarting()
+
+        when:
+        objectUnderTest.onPipelinedWriteNotStarted()
+        credit.release()
+
+        then:
+        !objectUnderTest.hasOutstandingCredits()
+    }
+
+    def "should notify the listener each time a credit is returned"() {
+        given:
+        objectUnderTest = new PipelineCredits(2)
+        def listener = Mock(Runnable)
+        objectUnderTest.setCreditReturnedListener(listener)
+        def firstCredit = objectUnderTest.tryAcquire()
+        objectUnderTest.tryAcquire()
+
+        when:
+        objectUnderTest.onCharacteristicWrite()
+        firstCredit.release()
+        objectUnderTest.onCharacteristicWrite()
+
+        then:
+        2 * listener.run()
+    }
+
+    def "should ignore onCharacteristicWrite() when no credits are outstanding"() {
+        given:
+        objectUnderTest = new PipelineCredits(1)
+        def listener = Mock(Runnable)
+        objectUnderTest.setCreditReturnedListener(listener)
+
+        when:
+        objectUnderTest.onCharacteristicWrite()
+
+        then:
+        0 * listener.run()
+        !objectUnderTest.hasOutstandingCredits()
+    }
+
+    interface PipelinableOperationStub extends Operation<Object>, PipelinableOperation {
+
+    }
+}
@@ -0,0 +1,138 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import com.polidea.rxandroidble2.ClientSetup
+import com.polidea.rxandroidble2.MockOperation
+import com.polidea.rxandroidble2.OperationSchedulingPolicy
+import com.polidea.rxandroidble2.internal.connection.DisconnectionRouterOutput
+import com.polidea.rxandroidble2.internal.metrics.OperationQueueMetricsRecorder
+import com.polidea.rxandroidble2.internal.metrics.QueueMetricsRecorder
+import io.reactivex.Observable
+import io.reactivex.schedulers.Schedulers
+import spock.lang.Ignore
+import spock.lang.Specification
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.polidea.rxandroidble2.internal.Priority.NORMAL
+
+/**
+ * Compares the event loop queue driver with the previous design where every connection queue parked a thread of a cached thread
+ * pool in a blocking take() loop.
+ */
+class QueueDrainerPerformanceTest extends Specification {
+
+    def connectionsCount = 64
+    def operationsPerConnection = 500
+    def threadMXBean = ManagementFactory.getThreadMXBean()
+
+    def "sanity check"() {
+
+        expect:
+        connectionsCount > 0
+    }
+
+    @Ignore // not needed to be performed each time
+    def "performance test event loop queue driver"() {
+        given:
+        def interactionExecutor = Executors.newSingleThreadExecutor()
+        def wakeUps = new AtomicInteger()
+        def queueDriverExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>()) {
+            @Override
+            protected void beforeExecute(Thread t, Runnable r) {
+                wakeUps.incrementAndGet()
+            }
+        }
+        def threadsBefore = threadMXBean.getThreadCount()
+        def heapBefore = usedHeap()
+        def startedTimestamp = System.currentTimeMillis()
+
+        when:
+        def queues = (1..connectionsCount).collect {
+            new ConnectionOperationQueueImpl("MacAddress", Mock(DisconnectionRouterOutput), queueDriverExecutor,
+                    Schedulers.from(interactionExecutor), new PipelineCredits(0), new OperationQueueMetricsRecorder(),
+                    OperationSchedulingPolicy.strictPriority(), null,
+                    new RadioScheduler(ClientSetup.UNLIMITED_CONCURRENT_GATT_OPERATIONS), 1)
+        }
+        def threadsWithQueues = threadMXBean.getThreadCount()
+        def heapWithQueues = usedHeap()
+        runOperations { int queueIndex, MockOperation operation -> queues[queueIndex].queue(operation) }
+
+        then:
+        println("Event loop driver: ${threadsWithQueues - threadsBefore} additional threads, ${heapWithQueues - heapBefore}B heap"
+                + " for $connectionsCount queues, $wakeUps wake ups for ${connectionsCount * operationsPerConnection} operations,"
+                + " took ${System.currentTimeMillis() - startedTimestamp}ms")
+
+        cleanup:
+        queueDriverExecutor.shutdown()
+        interactionExecutor.shutdown()
+    }
+
+    @Ignore // not needed to be performed each time
+    def "performance test thread per connection queue driver (reference)"() {
+        given:
+        def interactionScheduler = Schedulers.from(Executors.newSingleThreadExecutor())
+        def wakeUps = new AtomicInteger()
+        ExecutorService cachedThreadPool = Executors.newCachedThreadPool()
+        def threadsBefore = threadMXBean.getThreadCount()
+        def heapBefore = usedHeap()
+        def startedTimestamp = System.currentTimeMillis()
+
+        when:
+        def queues = (1..connectionsCount).collect {
+            def queue = new OperationPriorityFifoBlockingQueue(OperationSchedulingPolicy.strictPriority())
+            cachedThreadPool.submit {
+                while (!Thread.currentThread().isInterrupted()) {
+                    def entry = queue.take()
+                    wakeUps.incrementAndGet()
+                    def semaphore = new QueueSemaphore()
+                    entry.run(semaphore, interactionScheduler)
+                    semaphore.awaitRelease()
+                    wakeUps.incrementAndGet()
+                }
+            }
+            queue
+        }
+        Thread.sleep(100) // let the threads start and park
+        def threadsWithQueues = threadMXBean.getThreadCount()
+        def heapWithQueues = usedHeap()
+        def queueMetricsRecorder = new QueueMetricsRecorder(null)
+        runOperations { int queueIndex, MockOperation operation ->
+            Observable.create { emitter -> queues[queueIndex].add(new FIFORunnableEntry(operation, emitter, queueMetricsRecorder)) }
+        }
+
+        then:
+        println("Thread per queue driver: ${threadsWithQueues - threadsBefore} additional threads, ${heapWithQueues - heapBefore}B heap"
+                + " for $connectionsCount queues, $wakeUps wake ups for ${connectionsCount * operationsPerConnection} operations,"
+                + " took ${System.currentTimeMillis() - startedTimestamp}ms")
+
+        cleanup:
+        cachedThreadPool.shutdownNow()
+    }
+
+    private void runOperations(Closure<Observable<Object>> queueOperation) {
+        def operations = []
+        connectionsCount.times { int queueIndex ->
+            operationsPerConnection.times {
+                def operation = MockOperation.mockOperation(NORMAL) { it.onComplete() }
+                operations.add(operation)
+                queueOperation(queueIndex, operation).subscribe()
+            }
+        }
+        Observable.fromIterable(operations)
+                .flatMap({ MockOperation operation -> operation.getFinishedRunningObservable().take(1) })
+                .ignoreElements()
+                .blockingAwait(1, TimeUnit.MINUTES)
+    }
+
+    private static long usedHeap() {
+        System.gc()
+        def runtime = Runtime.getRuntime()
+        return runtime.totalMemory() - runtime.freeMemory()
+    }
+}
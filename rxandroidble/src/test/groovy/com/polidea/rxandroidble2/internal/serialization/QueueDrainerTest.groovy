@@ -0,0 +1,113 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import com.polidea.rxandroidble2.exceptions.BleException
+import spock.lang.Specification
+
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+
+class QueueDrainerTest extends Specification {
+
+    List<Runnable> scheduledRunnables = []
+    Executor capturingExecutor = { Runnable runnable -> scheduledRunnables.add(runnable) } as Executor
+    int drainPassCount = 0
+    QueueDrainer.RejectionHandler rejectionHandler = Mock QueueDrainer.RejectionHandler
+
+    def "should schedule a single drain loop for requests made before it was run"() {
+        given:
+        def objectUnderTest = new QueueDrainer(capturingExecutor, { drainPassCount++ } as Runnable, rejectionHandler)
+
+        when:
+        3.times { objectUnderTest.requestDrain() }
+
+        then:
+        scheduledRunnables.size() == 1
+
+        when:
+        scheduledRunnables[0].run()
+
+        then:
+        drainPassCount == 1
+    }
+
+    def "should run one more drain pass if requested while a pass was running"() {
+        given:
+        QueueDrainer objectUnderTest
+        objectUnderTest = new QueueDrainer(capturingExecutor, {
+            if (drainPassCount++ == 0) {
+                objectUnderTest.requestDrain()
+            }
+        } as Runnable, rejectionHandler)
+        objectUnderTest.requestDrain()
+
+        when:
+        scheduledRunnables[0].run()
+
+        then:
+        drainPassCount == 2
+        scheduledRunnables.size() == 1
+    }
+
+    def "should schedule a new drain loop when requested after the previous one has finished"() {
+        given:
+        def objectUnderTest = new QueueDrainer(capturingExecutor, { drainPassCount++ } as Runnable, rejectionHandler)
+        objectUnderTest.requestDrain()
+        scheduledRunnables[0].run()
+
+        when:
+        objectUnderTest.requestDrain()
+
+        then:
+        scheduledRunnables.size() == 2
+    }
+
+    def "should continue draining after a drain pass has thrown"() {
+        given:
+        def objectUnderTest = new QueueDrainer(capturingExecutor, {
+            drainPassCount++
+            throw new RuntimeException("test")
+        } as Runnable, rejectionHandler)
+        objectUnderTest.requestDrain()
+        scheduledRunnables[0].run()
+
+        when:
+        objectUnderTest.requestDrain()
+        scheduledRunnables[1].run()
+
+        then:
+        drainPassCount == 2
+    }
+
+    def "should pass the rejection of the drain to the handler and drain again once the executor accepts"() {
+        given:
+        boolean isShutDown = true
+        Executor rejectingExecutor = { Runnable runnable ->
+            if (isShutDown) {
+                throw new RejectedExecutionException("test")
+            }
+            scheduledRunnables.add(runnable)
+        } as Executor
+        def objectUnderTest = new QueueDrainer(rejectingExecutor, { drainPassCount++ } as Runnable, rejectionHandler)
+
+        when:
+        objectUnderTest.requestDrain()
+
+        then:
+        1 * rejectionHandler.onDrainRejected({ it instanceof BleException && it.cause instanceof RejectedExecutionException })
+
+        when:
+        objectUnderTest.requestDrain()
+
+        then:
+        1 * rejectionHandler.onDrainRejected(_)
+
+        when:
+        isShutDown = false
+        objectUnderTest.requestDrain()
+        scheduledRunnables[0].run()
+
+        then:
+        0 * rejectionHandler.onDrainRejected(_)
+        drainPassCount == 1
+    }
+}
@@ -0,0 +1,154 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import com.polidea.rxandroidble2.ClientSetup
+import spock.lang.Specification
+
+class RadioSchedulerTest extends Specification {
+
+    def "should always acquire a slot if the number of concurrent operations is not limited"() {
+        given:
+        def objectUnderTest = new RadioScheduler(ClientSetup.UNLIMITED_CONCURRENT_GATT_OPERATIONS)
+        def participant = objectUnderTest.register(1, Mock(Runnable))
+
+        expect:
+        (1..100).every { participant.tryAcquire() != null }
+    }
+
+    def "should not acquire more slots than the limit"() {
+        given:
+        def objectUnderTest = new RadioScheduler(2)
+        def firstParticipant = objectUnderTest.register(1, Mock(Runnable))
+        def secondParticipant = objectUnderTest.register(1, Mock(Runnable))
+
+        expect:
+        firstParticipant.tryAcquire() != null
+        secondParticipant.tryAcquire() != null
+        firstParticipant.tryAcquire() == null
+        secondParticipant.tryAcquire() == null
+    }
+
+    def "should grant a released slot to a waiting participant and notify it"() {
+        given:
+        def objectUnderTest = new RadioScheduler(1)
+        def firstParticipant = objectUnderTest.register(1, Mock(Runnable))
+        def secondListener = Mock(Runnable)
+        def secondParticipant = objectUnderTest.register(1, secondListener)
+        def slot = firstParticipant.tryAcquire()
+        secondParticipant.tryAcquire()
+
+        when:
+        slot.release()
+
+        then:
+        1 * secondListener.run()
+
+        and:
+        firstParticipant.tryAcquire() == null
+        secondParticipant.tryAcquire() != null
+    }
+
+    def "should release a slot only once"() {
+        given:
+        def objectUnderTest = new RadioScheduler(1)
+        def participant = objectUnderTest.register(1, Mock(Runnable))
+        def slot = participant.tryAcquire()
+
+        when:
+        slot.release()
+        slot.release()
+
+        then:
+        participant.tryAcquire() != null
+        participant.tryAcquire() == null
+    }
+
+    def "should serve participants with equal weights round-robin"() {
+        given:
+        def objectUnderTest = new RadioScheduler(1)
+        def grants = []
+        def participants = (0..2).collect { index -> objectUnderTest.register(1, { grants.add(index) } as Runnable) }
+        def holder = participants[0]
+        def slot = holder.tryAcquire()
+
+        when:
+        6.times {
+            participants.findAll { !it.is(holder) }.each { it.tryAcquire() } // every participant not holding the slot is waiting
+            slot.release()
+            holder = participants[grants.last()]
+            slot = holder.tryAcquire()
+        }
+
+        then:
+        grants == [1, 2, 0, 1, 2, 0]
+    }
+
+    def "should serve participants according to their weights"() {
+        given:
+        def objectUnderTest = new RadioScheduler(1)
+        def grants = []
+        def heavyParticipant = objectUnderTest.register(3, { grants.add("heavy") } as Runnable)
+        def lightParticipant = objectUnderTest.register(1, { grants.add("light") } as Runnable)
+        def participants = ["heavy": heavyParticipant, "light": lightParticipant]
+        def holder = lightParticipant
+        def slot = holder.tryAcquire()
+
+        when:
+        8.times {
+            participants.values().findAll { !it.is(holder) }.each { it.tryAcquire() }
+            slot.release()
+            holder = participants[grants.last()]
+            slot = holder.tryAcquire()
+        }
+
+        then:
+        grants == ["heavy", "heavy", "heavy", "light", "heavy", "heavy", "heavy", "light"]
+    }
+
+    def "should hand over the rest of the turn to the next participant when the slots granted back are returned"() {
+        given:
+        def objectUnderTest = new RadioScheduler(1)
+        def heavyListener = Mock(Runnable)
+        def heavyParticipant = objectUnderTest.register(3, heavyListener)
+        def lightListener = Mock(Runnable)
+        def lightParticipant = objectUnderTest.register(1, lightListener)
+        def slot = lightParticipant.tryAcquire()
+        heavyParticipant.tryAcquire()
+        slot.release() // granted to the heavy participant which starts its turn
+        slot = heavyParticipant.tryAcquire()
+        lightParticipant.tryAcquire()
+
+        when:
+        slot.release()
+
+        then:
+        1 * heavyListener.run()
+        0 * lightListener.run()
+
+        when:
+        heavyParticipant.returnGrantedSlots()
+
+        then:
+        1 * lightListener.run()
+        lightParticipant.tryAcquire() != null
+    }
+
+    def "should hand over the slots granted to an unregistered participant"() {
+        given:
+        def objectUnderTest = new RadioScheduler(1)
+        def firstParticipant = objectUnderTest.register(1, Mock(Runnable))
+        def secondParticipant = objectUnderTest.register(1, Mock(Runnable))
+        def thirdListener = Mock(Runnable)
+        def thirdParticipant = objectUnderTest.register(1, thirdListener)
+        def slot = firstParticipant.tryAcquire()
+        secondParticipant.tryAcquire()
+        slot.release() // granted to the second participant
+        thirdParticipant.tryAcquire()
+
+        when:
+        secondParticipant.unregister()
+
+        then:
+        1 * thirdListener.run()
+        thirdParticipant.tryAcquire() != null
+    }
+}
@@ -0,0 +1,111 @@
+package com.polidea.rxandroidble2.internal.serialization
+
+import io.reactivex.schedulers.Schedulers
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class TimerWheelSchedulerTest extends Specification {
+
+    TimerWheelScheduler objectUnderTest = new TimerWheelScheduler(Schedulers.trampoline(), new RxBleThreadFactory(), 1,
+            TimeUnit.MILLISECONDS, 8)
+
+    def cleanup() {
+        objectUnderTest.shutdown()
+    }
+
+    def "should run a task not before its delay has passed"() {
+        given:
+        def latch = new CountDownLatch(1)
+        def startTime = System.nanoTime()
+        long runTime = 0
+
+        when:
+        objectUnderTest.scheduleDirect({ runTime = System.nanoTime(); latch.countDown() } as Runnable, delayMillis, TimeUnit.MILLISECONDS)
+
+        then:
+        latch.await(5, TimeUnit.SECONDS)
+        TimeUnit.NANOSECONDS.toMillis(runTime - startTime) >= delayMillis
+
+        where:
+        // the second delay takes a few rounds of the wheel
+        delayMillis << [5, 30]
+    }
+
+    def "should not run a disposed task"() {
+        given:
+        def runCount = new AtomicInteger()
+        def disposable = objectUnderTest.scheduleDirect({ runCount.incrementAndGet() } as Runnable, 20, TimeUnit.MILLISECONDS)
+
+        when:
+        disposable.dispose()
+        Thread.sleep(60)
+
+        then:
+        runCount.get() == 0
+        disposable.isDisposed()
+        objectUnderTest.getActiveCount() == 0
+    }
+
+    def "should not run the tasks of a disposed worker"() {
+        given:
+        def runCount = new AtomicInteger()
+        def worker = objectUnderTest.createWorker()
+        worker.schedule({ runCount.incrementAndGet() } as Runnable, 10, TimeUnit.MILLISECONDS)
+        worker.schedule({ runCount.incrementAndGet() } as Runnable, 20, TimeUnit.MILLISECONDS)
+
+        when:
+        worker.dispose()
+        Thread.sleep(60)
+
+        then:
+        runCount.get() == 0
+        objectUnderTest.getActiveCount() == 0
+    }
+
+    def "should run the tasks of a worker in the order they are due"() {
+        given:
+        def latch = new CountDownLatch(2)
+        def runOrder = Collections.synchronizedList([])
+        def worker = objectUnderTest.createWorker()
+
+        when:
+        worker.schedule({ runOrder.add(2); latch.countDown() } as Runnable, 20, TimeUnit.MILLISECONDS)
+        worker.schedule({ runOrder.add(1); latch.countDown() } as Runnable, 5, TimeUnit.MILLISECONDS)
+
+        then:
+        latch.await(5, TimeUnit.SECONDS)
+        runOrder == [1, 2]
+
+        cleanup:
+        worker.dispose()
+    }
+
+    def "should count only the tasks which are neither due nor disposed"() {
+        given:
+        def firstDisposable = objectUnderTest.scheduleDirect({} as Runnable, 1, TimeUnit.MINUTES)
+        objectUnderTest.scheduleDirect({} as Runnable, 1, TimeUnit.MINUTES)
+
+        when:
+        firstDisposable.dispose()
+
+        then:
+        objectUnderTest.getActiveCount() == 1
+    }
+
+    def "should not run tasks after it was shut down"() {
+        given:
+        def runCount = new AtomicInteger()
+        objectUnderTest.shutdown()
+
+        when:
+        def disposable = objectUnderTest.scheduleDirect({ runCount.incrementAndGet() } as Runnable, 5, TimeUnit.MILLISECONDS)
+        Thread.sleep(30)
+
+        then:
+        runCount.get() == 0
+        disposable.isDisposed()
+    }
+}
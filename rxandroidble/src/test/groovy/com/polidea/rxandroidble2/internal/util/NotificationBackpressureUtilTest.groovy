@@ -0,0 +1,132 @@
+package com.polidea.rxandroidble2.internal.util
+
+import com.polidea.rxandroidble2.NotificationBackpressure
+import io.reactivex.Observable
+import io.reactivex.exceptions.MissingBackpressureException
+import io.reactivex.subjects.PublishSubject
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static com.polidea.rxandroidble2.NotificationBackpressure.OverflowStrategy.DROP_LATEST
+import static com.polidea.rxandroidble2.NotificationBackpressure.OverflowStrategy.DROP_OLDEST
+import static com.polidea.rxandroidble2.NotificationBackpressure.OverflowStrategy.ERROR
+
+class NotificationBackpressureUtilTest extends Specification {
+
+    public static final byte[] VALUE_1 = [1] as byte[]
+    public static final byte[] VALUE_2 = [2] as byte[]
+    public static final byte[] VALUE_3 = [3] as byte[]
+    def valuesSubject = PublishSubject.<byte[]>create()
+
+    def "should emit the values as requested"() {
+        given:
+        def backpressure = NotificationBackpressure.bounded(2, ERROR)
+        def testSubscriber = subscribeValues(backpressure)
+        valuesSubject.onNext(VALUE_1)
+        valuesSubject.onNext(VALUE_2)
+
+        when:
+        testSubscriber.request(1)
+
+        then:
+        testSubscriber.assertValue(VALUE_1)
+
+        when:
+        testSubscriber.request(1)
+
+        then:
+        testSubscriber.assertValues(VALUE_1, VALUE_2)
+        backpressure.overflowCount == 0
+    }
+
+    @Unroll
+    def "should apply the overflow strategy when the buffer is full (#backpressure)"() {
+        given:
+        def testSubscriber = subscribeValues(backpressure)
+
+        when:
+        valuesSubject.onNext(VALUE_1)
+        valuesSubject.onNext(VALUE_2)
+        valuesSubject.onNext(VALUE_3)
+        testSubscriber.request(Long.MAX_VALUE)
+
+        then:
+        testSubscriber.assertValueSequence(expectedValues)
+        testSubscriber.assertNoErrors()
+        backpressure.overflowCount == expectedOverflowCount
+
+        where:
+        backpressure                                     | expectedValues              | expectedOverflowCount
+        NotificationBackpressure.bounded(2, DROP_OLDEST) | [VALUE_2, VALUE_3]          | 1
+        NotificationBackpressure.bounded(2, DROP_LATEST) | [VALUE_1, VALUE_3]          | 1
+        NotificationBackpressure.latest()                | [VALUE_3]                   | 2
+        NotificationBackpressure.bounded(3, DROP_OLDEST) | [VALUE_1, VALUE_2, VALUE_3] | 0
+    }
+
+    def "should emit MissingBackpressureException when the buffer is full and the overflow strategy is ERROR"() {
+        given:
+        def backpressure = NotificationBackpressure.bounded(2, ERROR)
+        def testSubscriber = subscribeValues(backpressure)
+
+        when:
+        valuesSubject.onNext(VALUE_1)
+        valuesSubject.onNext(VALUE_2)
+        valuesSubject.onNext(VALUE_3)
+
+        then:
+        testSubscriber.assertError(MissingBackpressureException)
+        backpressure.overflowCount == 1
+        !valuesSubject.hasObservers()
+    }
+
+    def "should pass the errors of the notification"() {
+        given:
+        def backpressure = NotificationBackpressure.bounded(2, ERROR)
+        def testSubscriber = subscribeValues(backpressure)
+        def testException = new RuntimeException("test")
+
+        when:
+        valuesSubject.onError(testException)
+
+        then:
+        testSubscriber.assertError(testException)
+        backpressure.overflowCount == 0
+    }
+
+    def "should count the overflows of all notifications using the same backpressure"() {
+        given:
+        def backpressure = NotificationBackpressure.latest()
+        def otherValuesSubject = PublishSubject.<byte[]>create()
+        subscribeValues(backpressure)
+        NotificationBackpressureUtil.withBackpressure(Observable.just(otherValuesSubject as Observable<byte[]>), backpressure)
+                .blockingFirst()
+                .test(0)
+
+        when:
+        valuesSubject.onNext(VALUE_1)
+        valuesSubject.onNext(VALUE_2)
+        otherValuesSubject.onNext(VALUE_1)
+        otherValuesSubject.onNext(VALUE_2)
+
+        then:
+        backpressure.overflowCount == 2
+    }
+
+    @Unroll
+    def "should not accept a buffer size lower than 1 (#bufferSize)"() {
+        when:
+        NotificationBackpressure.bounded(bufferSize, DROP_OLDEST)
+
+        then:
+        thrown IllegalArgumentException
+
+        where:
+        bufferSize << [0, -1]
+    }
+
+    private def subscribeValues(NotificationBackpressure backpressure) {
+        NotificationBackpressureUtil.withBackpressure(Observable.just(valuesSubject as Observable<byte[]>), backpressure)
+                .blockingFirst()
+                .test(0)
+    }
+}
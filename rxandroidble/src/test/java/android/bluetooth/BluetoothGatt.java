@@ -73,12 +73,18 @@ public class BluetoothGatt implements BluetoothProfile {
     public boolean writeCharacteristic(BluetoothGattCharacteristic characteristic) {
         return true;
     }
+    public int writeCharacteristic(BluetoothGattCharacteristic characteristic, byte[] value, int writeType) {
+        return BluetoothStatusCodes.SUCCESS;
+    }
     public boolean readDescriptor(BluetoothGattDescriptor descriptor) {
         return true;
     }
     public boolean writeDescriptor(BluetoothGattDescriptor descriptor) {
         return true;
     }
+    public int writeDescriptor(BluetoothGattDescriptor descriptor, byte[] value) {
+        return BluetoothStatusCodes.SUCCESS;
+    }
     public boolean beginReliableWrite() {
         return true;
     }
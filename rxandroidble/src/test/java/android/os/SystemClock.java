@@ -0,0 +1,14 @@
+package android.os;
+/**
+ * Must have implementation — used for the arrival timestamps of the callbacks
+ */
+public final class SystemClock {
+    private SystemClock() {
+    }
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1000000L;
+    }
+    public static long elapsedRealtimeNanos() {
+        return System.nanoTime();
+    }
+}